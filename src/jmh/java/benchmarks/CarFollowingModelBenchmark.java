@@ -0,0 +1,76 @@
+package benchmarks;
+
+import app.InputParametersHandeler;
+import core.utils.constants.Constants;
+import models.ICarFollowingModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/********************************************
+ * Benchmark of new speed computed by car following models, every model is measured in every scenario with the
+ * parameters it requests, so the time covers only the model and not gathering of parameters by the road. Models are
+ * given by ModelBenchmarks launcher, list here is used when benchmark is started by JMH directly.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CarFollowingModelBenchmark {
+
+    /** id of benchmarked model **/
+    @Param({"fvdm", "gipps", "juts", "helly", "idm", "kkw-linear", "kkw-quadratic", "nagel-schreckenberg",
+            "ovm-different", "ovm-original", "rule-184"})
+    public String carFollowingModel;
+
+    /** situation the car is in **/
+    @Param({"FREE_FLOW", "FOLLOWING", "JAM"})
+    public ModelScenario scenario;
+
+    /** benchmarked model **/
+    private ICarFollowingModel model;
+
+    /** parameters requested by the model **/
+    private HashMap<String, Double> parameters;
+
+    /**
+     * creates model and its parameters for the scenario
+     **/
+    @Setup(Level.Trial)
+    public void setUp() {
+        ModelBenchmarks.prepareContext();
+        this.model = InputParametersHandeler.getCarFollowingModelById(this.carFollowingModel);
+        if (this.model == null) {
+            throw new IllegalArgumentException("Unknown car following model " + this.carFollowingModel);
+        }
+        this.parameters = this.scenario.parameters(this.model.requestParameters(),
+                Constants.CELLULAR.equals(this.model.getType()));
+    }
+
+    /**
+     * computes new speed of the car
+     *
+     * @return new speed, returned so it is not eliminated
+     **/
+    @Benchmark
+    public double getNewSpeed() {
+        return this.model.getNewSpeed(this.parameters);
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import app.InputParametersHandeler;
+import core.model.Direction;
+import core.utils.constants.Constants;
+import models.ILaneChangingModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/********************************************
+ * Benchmark of lane change decision of lane changing models in every scenario. Cellular models decide once like on
+ * cellular road, continuous models decide for left and right lane like on continuous road, each with parameters it
+ * requests for the direction. Models are given by ModelBenchmarks launcher, list here is used when benchmark is
+ * started by JMH directly.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LaneChangingModelBenchmark {
+
+    /** id of benchmarked model **/
+    @Param({"f-stca", "mobil", "mobil-simple", "rickert", "rickert-transsims", "stca"})
+    public String laneChangingModel;
+
+    /** situation the car is in **/
+    @Param({"FREE_FLOW", "FOLLOWING", "JAM"})
+    public ModelScenario scenario;
+
+    /** benchmarked model **/
+    private ILaneChangingModel model;
+
+    /** whether model is cellular (one decision without direction) **/
+    private boolean cellular;
+
+    /** parameters requested by the model without direction **/
+    private HashMap<String, Double> parameters;
+
+    /** parameters requested by the model for change to the left **/
+    private HashMap<String, Double> leftParameters;
+
+    /** parameters requested by the model for change to the right **/
+    private HashMap<String, Double> rightParameters;
+
+    /**
+     * creates model and its parameters for the scenario
+     **/
+    @Setup(Level.Trial)
+    public void setUp() {
+        ModelBenchmarks.prepareContext();
+        this.model = InputParametersHandeler.getLaneChangingModelById(this.laneChangingModel);
+        if (this.model == null) {
+            throw new IllegalArgumentException("Unknown lane changing model " + this.laneChangingModel);
+        }
+        this.cellular = Constants.CELLULAR.equals(this.model.getType());
+        this.parameters = this.scenario.parameters(this.model.requestParameters(), this.cellular);
+        this.leftParameters = this.scenario.parameters(this.model.requestParameters(Direction.LEFT), this.cellular);
+        this.rightParameters = this.scenario.parameters(this.model.requestParameters(Direction.RIGHT), this.cellular);
+    }
+
+    /**
+     * decides lane change of the car
+     *
+     * @param blackhole consumer of decisions, so they are not eliminated
+     **/
+    @Benchmark
+    public void changeLaneIfDesired(Blackhole blackhole) {
+        if (this.cellular) {
+            blackhole.consume(this.model.changeLaneIfDesired(this.parameters));
+        } else {
+            blackhole.consume(this.model.changeLaneIfDesired(this.leftParameters, Direction.LEFT));
+            blackhole.consume(this.model.changeLaneIfDesired(this.rightParameters, Direction.RIGHT));
+        }
+    }
+}
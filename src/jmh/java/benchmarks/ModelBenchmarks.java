@@ -0,0 +1,95 @@
+package benchmarks;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.utils.RunDetails;
+import core.utils.constants.Constants;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/********************************************
+ * Launcher of model benchmarks, finds all models annotated with ModelId (the same way as help message) and runs
+ * benchmarks of car following and lane changing models with them, so new model is benchmarked without changing the
+ * benchmarks. Allocation per operation is measured with GC profiler and results are written as JSON (default
+ * target/jmh/models.json) so they can be compared between versions. JMH command line options can be given and they
+ * override these defaults.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ModelBenchmarks {
+
+    /** default file of results **/
+    static final String RESULTS_FILE = "target/jmh/models.json";
+
+    /** package of car following models **/
+    private static final String CAR_FOLLOWING_MODELS_PACKAGE = "models.carFollowingModels";
+
+    /** package of lane changing models **/
+    private static final String LANE_CHANGING_MODELS_PACKAGE = "models.laneChangingModels";
+
+    /**
+     * runs benchmarks of all models
+     *
+     * @param args JMH command line options
+     * @throws Exception if options are not valid or benchmarks fail
+     **/
+    public static void main(String[] args) throws Exception {
+        prepareContext();
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(CarFollowingModelBenchmark.class.getSimpleName())
+                    .include(LaneChangingModelBenchmark.class.getSimpleName());
+        }
+        if (!commandLine.getParameter("carFollowingModel").hasValue()) {
+            builder.param("carFollowingModel", modelIds(CAR_FOLLOWING_MODELS_PACKAGE));
+        }
+        if (!commandLine.getParameter("laneChangingModel").hasValue()) {
+            builder.param("laneChangingModel", modelIds(LANE_CHANGING_MODELS_PACKAGE));
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            new File(RESULTS_FILE).getParentFile().mkdirs();
+            builder.resultFormat(ResultFormatType.JSON).result(RESULTS_FILE);
+        }
+        new Runner(builder.build()).run();
+    }
+
+    /**
+     * prepares app context needed by models and loading of models, logging is turned off so it is not measured
+     **/
+    static void prepareContext() {
+        if (AppContext.RUN_DETAILS == null) {
+            AppContext.RUN_DETAILS = new RunDetails();
+            AppContext.RUN_DETAILS.log = new boolean[6];
+            AppContext.RUN_DETAILS.timeStep = 1.0;
+        }
+    }
+
+    /**
+     * finds ids of all cellular and continuous models in the package
+     *
+     * @param packageName package of models
+     * @return ids of models
+     **/
+    static String[] modelIds(String packageName) {
+        List<String> ids = new ArrayList<>();
+        for (String type : new String[]{Constants.CELLULAR, Constants.CONTINUOUS}) {
+            for (InputParametersHandeler.ModelNameAndId model : InputParametersHandeler.getAllModels(packageName, type)) {
+                ids.add(model.id);
+            }
+        }
+        return ids.toArray(new String[0]);
+    }
+}
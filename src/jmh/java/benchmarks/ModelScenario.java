@@ -0,0 +1,153 @@
+package benchmarks;
+
+import core.utils.constants.Constants;
+import core.utils.constants.RequestConstants;
+
+import java.util.HashMap;
+
+/********************************************
+ * Traffic situations models are benchmarked in, every situation fills parameters requested by a model the same way
+ * the road would (car itself, cars around it, accelerations for lane changing models). Free flow has no other cars,
+ * following has leader at safe distance and slower neighbours, jam has cars close to each other at crawling speed.
+ * Continuous values are in meters and meters per second, cellular values in cells and cells per step.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public enum ModelScenario {
+
+    /** no other car around **/
+    FREE_FLOW(25.0, -1.0, 0.0, 1.0, 4, -1, 0),
+
+    /** leader at safe distance driving a bit slower **/
+    FOLLOWING(15.0, 30.0, 14.0, 0.2, 3, 4, 3),
+
+    /** cars close to each other at crawling speed **/
+    JAM(1.0, 2.0, 0.5, -1.5, 1, 0, 0);
+
+    /** position of the car on continuous road **/
+    private static final double POSITION = 500.0;
+
+    /** position of the car on cellular road **/
+    private static final double CELLULAR_POSITION = 100.0;
+
+    /** speed of the car on continuous road **/
+    private final double speed;
+
+    /** gap to car in front and behind in the same lane on continuous road, negative when there is no other car,
+     * gaps in neighbouring lanes are twice as long **/
+    private final double gap;
+
+    /** speed of other cars on continuous road **/
+    private final double otherSpeed;
+
+    /** acceleration of cars in current lanes, acceleration after lane change is a bit higher **/
+    private final double acceleration;
+
+    /** speed of the car on cellular road **/
+    private final double cellularSpeed;
+
+    /** gap to other cars on cellular road, negative when there is no other car **/
+    private final double cellularGap;
+
+    /** speed of other cars on cellular road **/
+    private final double cellularOtherSpeed;
+
+    /**
+     * constructor of scenario
+     *
+     * @param speed speed of the car on continuous road
+     * @param gap gap to other cars on continuous road, negative when there is no other car
+     * @param otherSpeed speed of other cars on continuous road
+     * @param acceleration acceleration of cars in current lanes
+     * @param cellularSpeed speed of the car on cellular road
+     * @param cellularGap gap to other cars on cellular road, negative when there is no other car
+     * @param cellularOtherSpeed speed of other cars on cellular road
+     **/
+    ModelScenario(double speed, double gap, double otherSpeed, double acceleration, double cellularSpeed,
+                  double cellularGap, double cellularOtherSpeed) {
+        this.speed = speed;
+        this.gap = gap;
+        this.otherSpeed = otherSpeed;
+        this.acceleration = acceleration;
+        this.cellularSpeed = cellularSpeed;
+        this.cellularGap = cellularGap;
+        this.cellularOtherSpeed = cellularOtherSpeed;
+    }
+
+    /**
+     * fills all requested parameters for the car in this situation
+     *
+     * @param requestParameters parameters requested by model separated by REQUEST_SEPARATOR
+     * @param cellular whether model is cellular
+     * @return parameters for model
+     **/
+    public HashMap<String, Double> parameters(String requestParameters, boolean cellular) {
+        HashMap<String, Double> parameters = new HashMap<>();
+        for (String request : requestParameters.split(RequestConstants.REQUEST_SEPARATOR)) {
+            if (!request.isEmpty()) {
+                parameters.put(request, this.value(request, cellular));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * computes value of one requested parameter
+     *
+     * @param request requested parameter, parameter of other car has lane and orientation after SUBREQUEST_SEPARATOR
+     * @param cellular whether model is cellular
+     * @return value of the parameter
+     **/
+    private double value(String request, boolean cellular) {
+        String[] parts = request.split(RequestConstants.SUBREQUEST_SEPARATOR);
+        String name = parts[0];
+        if (name.equals(RequestConstants.NOW_ACCELERATION_REQUEST)) {
+            return this.acceleration;
+        }
+        if (name.equals(RequestConstants.THEORETICAL_ACCELERATION_REQUEST)) {
+            return this.acceleration + 0.3;
+        }
+        if (parts.length < 3) {
+            return ownValue(name, cellular);
+        }
+
+        double gapInLane = cellular ? this.cellularGap : this.gap;
+        if (gapInLane < 0) {
+            return Constants.NO_CAR_THERE;
+        }
+        double gapToCar = parts[1].equals(RequestConstants.STRAIGHT) ? gapInLane : 2 * gapInLane + 1;
+        double length = ownValue(RequestConstants.LENGTH_REQUEST, cellular);
+        return switch (name) {
+            case RequestConstants.X_POSITION_REQUEST -> parts[2].equals(RequestConstants.FORWARD)
+                    ? ownValue(name, cellular) + gapToCar + length : ownValue(name, cellular) - length - gapToCar;
+            case RequestConstants.CURRENT_SPEED_REQUEST -> cellular ? this.cellularOtherSpeed : this.otherSpeed;
+            default -> ownValue(name, cellular);
+        };
+    }
+
+    /**
+     * gives value of parameter of the car itself or of the road
+     *
+     * @param name name of the parameter
+     * @param cellular whether model is cellular
+     * @return value of the parameter, 1 for parameter that is not known
+     **/
+    private double ownValue(String name, boolean cellular) {
+        return switch (name) {
+            case RequestConstants.X_POSITION_REQUEST -> cellular ? CELLULAR_POSITION : POSITION;
+            case RequestConstants.CURRENT_SPEED_REQUEST -> cellular ? this.cellularSpeed : this.speed;
+            case RequestConstants.MAX_SPEED_REQUEST, RequestConstants.MAX_ROAD_SPEED_REQUEST -> cellular ? 5.0 : 30.0;
+            case RequestConstants.LENGTH_REQUEST -> cellular ? 1.0 : 5.0;
+            case RequestConstants.MAX_ACCELERATION_REQUEST -> cellular ? 1.0 : 1.5;
+            case RequestConstants.DECELERATION_COMFORT_REQUEST -> cellular ? 1.0 : 2.0;
+            case RequestConstants.DESIRED_TIME_HEADWAY_REQUEST -> 1.5;
+            case RequestConstants.MINIMUM_GAP_TO_NEXT_CAR_REQUEST -> cellular ? 0.0 : 2.0;
+            case RequestConstants.DISTANCE_DIFFERENCE_SENSITIVITY_PARAMETER_REQUEST,
+                    RequestConstants.SPEED_DIFFERENCE_SENSITIVITY_PARAMETER_REQUEST -> 0.5;
+            case RequestConstants.POLITENESS_FACTOR_REQUEST -> 0.3;
+            case RequestConstants.EDGE_VALUE_FOR_LANE_CHANGE_REQUEST -> 0.2;
+            default -> 1.0; // time step and parameters of models added later
+        };
+    }
+}
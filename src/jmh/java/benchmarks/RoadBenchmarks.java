@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/********************************************
+ * Launcher of road step benchmarks, runs step of ring roads over whole grid of lanes, lengths, densities and lane
+ * changing, allocation per step is measured with GC profiler and results are written as JSON (default
+ * target/jmh/roads.json), which is the baseline engine changes are compared with. JMH command line options can be
+ * given and they override these defaults.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class RoadBenchmarks {
+
+    /** default file of results **/
+    static final String RESULTS_FILE = "target/jmh/roads.json";
+
+    /**
+     * runs benchmarks of road step
+     *
+     * @param args JMH command line options
+     * @throws Exception if options are not valid or benchmarks fail
+     **/
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(RoadStepBenchmark.class.getSimpleName());
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            new File(RESULTS_FILE).getParentFile().mkdirs();
+            builder.resultFormat(ResultFormatType.JSON).result(RESULTS_FILE);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+package benchmarks;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.Road;
+import core.model.cellular.CellularRoad;
+import core.model.continous.ContinuosRoad;
+import core.sim.Simulation;
+import core.utils.ResultsRecorder;
+import core.utils.constants.Constants;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/********************************************
+ * Benchmark of one step of whole road (updateRoad) on synthetic ring road built without map, so number of cars does not
+ * change during measurement. Road is stepped by simulation, because cellular roads alternate direction of lane changes
+ * by step count, simulation with one road and no lights adds only a few calls to the step. Road is measured for every
+ * number of lanes, length, density (cars per kilometer of one lane) and with lane changing turned off and on, so cost
+ * of lane changing is difference of these two results on the same road. Road is warmed to steady state before
+ * measurement. Time of step is measured by step, number of vehicles updated per second (vehicleUpdates) by
+ * vehicleThroughput. Models are pair of car following and lane changing model separated by slash, type of road is given
+ * by car following model.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoadStepBenchmark {
+
+    /** separator of car following and lane changing model in models parameter **/
+    private static final String MODELS_SEPARATOR = "/";
+
+    /** number of steps road is warmed with before measurement, so cars leave their even placement **/
+    private static final int WARM_UP_STEPS = 300;
+
+    /** speed limit of the road in meters per second **/
+    private static final double SPEED_LIMIT = 30.0;
+
+    /** car following and lane changing model separated by slash **/
+    @Param({"idm/mobil", "nagel-schreckenberg/stca"})
+    public String models;
+
+    /** number of lanes of the road **/
+    @Param({"1", "3"})
+    public int lanes;
+
+    /** length of the road in meters **/
+    @Param({"1000", "4000"})
+    public int length;
+
+    /** number of cars per kilometer of one lane **/
+    @Param({"15", "45"})
+    public int density;
+
+    /** whether cars change lanes **/
+    @Param({"false", "true"})
+    public boolean laneChange;
+
+    /** simulation with benchmarked road **/
+    private Simulation simulation;
+
+    /** number of cars on the road, the same in every step of ring road **/
+    private int vehicles;
+
+    /********************************************
+     * Number of vehicles updated by measured steps, reported by JMH as rate per second
+     ********************************************/
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class VehicleUpdates {
+
+        /** vehicles updated in this iteration **/
+        public long vehicleUpdates;
+
+        /**
+         * clears counter before every iteration
+         **/
+        @Setup(Level.Iteration)
+        public void clear() {
+            this.vehicleUpdates = 0;
+        }
+    }
+
+    /**
+     * sets models, builds ring road with evenly placed cars and warms it to steady state
+     **/
+    @Setup(Level.Trial)
+    public void setUp() {
+        ModelBenchmarks.prepareContext();
+        String[] ids = this.models.split(MODELS_SEPARATOR);
+        ICarFollowingModel carFollowingModel = InputParametersHandeler.getCarFollowingModelById(ids[0]);
+        ILaneChangingModel laneChangingModel = ids.length > 1 ?
+                InputParametersHandeler.getLaneChangingModelById(ids[1]) : null;
+        if (carFollowingModel == null || laneChangingModel == null ||
+                !carFollowingModel.getType().equals(laneChangingModel.getType())) {
+            throw new IllegalArgumentException("Unknown or mismatched models " + this.models);
+        }
+        AppContext.CAR_FOLLOWING_MODEL = carFollowingModel;
+        AppContext.LANE_CHANGING_MODEL = laneChangingModel;
+        AppContext.RUN_DETAILS.laneChange = this.laneChange;
+
+        // generators of the road are created from models in app context, so models are set before road
+        Road road;
+        if (Constants.CELLULAR.equals(carFollowingModel.getType())) {
+            road = new CellularRoad(this.length, this.lanes, SPEED_LIMIT, carFollowingModel.getCellSize(), 0);
+        } else {
+            road = new ContinuosRoad(this.length, this.lanes, SPEED_LIMIT, 0);
+        }
+        road.setTypesOfGenerators();
+        road.setPeriodic(true);
+        this.simulation = new Simulation(new Road[]{road});
+        AppContext.SIMULATION = this.simulation;
+        this.clearRecords();
+
+        int carsPerLane = (int) Math.round(this.density * this.length / 1000.0);
+        if (road.placeCarsEvenly(carsPerLane) != carsPerLane * this.lanes) {
+            throw new IllegalArgumentException(carsPerLane + " cars do not fit on lane of " + this.length + " m");
+        }
+        for (int i = 0; i < WARM_UP_STEPS; i++) {
+            this.simulation.step();
+        }
+        this.vehicles = road.getNumberOfCarsOnRoad();
+    }
+
+    /**
+     * clears records of results recorder, road records stopped cars every step as in simulation, so records are
+     * started again before every iteration not to grow during whole benchmark
+     **/
+    @Setup(Level.Iteration)
+    public void clearRecords() {
+        ResultsRecorder.getResultsRecorder().initialize(this.simulation.getRoads(), null);
+    }
+
+    /**
+     * makes one step of the road, measured as time of step
+     **/
+    @Benchmark
+    public void step() {
+        this.simulation.step();
+    }
+
+    /**
+     * makes one step of the road, measured as steps and updated vehicles per second
+     *
+     * @param updates counter of updated vehicles
+     **/
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void vehicleThroughput(VehicleUpdates updates) {
+        updates.vehicleUpdates += this.vehicles;
+        this.simulation.step();
+    }
+}
@@ -34,6 +34,19 @@ public class InputParametersHandeler {
                   --cfm=<model_id>      Car following model to use (overrides config file settings), e.g. 'idm'
                   --lcm=<model_id>      Lane changing model to use (overrides config file settings), e.g. 'mobil'
                   --map=<file>          Path to map file (XML) to load, if not provided default map from config will be used, if also not provided in config app will start without map (when gui is enabled) or exit (when gui is disabled)
+                  --resume=<file>       Resume simulation from checkpoint file written by previous run (only with --dur), map and models must be the same as in the run that wrote the checkpoint
+                  --snapshot=<file>     Write state of the simulation at the end of the run to file (only with --dur), used as warm start of other runs
+                  --warm=<file>         Start simulation from state in snapshot file instead of empty roads (only with --dur), results are measured from this state for --dur steps
+                  --seed=<number>       Seed of random generator (overrides config file settings), warm started runs are re-seeded with it
+                  --optimize=<file>     Optimize light plans of the map with search ranges from optimization file (XML) using parallel headless simulations of --dur steps, the best plans are written to new map file
+                  --sweep=<file>        Run headless simulation of --dur steps for every combination of models, flow rates, lanes, speed limits and seeds from sweep file (XML) and append results to one CSV table
+                  --fd=<file>           Measure fundamental diagram (flow and speed at densities from file (XML)) of models on roads of the map made ring roads, every density runs --dur steps, results are written to one CSV table
+                  --replicate=<file>    Run replications of --dur steps with following seeds in parallel batches until confidence intervals of metrics from replications file (XML) are precise enough, every replication is written to one CSV table
+                  --bench=<file>        Measure throughput of the scenario on this machine (steps/s, vehicle updates/s, allocation, GC and time of phases of steps) after warm up for window from benchmark file (XML), at most --dur steps are measured, report is printed and written as JSON
+                  --costProfile=<file>  Measure cost of combinations of models from cost profile file (XML) on the map (time, neighbour lookups, evaluations of car following model and allocation per vehicle-step) after warm up for --dur steps, report is printed and written as CSV
+                  --stateHash=<file>    Write hashes of states of roads after every step to file (overrides config file settings), used to check that runs are bit-exact
+                  --compareHashes=<a>,<b> Compare two state hash files step by step, print the first step where they differ and exit
+                  --generate=<file>     Generate synthetic map of given number of roads with lengths, lanes, speed limits, flow rates, lights and queues drawn from ranges in scenario file (XML) and exit
                 """);
 
         String laneChangingModelsPackage = "models.laneChangingModels";
@@ -400,6 +413,28 @@ public class InputParametersHandeler {
         return mapFile;
     }
 
+    /**
+     * Method to get seed of random generator from input parameter, numbers are used directly, other text is converted
+     * to number by its hash code (same as seed in config file)
+     *
+     * @param seed seed from input parameter, e.g. "42" from "--seed=42"
+     * @return seed from input parameter, null if not provided (seed from config should be used)
+     **/
+    public static Long getSeedFromParameter(String seed) {
+        if (seed == null || seed.isEmpty()) {
+            return null;
+        }
+
+        long seedValue;
+        try {
+            seedValue = Long.parseLong(seed);
+        } catch (NumberFormatException e) {
+            seedValue = seed.hashCode();
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Seed provided: " + seedValue, Constants.INFO_FOR_LOGGING);
+        return seedValue;
+    }
+
     /**************************************
      * Helper class to store model name and id for showing available models in help message, etc.
      *
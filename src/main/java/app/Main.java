@@ -1,5 +1,13 @@
 package app;
 
+import core.sim.FundamentalDiagram;
+import core.sim.ModelCostProfile;
+import core.sim.ParameterSweep;
+import core.sim.SequentialReplications;
+import core.sim.SignalOptimizer;
+import core.sim.SimulationCheckpoint;
+import core.sim.StateHashRecorder;
+import core.sim.ThroughputBenchmark;
 import core.utils.*;
 import core.utils.constants.Constants;
 import core.utils.loading.ConfigLoader;
@@ -31,6 +39,20 @@ public class Main {
             return;
         }
 
+        String compareHashesArgument = InputParametersHandeler.getSpecificParameter(args,
+                Constants.COMPARE_HASHES_PARAMETER_PREFIX);
+        if (compareHashesArgument != null && !compareHashesArgument.isEmpty()) {
+            compareStateHashes(compareHashesArgument);
+            return;
+        }
+
+        String generateArgument = InputParametersHandeler.getSpecificParameter(args,
+                Constants.GENERATE_PARAMETER_PREFIX);
+        if (generateArgument != null && !generateArgument.isEmpty()) {
+            ScenarioGenerator.run(generateArgument);
+            return;
+        }
+
         String durationArgument = InputParametersHandeler.getSpecificParameter(args, Constants.DURATION_PARAMETER_PREFIX);
         int duration = InputParametersHandeler.getDurationFromParameter(durationArgument);
         if (duration == Constants.INVALID_INPUT_PARAMETERS) {
@@ -96,6 +118,95 @@ public class Main {
             return;
         }
 
+        String stateHashArgument = InputParametersHandeler.getSpecificParameter(args,
+                Constants.STATE_HASH_PARAMETER_PREFIX);
+        if (stateHashArgument != null && !stateHashArgument.isEmpty()) {
+            AppContext.RUN_DETAILS.stateHashFile = stateHashArgument;
+            if (AppContext.RUN_DETAILS.mapLoaded) {
+                StateHashRecorder.getStateHashRecorder().open(stateHashArgument,
+                        AppContext.SIMULATION.getRoads().length);
+            }
+        }
+
+        String optimizeArgument = InputParametersHandeler.getSpecificParameter(args, Constants.OPTIMIZE_PARAMETER_PREFIX);
+        if (optimizeArgument != null && !optimizeArgument.isEmpty()) {
+            if (AppContext.RUN_DETAILS.showGui) {
+                MyLogger.logLoadingOrSimulationStartEnd("Optimization of light plans needs duration (--dur), exiting.",
+                        Constants.FATAL_FOR_LOGGING);
+                return;
+            }
+            SignalOptimizer.run(optimizeArgument, args, AppContext.RUN_DETAILS.duration);
+            return;
+        }
+
+        String sweepArgument = InputParametersHandeler.getSpecificParameter(args, Constants.SWEEP_PARAMETER_PREFIX);
+        if (sweepArgument != null && !sweepArgument.isEmpty()) {
+            if (AppContext.RUN_DETAILS.showGui) {
+                MyLogger.logLoadingOrSimulationStartEnd("Parameter sweep needs duration (--dur), exiting.",
+                        Constants.FATAL_FOR_LOGGING);
+                return;
+            }
+            ParameterSweep.run(sweepArgument, args, AppContext.RUN_DETAILS.duration);
+            return;
+        }
+
+        String fundamentalDiagramArgument = InputParametersHandeler.getSpecificParameter(args,
+                Constants.FUNDAMENTAL_DIAGRAM_PARAMETER_PREFIX);
+        if (fundamentalDiagramArgument != null && !fundamentalDiagramArgument.isEmpty()) {
+            if (AppContext.RUN_DETAILS.showGui) {
+                MyLogger.logLoadingOrSimulationStartEnd("Fundamental diagram needs duration (--dur), exiting.",
+                        Constants.FATAL_FOR_LOGGING);
+                return;
+            }
+            FundamentalDiagram.run(fundamentalDiagramArgument, args, AppContext.RUN_DETAILS.duration);
+            return;
+        }
+
+        String replicateArgument = InputParametersHandeler.getSpecificParameter(args,
+                Constants.REPLICATE_PARAMETER_PREFIX);
+        if (replicateArgument != null && !replicateArgument.isEmpty()) {
+            if (AppContext.RUN_DETAILS.showGui) {
+                MyLogger.logLoadingOrSimulationStartEnd("Replications need duration (--dur), exiting.",
+                        Constants.FATAL_FOR_LOGGING);
+                return;
+            }
+            SequentialReplications.run(replicateArgument, args, AppContext.RUN_DETAILS.duration);
+            return;
+        }
+
+        String costProfileArgument = InputParametersHandeler.getSpecificParameter(args,
+                Constants.COST_PROFILE_PARAMETER_PREFIX);
+        if (costProfileArgument != null && !costProfileArgument.isEmpty()) {
+            if (AppContext.RUN_DETAILS.showGui) {
+                MyLogger.logLoadingOrSimulationStartEnd("Cost profile of models needs duration (--dur), exiting.",
+                        Constants.FATAL_FOR_LOGGING);
+                return;
+            }
+            ModelCostProfile.run(costProfileArgument, AppContext.RUN_DETAILS.duration);
+            return;
+        }
+
+        String resumeArgument = InputParametersHandeler.getSpecificParameter(args, Constants.RESUME_PARAMETER_PREFIX);
+        String warmStartArgument = InputParametersHandeler.getSpecificParameter(args, Constants.WARM_START_PARAMETER_PREFIX);
+        String seedArgument = InputParametersHandeler.getSpecificParameter(args, Constants.SEED_PARAMETER_PREFIX);
+        Long seed = InputParametersHandeler.getSeedFromParameter(seedArgument);
+        if (!prepareStartingState(resumeArgument, warmStartArgument, seed)) {
+            MyLogger.logLoadingOrSimulationStartEnd("Failed to prepare starting state of simulation, exiting.",
+                    Constants.FATAL_FOR_LOGGING);
+            return;
+        }
+
+        String benchArgument = InputParametersHandeler.getSpecificParameter(args, Constants.BENCH_PARAMETER_PREFIX);
+        if (benchArgument != null && !benchArgument.isEmpty()) {
+            if (AppContext.RUN_DETAILS.showGui) {
+                MyLogger.logLoadingOrSimulationStartEnd("Benchmark needs duration (--dur), exiting.",
+                        Constants.FATAL_FOR_LOGGING);
+                return;
+            }
+            ThroughputBenchmark.run(benchArgument, AppContext.SIMULATION, AppContext.RUN_DETAILS.duration);
+            return;
+        }
+
         if (AppContext.RUN_DETAILS.showGui) {
             MyLogger.logLoadingOrSimulationStartEnd("GUI enabled, starting GUI.", Constants.INFO_FOR_LOGGING);
             Window.main(args); // start gui
@@ -103,9 +214,90 @@ public class Main {
             MyLogger.logLoadingOrSimulationStartEnd("Starting simulation in console mode.", Constants.INFO_FOR_LOGGING);
             AppContext.SIMULATION.runSimulation(AppContext.RUN_DETAILS.duration);
             MyLogger.logLoadingOrSimulationStartEnd("Simulation finished, exiting.", Constants.INFO_FOR_LOGGING);
+            if (MetricsRegistry.isEnabled()) {
+                System.out.println(MetricsRegistry.getMetricsRegistry().dump());
+            }
+            String snapshotArgument = InputParametersHandeler.getSpecificParameter(args, Constants.SNAPSHOT_PARAMETER_PREFIX);
+            if (snapshotArgument != null && !snapshotArgument.isEmpty()) {
+                if (SimulationCheckpoint.save(AppContext.SIMULATION, snapshotArgument)) {
+                    MyLogger.logLoadingOrSimulationStartEnd("Snapshot of simulation written to " + snapshotArgument,
+                            Constants.INFO_FOR_LOGGING);
+                } else {
+                    MyLogger.logLoadingOrSimulationStartEnd("Failed to write snapshot of simulation to " +
+                            snapshotArgument, Constants.ERROR_FOR_LOGGING);
+                }
+            }
             if (AppContext.RUN_DETAILS.writingResults()) {
                 ResultsRecorder.getResultsRecorder().writeResults();
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * prepares state from which console simulation starts, it is resumed from checkpoint, warm started from snapshot
+     * or started from empty roads (re-seeded if seed is given), in GUI mode checkpoints and snapshots are ignored
+     *
+     * @param resumeFile checkpoint file to resume from, null if not resuming
+     * @param warmStartFile snapshot file to warm start from, null if not warm starting
+     * @param seed seed from input parameters, null if seed from config is used
+     * @return true if starting state is prepared, false if checkpoint or snapshot could not be loaded
+     **/
+    private static boolean prepareStartingState(String resumeFile, String warmStartFile, Long seed) {
+        boolean resume = resumeFile != null && !resumeFile.isEmpty();
+        boolean warmStart = warmStartFile != null && !warmStartFile.isEmpty();
+        if (seed != null) {
+            AppContext.RUN_DETAILS.seed = seed;
+        }
+
+        if (AppContext.RUN_DETAILS.showGui) {
+            if (resume || warmStart) {
+                MyLogger.logLoadingOrSimulationStartEnd("Resuming from checkpoint and warm start are possible only in " +
+                        "console mode (with duration), ignoring them.", Constants.WARN_FOR_LOGGING);
+            }
+            if (seed != null) {
+                RandomNumberGenerator.getInstance(seed).resetSeed(seed);
+            }
+            return true;
+        }
+
+        if (resume) {
+            if (warmStart || seed != null) {
+                MyLogger.logLoadingOrSimulationStartEnd("Resumed simulation continues with state of checkpoint, warm " +
+                        "start and seed are ignored.", Constants.WARN_FOR_LOGGING);
+            }
+            return SimulationCheckpoint.load(AppContext.SIMULATION, resumeFile);
+        }
+
+        if (warmStart) {
+            return AppContext.SIMULATION.warmStart(warmStartFile, AppContext.RUN_DETAILS.seed);
+        }
+
+        if (seed != null) { // queues were generated with seed from config when map was loaded
+            RandomNumberGenerator.getInstance(seed).resetSeed(seed);
+            AppContext.SIMULATION.resetSimulationWithSameRoads();
+        }
+        return true;
+    }
+
+    /**
+     * compares two state hash files given as "first,second" and prints result of comparison
+     *
+     * @param files state hash files separated by comma
+     **/
+    private static void compareStateHashes(String files) {
+        String[] parts = files.split(",");
+        if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Two state hash files separated by comma are needed, exiting.",
+                    Constants.FATAL_FOR_LOGGING);
+            return;
+        }
+
+        String result = StateHashRecorder.compare(parts[0].trim(), parts[1].trim());
+        if (result == null) {
+            MyLogger.logLoadingOrSimulationStartEnd("State hash files could not be compared, exiting.",
+                    Constants.ERROR_FOR_LOGGING);
+            return;
+        }
+        System.out.println(result);
+    }
+}
@@ -0,0 +1,145 @@
+package core.model;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/********************************************
+ * Schedule of arrivals of cars from generators of one road. Every lane that generates cars one by one has step of
+ * its next arrival, lanes are kept in min-heap ordered by this step (and lane number for the same step), so in every
+ * step only lanes with due arrival are touched and random numbers are drawn only when car arrives. Lanes that generate
+ * cars into queue are not in the heap, they are tried every step. Schedule keeps version of settings of generators of
+ * the road it was scheduled with and is built again when settings of some of its generators change, generators tell
+ * their road about the change, so the check is single comparison every step.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+class ArrivalSchedule {
+
+    /** value returned when no lane has due arrival **/
+    static final int NO_LANE = -1;
+
+    /** value of step of lane that generates into queue, it has no arrivals in the heap **/
+    static final long NOT_SCHEDULED = -1;
+
+    /** generators the schedule was built for **/
+    private final CarGenerator[] generators;
+
+    /** step of next arrival on every lane **/
+    private final long[] dueSteps;
+
+    /** lanes that generate cars into queue **/
+    private final int[] queueLanes;
+
+    /** lanes generating one by one ordered by step of next arrival **/
+    private final PriorityQueue<Integer> dueLanes;
+
+    /** version of settings of generators of the road when the schedule was built **/
+    private final int settingsVersion;
+
+    /**
+     * builds schedule for generators, next arrival of every lane generating one by one is drawn from its generator
+     *
+     * @param generators generators of lanes of the road
+     * @param settingsVersion version of settings of generators of the road
+     * @param step current step of arrivals, first arrival is after it
+     **/
+    ArrivalSchedule(CarGenerator[] generators, int settingsVersion, long step) {
+        this(generators, settingsVersion, step, null);
+    }
+
+    /**
+     * builds schedule for generators with given steps of next arrivals, used when road is restored from checkpoint
+     *
+     * @param generators generators of lanes of the road
+     * @param settingsVersion version of settings of generators of the road
+     * @param step current step of arrivals
+     * @param dueSteps steps of next arrivals of lanes, null if they should be drawn from generators
+     **/
+    ArrivalSchedule(CarGenerator[] generators, int settingsVersion, long step, long[] dueSteps) {
+        this.generators = generators;
+        this.settingsVersion = settingsVersion;
+        this.dueSteps = new long[generators.length];
+        this.dueLanes = new PriorityQueue<>(Math.max(1, generators.length),
+                Comparator.<Integer>comparingLong(lane -> this.dueSteps[lane]).thenComparingInt(lane -> lane));
+
+        int numberOfQueueLanes = 0;
+        for (CarGenerator generator : generators) {
+            if (generator.generatingToQueue()) {
+                numberOfQueueLanes++;
+            }
+        }
+        this.queueLanes = new int[numberOfQueueLanes];
+
+        int queueIndex = 0;
+        for (int lane = 0; lane < generators.length; lane++) {
+            if (generators[lane].generatingToQueue()) {
+                this.queueLanes[queueIndex++] = lane;
+                this.dueSteps[lane] = NOT_SCHEDULED;
+            } else if (dueSteps != null && dueSteps[lane] > step) {
+                this.dueSteps[lane] = dueSteps[lane];
+                this.dueLanes.add(lane);
+            } else {
+                this.schedule(lane, step);
+            }
+        }
+    }
+
+    /**
+     * checks if schedule has to be built again, because generators of the road were replaced or settings of some of
+     * them changed, generators of other roads do not matter
+     *
+     * @param currentGenerators current generators of the road
+     * @param currentSettingsVersion current version of settings of generators of the road
+     * @return true if schedule is not valid anymore, false otherwise
+     **/
+    boolean isStale(CarGenerator[] currentGenerators, int currentSettingsVersion) {
+        return currentGenerators != this.generators || currentSettingsVersion != this.settingsVersion;
+    }
+
+    /**
+     * getter for lanes that generate cars into queue
+     *
+     * @return lanes that generate into queue
+     **/
+    int[] getQueueLanes() {
+        return this.queueLanes;
+    }
+
+    /**
+     * removes lane with arrival due in given step from the heap, lane has to be scheduled again after the arrival is
+     * handled
+     *
+     * @param step current step of arrivals
+     * @return lane with due arrival, NO_LANE if there is none
+     **/
+    int pollDueLane(long step) {
+        Integer lane = this.dueLanes.peek();
+        if (lane == null || this.dueSteps[lane] > step) {
+            return NO_LANE;
+        }
+        return this.dueLanes.poll();
+    }
+
+    /**
+     * draws next arrival of the lane from its generator and puts the lane to the heap, arrival is always after given
+     * step
+     *
+     * @param lane lane to schedule
+     * @param step current step of arrivals
+     **/
+    void schedule(int lane, long step) {
+        this.dueSteps[lane] = Math.max(step + 1, this.generators[lane].nextArrivalAfter(step));
+        this.dueLanes.add(lane);
+    }
+
+    /**
+     * getter for step of next arrival of lane
+     *
+     * @param lane lane to get step of
+     * @return step of next arrival, NOT_SCHEDULED for lane generating into queue
+     **/
+    long getDueStep(int lane) {
+        return this.dueSteps[lane];
+    }
+}
@@ -7,8 +7,11 @@ import core.utils.MyLogger;
 import core.utils.constants.RequestConstants;
 
 import javafx.scene.paint.Color;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
-import java.util.Queue;
 
 
 /********************************************
@@ -20,6 +23,13 @@ import java.util.Queue;
  ********************************************/
 public class CarGenerator implements Cloneable {
 
+    /** arrival step used when generator never generates a car (flow rate is 0) **/
+    public static final long NEVER = Long.MAX_VALUE;
+
+    /** road the generator is on, it is told when flow rate or mode of generation changes, so it builds its arrival
+     * schedule again, null if generator is on no road **/
+    private Road road = null;
+
     /** parameters need for car generation, which cars need for models (for example model needs, politeness factor ->
      politeness factor will be in here, and it will be generated, if it is not necessary it will not be here and won't
      be generated **/
@@ -46,6 +56,10 @@ public class CarGenerator implements Cloneable {
     /** time to next arrival **/
     private double timeToNext = Double.NaN;
 
+    /** time (in steps of arrival schedule of road) of next arrival when multiple cars per tick are allowed, NaN when
+     * it is not drawn yet **/
+    private double nextArrivalTime = Double.NaN;
+
     /** allow multiple cars to be generated per tick **/
     private boolean allowMultiplePerTick = false;
 
@@ -61,12 +75,21 @@ public class CarGenerator implements Cloneable {
     /** maximum queue size for queue generation **/
     private int maxQueueSize = 0;
 
+    /** profile of flow rate changing during simulation, null if flow rate is constant (lambdaPerSec) **/
+    private DemandProfile demandProfile = null;
+
     /** whether length parameter should return 1 for cellular models, used for cellular models that have length always
      * as 1 like nagel-schreckenberg, or rule 184 **/
     private boolean lengthReturnAsOne = false;
 
+    /** random generator for arrivals (steps of arrivals and sizes of queues), shared generator of the simulation or
+     * own stream of the generator when common random numbers are used **/
     RandomNumberGenerator randomNumberGenerator;
 
+    /** own random stream for parameters and colors of generated cars when common random numbers are used, null when
+     * cars are drawn from the same generator as arrivals **/
+    private RandomNumberGenerator vehicleRandomNumberGenerator = null;
+
     /**
      * constructor for car generator
      *
@@ -121,6 +144,103 @@ public class CarGenerator implements Cloneable {
         return count;
     }
 
+    /**
+     * function to draw step of next arrival for event driven arrival schedule of road, it has the same distribution as
+     * calling decideIfNewCar every step, but random number is drawn only once per arrival. For single car per tick
+     * Bernoulli process is replaced by geometric number of steps to next success, P(steps > k) = (1 - p)^k with
+     * 1 - p = exp(-lambda). When multiple cars per tick are allowed exponential inter-arrival times are added to time of
+     * next arrival and all arrivals in the same step are one car, same as arrivalsThisTick.
+     *
+     * @param step step in which last arrival was handled (or current step when generator is scheduled first time)
+     * @return step of next arrival, always after given step, NEVER if flow rate is 0
+     **/
+    public long nextArrivalAfter(long step) {
+        if (demandProfile != null) {
+            return nextArrivalFromProfile(step);
+        }
+        if (lambdaPerSec <= 0) {
+            return NEVER;
+        }
+
+        if (!allowMultiplePerTick) {
+            double u = 1.0 - randomNumberGenerator.nextDouble(); // U ~ U(0,1]
+            double steps = Math.floor(-Math.log(u) / lambdaPerSec);
+            return steps >= NEVER - step - 1 ? NEVER : step + 1 + (long) steps;
+        }
+
+        if (Double.isNaN(nextArrivalTime) || nextArrivalTime < step) {
+            nextArrivalTime = step;
+        }
+        while (nextArrivalTime <= step) {
+            double u = 1.0 - randomNumberGenerator.nextDouble();
+            nextArrivalTime += -Math.log(u) / lambdaPerSec;
+        }
+        return nextArrivalTime >= NEVER ? NEVER : (long) Math.ceil(nextArrivalTime);
+    }
+
+    /**
+     * function to draw step of next arrival when generator has demand profile, exponential number of expected arrivals
+     * is added to cumulative rate of the profile and the profile is inverted, step n covers time (n - 1, n], so for
+     * single car per tick the probability of arrival in step n is 1 - exp(-(cumulative rate over the step)), same as
+     * Bernoulli process with constant rate
+     *
+     * @param step step in which last arrival was handled (or current step when generator is scheduled first time)
+     * @return step of next arrival, always after given step, NEVER if no more cars arrive
+     **/
+    private long nextArrivalFromProfile(long step) {
+        if (!allowMultiplePerTick) {
+            double time = drawArrivalTimeFromProfile(step);
+            return Double.isInfinite(time) || time >= NEVER ? NEVER : Math.max(step + 1, (long) Math.ceil(time));
+        }
+
+        if (Double.isNaN(nextArrivalTime) || nextArrivalTime < step) {
+            nextArrivalTime = step;
+        }
+        while (nextArrivalTime <= step) {
+            nextArrivalTime = drawArrivalTimeFromProfile(nextArrivalTime);
+        }
+        return Double.isInfinite(nextArrivalTime) || nextArrivalTime >= NEVER ? NEVER
+                : (long) Math.ceil(nextArrivalTime);
+    }
+
+    /**
+     * function to draw time of the first arrival after given time from demand profile
+     *
+     * @param time time after which car arrives
+     * @return time of arrival, infinity if no more cars arrive
+     **/
+    private double drawArrivalTimeFromProfile(double time) {
+        double u = 1.0 - randomNumberGenerator.nextDouble(); // U ~ U(0,1]
+        return demandProfile.timeOfCumulativeRate(demandProfile.cumulativeRate(time) - Math.log(u));
+    }
+
+    /**
+     * setter for road the generator is on, called by road when generator is placed on it
+     *
+     * @param road road the generator is on
+     **/
+    void setRoad(Road road) {
+        this.road = road;
+    }
+
+    /**
+     * forgets drawn time of next arrival, so next arrival is drawn again, used when arrival schedule of road is reset
+     **/
+    public void resetArrivals() {
+        this.nextArrivalTime = Double.NaN;
+    }
+
+    /**
+     * forgets drawn arrival and tells road of the generator that its settings changed, so road draws arrivals with new
+     * settings
+     **/
+    private void settingsChanged() {
+        this.resetArrivals();
+        if (this.road != null) {
+            this.road.generatorSettingsChanged();
+        }
+    }
+
     /**
      * function to decide if new car should be generated this tick
      *
@@ -140,12 +260,22 @@ public class CarGenerator implements Cloneable {
      * @return CarParams generated car parameters
      **/
     public CarParams generateCar() {
+        return this.generateCar(null);
+    }
+
+    /**
+     * function to generate a new car based on generator settings, car is taken from the pool when it is given
+     *
+     * @param pool pool of cars of the road, null if new car should be created
+     * @return CarParams of generated car, null if type of generator is unknown
+     **/
+    public CarParams generateCar(CarPool pool) {
         CarParams car = null;
 
         if (this.type.equals(Constants.CELLULAR)) {
-            car = generateCarCellular();
+            car = generateCarCellular(pool != null ? pool.acquire() : new CarParams());
         } else if (this.type.equals(Constants.CONTINUOUS)) {
-            car = generateCarContinuous();
+            car = generateCarContinuous(pool != null ? pool.acquire() : new CarParams());
         } else {
             MyLogger.logLoadingOrSimulationStartEnd("Unknown car generator type: " + this.type, Constants.WARN_FOR_LOGGING);
         }
@@ -155,43 +285,72 @@ public class CarGenerator implements Cloneable {
     }
 
     /**
-     * function to generate a new car with parameters based on generator settings, continuous road
+     * function to fill car with parameters based on generator settings, continuous road
      *
+     * @param car new car or reset car from the pool
      * @return CarParams generated car parameters
      **/
-    private CarParams generateCarContinuous() {
-        CarParams car = new CarParams();
-
+    private CarParams generateCarContinuous(CarParams car) {
         for (String key : carGenerationParameters) {
             double value = getParameterValueContinuous(key);
             car.setParameter(key, value);
         }
 
-        car.color = COLORS[(int) (randomNumberGenerator.nextDouble() * COLORS.length)];
+        car.color = COLORS[(int) (vehicleRandom().nextDouble() * COLORS.length)];
         car.id = this.id;
 
         return car;
     }
 
     /**
-     * function to generate a new car with parameters based on generator settings, cellular road
+     * function to fill car with parameters based on generator settings, cellular road
      *
+     * @param car new car or reset car from the pool
      * @return CarParams generated car parameters
      **/
-    private CarParams generateCarCellular() {
-        CarParams car = new CarParams();
-
+    private CarParams generateCarCellular(CarParams car) {
         for (String key : carGenerationParameters) {
             double value = getParameterValueCellular(key);
             car.setParameter(key, value);
         }
 
-        car.color = COLORS[(int) (randomNumberGenerator.nextDouble() * COLORS.length)];
+        car.color = COLORS[(int) (vehicleRandom().nextDouble() * COLORS.length)];
         car.id = this.id;
 
         return car;
     }
 
+    /**
+     * function to get random generator used for parameters of generated cars
+     *
+     * @return own vehicle stream when common random numbers are used, otherwise generator of arrivals
+     **/
+    private RandomNumberGenerator vehicleRandom() {
+        return this.vehicleRandomNumberGenerator != null ? this.vehicleRandomNumberGenerator
+                : this.randomNumberGenerator;
+    }
+
+    /**
+     * function to switch generator to its own random streams (common random numbers), one for arrivals and one for
+     * parameters of cars, so the generator draws the same arrivals and cars with the same seed whatever random numbers
+     * models draw and whenever queued cars are generated
+     *
+     * @param seed seed of the simulation
+     * @param stream id of the generator, unique in the map and the same in every run with the same map
+     **/
+    public void useRandomStreams(long seed, long stream) {
+        this.randomNumberGenerator = RandomNumberGenerator.createStream(seed, 2 * stream);
+        this.vehicleRandomNumberGenerator = RandomNumberGenerator.createStream(seed, 2 * stream + 1);
+    }
+
+    /**
+     * function to switch generator back to the shared random generator of the simulation
+     **/
+    public void useSharedRandom() {
+        this.randomNumberGenerator = RandomNumberGenerator.getInstance(0);
+        this.vehicleRandomNumberGenerator = null;
+    }
+
     /**
      * function to get parameter value based on generator settings, continuous road (parameters are double)
      *
@@ -204,7 +363,7 @@ public class CarGenerator implements Cloneable {
             if (param.range == 0) { // no range, fixed value
                 return param.minValue;
             } else {
-                return param.minValue + (randomNumberGenerator.nextDouble() * param.range);
+                return param.minValue + (vehicleRandom().nextDouble() * param.range);
             }
         } else {
             MyLogger.log("Parameter " + key + " not found in generator parameters.", Constants.WARN_FOR_LOGGING);
@@ -228,7 +387,7 @@ public class CarGenerator implements Cloneable {
             if (param.range == 0) {
                 return (int) param.minValue;
             } else {
-                return randomNumberGenerator.nextInt((int) param.minValue, (int) param.maxValue);
+                return vehicleRandom().nextInt((int) param.minValue, (int) param.maxValue);
             }
         } else {
             MyLogger.log("Parameter " + key + " not found in generator parameters."
@@ -298,6 +457,7 @@ public class CarGenerator implements Cloneable {
      **/
     public void setAllowMultiplePerTick(boolean allow) {
         this.allowMultiplePerTick = allow;
+        this.settingsChanged();
     }
 
     /**
@@ -308,6 +468,7 @@ public class CarGenerator implements Cloneable {
     public void setLambdaPerSec(double lambda) {
         this.lambdaPerSec = Math.max(0.0, lambda);
         scheduleNext();
+        this.settingsChanged();
     }
 
     /**
@@ -326,20 +487,13 @@ public class CarGenerator implements Cloneable {
     }
 
     /**
-     * function to generate multiple cars into a queue based on generator settings
+     * function to create queue of cars based on generator settings, only size of the queue is drawn, cars are generated
+     * by this generator when they get to the head of the queue
      *
-     * @return {@code Queue<CarParams>} queue of generated cars
+     * @return {@code CarQueue} queue of cars
      **/
-    public Queue<CarParams> generateCarsInToQueue() {
-        Queue<CarParams> queue = new java.util.LinkedList<>();
-        int numberOfCars = randomNumberGenerator.nextInt(minQueueSize, maxQueueSize);
-
-        while (queue.size() < numberOfCars) {
-            CarParams car = generateCar();
-            queue.add(car);
-        }
-
-        return queue;
+    public CarQueue generateCarsInToQueue() {
+        return new CarQueue(this, randomNumberGenerator.nextInt(minQueueSize, maxQueueSize));
     }
 
     /**
@@ -435,6 +589,7 @@ public class CarGenerator implements Cloneable {
      **/
     public void setFlowRate(double flowRate) {
         this.lambdaPerSec = flowRate;
+        this.settingsChanged();
     }
 
     /** function to get all parameters in generator settings
@@ -481,7 +636,7 @@ public class CarGenerator implements Cloneable {
     public String toString() {
         StringBuilder string = new StringBuilder("CarGenerator{type=" + type + ", lambdaPerSec=" + lambdaPerSec +
                 ", useQueue=" + useQueue + ", minQueueSize=" + minQueueSize + ", maxQueueSize=" + maxQueueSize +
-                ", parameters=");
+                (demandProfile != null ? ", demandProfile=" + demandProfile : "") + ", parameters=");
         for (String key : parameters.keySet()) {
             Parameter param = parameters.get(key);
             string.append(key).append("=[min=").append(param.minValue).append(", max=").append(param.maxValue).append("], ");
@@ -505,6 +660,7 @@ public class CarGenerator implements Cloneable {
         copy.setFlowRate(this.getFlowRate());
         copy.setQueueSize(this.minQueueSize, this.maxQueueSize);
         copy.setLengthReturnAsOne(this.lengthReturnAsOne);
+        copy.demandProfile = this.demandProfile; // profile is not changed after loading, it can be shared
         if (!this.useQueue) {
             copy.disableQueue();
         }
@@ -618,6 +774,7 @@ public class CarGenerator implements Cloneable {
         this.useQueue = true;
         this.minQueueSize = minSize;
         this.maxQueueSize = maxSize;
+        this.settingsChanged();
     }
 
     /**
@@ -625,6 +782,7 @@ public class CarGenerator implements Cloneable {
      **/
     public void disableQueue() {
         this.useQueue = false;
+        this.settingsChanged();
     }
 
     /**
@@ -654,4 +812,61 @@ public class CarGenerator implements Cloneable {
     public void setLengthReturnAsOne(boolean lengthReturnAsOne) {
         this.lengthReturnAsOne = lengthReturnAsOne;
     }
+
+    /**
+     * setter for demand profile, when set, flow rate of the profile is used instead of constant flow rate
+     *
+     * @param demandProfile profile of flow rate, null for constant flow rate
+     **/
+    public void setDemandProfile(DemandProfile demandProfile) {
+        this.demandProfile = demandProfile;
+        this.settingsChanged();
+    }
+
+    /**
+     * getter for demand profile
+     *
+     * @return profile of flow rate, null if flow rate is constant
+     **/
+    public DemandProfile getDemandProfile() {
+        return this.demandProfile;
+    }
+
+    /**
+     * writes state of generator that changes during simulation (id of next car and times of next arrival) to the
+     * stream, used for checkpoints of the simulation, settings of generator are not written because they are loaded
+     * from map, own random streams are written when generator uses them
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(this.id);
+        out.writeDouble(this.timeToNext);
+        out.writeDouble(this.nextArrivalTime);
+        out.writeBoolean(this.vehicleRandomNumberGenerator != null);
+        if (this.vehicleRandomNumberGenerator != null) {
+            this.randomNumberGenerator.writeState(out);
+            this.vehicleRandomNumberGenerator.writeState(out);
+        }
+    }
+
+    /**
+     * reads state of generator written by writeState from the stream
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    public void readState(DataInputStream in) throws IOException {
+        this.id = in.readInt();
+        this.timeToNext = in.readDouble();
+        this.nextArrivalTime = in.readDouble();
+        if (in.readBoolean()) {
+            this.useRandomStreams(0, 0); // states of the streams are read over the new streams
+            this.randomNumberGenerator.readState(in);
+            this.vehicleRandomNumberGenerator.readState(in);
+        } else {
+            this.useSharedRandom();
+        }
+    }
 }
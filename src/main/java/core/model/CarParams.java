@@ -4,7 +4,12 @@ import core.utils.constants.Constants;
 
 import core.utils.constants.RequestConstants;
 import javafx.scene.paint.Color;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
 
 /********************************
  * Class representing cars on the road, including their parameters in HashMap except for position parameters (xPosition
@@ -58,6 +63,19 @@ public class CarParams implements Cloneable {
         };
     }
 
+    /**
+     * resets car to the state of newly created car, parameters are removed but the HashMap is kept, used when car is
+     * reused from CarPool
+     **/
+    void reset() {
+        this.xPosition = Constants.PARAMETER_UNDEFINED;
+        this.lane = (int) Constants.PARAMETER_UNDEFINED;
+        this.id = (int) Constants.PARAMETER_UNDEFINED;
+        this.color = null;
+        this.processedInCurrentStep = false;
+        this.parameters.clear();
+    }
+
     /**
      * toString method for CarParams
      *
@@ -89,4 +107,63 @@ public class CarParams implements Cloneable {
         }
     }
 
+    /**
+     * writes complete state of the car (position, id, flags, color and all parameters) to the stream, used for
+     * checkpoints of the simulation
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(this.id);
+        out.writeInt(this.lane);
+        out.writeDouble(this.xPosition);
+        out.writeBoolean(this.processedInCurrentStep);
+        out.writeByte(this.getColorIndex());
+        out.writeInt(this.parameters.size());
+        for (Map.Entry<String, Double> parameter : this.parameters.entrySet()) {
+            out.writeUTF(parameter.getKey());
+            out.writeDouble(parameter.getValue());
+        }
+    }
+
+    /**
+     * reads car written by writeState from the stream
+     *
+     * @param in stream to read from
+     * @return car with restored state
+     * @throws IOException if reading fails
+     **/
+    public static CarParams readState(DataInputStream in) throws IOException {
+        CarParams car = new CarParams();
+        car.id = in.readInt();
+        car.lane = in.readInt();
+        car.xPosition = in.readDouble();
+        car.processedInCurrentStep = in.readBoolean();
+        int colorIndex = in.readByte();
+        if (colorIndex >= 0 && colorIndex < Constants.CAR_COLORS.length) {
+            car.color = Constants.CAR_COLORS[colorIndex];
+        }
+        int numberOfParameters = in.readInt();
+        for (int i = 0; i < numberOfParameters; i++) {
+            String key = in.readUTF();
+            car.parameters.put(key, in.readDouble());
+        }
+        return car;
+    }
+
+    /**
+     * finds index of color of the car in Constants.CAR_COLORS, colors are stored as index in checkpoints
+     *
+     * @return index of color, -1 if car has no color or color is not one of car colors
+     **/
+    private int getColorIndex() {
+        for (int i = 0; i < Constants.CAR_COLORS.length; i++) {
+            if (Constants.CAR_COLORS[i].equals(this.color)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
 }
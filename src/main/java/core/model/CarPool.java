@@ -0,0 +1,108 @@
+package core.model;
+
+import app.AppContext;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/********************************************
+ * Pool of cars of one road, cars that left the road are returned to the pool and reused for new cars from generators,
+ * so in long runs with high flow the number of allocated cars (and their HashMaps) stays at maximal number of cars on
+ * the road. Pool counts cars that are in use, in debug mode the road compares the count with cars on the road to find
+ * cars that were lost without returning to the pool, and the pool refuses car that is returned twice.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class CarPool {
+
+    /** cars ready to be reused **/
+    private final ArrayDeque<CarParams> freeCars = new ArrayDeque<>();
+
+    /** cars in the pool, used in debug mode to find cars returned twice **/
+    private final Set<CarParams> freeCarsSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** number of cars given out by the pool and not returned yet **/
+    private int carsInUse = 0;
+
+    /** number of cars created by the pool **/
+    private int carsCreated = 0;
+
+    /**
+     * gets car from the pool, car is reset to the state of newly created car, new car is created if pool is empty
+     *
+     * @return car ready to be filled by generator
+     **/
+    public CarParams acquire() {
+        CarParams car = this.freeCars.pollFirst();
+        if (car == null) {
+            car = new CarParams();
+            this.carsCreated++;
+        } else {
+            this.freeCarsSet.remove(car);
+            car.reset();
+        }
+        this.carsInUse++;
+        return car;
+    }
+
+    /**
+     * returns car that left the road to the pool, car must not be used after it is returned
+     *
+     * @param car car to return
+     * @return true if car was returned, false if it is null or it is already in the pool (in debug mode)
+     **/
+    public boolean release(CarParams car) {
+        if (car == null) {
+            return false;
+        }
+        if (AppContext.RUN_DETAILS != null && AppContext.RUN_DETAILS.debug && !this.freeCarsSet.add(car)) {
+            MyLogger.log("Car " + car.id + " was returned to car pool twice", Constants.WARN_FOR_LOGGING);
+            return false;
+        }
+        this.freeCars.addFirst(car);
+        this.carsInUse--;
+        return true;
+    }
+
+    /**
+     * getter for number of cars given out by the pool and not returned yet
+     *
+     * @return number of cars in use
+     **/
+    public int getCarsInUse() {
+        return this.carsInUse;
+    }
+
+    /**
+     * sets number of cars in use, used when cars of the road are replaced by cars that were not created by the pool
+     * (restoring from checkpoint)
+     *
+     * @param carsInUse number of cars that will be returned to the pool
+     **/
+    void setCarsInUse(int carsInUse) {
+        this.carsInUse = carsInUse;
+    }
+
+    /**
+     * getter for number of cars created by the pool
+     *
+     * @return number of created cars
+     **/
+    public int getCarsCreated() {
+        return this.carsCreated;
+    }
+
+    /**
+     * getter for number of cars ready to be reused
+     *
+     * @return number of cars in the pool
+     **/
+    public int getFreeCars() {
+        return this.freeCars.size();
+    }
+}
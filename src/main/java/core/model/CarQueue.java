@@ -0,0 +1,138 @@
+package core.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/********************************************
+ * Queue of cars waiting to enter lane of the road. Queue does not hold generated cars, only number of cars left and
+ * generator of the lane, car is generated when it is first needed (it is at the head of the queue and road checks if
+ * it fits on the road), so at most one car per queue is in memory no matter how long the queue is and reset of the
+ * queue only draws its size.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class CarQueue {
+
+    /** generator creating cars of the queue **/
+    private final CarGenerator generator;
+
+    /** number of cars in queue, including generated car at the head **/
+    private int size;
+
+    /** generated car at the head of the queue, null if it was not generated yet **/
+    private CarParams head = null;
+
+    /**
+     * constructor of queue
+     *
+     * @param generator generator creating cars of the queue
+     * @param size number of cars in queue
+     **/
+    public CarQueue(CarGenerator generator, int size) {
+        this.generator = generator;
+        this.size = Math.max(0, size);
+    }
+
+    /**
+     * gets car at the head of the queue without removing it, car is generated when it is needed for the first time
+     *
+     * @return car at the head of the queue, null if queue is empty
+     **/
+    public CarParams peek() {
+        return this.peek(null);
+    }
+
+    /**
+     * gets car at the head of the queue without removing it, car is generated when it is needed for the first time
+     *
+     * @param pool pool of cars of the road the car is generated from, null if new car should be created
+     * @return car at the head of the queue, null if queue is empty
+     **/
+    public CarParams peek(CarPool pool) {
+        if (this.head == null && this.size > 0) {
+            this.head = pool != null ? this.generator.generateCar(pool) : this.generator.generateCar();
+        }
+        return this.head;
+    }
+
+    /**
+     * getter for car at the head of the queue, car is not generated if it was not generated yet
+     *
+     * @return generated car at the head of the queue, null if it was not generated
+     **/
+    CarParams getGeneratedHead() {
+        return this.head;
+    }
+
+    /**
+     * removes car at the head of the queue
+     *
+     * @return removed car, null if queue is empty
+     **/
+    public CarParams poll() {
+        CarParams car = this.peek();
+        if (car != null) {
+            this.head = null;
+            this.size--;
+        }
+        return car;
+    }
+
+    /**
+     * checks if queue is empty
+     *
+     * @return true if there are no cars in queue, false otherwise
+     **/
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * getter for number of cars in queue
+     *
+     * @return number of cars in queue
+     **/
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * removes all cars from queue
+     **/
+    public void clear() {
+        this.size = 0;
+        this.head = null;
+    }
+
+    /**
+     * writes state of queue to the stream, used for checkpoints of the simulation
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(this.size);
+        out.writeBoolean(this.head != null);
+        if (this.head != null) {
+            this.head.writeState(out);
+        }
+    }
+
+    /**
+     * reads state of queue written by writeState from the stream
+     *
+     * @param generator generator creating cars of the queue
+     * @param in stream to read from
+     * @return read queue
+     * @throws IOException if reading fails
+     **/
+    public static CarQueue readState(CarGenerator generator, DataInputStream in) throws IOException {
+        CarQueue queue = new CarQueue(generator, in.readInt());
+        if (in.readBoolean()) {
+            queue.head = CarParams.readState(in);
+        }
+        return queue;
+    }
+}
@@ -0,0 +1,229 @@
+package core.model;
+
+import java.util.Arrays;
+
+/********************************************
+ * Class representing demand profile of car generator, flow rate that changes during the simulation (rush hour ramps,
+ * day long profiles). Profile is given by points (time in steps, flow rate in cars per second), between points the
+ * rate is either constant (rate of the previous point) or linearly interpolated, before the first point the rate of the
+ * first point is used and after the last point the rate of the last point is used. Cumulative rate at every point is
+ * precomputed, so time when cumulative rate reaches some value (next arrival) is found by binary search and solving
+ * one segment, cost of drawing arrival does not depend on number of steps.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class DemandProfile {
+
+    /** interpolation of rate between points, rate of previous point is used **/
+    public static final String INTERPOLATION_CONSTANT = "constant";
+
+    /** interpolation of rate between points, rate changes linearly **/
+    public static final String INTERPOLATION_LINEAR = "linear";
+
+    /** times of points in steps, first is always 0 **/
+    private final double[] times;
+
+    /** flow rates at points in cars per second **/
+    private final double[] rates;
+
+    /** cumulative rate (expected number of arrivals) from 0 to time of point **/
+    private final double[] cumulative;
+
+    /** whether rate is linearly interpolated between points **/
+    private final boolean linear;
+
+    /** file the profile was loaded from, null if points were in the map file **/
+    private String sourceFile = null;
+
+    /**
+     * constructor of demand profile, use create for checking of the points
+     *
+     * @param times times of points in steps, strictly increasing and starting with 0
+     * @param rates flow rates at points, not negative
+     * @param linear whether rate is linearly interpolated between points
+     **/
+    private DemandProfile(double[] times, double[] rates, boolean linear) {
+        this.times = times;
+        this.rates = rates;
+        this.linear = linear;
+        this.cumulative = new double[times.length];
+        for (int i = 1; i < times.length; i++) {
+            double duration = times[i] - times[i - 1];
+            double averageRate = linear ? (rates[i - 1] + rates[i]) / 2.0 : rates[i - 1];
+            this.cumulative[i] = this.cumulative[i - 1] + averageRate * duration;
+        }
+    }
+
+    /**
+     * creates demand profile from points, checks that times are not negative and strictly increasing and rates are not
+     * negative, point at time 0 with rate of the first point is added when the first point is later
+     *
+     * @param times times of points in steps
+     * @param rates flow rates at points in cars per second
+     * @param interpolation INTERPOLATION_CONSTANT or INTERPOLATION_LINEAR
+     * @return created profile, null if points or interpolation are not valid
+     **/
+    public static DemandProfile create(double[] times, double[] rates, String interpolation) {
+        if (times == null || rates == null || times.length == 0 || times.length != rates.length) {
+            return null;
+        }
+        if (!INTERPOLATION_CONSTANT.equals(interpolation) && !INTERPOLATION_LINEAR.equals(interpolation)) {
+            return null;
+        }
+        for (int i = 0; i < times.length; i++) {
+            if (!(times[i] >= 0.0) || !(rates[i] >= 0.0) || Double.isInfinite(times[i]) || Double.isInfinite(rates[i])
+                    || (i > 0 && times[i] <= times[i - 1])) {
+                return null;
+            }
+        }
+
+        double[] profileTimes = times;
+        double[] profileRates = rates;
+        if (times[0] > 0.0) {
+            profileTimes = new double[times.length + 1];
+            profileRates = new double[rates.length + 1];
+            System.arraycopy(times, 0, profileTimes, 1, times.length);
+            System.arraycopy(rates, 0, profileRates, 1, rates.length);
+            profileRates[0] = rates[0];
+        }
+        return new DemandProfile(profileTimes.clone(), profileRates.clone(), INTERPOLATION_LINEAR.equals(interpolation));
+    }
+
+    /**
+     * finds segment of the profile containing given time
+     *
+     * @param time time in steps
+     * @return index of the last point at or before the time
+     **/
+    private int segmentOf(double time) {
+        int index = Arrays.binarySearch(this.times, time);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    /**
+     * computes slope of rate in segment, 0 for constant interpolation and for the last segment
+     *
+     * @param segment index of segment
+     * @return change of rate per step
+     **/
+    private double slopeOf(int segment) {
+        if (!this.linear || segment >= this.times.length - 1) {
+            return 0.0;
+        }
+        return (this.rates[segment + 1] - this.rates[segment]) / (this.times[segment + 1] - this.times[segment]);
+    }
+
+    /**
+     * gets flow rate at given time
+     *
+     * @param time time in steps
+     * @return flow rate in cars per second
+     **/
+    public double rateAt(double time) {
+        double t = Math.max(0.0, time);
+        int segment = this.segmentOf(t);
+        return this.rates[segment] + this.slopeOf(segment) * (t - this.times[segment]);
+    }
+
+    /**
+     * computes cumulative rate (expected number of arrivals) from 0 to given time
+     *
+     * @param time time in steps
+     * @return cumulative rate
+     **/
+    public double cumulativeRate(double time) {
+        double t = Math.max(0.0, time);
+        int segment = this.segmentOf(t);
+        double d = t - this.times[segment];
+        return this.cumulative[segment] + this.rates[segment] * d + this.slopeOf(segment) * d * d / 2.0;
+    }
+
+    /**
+     * finds the first time when cumulative rate reaches given value, inverse of cumulativeRate
+     *
+     * @param target cumulative rate to reach
+     * @return time in steps, infinity if the rate after the last point is 0 and value is never reached
+     **/
+    public double timeOfCumulativeRate(double target) {
+        if (target <= 0.0) {
+            return 0.0;
+        }
+
+        int index = Arrays.binarySearch(this.cumulative, target);
+        if (index >= 0) {
+            while (index > 0 && this.cumulative[index - 1] == this.cumulative[index]) {
+                index--; // first point with this cumulative rate, segments before it have zero rate
+            }
+            return this.times[index];
+        }
+
+        int segment = -index - 2; // last point with smaller cumulative rate
+        double remaining = target - this.cumulative[segment];
+        double rate = this.rates[segment];
+        double slope = this.slopeOf(segment);
+        if (slope == 0.0) {
+            return rate > 0.0 ? this.times[segment] + remaining / rate : Double.POSITIVE_INFINITY;
+        }
+        // rate * d + slope * d^2 / 2 = remaining, numerically stable root
+        double discriminant = Math.max(0.0, rate * rate + 2.0 * slope * remaining);
+        double d = 2.0 * remaining / (rate + Math.sqrt(discriminant));
+        return Math.min(this.times[segment] + d, this.times[segment + 1]);
+    }
+
+    /**
+     * getter for times of points
+     *
+     * @return times of points in steps
+     **/
+    public double[] getTimes() {
+        return this.times.clone();
+    }
+
+    /**
+     * getter for rates of points
+     *
+     * @return flow rates at points in cars per second
+     **/
+    public double[] getRates() {
+        return this.rates.clone();
+    }
+
+    /**
+     * getter for interpolation of the profile
+     *
+     * @return INTERPOLATION_CONSTANT or INTERPOLATION_LINEAR
+     **/
+    public String getInterpolation() {
+        return this.linear ? INTERPOLATION_LINEAR : INTERPOLATION_CONSTANT;
+    }
+
+    /**
+     * getter for file the profile was loaded from
+     *
+     * @return path to the file, null if points were in the map file
+     **/
+    public String getSourceFile() {
+        return this.sourceFile;
+    }
+
+    /**
+     * setter for file the profile was loaded from, file is written to map instead of points when map is saved
+     *
+     * @param sourceFile path to the file
+     **/
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    /**
+     * toString method for DemandProfile
+     *
+     * @return String representation of DemandProfile
+     **/
+    @Override
+    public String toString() {
+        return "DemandProfile{interpolation=" + this.getInterpolation() + ", points=" + this.times.length +
+                (this.sourceFile != null ? ", file=" + this.sourceFile : "") + "}";
+    }
+}
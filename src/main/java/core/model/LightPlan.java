@@ -1,5 +1,10 @@
 package core.model;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /********************************************
  * Class representing a traffic light plan
  *
@@ -8,6 +13,12 @@ package core.model;
  ********************************************/
 public class LightPlan {
 
+    /** step returned by nextSwitchAfter when the light never switches **/
+    public static final long NEVER = Long.MAX_VALUE;
+
+    /** version of settings of light plans on roads, changed when such plan changes or plan on road is replaced **/
+    private static final AtomicInteger SETTINGS_VERSION = new AtomicInteger();
+
     /** cycle time of the traffic light **/
     private int cycleTime;
 
@@ -23,6 +34,12 @@ public class LightPlan {
     /** whether the light is always green, used for roads without light **/
     private boolean isAlwaysGreen;
 
+    /** shift of the start of the cycle in steps, cycles of neighbouring lights are shifted to create green wave **/
+    private int offset = 0;
+
+    /** whether the plan was placed on lane of some road, changes of plans of no road do not change the version **/
+    private boolean onRoad = false;
+
     /**
      * constructor for light plan
      *
@@ -58,7 +75,7 @@ public class LightPlan {
             return;
         }
 
-        int timeInCycle = currentTime % cycleTime;
+        int timeInCycle = Math.floorMod(currentTime - offset, cycleTime);
 
         if (timeInCycle == 0) {
             isGreen = beginsOnGreen;
@@ -67,6 +84,60 @@ public class LightPlan {
         }
     }
 
+    /**
+     * method to find the first step after given step in which tryToSwitchLight can change the light (start of the cycle
+     * or time of switch), computed directly from the cycle, so the light does not have to be polled every step
+     *
+     * @param step step after which switch is searched
+     * @return step of next switch, NEVER if light never switches
+     **/
+    public long nextSwitchAfter(long step) {
+        if (isAlwaysGreen || cycleTime <= 0) {
+            return NEVER;
+        }
+
+        long timeInCycle = Math.floorMod(step - offset, (long) cycleTime);
+        long startOfCycle = step - timeInCycle;
+        if (timeOfSwitch > timeInCycle && timeOfSwitch < cycleTime) {
+            return startOfCycle + timeOfSwitch;
+        }
+        return startOfCycle + cycleTime;
+    }
+
+    /**
+     * getter for version of settings of light plans on roads, schedules of switches are built again when it changes
+     *
+     * @return version of settings
+     **/
+    public static int getSettingsVersion() {
+        return SETTINGS_VERSION.get();
+    }
+
+    /**
+     * marks plans as placed on lanes of road and changes the version, because plans on road were replaced
+     *
+     * @param plans plans placed on road, null plans are skipped
+     **/
+    static void placeOnRoad(LightPlan... plans) {
+        if (plans != null) {
+            for (LightPlan plan : plans) {
+                if (plan != null) {
+                    plan.onRoad = true;
+                }
+            }
+        }
+        SETTINGS_VERSION.incrementAndGet();
+    }
+
+    /**
+     * marks that settings of the plan changed, so schedules of switches are not valid if the plan is on road
+     **/
+    private void settingsChanged() {
+        if (onRoad) {
+            SETTINGS_VERSION.incrementAndGet();
+        }
+    }
+
     /**
      * method to check if the light plan is legitimate
      *
@@ -125,6 +196,7 @@ public class LightPlan {
      */
     public void setBeginsOnGreen(boolean beginsOnGreen) {
         this.beginsOnGreen = beginsOnGreen;
+        settingsChanged();
     }
 
     /**
@@ -134,6 +206,7 @@ public class LightPlan {
      */
     public void setCycleTime(int cycleTime) {
         this.cycleTime = cycleTime;
+        settingsChanged();
     }
 
     /**
@@ -143,6 +216,27 @@ public class LightPlan {
      */
     public void setTimeOfSwitch(int timeOfSwitch) {
         this.timeOfSwitch = timeOfSwitch;
+        settingsChanged();
+    }
+
+    /**
+     * method to get the offset of the cycle
+     *
+     * @return int offset of the start of the cycle in steps
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Setter for offset, light is set to the phase it has at time 0 with the new offset
+     *
+     * @param offset shift of the start of the cycle in steps
+     */
+    public void setOffset(int offset) {
+        this.offset = offset;
+        this.reset();
+        settingsChanged();
     }
 
     /**
@@ -151,7 +245,10 @@ public class LightPlan {
      * @return cloned LightPlan object
      */
     public LightPlan clone() {
-        return new LightPlan(cycleTime, timeOfSwitch, beginsOnGreen);
+        LightPlan clone = new LightPlan(cycleTime, timeOfSwitch, beginsOnGreen);
+        clone.offset = offset;
+        clone.reset();
+        return clone;
     }
 
     /**
@@ -161,14 +258,40 @@ public class LightPlan {
      */
     @Override
     public String toString() {
-        return "LightPlan(cycleTime=" + cycleTime + ", timeOfSwitch=" + timeOfSwitch + ", beginsOnGreen=" + beginsOnGreen + ")";
+        return "LightPlan(cycleTime=" + cycleTime + ", timeOfSwitch=" + timeOfSwitch + ", beginsOnGreen=" + beginsOnGreen +
+                (offset != 0 ? ", offset=" + offset : "") + ")";
     }
 
     /**
-     * method to reset the light plan to its initial state
+     * method to reset the light plan to its initial state, light with offset starts in the phase it has at time 0
      **/
     public void reset() {
-        this.isGreen = beginsOnGreen;
+        if (offset == 0 || cycleTime <= 0) {
+            this.isGreen = beginsOnGreen;
+            return;
+        }
+        int timeInCycle = Math.floorMod(-offset, cycleTime);
+        this.isGreen = timeInCycle < timeOfSwitch ? beginsOnGreen : !beginsOnGreen;
+    }
+
+    /**
+     * writes current phase of the light to the stream, used for checkpoints of the simulation
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeBoolean(this.isGreen);
+    }
+
+    /**
+     * reads phase of the light written by writeState from the stream
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    public void readState(DataInputStream in) throws IOException {
+        this.isGreen = in.readBoolean();
     }
 
 }
@@ -2,14 +2,20 @@ package core.model;
 
 import app.AppContext;
 import core.utils.DefaultStuffMaker;
+import core.utils.MetricsRegistry;
 import core.utils.ResultsRecorder;
+import core.utils.RoadMetrics;
 import core.utils.constants.Constants;
 import core.utils.MyLogger;
 import core.utils.constants.RequestConstants;
+import core.utils.events.GenerationBlockedEvent;
+import core.utils.events.QueueAdmissionEvent;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.Queue;
 
 /********************************
  * Abstract class representing a road, including its basic properties
@@ -34,8 +40,8 @@ public abstract class Road {
     /** car generators assigned to this lanes **/
     protected CarGenerator[] generators;
 
-    /** queues of cars per lane **/
-    protected Queue<CarParams>[] carQueuesPerLane = null;
+    /** queues of cars per lane, cars are generated when they are at the head of the queue **/
+    protected CarQueue[] carQueuesPerLane = null;
 
     /** id of cars **/
     public int idOfCar = 0;
@@ -46,6 +52,22 @@ public abstract class Road {
     /** light plans on lanes **/
     protected LightPlan[] lightPlansOnLanes;
 
+    /** number of steps in which cars were added to road, steps of arrival schedule are counted by it **/
+    protected long arrivalStep = 0;
+
+    /** schedule of arrivals from generators, built when first needed and when generators change **/
+    private ArrivalSchedule arrivalSchedule = null;
+
+    /** version of settings of generators of the road, changed when settings of some of them change **/
+    private int generatorSettingsVersion = 0;
+
+    /** pool of cars that left the road, created when first needed if car pooling is enabled **/
+    private CarPool carPool = null;
+
+    /** periodic boundary of the road (ring road), car that passes the end enters the start again and leader of the
+     * front car is the last car of the lane, cars are not generated and lights do not stop cars **/
+    protected boolean periodic = false;
+
     /**
      * constructor for road, initializing its basic properties, used in constructors of subclasses
      *
@@ -65,12 +87,14 @@ public abstract class Road {
         this.generators = new CarGenerator[numberOfLanes];
         for (int i = 0; i < numberOfLanes; i++) {
             this.generators[i] = carGenerators.get(i);
+            this.generators[i].setRoad(this);
         }
         LinkedList<LightPlan> lightPlans = DefaultStuffMaker.createDefaultLightPlan(numberOfLanes);
         this.lightPlansOnLanes = new LightPlan[numberOfLanes];
         for (int i = 0; i < numberOfLanes; i++) {
             this.lightPlansOnLanes[i] = lightPlans.get(i);
         }
+        LightPlan.placeOnRoad(this.lightPlansOnLanes);
     }
 
     /**
@@ -121,6 +145,25 @@ public abstract class Road {
         return sb.toString();
     }
 
+    /**
+     * getter for periodic boundary of the road
+     *
+     * @return true if the road is ring road, false otherwise
+     **/
+    public boolean isPeriodic() {
+        return periodic;
+    }
+
+    /**
+     * setter for periodic boundary of the road, ring road is used to measure fundamental diagram at fixed density,
+     * cars are put on it by placeCarsEvenly
+     *
+     * @param periodic true to make the road ring road, false for road with start and end
+     **/
+    public void setPeriodic(boolean periodic) {
+        this.periodic = periodic;
+    }
+
     /**
      * getter for type of road
      *
@@ -140,6 +183,8 @@ public abstract class Road {
         for (int i = 0; i < numberOfLanes; i++) {
             this.generators[i] = generator;
         }
+        generator.setRoad(this);
+        this.arrivalSchedule = null;
     }
 
     /**
@@ -149,6 +194,10 @@ public abstract class Road {
      **/
     public void setCarGenerators(CarGenerator[] generators) {
         this.generators = generators;
+        for (CarGenerator generator : generators) {
+            generator.setRoad(this);
+        }
+        this.arrivalSchedule = null;
     }
 
     /**
@@ -160,7 +209,7 @@ public abstract class Road {
         if (carQueuesPerLane == null) {
             return true;
         }
-        for (Queue<CarParams> queue : carQueuesPerLane) {
+        for (CarQueue queue : carQueuesPerLane) {
             if (queue != null && !queue.isEmpty()) {
                 return false;
             }
@@ -177,7 +226,7 @@ public abstract class Road {
         if (carQueuesPerLane == null) {
             return false;
         }
-        for (Queue<CarParams> queue : carQueuesPerLane) {
+        for (CarQueue queue : carQueuesPerLane) {
             if (queue == null) {
                 return false;
             }
@@ -207,15 +256,33 @@ public abstract class Road {
     }
 
     /**
-     * method to try to add car to road from generator or queue
+     * method to try to add car to road from generator or queue, lanes generating into queue are tried every step, lanes
+     * generating one by one only when their arrival from arrival schedule is due
      **/
     protected void tryToAddCar() {
-        for (int lane = 0; lane < numberOfLanes; lane++) {
-            if (this.generators[lane].generatingToQueue()) {
-                this.addFromQueue(lane);
-            } else {
-                this.addFromGenerator(lane);
-            }
+        long start = MetricsRegistry.start();
+        if (this.arrivalSchedule == null
+                || this.arrivalSchedule.isStale(this.generators, this.generatorSettingsVersion)) {
+            this.arrivalSchedule = new ArrivalSchedule(this.generators, this.generatorSettingsVersion, this.arrivalStep);
+        }
+        this.arrivalStep++;
+
+        for (int lane : this.arrivalSchedule.getQueueLanes()) {
+            this.addFromQueue(lane);
+        }
+
+        int lane = this.arrivalSchedule.pollDueLane(this.arrivalStep);
+        while (lane != ArrivalSchedule.NO_LANE) {
+            this.addGeneratedCar(lane);
+            this.arrivalSchedule.schedule(lane, this.arrivalStep);
+            lane = this.arrivalSchedule.pollDueLane(this.arrivalStep);
+        }
+
+        if (this.carPool != null && AppContext.RUN_DETAILS.debug) {
+            this.checkCarPool();
+        }
+        if (start != 0) {
+            this.getMetrics().addTime(MetricsRegistry.Phase.GENERATION, start);
         }
     }
 
@@ -225,7 +292,7 @@ public abstract class Road {
      * @param lane lane to add car to
      */
     protected void addFromQueue(int lane) {
-        CarParams cp = this.carQueuesPerLane[lane].peek();
+        CarParams cp = this.carQueuesPerLane[lane].peek(this.getCarPool());
 
         if (cp != null && this.okToPutCarAtStart(cp, lane)) {
             cp.id = idOfCar;
@@ -235,6 +302,10 @@ public abstract class Road {
                             cp.getParameter(RequestConstants.LENGTH_REQUEST) + ", carParams: " + cp,
                     Constants.DEBUG_FOR_LOGGING);
             this.carQueuesPerLane[lane].poll();
+            QueueAdmissionEvent.emit(this.id, lane, cp.id, this.carQueuesPerLane[lane].size());
+            if (MetricsRegistry.isEnabled()) {
+                this.getMetrics().increment(MetricsRegistry.Counter.CARS_ADDED);
+            }
         }
     }
 
@@ -245,19 +316,113 @@ public abstract class Road {
      */
     protected void addFromGenerator(int lane) {
         if (this.generators[lane].decideIfNewCar()) {
-            CarParams newCar = generators[lane].generateCar();
-
-            if (newCar != null && this.okToPutCarAtStart(newCar, lane)) {
-                newCar.id = idOfCar;
-                idOfCar++;
-                this.placeCarAtStart(newCar, (int) (newCar.getParameter(RequestConstants.LENGTH_REQUEST)), lane);
-                MyLogger.log("New car placed at lane " + lane + " position: " +
-                                newCar.getParameter(RequestConstants.LENGTH_REQUEST) + ", carParams: " + newCar,
-                                Constants.DEBUG_FOR_LOGGING);
+            this.addGeneratedCar(lane);
+        }
+    }
+
+    /**
+     * method to generate car on lane and add it to road if there is space for it at start, car that does not fit is
+     * thrown away
+     *
+     * @param lane lane to add car to
+     **/
+    protected void addGeneratedCar(int lane) {
+        CarPool pool = this.getCarPool();
+        CarParams newCar = pool != null ? generators[lane].generateCar(pool) : generators[lane].generateCar();
+
+        if (newCar != null && this.okToPutCarAtStart(newCar, lane)) {
+            newCar.id = idOfCar;
+            idOfCar++;
+            this.placeCarAtStart(newCar, (int) (newCar.getParameter(RequestConstants.LENGTH_REQUEST)), lane);
+            MyLogger.log("New car placed at lane " + lane + " position: " +
+                            newCar.getParameter(RequestConstants.LENGTH_REQUEST) + ", carParams: " + newCar,
+                            Constants.DEBUG_FOR_LOGGING);
+            if (MetricsRegistry.isEnabled()) {
+                this.getMetrics().increment(MetricsRegistry.Counter.CARS_ADDED);
+            }
+        } else {
+            this.recycleCar(newCar);
+            GenerationBlockedEvent.emit(this.id, lane);
+            if (MetricsRegistry.isEnabled()) {
+                this.getMetrics().increment(MetricsRegistry.Counter.CARS_BLOCKED);
+            }
+        }
+    }
+
+    /**
+     * getter for pool of cars of the road, pool is created when first needed
+     *
+     * @return pool of cars, null if car pooling is disabled
+     **/
+    protected CarPool getCarPool() {
+        if (AppContext.RUN_DETAILS == null || !AppContext.RUN_DETAILS.carPooling) {
+            return null;
+        }
+        if (this.carPool == null) {
+            this.carPool = new CarPool();
+        }
+        return this.carPool;
+    }
+
+    /**
+     * method to return car that left the road to the pool of cars, car must not be used after it, nothing is done when
+     * car pooling is disabled
+     *
+     * @param car car that left the road
+     **/
+    protected void recycleCar(CarParams car) {
+        CarPool pool = this.getCarPool();
+        if (pool != null && car != null) {
+            pool.release(car);
+        }
+    }
+
+    /**
+     * method to count cars at the head of queues that were already generated, they are taken from the pool too
+     *
+     * @return number of generated cars in queues
+     **/
+    private int countGeneratedQueueHeads() {
+        int count = 0;
+        if (this.carQueuesPerLane != null) {
+            for (CarQueue queue : this.carQueuesPerLane) {
+                if (queue != null && queue.getGeneratedHead() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * method to return generated cars at the head of queues to the pool, used before queues are cleared or replaced
+     **/
+    private void recycleQueueHeads() {
+        if (this.carQueuesPerLane != null) {
+            for (CarQueue queue : this.carQueuesPerLane) {
+                if (queue != null) {
+                    this.recycleCar(queue.getGeneratedHead());
+                }
             }
         }
     }
 
+    /**
+     * method to check in debug mode that every car taken from the pool is on the road or at the head of queue, car
+     * that is missing was removed from the road without returning to the pool
+     *
+     * @return true if number of cars in use matches, false if some car leaked
+     **/
+    protected boolean checkCarPool() {
+        int expected = this.getNumberOfCarsOnRoad() + this.countGeneratedQueueHeads();
+        if (this.carPool.getCarsInUse() != expected) {
+            MyLogger.log("Car pool leak on road " + this.id + ": " + this.carPool.getCarsInUse() + " cars in use, " +
+                    expected + " cars on road and in queues", Constants.WARN_FOR_LOGGING);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * abstract method to place car at start of road, implemented in subclasses
      *
@@ -302,12 +467,132 @@ public abstract class Road {
      **/
     public abstract void removeAllCars();
 
+    /**
+     * abstract method to place car at any given position of the road without any checks of the free space, used when
+     * road content is restored from recorded data (replay of trajectories), implemented in subclasses
+     *
+     * @param car car parameters of car to place, its length parameter is used
+     * @param position position of the (head of the) car in units of the road (meters or cells)
+     * @param lane lane to place car in
+     **/
+    public abstract void placeCarAt(CarParams car, double position, int lane);
+
+    /**
+     * abstract method to remove all cars and put given number of cars generated by generators of lanes on every lane
+     * with the same distance between them, used to set density of ring road, implemented in subclasses
+     *
+     * @param carsPerLane number of cars on every lane
+     * @return number of cars put on the road, lower than requested if cars do not fit on the lane
+     **/
+    public abstract int placeCarsEvenly(int carsPerLane);
+
+    /**
+     * abstract method to write all cars on the road to the stream in order in which they are stored, used for
+     * checkpoints of the simulation, implemented in subclasses
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    protected abstract void writeCars(DataOutputStream out) throws IOException;
+
+    /**
+     * abstract method to read cars written by writeCars and put them on the (empty) road in the same order,
+     * implemented in subclasses
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    protected abstract void readCars(DataInputStream in) throws IOException;
+
+    /**
+     * writes complete state of the road that changes during simulation to the stream, it is id of next car, state of
+     * generators and light plans on every lane, arrival schedule, queues of cars and cars on the road, used for
+     * checkpoints of the simulation
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(this.idOfCar);
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            this.generators[lane].writeState(out);
+            this.lightPlansOnLanes[lane].writeState(out);
+        }
+
+        out.writeLong(this.arrivalStep);
+        boolean scheduled = this.arrivalSchedule != null
+                && !this.arrivalSchedule.isStale(this.generators, this.generatorSettingsVersion);
+        out.writeBoolean(scheduled);
+        if (scheduled) {
+            for (int lane = 0; lane < numberOfLanes; lane++) {
+                out.writeLong(this.arrivalSchedule.getDueStep(lane));
+            }
+        }
+
+        out.writeBoolean(this.carQueuesPerLane != null);
+        if (this.carQueuesPerLane != null) {
+            for (CarQueue queue : this.carQueuesPerLane) {
+                out.writeBoolean(queue != null);
+                if (queue != null) {
+                    queue.writeState(out);
+                }
+            }
+        }
+
+        this.writeCars(out);
+    }
+
+    /**
+     * reads state of the road written by writeState from the stream, cars that are on the road are removed first, road
+     * has to have the same number of lanes as the road that was written
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    public void readState(DataInputStream in) throws IOException {
+        this.idOfCar = in.readInt();
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            this.generators[lane].readState(in);
+            this.lightPlansOnLanes[lane].readState(in);
+        }
+
+        this.arrivalStep = in.readLong();
+        this.arrivalSchedule = null;
+        if (in.readBoolean()) {
+            long[] dueSteps = new long[numberOfLanes];
+            for (int lane = 0; lane < numberOfLanes; lane++) {
+                dueSteps[lane] = in.readLong();
+            }
+            this.arrivalSchedule = new ArrivalSchedule(this.generators, this.generatorSettingsVersion, this.arrivalStep,
+                    dueSteps);
+        }
+
+        if (in.readBoolean()) {
+            this.carQueuesPerLane = new CarQueue[numberOfLanes];
+            for (int lane = 0; lane < numberOfLanes; lane++) {
+                if (in.readBoolean()) {
+                    this.carQueuesPerLane[lane] = CarQueue.readState(this.generators[lane], in);
+                }
+            }
+        } else {
+            this.carQueuesPerLane = null;
+        }
+
+        this.removeAllCars();
+        this.readCars(in);
+        if (this.carPool != null) {
+            // restored cars were not taken from the pool, but they are returned to it when they leave the road
+            this.carPool.setCarsInUse(this.getNumberOfCarsOnRoad() + this.countGeneratedQueueHeads());
+        }
+    }
+
     /**
      * method for clearing car queues, used when resetting the simulation
      **/
     public void clearCarQueues() {
+        this.recycleQueueHeads();
         if (carQueuesPerLane != null) {
-            for (Queue<CarParams> queue : carQueuesPerLane) {
+            for (CarQueue queue : carQueuesPerLane) {
                 if (queue != null) {
                     queue.clear();
                 }
@@ -364,6 +649,7 @@ public abstract class Road {
      **/
     public void setLightPlan(LightPlan[] lightPlans) {
         this.lightPlansOnLanes = lightPlans;
+        LightPlan.placeOnRoad(lightPlans);
     }
 
     /**
@@ -375,6 +661,7 @@ public abstract class Road {
     public void setLightPlan(int lane, LightPlan lightPlan) {
         if (lane >= 0 && lane < lightPlansOnLanes.length) {
             this.lightPlansOnLanes[lane] = lightPlan;
+            LightPlan.placeOnRoad(lightPlan);
         }
     }
 
@@ -387,9 +674,28 @@ public abstract class Road {
     public void setRoadGenerator(int lane, CarGenerator generator) {
         if (lane >= 0 && lane < generators.length) {
             this.generators[lane] = generator;
+            generator.setRoad(this);
+            this.arrivalSchedule = null;
         }
     }
 
+    /**
+     * marks that settings of some generator of the road changed, so arrival schedule is built again, called by
+     * generator
+     **/
+    void generatorSettingsChanged() {
+        this.generatorSettingsVersion++;
+    }
+
+    /**
+     * getter for version of settings of generators of the road
+     *
+     * @return version of settings of generators
+     **/
+    int getGeneratorSettingsVersion() {
+        return this.generatorSettingsVersion;
+    }
+
     /**
      * method to set types of generators (cellular, continuous...)
      **/
@@ -461,7 +767,7 @@ public abstract class Road {
      * method to set up queues for generators that are generating to queue, if needed
      **/
     public void setUpQueuesIfNeeded() {
-        carQueuesPerLane = new Queue[numberOfLanes];
+        carQueuesPerLane = new CarQueue[numberOfLanes];
         for (int i = 0; i < numberOfLanes; i++) {
             if (this.generators[i].generatingToQueue()) {
                 this.carQueuesPerLane[i] = this.generators[i].generateCarsInToQueue();
@@ -494,10 +800,24 @@ public abstract class Road {
         }
     }
 
+    /**
+     * method to forget drawn arrivals of generators, they are drawn again in next step, used when random generator is
+     * seeded again (warm start) and when resetting the simulation
+     **/
+    public void resetArrivalSchedule() {
+        this.arrivalSchedule = null;
+        for (CarGenerator generator : this.generators) {
+            generator.resetArrivals();
+        }
+    }
+
     /**
      * method to reset car queues, used when resetting the simulation
      **/
     public void resetCarQueues() {
+        this.arrivalStep = 0;
+        this.resetArrivalSchedule();
+        this.recycleQueueHeads();
         for (int i = 0; i < carQueuesPerLane.length; i++) {
             if (carQueuesPerLane[i] != null && this.generators[i].generatingToQueue()) {
                 carQueuesPerLane[i] = generators[i].generateCarsInToQueue();
@@ -517,11 +837,24 @@ public abstract class Road {
      * Function to count the number of stopped cars in all lanes and record the results in the ResultsRecorder
      **/
     protected void countStoppedCars() {
+        long start = MetricsRegistry.start();
         for (int i = 0; i < numberOfLanes; i++) {
             int numberOfStandingCars = countStoppedCarsInLane(i);
             boolean isGreen = this.lightPlansOnLanes[i].isGreen();             // this was quite hidden
             ResultsRecorder.getResultsRecorder().recordNumberOfStoppedCars(numberOfStandingCars, !isGreen, this.id, i);
         }
+        if (start != 0) { // stopped cars are counted at the end of forward step
+            this.getMetrics().addNestedTime(MetricsRegistry.Phase.RECORDING, start, MetricsRegistry.Phase.FORWARD_STEP);
+        }
+    }
+
+    /**
+     * getter for metrics of phases of steps of the road from metrics registry
+     *
+     * @return metrics of the road
+     **/
+    public RoadMetrics getMetrics() {
+        return MetricsRegistry.getMetricsRegistry().forRoad(this.id);
     }
 
     /**
@@ -8,7 +8,11 @@ import core.model.Road;
 import core.utils.*;
 import core.utils.constants.Constants;
 import core.utils.constants.RequestConstants;
+import core.utils.events.LaneChangeDecisionEvent;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedList;
 
@@ -129,7 +133,18 @@ public class CellularRoad extends Road {
         for (int position = this.numberOfCells - 1; position >= 0; position--) {
             for (int lane = numberOfLanes - 1; lane >= 0; lane--) {
                 if (cells[lane][position].isOccupied() && cells[lane][position].isHead()) {
+                    LaneChangeDecisionEvent decisionEvent = new LaneChangeDecisionEvent();
+                    decisionEvent.begin();
                     Direction laneChangeResult = attemptLaneChange(cells[lane][position]);
+                    decisionEvent.end();
+                    if (decisionEvent.shouldCommit()) {
+                        decisionEvent.roadId = this.id;
+                        decisionEvent.carId = cells[lane][position].getCarParams().id;
+                        decisionEvent.lane = lane;
+                        decisionEvent.direction = laneChangeResult.name();
+                        decisionEvent.desired = laneChangeResult != Direction.STRAIGHT;
+                        decisionEvent.commit();
+                    }
                     if (laneChangeResult != Direction.STRAIGHT) {
                         LaneChangeResult lcr = new LaneChangeResult(laneChangeResult, cells[lane][position].getCarParams());
                         changedCars.add(lcr);
@@ -170,6 +185,9 @@ public class CellularRoad extends Road {
                     this.removeCar(currentLane, (int) carParams.xPosition);
                     // record lane change in the results recorder
                     ResultsRecorder.getResultsRecorder().recordLaneChange(this.id);
+                    if (MetricsRegistry.isEnabled()) {
+                        this.getMetrics().increment(MetricsRegistry.Counter.LANE_CHANGES);
+                    }
                 }
             }
         }
@@ -179,8 +197,16 @@ public class CellularRoad extends Road {
      * function to perform lane change step, finding cars that want to change lanes and processing their lane changes
      **/
     private void laneChangeStep() {
+        long start = MetricsRegistry.start();
         LinkedList<LaneChangeResult> changedCars = findLaneChanges();
+        if (start != 0) {
+            this.getMetrics().addTime(MetricsRegistry.Phase.LANE_CHANGE_DECISION, start);
+            start = MetricsRegistry.start();
+        }
         this.processLaneChanges(changedCars);
+        if (start != 0) {
+            this.getMetrics().addTime(MetricsRegistry.Phase.LANE_CHANGE_APPLY, start);
+        }
     }
 
     /**
@@ -190,6 +216,7 @@ public class CellularRoad extends Road {
      **/
     private int forwardStep() {
         int carsPassed = 0;
+        long start = MetricsRegistry.start();
         for (int position = this.numberOfCells - 1; position >= 0; position--) {
             for (int lane = numberOfLanes - 1; lane >= 0; lane--) {
                 if (cells[lane][position].isOccupied() && cells[lane][position].isHead()) {
@@ -203,6 +230,9 @@ public class CellularRoad extends Road {
                     }
 
                     double newSpeed = AppContext.CAR_FOLLOWING_MODEL.getNewSpeed(parameters);
+                    if (MetricsRegistry.isEnabled()) {
+                        this.getMetrics().increment(MetricsRegistry.Counter.SPEED_EVALUATIONS);
+                    }
 
                     if (newSpeed > this.speedLimitInCells) {
                         newSpeed = this.speedLimitInCells;
@@ -213,8 +243,10 @@ public class CellularRoad extends Road {
                     }
 
                     if (isCarAtEnd(cells[lane][position].getCarParams(), (int) newSpeed)) {
-                        if (checkIfCarStillRelevant(cells[lane][position].getCarParams(), (int) newSpeed)) {
-                            moveCarHead(cells[lane][position].getCarParams(), (int) newSpeed);
+                        CarParams car = cells[lane][position].getCarParams();
+                        if (checkIfCarStillRelevant(car, (int) newSpeed)) {
+                            moveCarHead(car, (int) newSpeed);
+                            this.recordTrajectory(car);
                         } else {
                             carsPassed++;
                         }
@@ -230,12 +262,13 @@ public class CellularRoad extends Road {
                         // if car is cut and red light then remove car
                         if (!Double.isNaN(isCut) && isCut == CAR_IS_CUT && !super.isLaneGreen(lane)) {
                             removeCar(lane, position);
+                            this.recycleCar(car);
                             carsPassed++;
                         } else {
 
-                            cells[lane][position].getCarParams().setParameter(RequestConstants.CURRENT_SPEED_REQUEST
-                                    , newSpeed);
+                            car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, newSpeed);
                             this.moveCar(cells[lane][position]);
+                            this.recordTrajectory(car);
                         }
                     }
                 }
@@ -244,6 +277,74 @@ public class CellularRoad extends Road {
 
         this.countStoppedCars();
 
+        if (start != 0) {
+            this.getMetrics().addTime(MetricsRegistry.Phase.FORWARD_STEP, start);
+        }
+        return carsPassed;
+    }
+
+    /**
+     * function to perform forward step on ring road, cars are moved in the same order as in forwardStep (from the end
+     * of the road), but the order is taken before any car moves, so car that passes the end and enters the start is not
+     * moved twice, car of the front of the ring follows the last car of the lane
+     *
+     * @return number of cars that passed the end of the road
+     **/
+    private int ringForwardStep() {
+        long start = MetricsRegistry.start();
+        LinkedList<CarParams> cars = new LinkedList<>();
+        for (int position = this.numberOfCells - 1; position >= 0; position--) {
+            for (int lane = numberOfLanes - 1; lane >= 0; lane--) {
+                if (cells[lane][position].isOccupied() && cells[lane][position].isHead()) {
+                    cars.add(cells[lane][position].getCarParams());
+                }
+            }
+        }
+
+        int carsPassed = 0;
+        for (CarParams car : cars) {
+            int lane = car.lane;
+            int position = (int) car.xPosition;
+            String requestParameters = AppContext.CAR_FOLLOWING_MODEL.requestParameters();
+            HashMap<String, Double> parameters = getParameters(lane, position, requestParameters);
+            if (parameters == null) {
+                MyLogger.log("Error getting parameters for car at lane " + lane + ", position " + position,
+                        Constants.ERROR_FOR_LOGGING);
+                continue;
+            }
+
+            double newSpeed = AppContext.CAR_FOLLOWING_MODEL.getNewSpeed(parameters);
+            if (MetricsRegistry.isEnabled()) {
+                this.getMetrics().increment(MetricsRegistry.Counter.SPEED_EVALUATIONS);
+            }
+            if (newSpeed > this.speedLimitInCells) {
+                newSpeed = this.speedLimitInCells;
+            }
+            if (AppContext.RUN_DETAILS.preventCollisions) {
+                newSpeed = resolveCollisions(car, (int) newSpeed);
+            }
+
+            car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, newSpeed);
+            int newPosition = position + (int) newSpeed;
+            carsPassed += newPosition / this.numberOfCells;
+            this.removeCar(lane, position);
+            this.placeCar(car, newPosition % this.numberOfCells, lane);
+
+            if (TrajectoryRecorder.isRecordingStep()) {
+                long recordingStart = MetricsRegistry.start();
+                TrajectoryRecorder.getTrajectoryRecorder().recordCar(this.id, car);
+                if (recordingStart != 0) {
+                    this.getMetrics().addNestedTime(MetricsRegistry.Phase.RECORDING, recordingStart,
+                            MetricsRegistry.Phase.FORWARD_STEP);
+                }
+            }
+        }
+
+        this.countStoppedCars();
+
+        if (start != 0) {
+            this.getMetrics().addTime(MetricsRegistry.Phase.FORWARD_STEP, start);
+        }
         return carsPassed;
     }
 
@@ -259,9 +360,9 @@ public class CellularRoad extends Road {
             this.laneChangeStep();
         }
 
-        int carsPassed = this.forwardStep();
+        int carsPassed = super.periodic ? this.ringForwardStep() : this.forwardStep();
 
-        if (true)
+        if (!super.periodic)
             super.tryToAddCar(); // Attempt to add a new car at the beginning of each lane
         return carsPassed;
     }
@@ -352,7 +453,16 @@ public class CellularRoad extends Road {
         CarParams otherCar = getCarInProximity(direction, orientation, car);
 
         if (otherCar != null) {
-            parameters.put(param, otherCar.getParameter(wantedParam));
+            double value = otherCar.getParameter(wantedParam);
+            if (super.periodic && wantedParam.equals(RequestConstants.X_POSITION_REQUEST)) {
+                // car found behind the end of the ring is ahead by one length of the road (and the other way)
+                if (orientation == Orientation.FORWARD && otherCar.xPosition <= car.xPosition) {
+                    value += this.numberOfCells;
+                } else if (orientation == Orientation.BACKWARD && otherCar.xPosition > car.xPosition) {
+                    value -= this.numberOfCells;
+                }
+            }
+            parameters.put(param, value);
         } else {
             if (car.lane == 0 && direction == Direction.LEFT) {
                 parameters.put(param, (double) Constants.NO_LANE_THERE);
@@ -363,7 +473,7 @@ public class CellularRoad extends Road {
                 return;
             }
 
-            if (orientation == Orientation.FORWARD && !super.isLaneGreen(car.lane)) {
+            if (orientation == Orientation.FORWARD && !super.periodic && !super.isLaneGreen(car.lane)) {
                 if (wantedParam.equals(RequestConstants.X_POSITION_REQUEST)) {
                     parameters.put(param, (double) this.numberOfCells);
                 } else {
@@ -384,18 +494,21 @@ public class CellularRoad extends Road {
      * @return CarParams of the car in proximity, or null if no car is found
      **/
     private CarParams getCarInProximity(Direction direction, Orientation orientation, CarParams car) {
+        if (MetricsRegistry.isEnabled()) {
+            this.getMetrics().increment(MetricsRegistry.Counter.NEIGHBOUR_LOOKUPS);
+        }
         int lane = car.lane;
         int position = (int) car.xPosition;
 
         if (direction == Direction.STRAIGHT) {
             if (orientation == Orientation.FORWARD) {
-                if (position < this.numberOfCells - 1) {
+                if (position < this.numberOfCells - 1 || super.periodic) {
                     return this.getNextCarInLane(lane, position);
                 } else {
                     return null;
                 }
             } else {
-                if (position > 0) {
+                if (position > 0 || super.periodic) {
                     return this.getPreviousCarInLane(lane, position, car);
                 } else {
                     return null;
@@ -440,6 +553,13 @@ public class CellularRoad extends Road {
                 return cells[lane][pos].getCarParams();
             }
         }
+        if (super.periodic) { // continue from the start of the ring, car alone in the lane follows itself
+            for (int pos = 0; pos <= position; pos++) {
+                if (cells[lane][pos].isOccupied() && cells[lane][pos].isHead()) {
+                    return cells[lane][pos].getCarParams();
+                }
+            }
+        }
         return null;
     }
 
@@ -458,6 +578,14 @@ public class CellularRoad extends Road {
                 return cells[lane][pos].getCarParams();
             }
         }
+        if (super.periodic) { // continue from the end of the ring
+            for (int pos = this.numberOfCells - 1; pos > position; pos--) {
+                if (cells[lane][pos].isOccupied() && cells[lane][pos].isHead() &&
+                        cells[lane][pos].getCarParams() != car) {
+                    return cells[lane][pos].getCarParams();
+                }
+            }
+        }
         return null;
     }
 
@@ -472,7 +600,7 @@ public class CellularRoad extends Road {
      **/
     private boolean isSpaceFree(int lane, int headPosition, int length) {
         for (int i = 0; i < length; i++) {
-            int posToCheck = headPosition - i;
+            int posToCheck = this.wrapPosition(headPosition - i);
             if (posToCheck < 0 || posToCheck >= numberOfCells) {
                 return false;
             }
@@ -512,7 +640,7 @@ public class CellularRoad extends Road {
         }
         CarParams carParams = cells[lane][position].getCarParams();
         for (int i = 0; i < carParams.getParameter(RequestConstants.LENGTH_REQUEST); i++) {
-            int posToClear = (int) (carParams.xPosition - i);
+            int posToClear = this.wrapPosition((int) (carParams.xPosition - i));
             if (posToClear >= 0 && posToClear < numberOfCells) {
                 cells[lane][posToClear].setOccupied(false);
                 cells[lane][posToClear].setHead(false);
@@ -544,6 +672,52 @@ public class CellularRoad extends Road {
         placeCar(car, (int) (length - 1), lane);
     }
 
+    /**
+     * function to place a car with its head at given cell of given lane
+     *
+     * @param car CarParams of the car to be placed
+     * @param position cell where the head of the car is placed
+     * @param lane lane number where the car is to be placed
+     **/
+    @Override
+    public void placeCarAt(CarParams car, double position, int lane) {
+        placeCar(car, (int) position, lane);
+    }
+
+    /**
+     * function to write all cars to the stream, only cells with head of the car are written, body of the car is
+     * restored from its length
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    @Override
+    protected void writeCars(DataOutputStream out) throws IOException {
+        out.writeInt(this.getNumberOfCarsOnRoad());
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            for (int position = 0; position < this.numberOfCells; position++) {
+                if (cells[lane][position].isOccupied() && cells[lane][position].isHead()) {
+                    cells[lane][position].getCarParams().writeState(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * function to read cars written by writeCars and place them with their heads at their written positions
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    @Override
+    protected void readCars(DataInputStream in) throws IOException {
+        int numberOfCars = in.readInt();
+        for (int i = 0; i < numberOfCars; i++) {
+            CarParams car = CarParams.readState(in);
+            placeCar(car, (int) car.xPosition, car.lane);
+        }
+    }
+
     /**
      * function to place a car on the road at a specified position and lane
      *
@@ -557,7 +731,7 @@ public class CellularRoad extends Road {
             return;
         }
         for (int i = 0; i < car.getParameter(RequestConstants.LENGTH_REQUEST); i++) {
-            int posToOccupy = x - i;
+            int posToOccupy = this.wrapPosition(x - i);
             if (posToOccupy >= 0 && posToOccupy < numberOfCells) {
                 cells[lane][posToOccupy].setOccupied(true);
                 cells[lane][posToOccupy].setCarParams(car);
@@ -575,6 +749,54 @@ public class CellularRoad extends Road {
         }
     }
 
+    /**
+     * function to put given number of generated cars on every lane with the same distance between their heads, first
+     * car of the lane has its back at the first cell, all cars are removed first
+     *
+     * @param carsPerLane number of cars on every lane
+     * @return number of cars put on the road, lower than requested if cars do not fit between each other
+     **/
+    @Override
+    public int placeCarsEvenly(int carsPerLane) {
+        this.removeAllCars();
+        int placed = 0;
+        if (carsPerLane <= 0) {
+            return placed;
+        }
+
+        double spacing = (double) this.numberOfCells / carsPerLane;
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            for (int i = 0; i < carsPerLane; i++) {
+                CarParams car = super.generators[lane].generateCar();
+                int carLength = car == null ? 0 : (int) car.getParameter(RequestConstants.LENGTH_REQUEST);
+                int head = (int) (i * spacing) + carLength - 1;
+                if (car == null || carLength < 1 || !this.isSpaceFree(lane, head, carLength) ||
+                        (!super.periodic && head >= this.numberOfCells)) {
+                    MyLogger.log("Car does not fit on lane " + lane + " with " + carsPerLane + " cars",
+                            Constants.WARN_FOR_LOGGING);
+                    return placed;
+                }
+                car.id = idOfCar;
+                idOfCar++;
+                this.placeCar(car, this.wrapPosition(head), lane);
+                placed++;
+            }
+        }
+
+        return placed;
+    }
+
+    /**
+     * function to get cell of position on ring road, position behind the end continues from the start and position
+     * before the start continues from the end, position on road that is not ring is not changed
+     *
+     * @param position position that can be outside the road
+     * @return position of cell on ring road, the same position otherwise
+     **/
+    private int wrapPosition(int position) {
+        return super.periodic ? Math.floorMod(position, this.numberOfCells) : position;
+    }
+
     /**
      * function to check if a car is still relevant on the road, i.e., if it has not completely passed the end of the
      * road
@@ -590,12 +812,30 @@ public class CellularRoad extends Road {
 
         if ((car.xPosition + newSpeed - car.getParameter(RequestConstants.LENGTH_REQUEST) + 1) >= this.numberOfCells) { // fuck zero base indexing
             removeCar(car.lane, (int) car.xPosition);
+            this.recycleCar(car);
             return false;
         }
 
         return true;
     }
 
+    /**
+     * records car to trajectory after it moved in forward step, if current step is recorded
+     *
+     * @param car car that moved
+     **/
+    private void recordTrajectory(CarParams car) {
+        if (!TrajectoryRecorder.isRecordingStep()) {
+            return;
+        }
+        long recordingStart = MetricsRegistry.start();
+        TrajectoryRecorder.getTrajectoryRecorder().recordCar(this.id, car);
+        if (recordingStart != 0) {
+            this.getMetrics().addNestedTime(MetricsRegistry.Phase.RECORDING, recordingStart,
+                    MetricsRegistry.Phase.FORWARD_STEP);
+        }
+    }
+
     /**
      * Function to check if car is over or is touching the end of the road
      *
@@ -695,6 +935,9 @@ public class CellularRoad extends Road {
     public void removeAllCars() {
         for (int lane = 0; lane < numberOfLanes; lane++) {
             for (int position = 0; position < this.numberOfCells; position++) {
+                if (cells[lane][position].isOccupied() && cells[lane][position].isHead()) {
+                    this.recycleCar(cells[lane][position].getCarParams());
+                }
                 cells[lane][position].setOccupied(false);
                 cells[lane][position].setHead(false);
                 cells[lane][position].setCarParams(null);
@@ -714,10 +957,11 @@ public class CellularRoad extends Road {
         int oldX = (int) car.xPosition;
         int newX = oldX + newSpeed;
         for (int pos = oldX + 1; pos <= newX; pos++) {
-            if (pos >= numberOfCells) {
+            if (pos >= numberOfCells && !super.periodic) {
                 break; // beyond road end
             }
-            if (cells[lane][pos].isOccupied()) {
+            Cell cell = cells[lane][pos % numberOfCells];
+            if (cell.isOccupied() && cell.getCarParams() != car) {
                 if (AppContext.RUN_DETAILS.preventCollisions) {
                     return pos - 1 - oldX; // return distance to the cell before collision
                 } else {
@@ -5,7 +5,11 @@ import core.model.*;
 import core.utils.*;
 import core.utils.constants.Constants;
 import core.utils.constants.RequestConstants;
+import core.utils.events.LaneChangeDecisionEvent;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.ListIterator;
@@ -158,7 +162,7 @@ public class ContinuosRoad extends Road {
     public synchronized int updateRoad() {
         int carsPassed = this.forwardStep();
 
-        if (true)
+        if (!super.periodic)
             super.tryToAddCar();
 
         return carsPassed;
@@ -170,6 +174,7 @@ public class ContinuosRoad extends Road {
      * @return number of cars that passed the end of the road
      **/
     private int forwardStep() {
+        long start = MetricsRegistry.start();
         for (int lane = this.numberOfLanes - 1; lane >= 0; lane--) {
             MyLogger.log("Updating lane " + lane + " with " + this.vehicles[lane].size() + " vehicles.",
                     Constants.DEBUG_FOR_LOGGING);
@@ -184,9 +189,12 @@ public class ContinuosRoad extends Road {
             this.checkForDuplicates();
         }
 
-        int carsPassed = this.checkRelevancyOfCars();
+        int carsPassed = super.periodic ? this.wrapCarsAround() : this.checkRelevancyOfCars();
         this.countStoppedCars();
 
+        if (start != 0) {
+            this.getMetrics().addTime(MetricsRegistry.Phase.FORWARD_STEP, start);
+        }
         return carsPassed;
     }
 
@@ -221,6 +229,7 @@ public class ContinuosRoad extends Road {
             // defensive check against broken car states
             if (Double.isNaN(car.xPosition) || Double.isNaN(car.getParameter(RequestConstants.CURRENT_SPEED_REQUEST))) {
                 it.remove();
+                this.recycleCar(car);
                 continue;
             }
 
@@ -232,6 +241,9 @@ public class ContinuosRoad extends Road {
                 continue;
             }
             double newSpeed = AppContext.CAR_FOLLOWING_MODEL.getNewSpeed(parameters);
+            if (MetricsRegistry.isEnabled()) {
+                this.getMetrics().increment(MetricsRegistry.Counter.SPEED_EVALUATIONS);
+            }
 
             if (newSpeed > super.speedLimit) {
                 newSpeed = super.speedLimit;
@@ -252,6 +264,15 @@ public class ContinuosRoad extends Road {
             car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, newSpeed);
             car.xPosition += newSpeed;
 
+            if (TrajectoryRecorder.isRecordingStep()) {
+                long recordingStart = MetricsRegistry.start();
+                TrajectoryRecorder.getTrajectoryRecorder().recordCar(this.id, car);
+                if (recordingStart != 0) {
+                    this.getMetrics().addNestedTime(MetricsRegistry.Phase.RECORDING, recordingStart,
+                            MetricsRegistry.Phase.FORWARD_STEP);
+                }
+            }
+
             MyLogger.log("Car at lane " + lane + " updated to new speed " + newSpeed + " " +
                     "and new position " + car.xPosition, Constants.DEBUG_FOR_LOGGING);
 
@@ -337,9 +358,18 @@ public class ContinuosRoad extends Road {
         CarParams otherCar = getCarInProximity(orientation, car, road);
 
         if (otherCar != null) {
-            parameters.put(param, otherCar.getParameter(wantedParam));
+            double value = otherCar.getParameter(wantedParam);
+            if (super.periodic && wantedParam.equals(RequestConstants.X_POSITION_REQUEST)) {
+                // car found behind the end of the ring is ahead by one length of the road (and the other way)
+                if (orientation == Orientation.FORWARD && otherCar.xPosition <= car.xPosition) {
+                    value += super.length;
+                } else if (orientation == Orientation.BACKWARD && otherCar.xPosition >= car.xPosition) {
+                    value -= super.length;
+                }
+            }
+            parameters.put(param, value);
         } else {
-            if (orientation == Orientation.FORWARD && !super.isLaneGreen(car.lane)) {
+            if (orientation == Orientation.FORWARD && !super.periodic && !super.isLaneGreen(car.lane)) {
                 if (wantedParam.equals(RequestConstants.X_POSITION_REQUEST)) {
                     parameters.put(param, super.length);
                 } else {
@@ -364,6 +394,7 @@ public class ContinuosRoad extends Road {
                 CarParams car = it.next();
                 if (!this.checkIfCarStillRelevant(car)) {
                     it.remove();
+                    this.recycleCar(car);
                     carsPassed++;
                 }
             }
@@ -372,6 +403,28 @@ public class ContinuosRoad extends Road {
         return carsPassed;
     }
 
+    /**
+     * method to move cars that passed the end of the ring road to its start, lanes stay sorted by position, because
+     * cars that passed the end are the last cars of lanes
+     *
+     * @return number of cars that passed the end of the road
+     **/
+    private int wrapCarsAround() {
+        int carsPassed = 0;
+        for (int lane = 0; lane < this.numberOfLanes; lane++) {
+            LinkedList<CarParams> cars = this.vehicles[lane];
+            int carsInLane = cars.size();
+            for (int i = 0; i < carsInLane && cars.getLast().xPosition >= super.length; i++) {
+                CarParams car = cars.removeLast();
+                car.xPosition -= super.length;
+                cars.addFirst(car);
+                carsPassed++;
+            }
+        }
+
+        return carsPassed;
+    }
+
     /**
      * method to reset processed flags of all cars after update step
      **/
@@ -392,6 +445,9 @@ public class ContinuosRoad extends Road {
      * @return car in proximity or null if no car found
      **/
     private CarParams getCarInProximity(Orientation orientation, CarParams car, LinkedList<CarParams>[] road) {
+        if (MetricsRegistry.isEnabled()) {
+            this.getMetrics().increment(MetricsRegistry.Counter.NEIGHBOUR_LOOKUPS);
+        }
         int lane = car.lane;
         int position = road[lane].indexOf(car);
 
@@ -399,13 +455,13 @@ public class ContinuosRoad extends Road {
             if (position < road[lane].size() - 1) {
                 return road[lane].get(position + 1);
             } else {
-                return null;
+                return super.periodic ? road[lane].getFirst() : null;
             }
         } else {
             if (position > 0) {
                 return road[lane].get(position - 1);
             } else {
-                return null;
+                return super.periodic ? road[lane].getLast() : null;
             }
         }
     }
@@ -427,41 +483,96 @@ public class ContinuosRoad extends Road {
         Direction desiredDirection;
 
         if (lane > 0) { // try to change lane to the left
+            long start = MetricsRegistry.start();
             requestParameters = AppContext.LANE_CHANGING_MODEL.requestParameters(direction);
             fakeRoad = this.createFakeRoad(direction, car);
             if (fakeRoad != null) {
+                LaneChangeDecisionEvent decisionEvent = new LaneChangeDecisionEvent();
+                decisionEvent.begin();
                 parameters = getParameters(car, fakeRoad, requestParameters);
                 desiredDirection = AppContext.LANE_CHANGING_MODEL.changeLaneIfDesired(parameters, direction);
+                this.addLaneChangeTime(MetricsRegistry.Phase.LANE_CHANGE_DECISION, start);
+                this.commitDecision(decisionEvent, car, direction, desiredDirection == direction);
                 if (desiredDirection == Direction.LEFT) {
+                    start = MetricsRegistry.start();
                     this.placeCar(car, this.vehicles, Direction.LEFT);
                     MyLogger.log("Car at lane " + lane + " position " + index + " changed lane to LEFT.",
                             Constants.DEBUG_FOR_LOGGING);
                     ResultsRecorder.getResultsRecorder().recordLaneChange(this.id);
+                    this.addLaneChangeTime(MetricsRegistry.Phase.LANE_CHANGE_APPLY, start);
                     return Direction.LEFT;
                 }
+            } else {
+                this.addLaneChangeTime(MetricsRegistry.Phase.LANE_CHANGE_DECISION, start);
             }
         }
 
         if (lane < this.numberOfLanes - 1) { // try to change lane to the right
+            long start = MetricsRegistry.start();
             direction = Direction.RIGHT;
             requestParameters = AppContext.LANE_CHANGING_MODEL.requestParameters(direction);
             fakeRoad = this.createFakeRoad(direction, car);
             if (fakeRoad != null) {
+                LaneChangeDecisionEvent decisionEvent = new LaneChangeDecisionEvent();
+                decisionEvent.begin();
                 parameters = getParameters(car, fakeRoad, requestParameters);
                 desiredDirection = AppContext.LANE_CHANGING_MODEL.changeLaneIfDesired(parameters, direction);
+                this.addLaneChangeTime(MetricsRegistry.Phase.LANE_CHANGE_DECISION, start);
+                this.commitDecision(decisionEvent, car, direction, desiredDirection == direction);
                 if (desiredDirection == Direction.RIGHT) {
+                    start = MetricsRegistry.start();
                     this.placeCar(car, this.vehicles, Direction.RIGHT);
                     MyLogger.log("Car at lane " + lane + " position " + index + " changed lane to RIGHT.",
                             Constants.DEBUG_FOR_LOGGING);
                     ResultsRecorder.getResultsRecorder().recordLaneChange(this.id);
+                    this.addLaneChangeTime(MetricsRegistry.Phase.LANE_CHANGE_APPLY, start);
                     return Direction.RIGHT;
                 }
+            } else {
+                this.addLaneChangeTime(MetricsRegistry.Phase.LANE_CHANGE_DECISION, start);
             }
         }
 
         return Direction.STRAIGHT; // if no lane change possible or desired, return straight
     }
 
+    /**
+     * method to commit flight recorder event of decision of lane changing model if the event is enabled
+     *
+     * @param event event begun before the decision
+     * @param car car the decision was made for
+     * @param direction direction that was decided about
+     * @param desired whether the car wants to change lane in the direction
+     **/
+    private void commitDecision(LaneChangeDecisionEvent event, CarParams car, Direction direction, boolean desired) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.roadId = this.id;
+            event.carId = car.id;
+            event.lane = car.lane;
+            event.direction = direction.name();
+            event.desired = desired;
+            event.commit();
+        }
+    }
+
+    /**
+     * method to add time of lane change phase to metrics of the road, lane changes are decided during forward step, so
+     * their time is taken from forward step, applied lane change is counted
+     *
+     * @param phase phase of lane change that ended
+     * @param start start of the phase, 0 when metrics are disabled
+     **/
+    private void addLaneChangeTime(MetricsRegistry.Phase phase, long start) {
+        if (start != 0) {
+            RoadMetrics metrics = this.getMetrics();
+            metrics.addNestedTime(phase, start, MetricsRegistry.Phase.FORWARD_STEP);
+            if (phase == MetricsRegistry.Phase.LANE_CHANGE_APPLY) {
+                metrics.increment(MetricsRegistry.Counter.LANE_CHANGES);
+            }
+        }
+    }
+
     /**
      * method to get acceleration of different car in proximity (used for lane changing models)
      *
@@ -488,6 +599,9 @@ public class ContinuosRoad extends Road {
         String requestParameters = AppContext.CAR_FOLLOWING_MODEL.requestParameters();
         HashMap<String, Double> parameters = getParameters(carToStudy, road, requestParameters);
         double newSpeed = AppContext.CAR_FOLLOWING_MODEL.getNewSpeed(parameters);
+        if (MetricsRegistry.isEnabled()) {
+            this.getMetrics().increment(MetricsRegistry.Counter.NESTED_SPEED_EVALUATIONS);
+        }
         double oldSpeed = carToStudy.getParameter(RequestConstants.CURRENT_SPEED_REQUEST);
 
         return newSpeed - oldSpeed;
@@ -516,12 +630,23 @@ public class ContinuosRoad extends Road {
             if (carBehind.xPosition >= backXOfCar) {
                return false;
             }
+        } else if (super.periodic) { // car behind is the last car of the ring
+            double backXOfCar = (car.xPosition - car.getParameter(RequestConstants.LENGTH_REQUEST));
+            if (lane.getLast().xPosition - super.length >= backXOfCar) {
+                return false;
+            }
         }
 
         if (place < lane.size()) {
             CarParams carInFront = lane.get(place);
             double backXOfCarInFront = carInFront.xPosition - carInFront.getParameter(RequestConstants.LENGTH_REQUEST);
 
+            return !(car.xPosition >= backXOfCarInFront);
+        } else if (super.periodic) { // car in front is the first car of the ring
+            CarParams carInFront = lane.getFirst();
+            double backXOfCarInFront = carInFront.xPosition - carInFront.getParameter(RequestConstants.LENGTH_REQUEST)
+                    + super.length;
+
             return !(car.xPosition >= backXOfCarInFront);
         }
 
@@ -678,6 +803,89 @@ public class ContinuosRoad extends Road {
         vehicles[lane].add(place, newCar);
     }
 
+    /**
+     * method to place car at given position in given lane, keeping the lane sorted by position
+     *
+     * @param car car to place
+     * @param position position to place the car at
+     * @param lane lane to place the car in
+     **/
+    @Override
+    public void placeCarAt(CarParams car, double position, int lane) {
+        if (lane < 0 || lane >= this.numberOfLanes) {
+            MyLogger.log("Invalid lane to place car: " + lane, Constants.DEBUG_FOR_LOGGING);
+            return;
+        }
+        this.placeCarAtStart(car, position, lane);
+    }
+
+    /**
+     * method to remove all cars and put given number of generated cars on every lane with the same distance between
+     * their heads, first car of the lane has its back at the start of the road
+     *
+     * @param carsPerLane number of cars on every lane
+     * @return number of cars put on the road, lower than requested if cars are longer than distance between them
+     **/
+    @Override
+    public int placeCarsEvenly(int carsPerLane) {
+        this.removeAllCars();
+        int placed = 0;
+        if (carsPerLane <= 0) {
+            return placed;
+        }
+
+        double spacing = super.length / carsPerLane;
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            for (int i = 0; i < carsPerLane; i++) {
+                CarParams car = super.generators[lane].generateCar();
+                if (car == null || car.getParameter(RequestConstants.LENGTH_REQUEST) >= spacing) {
+                    MyLogger.log("Car does not fit on lane " + lane + " with " + carsPerLane + " cars",
+                            Constants.WARN_FOR_LOGGING);
+                    return placed;
+                }
+                car.id = idOfCar;
+                idOfCar++;
+                this.placeCarAt(car, i * spacing + car.getParameter(RequestConstants.LENGTH_REQUEST), lane);
+                placed++;
+            }
+        }
+
+        return placed;
+    }
+
+    /**
+     * method to write all cars to the stream lane by lane, in the order of lists of lanes
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    @Override
+    protected void writeCars(DataOutputStream out) throws IOException {
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            out.writeInt(vehicles[lane].size());
+            for (CarParams car : vehicles[lane]) {
+                car.writeState(out);
+            }
+        }
+    }
+
+    /**
+     * method to read cars written by writeCars, cars are appended to lanes in the written order, so the lists are the
+     * same as when they were written
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    @Override
+    protected void readCars(DataInputStream in) throws IOException {
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            int numberOfCars = in.readInt();
+            for (int i = 0; i < numberOfCars; i++) {
+                vehicles[lane].add(CarParams.readState(in));
+            }
+        }
+    }
+
     /**
      * method to check if car is still relevant (has not passed the end of the road)
      *
@@ -764,6 +972,9 @@ public class ContinuosRoad extends Road {
      **/
     public void removeAllCars() {
         for (int lane = 0; lane < numberOfLanes; lane++) {
+            for (CarParams car : vehicles[lane]) {
+                this.recycleCar(car);
+            }
             vehicles[lane].clear();
         }
     }
@@ -795,10 +1006,14 @@ public class ContinuosRoad extends Road {
         int lane = car.lane;
         int position = vehicles[lane].indexOf(car);
 
-        if (position < vehicles[lane].size() - 1) {
-            CarParams carInFront = vehicles[lane].get(position + 1);
+        if (position < vehicles[lane].size() - 1 || super.periodic) {
+            CarParams carInFront = position < vehicles[lane].size() - 1 ? vehicles[lane].get(position + 1) :
+                    vehicles[lane].getFirst();
             double distanceToCarInFront = carInFront.xPosition - carInFront.getParameter(RequestConstants.LENGTH_REQUEST)
                     - car.xPosition;
+            if (carInFront.xPosition <= car.xPosition) { // first car of the ring is ahead by one length of the road
+                distanceToCarInFront += super.length;
+            }
             if (distanceToCarInFront < newSpeed) {
                 if (AppContext.RUN_DETAILS.preventCollisions) {
                     return distanceToCarInFront - 1.0;
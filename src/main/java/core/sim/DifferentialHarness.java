@@ -0,0 +1,577 @@
+package core.sim;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.CarParams;
+import core.model.Road;
+import core.model.cellular.Cell;
+import core.model.cellular.CellularRoad;
+import core.model.continous.ContinuosRoad;
+import core.utils.MetricsRegistry;
+import core.utils.RandomNumberGenerator;
+import core.utils.ResultsRecorder;
+import core.utils.RunDetails;
+import core.utils.ScenarioDetails;
+import core.utils.ScenarioGenerator;
+import core.utils.constants.Constants;
+import core.utils.constants.RequestConstants;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/********************************************
+ * Differential harness comparing variant of the engine (fast path) with the reference engine. Both engines get the
+ * same randomised scenario (map, seed, models) built separately and are stepped in lockstep, every engine has its own
+ * run details, models and state of the shared random generator, which are swapped into app context before its step.
+ * After every step hashes of states of all roads (StateHash) are compared, the first divergence is reported with step,
+ * road and minimal difference of the roads (cars that are only on one of them and cars whose lane, position or speed
+ * differ). Scenario of the divergence can be built again from its seed.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class DifferentialHarness {
+
+    /** the highest number of differences of cars in report of divergence **/
+    static final int MAX_DIFFERENCES = 10;
+
+    /** package with car following models **/
+    private static final String CAR_FOLLOWING_MODELS_PACKAGE = "models.carFollowingModels";
+
+    /** package with lane changing models **/
+    private static final String LANE_CHANGING_MODELS_PACKAGE = "models.laneChangingModels";
+
+    /********************************************
+     * Variants of the engine available in this version, reference is the engine with all optional paths turned off
+     ********************************************/
+    public enum BuiltInVariant implements IEngineVariant {
+        /** the reference engine **/
+        REFERENCE,
+
+        /** cars that left the road are reused for new cars **/
+        CAR_POOLING {
+            @Override
+            public void configure(RunDetails details) {
+                details.carPooling = true;
+            }
+        },
+
+        /** phases of steps are timed by metrics registry **/
+        STEP_METRICS {
+            @Override
+            public void step(Simulation simulation) {
+                boolean enabled = MetricsRegistry.isEnabled();
+                MetricsRegistry.setEnabled(true);
+                try {
+                    simulation.step();
+                } finally {
+                    MetricsRegistry.setEnabled(enabled);
+                }
+            }
+        },
+
+        /** state of the simulation is written to checkpoint and restored from it after every step **/
+        CHECKPOINT_ROUND_TRIP {
+            @Override
+            public void step(Simulation simulation) {
+                simulation.step();
+                byte[] snapshot = SimulationCheckpoint.createSnapshot(simulation);
+                if (snapshot == null || !SimulationCheckpoint.restore(simulation, snapshot, "snapshot")) {
+                    throw new IllegalStateException("checkpoint round trip failed at step " +
+                            simulation.getStepCount());
+                }
+            }
+        };
+
+        /**
+         * getter for name of the variant
+         *
+         * @return name of the variant in lower case with dashes
+         **/
+        @Override
+        public String getName() {
+            return this.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    /**
+     * private constructor, class has only static methods
+     **/
+    private DifferentialHarness() {}
+
+    /**
+     * compares candidate with the reference engine on randomised scenarios, scenario i is built from seed + i
+     *
+     * @param candidate variant of the engine to check
+     * @param seed seed of the first scenario
+     * @param scenarios number of scenarios
+     * @param steps number of steps of every scenario
+     * @return the first divergence, null if candidate gave the same states in all scenarios
+     **/
+    public static Divergence compareRandom(IEngineVariant candidate, long seed, int scenarios, int steps) {
+        for (int i = 0; i < scenarios; i++) {
+            Divergence divergence = compare(Scenario.random(seed + i), BuiltInVariant.REFERENCE, candidate, steps);
+            if (divergence != null) {
+                return divergence;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * runs reference and candidate engine on the scenario in lockstep and compares states of roads after every step,
+     * app context and the shared random generator are restored afterwards
+     *
+     * @param scenario scenario to run
+     * @param reference reference engine
+     * @param candidate variant of the engine to check
+     * @param steps number of steps
+     * @return the first divergence, null if states were the same after every step
+     **/
+    public static Divergence compare(Scenario scenario, IEngineVariant reference, IEngineVariant candidate,
+                                     int steps) {
+        RunDetails previousDetails = AppContext.RUN_DETAILS;
+        ICarFollowingModel previousCarFollowingModel = AppContext.CAR_FOLLOWING_MODEL;
+        ILaneChangingModel previousLaneChangingModel = AppContext.LANE_CHANGING_MODEL;
+        Simulation previousSimulation = AppContext.SIMULATION;
+        byte[] previousRandomState = saveRandomState();
+
+        try {
+            Run referenceRun = new Run(reference, scenario, steps);
+            Run candidateRun = new Run(candidate, scenario, steps);
+            ResultsRecorder.getResultsRecorder().initialize(referenceRun.simulation.getRoads(), null);
+
+            for (int step = 1; step <= steps; step++) {
+                long[] referenceHashes = referenceRun.step();
+                long[] candidateHashes;
+                try {
+                    candidateHashes = candidateRun.step();
+                } catch (RuntimeException e) {
+                    return new Divergence(scenario, candidate.getName(), step, -1, 0, 0,
+                            List.of("candidate failed: " + e));
+                }
+
+                for (int road = 0; road < referenceHashes.length; road++) {
+                    if (referenceHashes[road] != candidateHashes[road]) {
+                        return new Divergence(scenario, candidate.getName(), step, road, referenceHashes[road],
+                                candidateHashes[road], difference(referenceRun, candidateRun, road));
+                    }
+                }
+            }
+            return null;
+        } finally {
+            AppContext.RUN_DETAILS = previousDetails;
+            AppContext.CAR_FOLLOWING_MODEL = previousCarFollowingModel;
+            AppContext.LANE_CHANGING_MODEL = previousLaneChangingModel;
+            AppContext.SIMULATION = previousSimulation;
+            restoreRandomState(previousRandomState);
+        }
+    }
+
+    /**
+     * finds minimal difference of road of two runs, cars are matched by id
+     *
+     * @param referenceRun run of the reference engine
+     * @param candidateRun run of the candidate
+     * @param road index of the road
+     * @return lines describing differences, at most MAX_DIFFERENCES lines of cars
+     **/
+    private static List<String> difference(Run referenceRun, Run candidateRun, int road) {
+        Map<Integer, CarParams> referenceCars = carsOf(referenceRun.simulation.getRoads()[road]);
+        Map<Integer, CarParams> candidateCars = carsOf(candidateRun.simulation.getRoads()[road]);
+        List<String> differences = new ArrayList<>();
+        if (referenceCars.size() != candidateCars.size()) {
+            differences.add("cars on road: " + referenceCars.size() + " vs " + candidateCars.size());
+        }
+
+        TreeMap<Integer, Boolean> ids = new TreeMap<>();
+        referenceCars.keySet().forEach(id -> ids.put(id, true));
+        candidateCars.keySet().forEach(id -> ids.put(id, true));
+        int cars = 0;
+        for (int id : ids.keySet()) {
+            String difference = difference(id, referenceCars.get(id), candidateCars.get(id));
+            if (difference != null) {
+                if (cars == MAX_DIFFERENCES) {
+                    differences.add("...");
+                    break;
+                }
+                differences.add(difference);
+                cars++;
+            }
+        }
+
+        if (cars == 0) {
+            differences.add("cars are the same, state of queues, generators or lights differs");
+        }
+        return differences;
+    }
+
+    /**
+     * describes difference of car in two runs
+     *
+     * @param id id of the car
+     * @param reference car in the reference run, null if it is not there
+     * @param candidate car in the candidate run, null if it is not there
+     * @return description of the difference, null if lane, position and speed are the same
+     **/
+    private static String difference(int id, CarParams reference, CarParams candidate) {
+        if (candidate == null) {
+            return "car " + id + " only in reference: " + describe(reference);
+        }
+        if (reference == null) {
+            return "car " + id + " only in candidate: " + describe(candidate);
+        }
+        if (reference.lane == candidate.lane && reference.xPosition == candidate.xPosition &&
+                speedOf(reference) == speedOf(candidate)) {
+            return null;
+        }
+        return "car " + id + ": " + describe(reference) + " vs " + describe(candidate);
+    }
+
+    /**
+     * describes lane, position and speed of car
+     *
+     * @param car car to describe
+     * @return description of the car
+     **/
+    private static String describe(CarParams car) {
+        return "lane " + car.lane + ", x " + car.xPosition + ", speed " + speedOf(car);
+    }
+
+    /**
+     * getter for current speed of car
+     *
+     * @param car car
+     * @return current speed of the car
+     **/
+    private static double speedOf(CarParams car) {
+        return car.getParameter(RequestConstants.CURRENT_SPEED_REQUEST);
+    }
+
+    /**
+     * collects cars of the road by their id
+     *
+     * @param road road to collect cars of
+     * @return cars of the road by id
+     **/
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, CarParams> carsOf(Road road) {
+        Map<Integer, CarParams> cars = new TreeMap<>();
+        if (road instanceof CellularRoad cellularRoad) {
+            for (Cell[] lane : cellularRoad.getContent()) {
+                for (Cell cell : lane) {
+                    if (cell.isOccupied() && cell.isHead()) {
+                        cars.put(cell.getCarParams().id, cell.getCarParams());
+                    }
+                }
+            }
+        } else if (road instanceof ContinuosRoad) {
+            for (List<CarParams> lane : (List<CarParams>[]) road.getContent()) {
+                for (CarParams car : lane) {
+                    cars.put(car.id, car);
+                }
+            }
+        }
+        return cars;
+    }
+
+    /**
+     * writes state of the shared random generator
+     *
+     * @return state of the generator
+     **/
+    private static byte[] saveRandomState() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            RandomNumberGenerator.getInstance(0).writeState(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("state of random generator cannot be written", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * restores state of the shared random generator written by saveRandomState
+     *
+     * @param state state of the generator
+     **/
+    private static void restoreRandomState(byte[] state) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+            RandomNumberGenerator.getInstance(0).readState(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("state of random generator cannot be read", e);
+        }
+    }
+
+    /********************************************
+     * Run of one engine on the scenario with its own app context and state of the shared random generator
+     ********************************************/
+    private static class Run {
+
+        /** variant of the engine **/
+        private final IEngineVariant variant;
+
+        /** run details of the run **/
+        private final RunDetails details;
+
+        /** car following model of the run **/
+        private final ICarFollowingModel carFollowingModel;
+
+        /** lane changing model of the run **/
+        private final ILaneChangingModel laneChangingModel;
+
+        /** simulation of the run **/
+        private final Simulation simulation;
+
+        /** state of the shared random generator between steps of the run **/
+        private byte[] randomState;
+
+        /**
+         * builds roads of the scenario for the engine
+         *
+         * @param variant variant of the engine
+         * @param scenario scenario to build
+         * @param steps number of steps of the run
+         **/
+        private Run(IEngineVariant variant, Scenario scenario, int steps) {
+            this.variant = variant;
+            this.details = new RunDetails();
+            this.details.log = new boolean[6];
+            this.details.timeStep = 1.0;
+            this.details.duration = steps + 1;
+            this.details.seed = scenario.seed;
+            this.details.laneChange = scenario.laneChange;
+            this.details.preventCollisions = true;
+            variant.configure(this.details);
+            this.carFollowingModel = InputParametersHandeler.getCarFollowingModelById(scenario.carFollowingModel);
+            this.laneChangingModel = InputParametersHandeler.getLaneChangingModelById(scenario.laneChangingModel);
+
+            AppContext.RUN_DETAILS = this.details;
+            AppContext.CAR_FOLLOWING_MODEL = this.carFollowingModel;
+            AppContext.LANE_CHANGING_MODEL = this.laneChangingModel;
+            RandomNumberGenerator.getInstance(scenario.seed).resetSeed(scenario.seed);
+            this.simulation = new Simulation(scenario.buildRoads());
+            AppContext.SIMULATION = this.simulation;
+            this.randomState = saveRandomState();
+        }
+
+        /**
+         * makes one step of the run in its own app context
+         *
+         * @return hashes of states of roads after the step
+         **/
+        private long[] step() {
+            AppContext.RUN_DETAILS = this.details;
+            AppContext.CAR_FOLLOWING_MODEL = this.carFollowingModel;
+            AppContext.LANE_CHANGING_MODEL = this.laneChangingModel;
+            AppContext.SIMULATION = this.simulation;
+            restoreRandomState(this.randomState);
+
+            this.variant.step(this.simulation);
+            Road[] roads = this.simulation.getRoads();
+            long[] hashes = new long[roads.length];
+            for (int i = 0; i < roads.length; i++) {
+                hashes[i] = StateHash.ofRoad(roads[i]);
+            }
+            this.randomState = saveRandomState();
+            return hashes;
+        }
+    }
+
+    /********************************************
+     * Randomised scenario, map, seed, models and lane changing are drawn from seed of the scenario, so the scenario can
+     * be built again for every engine
+     ********************************************/
+    public static class Scenario {
+
+        /** seed the scenario was drawn from **/
+        public final long scenarioSeed;
+
+        /** seed of the simulation **/
+        public long seed;
+
+        /** id of car following model **/
+        public String carFollowingModel;
+
+        /** id of lane changing model of the same type **/
+        public String laneChangingModel;
+
+        /** whether cars change lanes **/
+        public boolean laneChange;
+
+        /** description of map of the scenario, roads are built from it by ScenarioGenerator **/
+        public ScenarioDetails map;
+
+        /**
+         * constructor of empty scenario
+         *
+         * @param scenarioSeed seed the scenario is drawn from
+         **/
+        private Scenario(long scenarioSeed) {
+            this.scenarioSeed = scenarioSeed;
+        }
+
+        /**
+         * draws scenario from seed, map of 1 to 3 roads of 1 to 3 lanes with lights on some lanes and queues on some
+         * lanes, models of random type
+         *
+         * @param scenarioSeed seed of the scenario
+         * @return drawn scenario
+         **/
+        public static Scenario random(long scenarioSeed) {
+            // first values of java.util.Random with consecutive seeds are alike, so seed is spread first
+            Random random = new Random(scenarioSeed * 0x9E3779B97F4A7C15L);
+            Scenario scenario = new Scenario(scenarioSeed);
+            String type = random.nextBoolean() ? Constants.CONTINUOUS : Constants.CELLULAR;
+            scenario.carFollowingModel = pick(random, CAR_FOLLOWING_MODELS_PACKAGE, type);
+            scenario.laneChangingModel = pick(random, LANE_CHANGING_MODELS_PACKAGE, type);
+            scenario.seed = random.nextLong();
+            scenario.laneChange = random.nextBoolean();
+
+            ScenarioDetails map = new ScenarioDetails();
+            map.seed = random.nextLong();
+            map.roads = 1 + random.nextInt(3);
+            map.minLength = 200;
+            map.maxLength = 1000;
+            map.minLanes = 1;
+            map.maxLanes = 3;
+            map.minSpeedLimit = 10;
+            map.maxSpeedLimit = 20;
+            map.minFlowRate = 0.05;
+            map.maxFlowRate = 0.55;
+            map.lightShare = 0.5;
+            map.minCycle = 20;
+            map.maxCycle = 80;
+            map.minSplit = 0.5;
+            map.maxSplit = 0.5;
+            map.queueShare = 0.25;
+            map.minQueueSize = 5;
+            map.maxQueueSize = 20;
+            scenario.map = map;
+            return scenario;
+        }
+
+        /**
+         * picks random model of the type
+         *
+         * @param random random generator of the scenario
+         * @param packageName package of models
+         * @param type type of models
+         * @return id of the model
+         **/
+        private static String pick(Random random, String packageName, String type) {
+            List<InputParametersHandeler.ModelNameAndId> models = InputParametersHandeler.getAllModels(packageName,
+                    type);
+            if (models.isEmpty()) {
+                throw new IllegalStateException("no " + type + " models in " + packageName);
+            }
+            models.sort(Comparator.comparing(model -> model.id));
+            return models.get(random.nextInt(models.size())).id;
+        }
+
+        /**
+         * builds roads of the scenario, models of the run have to be in app context
+         *
+         * @return roads of the scenario
+         **/
+        Road[] buildRoads() {
+            return ScenarioGenerator.buildRoads(this.map);
+        }
+
+        /**
+         * describes scenario so it can be reproduced
+         *
+         * @return description of the scenario
+         **/
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append("scenario ").append(this.scenarioSeed).append(": models ").append(this.carFollowingModel)
+                    .append('/').append(this.laneChangingModel).append(", lane change ").append(this.laneChange)
+                    .append(", seed ").append(this.seed);
+            text.append(", map seed ").append(this.map.seed).append(" with ").append(this.map.roads).append(" roads");
+            return text.toString();
+        }
+    }
+
+    /********************************************
+     * The first divergence of candidate from the reference engine
+     ********************************************/
+    public static class Divergence {
+
+        /** scenario the engines diverged on **/
+        public final Scenario scenario;
+
+        /** name of the candidate **/
+        public final String candidate;
+
+        /** step after which states differ (1 is the first step) **/
+        public final int step;
+
+        /** index of the first road whose state differs, -1 if candidate failed **/
+        public final int road;
+
+        /** hash of state of the road in the reference run **/
+        public final long referenceHash;
+
+        /** hash of state of the road in the candidate run **/
+        public final long candidateHash;
+
+        /** minimal difference of the road **/
+        public final List<String> differences;
+
+        /**
+         * constructor of divergence
+         *
+         * @param scenario scenario the engines diverged on
+         * @param candidate name of the candidate
+         * @param step step after which states differ
+         * @param road index of the road, -1 if candidate failed
+         * @param referenceHash hash of the road in the reference run
+         * @param candidateHash hash of the road in the candidate run
+         * @param differences minimal difference of the road
+         **/
+        Divergence(Scenario scenario, String candidate, int step, int road, long referenceHash, long candidateHash,
+                   List<String> differences) {
+            this.scenario = scenario;
+            this.candidate = candidate;
+            this.step = step;
+            this.road = road;
+            this.referenceHash = referenceHash;
+            this.candidateHash = candidateHash;
+            this.differences = differences;
+        }
+
+        /**
+         * creates readable report of the divergence
+         *
+         * @return report of the divergence
+         **/
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.US, "%s diverged from reference at step %d", this.candidate, this.step));
+            if (this.road >= 0) {
+                text.append(String.format(Locale.US, " on road %d (hash %016x vs %016x)", this.road,
+                        this.referenceHash, this.candidateHash));
+            }
+            text.append(System.lineSeparator()).append("  ").append(this.scenario);
+            for (String difference : this.differences) {
+                text.append(System.lineSeparator()).append("  ").append(difference);
+            }
+            return text.toString();
+        }
+    }
+}
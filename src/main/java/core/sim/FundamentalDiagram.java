@@ -0,0 +1,253 @@
+package core.sim;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.Road;
+import core.utils.FundamentalDiagramDetails;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+import core.utils.loading.FundamentalDiagramLoader;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/********************************************
+ * Fundamental diagram of models, flow and speed measured at fixed densities on ring roads. Every road of the loaded map
+ * is made ring road (periodic boundary) with cars placed evenly at given density, so no cars are generated and none
+ * leave the road. After transient steps flow is measured as number of cars passing the end of the rings, speed is
+ * space mean speed computed from flow and density. Every density of every model is one headless run, runs are run at
+ * the same time in separate processes (ParallelRunner). Results are written to one table with density in cars per km
+ * and lane, flow in cars per hour and lane and speed in km per hour (q-k-v diagram of every model).
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class FundamentalDiagram {
+
+    /** separator of columns of results table **/
+    static final String SEPARATOR = ",";
+
+    /** header of results table **/
+    static final String HEADER = String.join(SEPARATOR, "carFollowingModel", "laneChangingModel", "density",
+            "flow", "speed", "steps");
+
+    /** value in results table for model that is taken from config **/
+    static final String UNCHANGED = "default";
+
+    /**
+     * loads fundamental diagram file and runs ring roads of all models and densities
+     *
+     * @param diagramFile fundamental diagram file
+     * @param arguments input parameters of the application, configuration, map and models are passed to runs
+     * @param duration number of measured steps of every run
+     * @return true if results were written, false otherwise
+     **/
+    public static boolean run(String diagramFile, String[] arguments, int duration) {
+        FundamentalDiagramDetails details = FundamentalDiagramLoader.load(diagramFile);
+        if (details == null || AppContext.SIMULATION == null || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Fundamental diagram needs valid fundamental diagram file and " +
+                    "loaded map.", Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+
+        String carFollowingModel = InputParametersHandeler.getSpecificParameter(arguments,
+                Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX);
+        String laneChangingModel = InputParametersHandeler.getSpecificParameter(arguments,
+                Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX);
+        if (details.carFollowingModels.isEmpty() && carFollowingModel != null && !carFollowingModel.isEmpty()) {
+            details.carFollowingModels.add(carFollowingModel);
+        }
+        if (details.laneChangingModels.isEmpty() && laneChangingModel != null && !laneChangingModel.isEmpty()) {
+            details.laneChangingModels.add(laneChangingModel);
+        }
+
+        List<String[]> models = pairModels(details, new ParameterSweep.ModelTypes()::compatible);
+        Road[] roads = AppContext.SIMULATION.getRoads();
+        List<String> baseArguments = new ArrayList<>();
+        for (String argument : arguments) {
+            if (argument.startsWith(Constants.CONFIG_PATH_PARAMETER_PREFIX) ||
+                    argument.startsWith(Constants.MAP_FILE_PARAMETER_PREFIX)) {
+                baseArguments.add(argument);
+            }
+        }
+
+        List<String[]> jobs = new ArrayList<>();
+        List<String[]> jobModels = new ArrayList<>();
+        List<Double> jobDensities = new ArrayList<>();
+        for (String[] model : models) {
+            for (double density : details.densities()) {
+                if (carsOnRoads(roads, density) == 0) {
+                    continue;
+                }
+                List<String> job = new ArrayList<>(baseArguments);
+                if (model[0] != null) {
+                    job.add(Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX + model[0]);
+                }
+                if (model[1] != null) {
+                    job.add(Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX + model[1]);
+                }
+                if (details.seed != null) {
+                    job.add(Constants.SEED_PARAMETER_PREFIX + details.seed);
+                }
+                job.add(Constants.RING_PARAMETER_PREFIX + density);
+                job.add(Constants.TRANSIENT_PARAMETER_PREFIX + details.transientSteps);
+                job.add(Constants.DURATION_PARAMETER_PREFIX + duration);
+                jobs.add(job.toArray(new String[0]));
+                jobModels.add(model);
+                jobDensities.add(density);
+            }
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Fundamental diagram runs " + jobs.size() + " rings of " +
+                models.size() + " models", Constants.INFO_FOR_LOGGING);
+
+        RunResult[] results = new ParallelRunner(details.workers).runAll(jobs);
+        int failed = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(details.resultsFile))) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    failed++;
+                    continue;
+                }
+                double[] point = measurePoint(roads, jobDensities.get(i), results[i], AppContext.RUN_DETAILS.timeStep);
+                String[] model = jobModels.get(i);
+                writer.write(String.join(SEPARATOR, model[0] == null ? UNCHANGED : model[0],
+                        model[1] == null ? UNCHANGED : model[1], String.valueOf(point[0]), String.valueOf(point[1]),
+                        String.valueOf(point[2]), String.valueOf(results[i].steps)));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not write fundamental diagram to " + details.resultsFile +
+                    ": " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("Fundamental diagram written to " + details.resultsFile +
+                (failed == 0 ? "" : ", " + failed + " rings failed (cars longer than their distance at high " +
+                "density)"), failed == 0 ? Constants.INFO_FOR_LOGGING : Constants.WARN_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * pairs every car following model with the first lane changing model of the same type, model from config is used
+     * for empty list of models, car following model without lane changing model of its type is skipped
+     *
+     * @param details settings of the diagram
+     * @param compatibleModels check if car following and lane changing model (null means model from config) can be
+     *                         used together
+     * @return pairs of car following and lane changing model ids, null id means model from config
+     **/
+    static List<String[]> pairModels(FundamentalDiagramDetails details, BiPredicate<String, String> compatibleModels) {
+        List<String> carFollowingModels = new ArrayList<>(details.carFollowingModels);
+        List<String> laneChangingModels = new ArrayList<>(details.laneChangingModels);
+        if (carFollowingModels.isEmpty()) {
+            carFollowingModels.add(null);
+        }
+        if (laneChangingModels.isEmpty()) {
+            laneChangingModels.add(null);
+        }
+
+        List<String[]> models = new ArrayList<>();
+        for (String carFollowingModel : carFollowingModels) {
+            String pairedModel = null;
+            boolean paired = false;
+            for (String laneChangingModel : laneChangingModels) {
+                if (compatibleModels.test(carFollowingModel, laneChangingModel)) {
+                    pairedModel = laneChangingModel;
+                    paired = true;
+                    break;
+                }
+            }
+            if (paired) {
+                models.add(new String[]{carFollowingModel, pairedModel});
+            } else {
+                MyLogger.logLoadingOrSimulationStartEnd("Skipping car following model " + carFollowingModel +
+                        ", there is no lane changing model of its type", Constants.WARN_FOR_LOGGING);
+            }
+        }
+        return models;
+    }
+
+    /**
+     * makes roads ring roads and places cars on them evenly at given density, used by headless run of ring
+     *
+     * @param roads roads of the map
+     * @param density density in cars per km and lane
+     * @return true if all cars were placed, false if cars do not fit on some lane
+     **/
+    public static boolean prepareRings(Road[] roads, double density) {
+        for (Road road : roads) {
+            if (road == null) {
+                continue;
+            }
+            road.setPeriodic(true);
+            int carsPerLane = carsPerLane(road, density);
+            if (road.placeCarsEvenly(carsPerLane) != carsPerLane * road.getNumberOfLanes()) {
+                MyLogger.logLoadingOrSimulationStartEnd("Cars do not fit on ring road " + road.getId() + " with " +
+                        carsPerLane + " cars per lane", Constants.ERROR_FOR_LOGGING);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * computes number of cars on every lane of the road at given density, rounded to whole cars
+     *
+     * @param road road of the map
+     * @param density density in cars per km and lane
+     * @return number of cars per lane
+     **/
+    static int carsPerLane(Road road, double density) {
+        return (int) Math.round(density * road.getLength() / 1000.0);
+    }
+
+    /**
+     * computes number of cars on all roads at given density
+     *
+     * @param roads roads of the map
+     * @param density density in cars per km and lane
+     * @return number of cars on all lanes of all roads
+     **/
+    static int carsOnRoads(Road[] roads, double density) {
+        int cars = 0;
+        for (Road road : roads) {
+            if (road != null) {
+                cars += carsPerLane(road, density) * road.getNumberOfLanes();
+            }
+        }
+        return cars;
+    }
+
+    /**
+     * computes point of fundamental diagram from result of ring run, density is the real density of placed cars
+     * (rounded to whole cars), flow is number of cars that passed the end of rings per hour and lane, speed is space
+     * mean speed (flow divided by density)
+     *
+     * @param roads roads of the map
+     * @param density requested density in cars per km and lane
+     * @param result result of the ring run
+     * @param timeStep length of one step in seconds
+     * @return density in cars per km and lane, flow in cars per hour and lane and speed in km per hour
+     **/
+    static double[] measurePoint(Road[] roads, double density, RunResult result, double timeStep) {
+        double laneLength = 0.0;
+        int lanes = 0;
+        for (Road road : roads) {
+            if (road != null) {
+                laneLength += road.getLength() * road.getNumberOfLanes();
+                lanes += road.getNumberOfLanes();
+            }
+        }
+        double realDensity = laneLength > 0.0 ? carsOnRoads(roads, density) * 1000.0 / laneLength : 0.0;
+        double hours = result.steps * timeStep / 3600.0;
+        double flow = lanes > 0 && hours > 0.0 ? result.carsPassed / (hours * lanes) : 0.0;
+        double speed = realDensity > 0.0 ? flow / realDensity : 0.0;
+        return new double[]{realDensity, flow, speed};
+    }
+}
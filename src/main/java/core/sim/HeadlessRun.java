@@ -0,0 +1,159 @@
+package core.sim;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.RandomNumberGenerator;
+import core.utils.ResultsRecorder;
+import core.utils.TrajectoryRecorder;
+import core.utils.constants.Constants;
+import core.utils.loading.ConfigLoader;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+
+/********************************************
+ * Entry point of child process that runs one simulation without GUI and writes its summary (RunResult) as one line to
+ * standard output. Simulation uses global state (app context, results recorder, random generator), so simulations
+ * that run at the same time are run in separate processes started by ParallelRunner. Accepts the same input parameters
+ * as the application (--cfg, --map, --dur, --seed, --cfm, --lcm), logging is off and no results file, trajectory,
+ * state hash file or checkpoint is written, trajectory and state hash files from config are not even opened, because
+ * runs started at the same time would overwrite the same files. With --ring=density roads of the map are made ring roads with cars placed evenly at the
+ * density (cars per km and lane), --transient steps are run before measurement (fundamental diagram).
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class HeadlessRun {
+
+    /**
+     * runs the simulation described by input parameters and writes its result, exit code is 0 when run succeeded
+     *
+     * @param args input parameters of the run
+     **/
+    public static void main(String[] args) {
+        RunResult result = run(args);
+        if (result == null) {
+            System.exit(1);
+        }
+        System.out.println(result.toLine());
+        System.exit(0);
+    }
+
+    /**
+     * loads configuration and map of the run, re-seeds the random generator and runs the simulation
+     *
+     * @param args input parameters of the run
+     * @return result of the run, null if configuration could not be loaded
+     **/
+    public static RunResult run(String[] args) {
+        int duration = InputParametersHandeler.getDurationFromParameter(
+                InputParametersHandeler.getSpecificParameter(args, Constants.DURATION_PARAMETER_PREFIX));
+        if (duration <= 0) {
+            MyLogger.logLoadingOrSimulationStartEnd("Headless run needs positive duration, exiting.",
+                    Constants.FATAL_FOR_LOGGING);
+            return null;
+        }
+
+        ICarFollowingModel carFollowingModel = null;
+        String carFollowingModelId = InputParametersHandeler.getSpecificParameter(args,
+                Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX);
+        if (carFollowingModelId != null && !carFollowingModelId.isEmpty()) {
+            carFollowingModel = InputParametersHandeler.getCarFollowingModelFromParameter(carFollowingModelId);
+            if (carFollowingModel == null) {
+                return null;
+            }
+        }
+        ILaneChangingModel laneChangingModel = null;
+        String laneChangingModelId = InputParametersHandeler.getSpecificParameter(args,
+                Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX);
+        if (laneChangingModelId != null && !laneChangingModelId.isEmpty()) {
+            laneChangingModel = InputParametersHandeler.getLaneChangingModelFromParameter(laneChangingModelId);
+            if (laneChangingModel == null) {
+                return null;
+            }
+        }
+
+        ConfigLoader.setOpeningRecorders(false); // parallel runs would overwrite trajectory and hashes of each other
+        String configPath = InputParametersHandeler.getConfigPathFromParameter(
+                InputParametersHandeler.getSpecificParameter(args, Constants.CONFIG_PATH_PARAMETER_PREFIX));
+        String mapFile = InputParametersHandeler.handleMapFileParameter(
+                InputParametersHandeler.getSpecificParameter(args, Constants.MAP_FILE_PARAMETER_PREFIX));
+        if (!ConfigLoader.loadAllConfig(configPath, carFollowingModel, laneChangingModel, duration, null,
+                Constants.LOGGING_OFF_FROM_INPUT_PARAMETERS, mapFile) || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Failed to load configuration or map of headless run, exiting.",
+                    Constants.FATAL_FOR_LOGGING);
+            return null;
+        }
+        AppContext.RUN_DETAILS.stateHashFile = null;
+        TrajectoryRecorder.getTrajectoryRecorder().close();
+        StateHashRecorder.getStateHashRecorder().close();
+
+        Long seed = InputParametersHandeler.getSeedFromParameter(
+                InputParametersHandeler.getSpecificParameter(args, Constants.SEED_PARAMETER_PREFIX));
+        if (seed != null) {
+            AppContext.RUN_DETAILS.seed = seed;
+            RandomNumberGenerator.getInstance(seed).resetSeed(seed);
+            AppContext.SIMULATION.resetSimulationWithSameRoads();
+        }
+
+        String ringArgument = InputParametersHandeler.getSpecificParameter(args, Constants.RING_PARAMETER_PREFIX);
+        if (ringArgument != null && !ringArgument.isEmpty()) {
+            String transientArgument = InputParametersHandeler.getSpecificParameter(args,
+                    Constants.TRANSIENT_PARAMETER_PREFIX);
+            try {
+                double density = Double.parseDouble(ringArgument);
+                int transientSteps = transientArgument == null || transientArgument.isEmpty() ? 0 :
+                        Integer.parseInt(transientArgument);
+                if (!FundamentalDiagram.prepareRings(AppContext.SIMULATION.getRoads(), density)) {
+                    return null;
+                }
+                for (int step = 0; step < transientSteps; step++) {
+                    AppContext.SIMULATION.step();
+                }
+            } catch (NumberFormatException e) {
+                MyLogger.logLoadingOrSimulationStartEnd("Invalid density or transient of ring run: " + ringArgument +
+                        ", " + transientArgument, Constants.FATAL_FOR_LOGGING);
+                return null;
+            }
+        }
+
+        return measure(AppContext.SIMULATION, duration);
+    }
+
+    /**
+     * runs the simulation for given number of steps (or until all roads and queues are empty) and summarizes queues
+     * recorded by results recorder and cars that left the roads
+     *
+     * @param simulation simulation to run
+     * @param duration number of steps to run
+     * @return result of the run
+     **/
+    public static RunResult measure(Simulation simulation, int duration) {
+        long carsPassed = 0;
+        int steps = 0;
+        simulation.setRunning(true);
+        while (steps < duration) {
+            simulation.step();
+            steps++;
+            carsPassed += simulation.getCarsPassedInLastStep();
+            if (simulation.areAllRoadsAndQueuesEmpty(simulation.getRoads())) {
+                break;
+            }
+        }
+        simulation.setRunning(false);
+
+        ResultsRecorder recorder = ResultsRecorder.getResultsRecorder();
+        Road[] roads = simulation.getRoads();
+        double queueOnLastRed = 0.0;
+        double queue = 0.0;
+        int maxQueue = 0;
+        for (int i = 0; i < roads.length; i++) {
+            queueOnLastRed += recorder.getAverageLaneQueueLengthOnLastRed(i);
+            queue += recorder.getAverageLaneQueueLength(i);
+            maxQueue = Math.max(maxQueue, recorder.getMaxSizeOfLaneQueue(i));
+        }
+        int numberOfRoads = Math.max(1, roads.length);
+        return new RunResult(carsPassed, queueOnLastRed / numberOfRoads, queue / numberOfRoads, maxQueue, steps);
+    }
+}
@@ -0,0 +1,37 @@
+package core.sim;
+
+import core.utils.RunDetails;
+
+/********************************************
+ * Interface of variant of the simulation engine compared by DifferentialHarness with the reference engine. Variant can
+ * change settings of the run (fast paths turned on by flags of run details) and the way the simulation is stepped, it
+ * must give the same states of roads after every step as the reference engine.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public interface IEngineVariant {
+
+    /**
+     * getter for name of the variant, used in reports of divergence
+     *
+     * @return name of the variant
+     **/
+    String getName();
+
+    /**
+     * changes settings of the run before roads are built, run details are owned by the variant
+     *
+     * @param details run details of the run of the variant
+     **/
+    default void configure(RunDetails details) {}
+
+    /**
+     * makes one step of the simulation
+     *
+     * @param simulation simulation of the variant
+     **/
+    default void step(Simulation simulation) {
+        simulation.step();
+    }
+}
@@ -0,0 +1,183 @@
+package core.sim;
+
+import core.model.LightPlan;
+import core.model.Road;
+import core.utils.events.LightSwitchEvent;
+
+import java.util.ArrayList;
+
+/********************************************
+ * Schedule of switches of traffic lights of all roads, hashed timer wheel with slot for every step modulo size of the
+ * wheel. Every light plan is in the slot of its next switch, so in every step only the slot of the step is checked and
+ * only lights that switch in the step are touched, lanes without light (always green) are not in the wheel at all.
+ * Schedule is valid only for consecutive steps, when simulation jumps (reset, checkpoint, warm start), light plan on
+ * road changes or is replaced, it is built again, all of it is checked by single version of settings of light plans on
+ * roads, so the check is cheap every step and plans that are on no road do not matter.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class LightSchedule {
+
+    /** number of slots of the wheel, power of two **/
+    static final int WHEEL_SIZE = 256;
+
+    /** mask to get slot from step **/
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** roads the schedule was built for **/
+    private final Road[] roads;
+
+    /** version of settings of light plans on roads when the schedule was built **/
+    private final int settingsVersion;
+
+    /** slots of the wheel, light plans with their steps of next switch **/
+    private final ArrayList<ScheduledLight>[] slots;
+
+    /** lights switching in current step, reused every step **/
+    private final ArrayList<ScheduledLight> switching = new ArrayList<>();
+
+    /** last step the lights were updated for **/
+    private long lastStep;
+
+    /** number of lights in the wheel **/
+    private int numberOfLights = 0;
+
+    /**
+     * builds schedule of light plans of all roads, first switch of every light is after given step
+     *
+     * @param roads roads of the simulation
+     * @param lastStep last step the lights were updated for
+     **/
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LightSchedule(Road[] roads, long lastStep) {
+        this.roads = roads;
+        this.lastStep = lastStep;
+        this.settingsVersion = LightPlan.getSettingsVersion();
+        this.slots = new ArrayList[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.slots[i] = new ArrayList<>();
+        }
+
+        for (Road road : roads) {
+            if (road == null || road.getLightPlans() == null) {
+                continue;
+            }
+            LightPlan[] plans = road.getLightPlans();
+            for (int lane = 0; lane < plans.length; lane++) {
+                if (plans[lane] != null) {
+                    this.schedule(new ScheduledLight(plans[lane], road.getId(), lane), lastStep);
+                }
+            }
+        }
+    }
+
+    /**
+     * checks if schedule has to be built again, because roads changed, light plan on road changed or was replaced or
+     * step is not the next one
+     *
+     * @param currentRoads current roads of the simulation
+     * @param step step the lights are going to be updated for
+     * @return true if schedule is not valid for the step, false otherwise
+     **/
+    public boolean isStale(Road[] currentRoads, long step) {
+        return currentRoads != this.roads || step != this.lastStep + 1
+                || LightPlan.getSettingsVersion() != this.settingsVersion;
+    }
+
+    /**
+     * switches lights that switch in given step and schedules their next switches, step must follow the last one
+     *
+     * @param step step to update lights for
+     * @return number of lights that were touched
+     **/
+    public int update(long step) {
+        this.lastStep = step;
+        ArrayList<ScheduledLight> slot = this.slots[(int) (step & WHEEL_MASK)];
+        if (slot.isEmpty()) {
+            return 0;
+        }
+
+        // move lights due in this step out of the slot, lights of later rounds of the wheel stay
+        int kept = 0;
+        for (int i = 0; i < slot.size(); i++) {
+            ScheduledLight light = slot.get(i);
+            if (light.nextSwitch == step) {
+                this.switching.add(light);
+            } else {
+                slot.set(kept++, light);
+            }
+        }
+        for (int i = slot.size() - 1; i >= kept; i--) {
+            slot.remove(i);
+        }
+        this.numberOfLights -= this.switching.size();
+
+        int touched = this.switching.size();
+        for (ScheduledLight light : this.switching) {
+            boolean wasGreen = light.plan.isGreen();
+            light.plan.tryToSwitchLight((int) step);
+            if (light.plan.isGreen() != wasGreen) {
+                LightSwitchEvent.emit(light.roadId, light.lane, step, !wasGreen);
+            }
+            this.schedule(light, step);
+        }
+        this.switching.clear();
+        return touched;
+    }
+
+    /**
+     * puts light to the slot of its next switch after given step, light that never switches is left out
+     *
+     * @param light light to schedule
+     * @param step step after which the light switches
+     **/
+    private void schedule(ScheduledLight light, long step) {
+        light.nextSwitch = light.plan.nextSwitchAfter(step);
+        if (light.nextSwitch == LightPlan.NEVER) {
+            return;
+        }
+        this.slots[(int) (light.nextSwitch & WHEEL_MASK)].add(light);
+        this.numberOfLights++;
+    }
+
+    /**
+     * getter for number of lights in the schedule, lights that never switch are not counted
+     *
+     * @return number of scheduled lights
+     **/
+    public int getNumberOfLights() {
+        return this.numberOfLights;
+    }
+
+    /********************************************
+     * Light plan with step of its next switch
+     ********************************************/
+    private static class ScheduledLight {
+
+        /** light plan of the lane **/
+        private final LightPlan plan;
+
+        /** id of the road of the light **/
+        private final int roadId;
+
+        /** lane of the light **/
+        private final int lane;
+
+        /** step of next switch **/
+        private long nextSwitch;
+
+        /**
+         * constructor of scheduled light
+         *
+         * @param plan light plan of the lane
+         * @param roadId id of the road of the light
+         * @param lane lane of the light
+         **/
+        ScheduledLight(LightPlan plan, int roadId, int lane) {
+            this.plan = plan;
+            this.roadId = roadId;
+            this.lane = lane;
+        }
+    }
+}
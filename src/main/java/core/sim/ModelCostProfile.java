@@ -0,0 +1,448 @@
+package core.sim;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.Road;
+import core.utils.CostProfileDetails;
+import core.utils.MetricsRegistry;
+import core.utils.MyLogger;
+import core.utils.RandomNumberGenerator;
+import core.utils.ResultsRecorder;
+import core.utils.RoadMetrics;
+import core.utils.TrajectoryRecorder;
+import core.utils.constants.Constants;
+import core.utils.loading.CostProfileLoader;
+import core.utils.loading.RoadLoader;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/********************************************
+ * Cost profile of combinations of car following and lane changing models on the loaded map. Every combination loads
+ * the map again with its models, runs warm up steps and then measured steps twice with the same seed, first with step
+ * metrics off for time and allocation of the simulation thread, then with step metrics on for counts of evaluations of
+ * car following model (moving cars and nested evaluations of accelerations requested by lane changing models) and
+ * lookups of neighbouring cars. Values are given per vehicle-step (cars on all roads after every step), so maps and
+ * models with different traffic can be compared. Combinations run one after another in this process, so they do not
+ * compete for processors, report is sorted from the cheapest combination, printed and written as CSV table.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ModelCostProfile {
+
+    /** header of CSV table of report **/
+    public static final String CSV_HEADER = "carFollowingModel,laneChangingModel,type,steps,vehicleSteps," +
+            "nanosPerVehicleStep,neighbourLookupsPerVehicleStep,speedEvaluationsPerVehicleStep," +
+            "nestedSpeedEvaluationsPerVehicleStep,allocatedBytesPerVehicleStep,allocationBytesPerSecond";
+
+    /** package of car following models **/
+    private static final String CAR_FOLLOWING_MODELS_PACKAGE = "models.carFollowingModels";
+
+    /** package of lane changing models **/
+    private static final String LANE_CHANGING_MODELS_PACKAGE = "models.laneChangingModels";
+
+    /** nanoseconds in second **/
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    /**
+     * loads cost profile file, measures all combinations of models on the loaded map and writes the report
+     *
+     * @param profileFile cost profile file
+     * @param steps number of measured steps of every combination (duration of the run)
+     * @return true if at least one combination was measured and the report was written, false otherwise
+     **/
+    public static boolean run(String profileFile, int steps) {
+        CostProfileDetails details = CostProfileLoader.load(profileFile);
+        if (details == null || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Cost profile needs valid cost profile file and loaded map.",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+        TrajectoryRecorder.getTrajectoryRecorder().close();
+        StateHashRecorder.getStateHashRecorder().close();
+
+        List<Cost> costs = profile(details, AppContext.RUN_DETAILS.mapFile, steps);
+        if (costs.isEmpty()) {
+            MyLogger.logLoadingOrSimulationStartEnd("No combination of models was measured.",
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+        System.out.println(toText(costs, AppContext.RUN_DETAILS.mapFile, details, steps));
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(details.resultsFile))) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Cost cost : costs) {
+                writer.write(cost.toCsvLine());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not write cost profile to " + details.resultsFile + ": " +
+                    e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Cost profile written to " + details.resultsFile,
+                Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * measures all combinations of models of the same type, models, simulation and seed of run details in app context
+     * are set back afterwards, timing of step metrics too
+     *
+     * @param details details of cost profile
+     * @param mapFile map the combinations run on
+     * @param steps number of measured steps of every combination
+     * @return costs of measured combinations sorted from the cheapest per vehicle-step
+     **/
+    public static List<Cost> profile(CostProfileDetails details, String mapFile, int steps) {
+        ICarFollowingModel previousCarFollowingModel = AppContext.CAR_FOLLOWING_MODEL;
+        ILaneChangingModel previousLaneChangingModel = AppContext.LANE_CHANGING_MODEL;
+        Simulation previousSimulation = AppContext.SIMULATION;
+        long previousSeed = AppContext.RUN_DETAILS.seed;
+        boolean metricsEnabled = MetricsRegistry.isEnabled();
+        long seed = details.seed != null ? details.seed : previousSeed;
+
+        List<Cost> costs = new ArrayList<>();
+        try {
+            for (String[] combination : combinations(details)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Measuring cost of " + combination[0] + " with " +
+                        combination[1], Constants.INFO_FOR_LOGGING);
+                Cost cost = measure(combination[0], combination[1], mapFile, seed, details.warmUpSteps, steps);
+                if (cost != null) {
+                    costs.add(cost);
+                }
+            }
+        } finally {
+            AppContext.CAR_FOLLOWING_MODEL = previousCarFollowingModel;
+            AppContext.LANE_CHANGING_MODEL = previousLaneChangingModel;
+            AppContext.SIMULATION = previousSimulation;
+            AppContext.RUN_DETAILS.seed = previousSeed;
+            MetricsRegistry.setEnabled(metricsEnabled);
+            MetricsRegistry.getMetricsRegistry().reset();
+        }
+        costs.sort(Comparator.comparingDouble(cost -> cost.nanosPerVehicleStep));
+        return costs;
+    }
+
+    /**
+     * creates combinations of car following and lane changing models of the same type, empty list of models means
+     * all models of the application, unknown models are left out
+     *
+     * @param details details of cost profile
+     * @return ids of car following and lane changing model of every combination
+     **/
+    static List<String[]> combinations(CostProfileDetails details) {
+        List<String> carFollowingModels = details.carFollowingModels.isEmpty() ?
+                allModels(CAR_FOLLOWING_MODELS_PACKAGE) : details.carFollowingModels;
+        List<String> laneChangingModels = details.laneChangingModels.isEmpty() ?
+                allModels(LANE_CHANGING_MODELS_PACKAGE) : details.laneChangingModels;
+
+        List<String[]> combinations = new ArrayList<>();
+        for (String carFollowingModelId : carFollowingModels) {
+            ICarFollowingModel carFollowingModel = InputParametersHandeler.getCarFollowingModelById(
+                    carFollowingModelId);
+            if (carFollowingModel == null) {
+                MyLogger.logLoadingOrSimulationStartEnd("Unknown car following model " + carFollowingModelId +
+                        " is left out of cost profile.", Constants.WARN_FOR_LOGGING);
+                continue;
+            }
+            for (String laneChangingModelId : laneChangingModels) {
+                ILaneChangingModel laneChangingModel = InputParametersHandeler.getLaneChangingModelById(
+                        laneChangingModelId);
+                if (laneChangingModel == null) {
+                    MyLogger.logLoadingOrSimulationStartEnd("Unknown lane changing model " + laneChangingModelId +
+                            " is left out of cost profile.", Constants.WARN_FOR_LOGGING);
+                } else if (laneChangingModel.getType().equals(carFollowingModel.getType())) {
+                    combinations.add(new String[]{carFollowingModel.getID(), laneChangingModel.getID()});
+                }
+            }
+        }
+        return combinations;
+    }
+
+    /**
+     * measures one combination of models, map is loaded with the models, the shared random generator is re-seeded
+     *
+     * @param carFollowingModelId id of car following model
+     * @param laneChangingModelId id of lane changing model
+     * @param mapFile map the combination runs on
+     * @param seed seed of the run
+     * @param warmUpSteps number of steps before measurement
+     * @param steps number of measured steps
+     * @return cost of the combination, null if models or map could not be loaded
+     **/
+    static Cost measure(String carFollowingModelId, String laneChangingModelId, String mapFile, long seed,
+                        int warmUpSteps, int steps) {
+        Simulation simulation = prepare(carFollowingModelId, laneChangingModelId, mapFile, seed);
+        if (simulation == null) {
+            return null;
+        }
+        MetricsRegistry.setEnabled(false);
+        for (int i = 0; i < warmUpSteps; i++) {
+            simulation.step();
+        }
+
+        Cost cost = new Cost(carFollowingModelId, laneChangingModelId, AppContext.CAR_FOLLOWING_MODEL.getType());
+        Road[] roads = simulation.getRoads();
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < steps; i++) {
+            long start = System.nanoTime();
+            simulation.step();
+            cost.stepTime += System.nanoTime() - start;
+            cost.steps++;
+            cost.vehicleSteps += vehiclesOn(roads);
+        }
+        long allocatedAfter = allocatedBytes();
+        cost.allocatedBytes = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+
+        // the same steps again with counters, metrics of steps slow the steps down, so they are not timed
+        simulation = prepare(carFollowingModelId, laneChangingModelId, mapFile, seed);
+        if (simulation == null) {
+            return null;
+        }
+        for (int i = 0; i < warmUpSteps; i++) {
+            simulation.step();
+        }
+        roads = simulation.getRoads();
+        MetricsRegistry.getMetricsRegistry().reset();
+        MetricsRegistry.setEnabled(true);
+        for (int i = 0; i < steps; i++) {
+            simulation.step();
+            cost.countedVehicleSteps += vehiclesOn(roads);
+        }
+        MetricsRegistry.setEnabled(false);
+        for (Road road : roads) {
+            if (road != null) {
+                RoadMetrics metrics = road.getMetrics();
+                cost.neighbourLookups += metrics.getCount(MetricsRegistry.Counter.NEIGHBOUR_LOOKUPS);
+                cost.speedEvaluations += metrics.getCount(MetricsRegistry.Counter.SPEED_EVALUATIONS);
+                cost.nestedSpeedEvaluations += metrics.getCount(MetricsRegistry.Counter.NESTED_SPEED_EVALUATIONS);
+            }
+        }
+        cost.computePerVehicleStep();
+        return cost;
+    }
+
+    /**
+     * sets models of the combination to app context, re-seeds the shared random generator and loads the map
+     *
+     * @param carFollowingModelId id of car following model
+     * @param laneChangingModelId id of lane changing model
+     * @param mapFile map the combination runs on
+     * @param seed seed of the run
+     * @return new simulation of the map, null if models or map could not be loaded
+     **/
+    private static Simulation prepare(String carFollowingModelId, String laneChangingModelId, String mapFile,
+                                      long seed) {
+        ICarFollowingModel carFollowingModel = InputParametersHandeler.getCarFollowingModelById(carFollowingModelId);
+        ILaneChangingModel laneChangingModel = InputParametersHandeler.getLaneChangingModelById(laneChangingModelId);
+        if (carFollowingModel == null || laneChangingModel == null) {
+            return null;
+        }
+        AppContext.CAR_FOLLOWING_MODEL = carFollowingModel;
+        AppContext.LANE_CHANGING_MODEL = laneChangingModel;
+        AppContext.RUN_DETAILS.seed = seed;
+        RandomNumberGenerator.getInstance(seed).resetSeed(seed);
+
+        Road[] roads = RoadLoader.loadMapStart(mapFile);
+        if (roads == null) {
+            MyLogger.logLoadingOrSimulationStartEnd("Map " + mapFile + " could not be loaded for " +
+                    carFollowingModelId + " with " + laneChangingModelId, Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        ResultsRecorder.getResultsRecorder().initialize(roads, null);
+        Simulation simulation = new Simulation(roads);
+        AppContext.SIMULATION = simulation;
+        return simulation;
+    }
+
+    /**
+     * counts cars on all roads
+     *
+     * @param roads roads of the simulation
+     * @return number of cars on the roads
+     **/
+    private static long vehiclesOn(Road[] roads) {
+        long vehicles = 0;
+        for (Road road : roads) {
+            if (road != null) {
+                vehicles += road.getNumberOfCarsOnRoad();
+            }
+        }
+        return vehicles;
+    }
+
+    /**
+     * gives bytes allocated by this thread since its start
+     *
+     * @return allocated bytes, -1 when JVM does not measure allocation of threads
+     **/
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()
+                && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * gives ids of all models in package sorted by type and id
+     *
+     * @param packageName package of models
+     * @return ids of cellular models followed by ids of continuous models
+     **/
+    private static List<String> allModels(String packageName) {
+        List<String> ids = new ArrayList<>();
+        for (String type : new String[]{Constants.CELLULAR, Constants.CONTINUOUS}) {
+            List<InputParametersHandeler.ModelNameAndId> models = InputParametersHandeler.getAllModels(packageName,
+                    type);
+            models.sort(Comparator.comparing(model -> model.id));
+            for (InputParametersHandeler.ModelNameAndId model : models) {
+                ids.add(model.id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * creates readable report
+     *
+     * @param costs measured combinations sorted from the cheapest
+     * @param mapFile map the combinations ran on
+     * @param details details of cost profile
+     * @param steps number of measured steps
+     * @return report as lines of text
+     **/
+    static String toText(List<Cost> costs, String mapFile, CostProfileDetails details, int steps) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.US, "Cost profile of models on %s, %d steps after %d warm up steps, Java %s%n",
+                mapFile, steps, details.warmUpSteps, System.getProperty("java.version")));
+        text.append(String.format(Locale.US, "%-22s %-18s %-10s %12s %10s %10s %10s %12s %10s%n", "car following",
+                "lane changing", "type", "ns/veh-step", "lookups", "speed", "nested", "B/veh-step", "MB/s"));
+        for (Cost cost : costs) {
+            text.append(String.format(Locale.US, "%-22s %-18s %-10s %12.1f %10.2f %10.2f %10.2f %12.1f %10.1f%n",
+                    cost.carFollowingModel, cost.laneChangingModel, cost.type, cost.nanosPerVehicleStep,
+                    cost.neighbourLookupsPerVehicleStep, cost.speedEvaluationsPerVehicleStep,
+                    cost.nestedSpeedEvaluationsPerVehicleStep, cost.allocatedBytesPerVehicleStep,
+                    cost.allocationRate() / 1e6));
+        }
+        text.append("lookups, speed and nested are counts per vehicle-step, allocation is of the simulation thread");
+        return text.toString();
+    }
+
+    /********************************************
+     * Measured cost of one combination of models, allocated bytes are -1 when JVM does not measure allocation of
+     * threads
+     ********************************************/
+    public static class Cost {
+
+        /** id of car following model **/
+        public final String carFollowingModel;
+
+        /** id of lane changing model **/
+        public final String laneChangingModel;
+
+        /** type of the models (cellular or continuous) **/
+        public final String type;
+
+        /** number of measured steps **/
+        public int steps = 0;
+
+        /** sum of cars on roads after every timed step **/
+        public long vehicleSteps = 0;
+
+        /** sum of cars on roads after every counted step **/
+        public long countedVehicleSteps = 0;
+
+        /** time spent in timed steps in nanoseconds **/
+        public long stepTime = 0;
+
+        /** bytes allocated by simulation thread in timed steps, -1 if not known **/
+        public long allocatedBytes = -1;
+
+        /** lookups of neighbouring cars in counted steps **/
+        public long neighbourLookups = 0;
+
+        /** evaluations of car following model moving cars in counted steps **/
+        public long speedEvaluations = 0;
+
+        /** nested evaluations of car following model in counted steps **/
+        public long nestedSpeedEvaluations = 0;
+
+        /** time of step per vehicle in nanoseconds **/
+        public double nanosPerVehicleStep = 0.0;
+
+        /** lookups of neighbouring cars per vehicle-step **/
+        public double neighbourLookupsPerVehicleStep = 0.0;
+
+        /** evaluations of car following model moving cars per vehicle-step **/
+        public double speedEvaluationsPerVehicleStep = 0.0;
+
+        /** nested evaluations of car following model per vehicle-step **/
+        public double nestedSpeedEvaluationsPerVehicleStep = 0.0;
+
+        /** allocated bytes per vehicle-step, -1 if not known **/
+        public double allocatedBytesPerVehicleStep = -1.0;
+
+        /**
+         * constructor of empty cost
+         *
+         * @param carFollowingModel id of car following model
+         * @param laneChangingModel id of lane changing model
+         * @param type type of the models
+         **/
+        public Cost(String carFollowingModel, String laneChangingModel, String type) {
+            this.carFollowingModel = carFollowingModel;
+            this.laneChangingModel = laneChangingModel;
+            this.type = type;
+        }
+
+        /**
+         * divides measured values by vehicle-steps of timed and counted steps
+         **/
+        void computePerVehicleStep() {
+            double timed = Math.max(1, this.vehicleSteps);
+            double counted = Math.max(1, this.countedVehicleSteps);
+            this.nanosPerVehicleStep = this.stepTime / timed;
+            this.neighbourLookupsPerVehicleStep = this.neighbourLookups / counted;
+            this.speedEvaluationsPerVehicleStep = this.speedEvaluations / counted;
+            this.nestedSpeedEvaluationsPerVehicleStep = this.nestedSpeedEvaluations / counted;
+            this.allocatedBytesPerVehicleStep = this.allocatedBytes < 0 ? -1.0 : this.allocatedBytes / timed;
+        }
+
+        /**
+         * computes number of bytes allocated per second of time spent in timed steps
+         *
+         * @return allocated bytes per second, -1 if not known
+         **/
+        public double allocationRate() {
+            return this.allocatedBytes < 0 || this.stepTime == 0 ? -1.0 :
+                    this.allocatedBytes * NANOS_IN_SECOND / this.stepTime;
+        }
+
+        /**
+         * converts cost to line of CSV table with columns of CSV_HEADER
+         *
+         * @return line of CSV table
+         **/
+        public String toCsvLine() {
+            return String.format(Locale.US, "%s,%s,%s,%d,%d,%.3f,%.4f,%.4f,%.4f,%.3f,%.1f", this.carFollowingModel,
+                    this.laneChangingModel, this.type, this.steps, this.vehicleSteps, this.nanosPerVehicleStep,
+                    this.neighbourLookupsPerVehicleStep, this.speedEvaluationsPerVehicleStep,
+                    this.nestedSpeedEvaluationsPerVehicleStep, this.allocatedBytesPerVehicleStep,
+                    this.allocationRate());
+        }
+    }
+}
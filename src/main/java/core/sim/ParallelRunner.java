@@ -0,0 +1,189 @@
+package core.sim;
+
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/********************************************
+ * Runner of many headless simulations at the same time. Every run is a child JVM with HeadlessRun as main class and
+ * the class path of this process, because simulation keeps its state in static fields (app context, results recorder,
+ * random generator) and two simulations in one process would share it. Number of runs at the same time is limited by
+ * number of workers, order of results is the order of jobs.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ParallelRunner {
+
+    /** number of child processes running at the same time **/
+    private final int workers;
+
+    /**
+     * constructor of runner
+     *
+     * @param workers number of runs at the same time, number of processors is used when it is not positive
+     **/
+    public ParallelRunner(int workers) {
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * getter for number of runs at the same time
+     *
+     * @return number of child processes running at the same time
+     **/
+    public int getWorkers() {
+        return this.workers;
+    }
+
+    /**
+     * runs all jobs and waits for their results
+     *
+     * @param jobs input parameters of HeadlessRun for every job
+     * @return results of jobs in order of jobs, null for job that failed
+     **/
+    public RunResult[] runAll(List<String[]> jobs) {
+        return this.runAll(jobs, null);
+    }
+
+    /**
+     * runs all jobs and waits for their results, listener is told about every job as soon as it finishes, so results
+     * can be saved before other jobs end
+     *
+     * @param jobs input parameters of HeadlessRun for every job
+     * @param listener listener called with index and result (null if job failed) of every finished job from thread of
+     *                 the job, null if not needed
+     * @return results of jobs in order of jobs, null for job that failed
+     **/
+    public RunResult[] runAll(List<String[]> jobs, BiConsumer<Integer, RunResult> listener) {
+        RunResult[] results = new RunResult[jobs.size()];
+        if (jobs.isEmpty()) {
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.workers, jobs.size()));
+        try {
+            List<Future<RunResult>> futures = new ArrayList<>();
+            for (int i = 0; i < jobs.size(); i++) {
+                String[] job = jobs.get(i);
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    RunResult result = null;
+                    try {
+                        result = this.runJob(job);
+                        return result;
+                    } finally {
+                        if (listener != null) {
+                            listener.accept(index, result);
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results[i] = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    MyLogger.log("Headless run " + String.join(" ", jobs.get(i)) + " failed: " +
+                            e.getCause(), Constants.ERROR_FOR_LOGGING);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * runs one job in child process and reads its result from standard output
+     *
+     * @param arguments input parameters of HeadlessRun
+     * @return result of the job, null if process failed or did not write result
+     * @throws IOException if process cannot be started or read
+     * @throws InterruptedException if waiting for the process is interrupted
+     **/
+    protected RunResult runJob(String[] arguments) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(buildCommand(arguments));
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+
+        RunResult result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                RunResult parsed = RunResult.parse(line);
+                if (parsed != null) {
+                    result = parsed;
+                }
+            }
+        } finally {
+            if (process.waitFor() != 0) {
+                result = null;
+            }
+        }
+        if (result == null) {
+            MyLogger.log("Headless run " + String.join(" ", arguments) + " did not write result",
+                    Constants.ERROR_FOR_LOGGING);
+        }
+        return result;
+    }
+
+    /**
+     * deletes work directory of runs with all files in it, failure is only logged
+     *
+     * @param directory directory to delete, nothing is done when it is null
+     **/
+    static void deleteDirectory(File directory) {
+        if (directory == null) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    deleteDirectory(file);
+                } else if (!file.delete() && file.exists()) {
+                    MyLogger.log("Could not delete " + file, Constants.WARN_FOR_LOGGING);
+                }
+            }
+        }
+        if (!directory.delete() && directory.exists()) {
+            MyLogger.log("Could not delete directory " + directory, Constants.WARN_FOR_LOGGING);
+        }
+    }
+
+    /**
+     * builds command starting child JVM with HeadlessRun and class path (and module path, where JavaFX can be) of
+     * this process
+     *
+     * @param arguments input parameters of HeadlessRun
+     * @return command of the child process
+     **/
+    static List<String> buildCommand(String[] arguments) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        String classPath = System.getProperty("java.class.path");
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null && !modulePath.isEmpty()) {
+            classPath = classPath == null || classPath.isEmpty() ? modulePath :
+                    classPath + File.pathSeparator + modulePath;
+        }
+        command.add(classPath);
+        command.add(HeadlessRun.class.getName());
+        command.addAll(List.of(arguments));
+        return command;
+    }
+}
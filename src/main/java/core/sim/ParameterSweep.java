@@ -0,0 +1,510 @@
+package core.sim;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.CarGenerator;
+import core.model.LightPlan;
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.RoadParameters;
+import core.utils.RoadXml;
+import core.utils.SweepDetails;
+import core.utils.constants.Constants;
+import core.utils.loading.SweepLoader;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/********************************************
+ * Parameter sweep, runs every cell of cartesian grid of car following models, lane changing models, flow rates of
+ * generators, numbers of lanes, speed limits and seeds as headless simulation of the loaded map. Map of every
+ * combination of flow rate, lanes and speed limit is written to work directory once, cells run at the same time in
+ * separate processes (ParallelRunner), so runs do not share any state. Result of every cell is appended to one
+ * results table as soon as the run finishes, cells already in the table with the same duration are skipped, so
+ * interrupted sweep is resumed by running it again. Work directory is deleted when the sweep ends. Failed cells are run again up to number of retries. Cells with car following and lane changing
+ * model of different type are skipped.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ParameterSweep {
+
+    /** value in results table for dimension that is taken from config or map **/
+    static final String UNCHANGED = "default";
+
+    /** separator of columns of results table **/
+    static final String SEPARATOR = ",";
+
+    /** number of columns of results table describing the run of the cell (cell and duration) **/
+    static final int CELL_COLUMNS = 7;
+
+    /** header of results table **/
+    static final String HEADER = String.join(SEPARATOR, "carFollowingModel", "laneChangingModel", "flowRate",
+            "lanes", "speedLimit", "seed", "duration", "carsPassed", "averageQueueOnLastRed", "averageQueue", "maxQueue", "steps");
+
+    /** settings of the sweep **/
+    private final SweepDetails details;
+
+    /** roads of the loaded map, base of map variants **/
+    private final Road[] roads;
+
+    /** input parameters passed to every run (configuration and models from input parameters) **/
+    private final List<String> baseArguments = new ArrayList<>();
+
+    /** directory of map variants **/
+    private final File workDirectory;
+
+    /** map files of already written map variants by their key **/
+    private final Map<String, String> mapVariants = new HashMap<>();
+
+    /**
+     * constructor of sweep
+     *
+     * @param details settings of the sweep
+     * @param roads roads of the loaded map
+     * @param arguments input parameters of the application
+     * @param workDirectory directory of map variants
+     **/
+    ParameterSweep(SweepDetails details, Road[] roads, String[] arguments, File workDirectory) {
+        this.details = details;
+        this.roads = roads;
+        this.workDirectory = workDirectory;
+        for (String argument : arguments) {
+            if (argument.startsWith(Constants.CONFIG_PATH_PARAMETER_PREFIX)) {
+                this.baseArguments.add(argument);
+            }
+        }
+    }
+
+    /**
+     * loads sweep file and runs all cells of the grid that are not in results table yet
+     *
+     * @param sweepFile sweep file with values of the grid
+     * @param arguments input parameters of the application, configuration and models are passed to runs
+     * @param duration duration of every run
+     * @return true if all cells are in results table, false otherwise
+     **/
+    public static boolean run(String sweepFile, String[] arguments, int duration) {
+        SweepDetails details = SweepLoader.load(sweepFile);
+        if (details == null || AppContext.SIMULATION == null || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Parameter sweep needs valid sweep file and loaded map.",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+
+        File workDirectory;
+        try {
+            workDirectory = Files.createTempDirectory("sweep").toFile();
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not create directory for map variants: " +
+                    e.getMessage(), Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+
+        // models from input parameters are used in cells when sweep does not list models
+        String carFollowingModel = InputParametersHandeler.getSpecificParameter(arguments,
+                Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX);
+        String laneChangingModel = InputParametersHandeler.getSpecificParameter(arguments,
+                Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX);
+        if (details.carFollowingModels.isEmpty() && carFollowingModel != null && !carFollowingModel.isEmpty()) {
+            details.carFollowingModels.add(carFollowingModel);
+        }
+        if (details.laneChangingModels.isEmpty() && laneChangingModel != null && !laneChangingModel.isEmpty()) {
+            details.laneChangingModels.add(laneChangingModel);
+        }
+
+        ParameterSweep sweep = new ParameterSweep(details, AppContext.SIMULATION.getRoads(), arguments, workDirectory);
+        try {
+            return sweep.runCells(buildCells(details, new ModelTypes()::compatible), duration);
+        } finally {
+            ParallelRunner.deleteDirectory(workDirectory);
+        }
+    }
+
+    /**
+     * runs cells that are not in results table with the same duration, failed cells are run again up to number of
+     * retries, results table with different columns is not resumed
+     *
+     * @param cells cells of the grid
+     * @param duration duration of every run
+     * @return true if all cells are in results table, false otherwise
+     **/
+    boolean runCells(List<Cell> cells, int duration) {
+        Set<String> completed = readCompletedCells(this.details.resultsFile);
+        if (completed == null) {
+            MyLogger.logLoadingOrSimulationStartEnd("Results table " + this.details.resultsFile + " has different " +
+                    "columns than this version of parameter sweep, it cannot be resumed, use new results file",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+        List<Cell> pending = new ArrayList<>();
+        for (Cell cell : cells) {
+            if (!completed.contains(cell.key(duration))) {
+                pending.add(cell);
+            }
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Parameter sweep has " + cells.size() + " cells, " +
+                (cells.size() - pending.size()) + " already in " + this.details.resultsFile + ", running " +
+                pending.size(), Constants.INFO_FOR_LOGGING);
+
+        ParallelRunner runner = new ParallelRunner(this.details.workers);
+        for (int attempt = 0; attempt <= this.details.retries && !pending.isEmpty(); attempt++) {
+            List<String[]> jobs = new ArrayList<>();
+            for (Cell cell : pending) {
+                String mapFile = this.writeMapVariant(cell);
+                if (mapFile == null) {
+                    return false;
+                }
+                jobs.add(this.createJob(cell, mapFile, duration));
+            }
+
+            List<Cell> running = pending;
+            RunResult[] results = runner.runAll(jobs, (index, result) -> {
+                if (result != null) {
+                    this.appendResult(running.get(index), duration, result);
+                }
+            });
+            pending = new ArrayList<>();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    pending.add(running.get(i));
+                }
+            }
+            if (!pending.isEmpty()) {
+                MyLogger.logLoadingOrSimulationStartEnd(pending.size() + " cells of parameter sweep failed in " +
+                        "attempt " + (attempt + 1), Constants.WARN_FOR_LOGGING);
+            }
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("Parameter sweep finished, results in " + this.details.resultsFile +
+                (pending.isEmpty() ? "" : ", failed cells: " + pending), pending.isEmpty() ?
+                Constants.INFO_FOR_LOGGING : Constants.ERROR_FOR_LOGGING);
+        return pending.isEmpty();
+    }
+
+    /**
+     * creates cartesian grid of the sweep, dimension without values has one cell with value from config or map
+     *
+     * @param details settings of the sweep
+     * @param compatibleModels check if car following and lane changing model (null means model from config) can be
+     *                         used together
+     * @return cells of the grid
+     **/
+    static List<Cell> buildCells(SweepDetails details, BiPredicate<String, String> compatibleModels) {
+        List<Cell> cells = new ArrayList<>();
+        for (String carFollowingModel : orUnchanged(details.carFollowingModels)) {
+            for (String laneChangingModel : orUnchanged(details.laneChangingModels)) {
+                if (!compatibleModels.test(carFollowingModel, laneChangingModel)) {
+                    MyLogger.logLoadingOrSimulationStartEnd("Skipping cells with models " + carFollowingModel +
+                            " and " + laneChangingModel + " of different types", Constants.WARN_FOR_LOGGING);
+                    continue;
+                }
+                for (Double flowRate : orUnchanged(details.flowRates)) {
+                    for (Integer lanes : orUnchanged(details.lanes)) {
+                        for (Double speedLimit : orUnchanged(details.speedLimits)) {
+                            for (Long seed : orUnchanged(details.seeds)) {
+                                cells.add(new Cell(carFollowingModel, laneChangingModel, flowRate, lanes, speedLimit,
+                                        seed));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * helper to get values of dimension, list with null (value from config or map) when there are no values
+     *
+     * @param values values of dimension
+     * @param <T> type of values
+     * @return values to iterate over
+     **/
+    private static <T> List<T> orUnchanged(List<T> values) {
+        return values.isEmpty() ? Collections.singletonList(null) : values;
+    }
+
+    /**
+     * reads keys of runs of cells (cell and duration) that are already in results table
+     *
+     * @param resultsFile file of results table
+     * @return keys of completed runs, empty if file does not exist, null if header of the table is different
+     **/
+    static Set<String> readCompletedCells(String resultsFile) {
+        Set<String> completed = new HashSet<>();
+        Path path = Path.of(resultsFile);
+        if (!Files.exists(path)) {
+            return completed;
+        }
+        try {
+            List<String> lines = Files.readAllLines(path);
+            if (!lines.isEmpty() && !lines.get(0).equals(HEADER)) {
+                return null;
+            }
+            for (String line : lines) {
+                String[] columns = line.split(SEPARATOR);
+                if (columns.length > CELL_COLUMNS && !line.equals(HEADER)) {
+                    completed.add(String.join(SEPARATOR, Arrays.copyOf(columns, CELL_COLUMNS)));
+                }
+            }
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not read results of parameter sweep " + resultsFile +
+                    ", all cells will be run: " + e.getMessage(), Constants.WARN_FOR_LOGGING);
+        }
+        return completed;
+    }
+
+    /**
+     * appends result of cell to results table, header is written to new file, called from threads of runs
+     *
+     * @param cell cell of the grid
+     * @param duration duration of the run
+     * @param result result of the run
+     **/
+    synchronized void appendResult(Cell cell, int duration, RunResult result) {
+        File file = new File(this.details.resultsFile);
+        boolean writeHeader = !file.exists() || file.length() == 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            if (writeHeader) {
+                writer.write(HEADER);
+                writer.newLine();
+            }
+            writer.write(String.join(SEPARATOR, cell.key(duration), String.valueOf(result.carsPassed),
+                    String.valueOf(result.averageQueueOnLastRed), String.valueOf(result.averageQueue),
+                    String.valueOf(result.maxQueue), String.valueOf(result.steps)));
+            writer.newLine();
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not write result of cell " + cell + " to " +
+                    this.details.resultsFile + ": " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+        }
+    }
+
+    /**
+     * creates input parameters of run of the cell
+     *
+     * @param cell cell of the grid
+     * @param mapFile map variant of the cell
+     * @param duration duration of the run
+     * @return input parameters of HeadlessRun
+     **/
+    private String[] createJob(Cell cell, String mapFile, int duration) {
+        List<String> job = new ArrayList<>(this.baseArguments);
+        if (cell.carFollowingModel != null) {
+            job.add(Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX + cell.carFollowingModel);
+        }
+        if (cell.laneChangingModel != null) {
+            job.add(Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX + cell.laneChangingModel);
+        }
+        if (cell.seed != null) {
+            job.add(Constants.SEED_PARAMETER_PREFIX + cell.seed);
+        }
+        job.add(Constants.MAP_FILE_PARAMETER_PREFIX + mapFile);
+        job.add(Constants.DURATION_PARAMETER_PREFIX + duration);
+        return job.toArray(new String[0]);
+    }
+
+    /**
+     * writes map variant of the cell if it was not written yet
+     *
+     * @param cell cell of the grid
+     * @return map file of the variant, null if it could not be written
+     **/
+    private String writeMapVariant(Cell cell) {
+        String key = cell.mapKey();
+        String mapFile = this.mapVariants.get(key);
+        if (mapFile != null) {
+            return mapFile;
+        }
+
+        mapFile = new File(this.workDirectory, "variant" + this.mapVariants.size() + ".xml").getPath();
+        ArrayList<RoadParameters> roadParameters = createMapVariant(this.roads, cell);
+        if (!RoadXml.writeMapToXml(roadParameters, roadParameters.size(), mapFile)) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not write map variant " + key + " to " + mapFile,
+                    Constants.FATAL_FOR_LOGGING);
+            return null;
+        }
+        this.mapVariants.put(key, mapFile);
+        return mapFile;
+    }
+
+    /**
+     * creates parameters of roads of the map with flow rate, lanes and speed limit of the cell, new lanes get copy of
+     * light plan and generator of the last lane, roads of the loaded map are not changed
+     *
+     * @param roads roads of the loaded map
+     * @param cell cell of the grid
+     * @return parameters of roads of the variant
+     **/
+    static ArrayList<RoadParameters> createMapVariant(Road[] roads, Cell cell) {
+        ArrayList<RoadParameters> variant = RoadParameters.existingRoadsToRoadParameters(roads);
+        for (RoadParameters road : variant) {
+            if (cell.speedLimit != null) {
+                road.maxSpeed = cell.speedLimit;
+            }
+            if (cell.lanes != null) {
+                road.lanes = cell.lanes;
+            }
+
+            LinkedList<LightPlan> lightPlans = new LinkedList<>();
+            LinkedList<CarGenerator> generators = new LinkedList<>();
+            for (int lane = 0; lane < road.lanes; lane++) {
+                LightPlan lightPlan = road.lightPlan.get(Math.min(lane, road.lightPlan.size() - 1));
+                CarGenerator generator = road.carGenerators.get(Math.min(lane, road.carGenerators.size() - 1))
+                        .clone();
+                if (cell.flowRate != null) {
+                    generator.setFlowRate(cell.flowRate);
+                }
+                lightPlans.add(lightPlan.clone());
+                generators.add(generator);
+            }
+            road.lightPlan = lightPlans;
+            road.carGenerators = generators;
+        }
+        return variant;
+    }
+
+    /********************************************
+     * Cell of the grid, null value means value from config or map
+     ********************************************/
+    static class Cell {
+
+        /** id of car following model **/
+        final String carFollowingModel;
+
+        /** id of lane changing model **/
+        final String laneChangingModel;
+
+        /** flow rate of all generators **/
+        final Double flowRate;
+
+        /** number of lanes of all roads **/
+        final Integer lanes;
+
+        /** speed limit of all roads **/
+        final Double speedLimit;
+
+        /** seed of random generator **/
+        final Long seed;
+
+        /**
+         * constructor of cell
+         *
+         * @param carFollowingModel id of car following model
+         * @param laneChangingModel id of lane changing model
+         * @param flowRate flow rate of all generators
+         * @param lanes number of lanes of all roads
+         * @param speedLimit speed limit of all roads
+         * @param seed seed of random generator
+         **/
+        Cell(String carFollowingModel, String laneChangingModel, Double flowRate, Integer lanes, Double speedLimit,
+             Long seed) {
+            this.carFollowingModel = carFollowingModel;
+            this.laneChangingModel = laneChangingModel;
+            this.flowRate = flowRate;
+            this.lanes = lanes;
+            this.speedLimit = speedLimit;
+            this.seed = seed;
+        }
+
+        /**
+         * creates key of the cell, columns of results table describing the cell
+         *
+         * @return key of the cell
+         **/
+        String key() {
+            return String.join(SEPARATOR, valueOf(this.carFollowingModel), valueOf(this.laneChangingModel),
+                    this.mapKey(), valueOf(this.seed));
+        }
+
+        /**
+         * creates key of run of the cell, columns of results table describing the cell and duration of the run, runs
+         * of the same cell with different duration are different results
+         *
+         * @param duration duration of the run
+         * @return key of the run
+         **/
+        String key(int duration) {
+            return String.join(SEPARATOR, this.key(), String.valueOf(duration));
+        }
+
+        /**
+         * creates key of map variant of the cell
+         *
+         * @return key of map variant
+         **/
+        String mapKey() {
+            return String.join(SEPARATOR, valueOf(this.flowRate), valueOf(this.lanes), valueOf(this.speedLimit));
+        }
+
+        /**
+         * helper to convert value to column of results table
+         *
+         * @param value value of dimension
+         * @return value as text, UNCHANGED for null
+         **/
+        private static String valueOf(Object value) {
+            return value == null ? UNCHANGED : String.valueOf(value);
+        }
+
+        /**
+         * toString method for Cell
+         *
+         * @return String representation of Cell
+         **/
+        @Override
+        public String toString() {
+            return "[" + this.key() + "]";
+        }
+    }
+
+    /********************************************
+     * Types of models by their ids, used to skip cells with models of different type, model from config is used for
+     * null id
+     ********************************************/
+    static class ModelTypes {
+
+        /** types of car following models by id **/
+        private final Map<String, String> carFollowingTypes = new HashMap<>();
+
+        /** types of lane changing models by id **/
+        private final Map<String, String> laneChangingTypes = new HashMap<>();
+
+        /**
+         * checks if models have the same type
+         *
+         * @param carFollowingModel id of car following model, null for model from config
+         * @param laneChangingModel id of lane changing model, null for model from config
+         * @return true if both models exist and have the same type
+         **/
+        boolean compatible(String carFollowingModel, String laneChangingModel) {
+            String carFollowingType = this.carFollowingTypes.computeIfAbsent(String.valueOf(carFollowingModel), id -> {
+                ICarFollowingModel model = carFollowingModel == null ? AppContext.CAR_FOLLOWING_MODEL :
+                        InputParametersHandeler.getCarFollowingModelById(carFollowingModel);
+                return model != null ? model.getType() : "";
+            });
+            String laneChangingType = this.laneChangingTypes.computeIfAbsent(String.valueOf(laneChangingModel), id -> {
+                ILaneChangingModel model = laneChangingModel == null ? AppContext.LANE_CHANGING_MODEL :
+                        InputParametersHandeler.getLaneChangingModelById(laneChangingModel);
+                return model != null ? model.getType() : "";
+            });
+            return !carFollowingType.isEmpty() && carFollowingType.equals(laneChangingType);
+        }
+    }
+}
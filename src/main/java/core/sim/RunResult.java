@@ -0,0 +1,113 @@
+package core.sim;
+
+/********************************************
+ * Summary of one headless run of the simulation, values are aggregated over all roads (cars passed are summed, queues
+ * are averaged over roads, maximal queue is maximum of all roads). Result is passed from child process running the
+ * simulation to the process that started it as one line of standard output.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class RunResult {
+
+    /** prefix of the line with result in output of child process **/
+    public static final String LINE_PREFIX = "RUN_RESULT";
+
+    /** separator of values in the line with result **/
+    private static final String SEPARATOR = ";";
+
+    /** names of measured values of result that can be compared across runs **/
+    public static final String[] METRICS = {"carsPassed", "averageQueueOnLastRed", "averageQueue", "maxQueue"};
+
+    /** number of cars that left all roads **/
+    public final long carsPassed;
+
+    /** average over roads of average peak queue of red phases **/
+    public final double averageQueueOnLastRed;
+
+    /** average over roads of average queue on red **/
+    public final double averageQueue;
+
+    /** maximal queue on red of all lanes **/
+    public final int maxQueue;
+
+    /** number of simulated steps, can be lower than duration when all roads and queues were empty **/
+    public final int steps;
+
+    /**
+     * constructor of result
+     *
+     * @param carsPassed number of cars that left all roads
+     * @param averageQueueOnLastRed average peak queue of red phases
+     * @param averageQueue average queue on red
+     * @param maxQueue maximal queue on red
+     * @param steps number of simulated steps
+     **/
+    public RunResult(long carsPassed, double averageQueueOnLastRed, double averageQueue, int maxQueue, int steps) {
+        this.carsPassed = carsPassed;
+        this.averageQueueOnLastRed = averageQueueOnLastRed;
+        this.averageQueue = averageQueue;
+        this.maxQueue = maxQueue;
+        this.steps = steps;
+    }
+
+    /**
+     * getter for measured value of result by its name
+     *
+     * @param metric name of the value, one of METRICS
+     * @return value of the metric, NaN if there is no metric with the name
+     **/
+    public double getMetric(String metric) {
+        return switch (metric) {
+            case "carsPassed" -> this.carsPassed;
+            case "averageQueueOnLastRed" -> this.averageQueueOnLastRed;
+            case "averageQueue" -> this.averageQueue;
+            case "maxQueue" -> this.maxQueue;
+            default -> Double.NaN;
+        };
+    }
+
+    /**
+     * converts result to line written to output of child process
+     *
+     * @return line with result
+     **/
+    public String toLine() {
+        return LINE_PREFIX + SEPARATOR + carsPassed + SEPARATOR + averageQueueOnLastRed + SEPARATOR + averageQueue +
+                SEPARATOR + maxQueue + SEPARATOR + steps;
+    }
+
+    /**
+     * parses line written by toLine
+     *
+     * @param line line from output of child process
+     * @return parsed result, null if line is not a valid result line
+     **/
+    public static RunResult parse(String line) {
+        if (line == null || !line.startsWith(LINE_PREFIX + SEPARATOR)) {
+            return null;
+        }
+
+        String[] values = line.trim().split(SEPARATOR);
+        if (values.length != 6) {
+            return null;
+        }
+        try {
+            return new RunResult(Long.parseLong(values[1]), Double.parseDouble(values[2]),
+                    Double.parseDouble(values[3]), Integer.parseInt(values[4]), Integer.parseInt(values[5]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * toString method for RunResult
+     *
+     * @return String representation of RunResult
+     **/
+    @Override
+    public String toString() {
+        return "RunResult{carsPassed=" + carsPassed + ", averageQueueOnLastRed=" + averageQueueOnLastRed +
+                ", averageQueue=" + averageQueue + ", maxQueue=" + maxQueue + ", steps=" + steps + "}";
+    }
+}
@@ -0,0 +1,235 @@
+package core.sim;
+
+import app.AppContext;
+import core.utils.MyLogger;
+import core.utils.ReplicationDetails;
+import core.utils.constants.Constants;
+import core.utils.loading.ReplicationLoader;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/********************************************
+ * Sequential replications of one scenario, replications with following seeds are run in batches at the same time in
+ * separate processes (ParallelRunner) until 95% confidence interval of mean of every chosen metric is narrower than
+ * required precision relative to the mean, or until maximal number of replications is reached. Mean and variance of
+ * metrics are updated after every replication (Welford), so noisy scenario gets more replications and quiet scenario
+ * stops after minimal number of replications. Every replication is written to one table.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class SequentialReplications {
+
+    /** separator of columns of results table **/
+    static final String SEPARATOR = ",";
+
+    /** metrics used when replications file does not name any **/
+    static final List<String> DEFAULT_METRICS = List.of("carsPassed", "averageQueue");
+
+    /**
+     * loads replications file and runs replications until metrics are precise enough
+     *
+     * @param replicationFile replications file
+     * @param arguments input parameters of the application, configuration, map and models are passed to runs
+     * @param duration number of steps of every replication
+     * @return true if metrics reached required precision, false if replications failed or stopped at maximum
+     **/
+    public static boolean run(String replicationFile, String[] arguments, int duration) {
+        ReplicationDetails details = ReplicationLoader.load(replicationFile);
+        if (details == null || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Replications need valid replications file and loaded map.",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+        List<String> metrics = details.metrics.isEmpty() ? DEFAULT_METRICS : details.metrics;
+        long firstSeed = details.seed != null ? details.seed : AppContext.RUN_DETAILS.seed;
+
+        List<String> baseArguments = new ArrayList<>();
+        for (String argument : arguments) {
+            if (argument.startsWith(Constants.CONFIG_PATH_PARAMETER_PREFIX) ||
+                    argument.startsWith(Constants.MAP_FILE_PARAMETER_PREFIX) ||
+                    argument.startsWith(Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX) ||
+                    argument.startsWith(Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX)) {
+                baseArguments.add(argument);
+            }
+        }
+        baseArguments.add(Constants.DURATION_PARAMETER_PREFIX + duration);
+
+        ParallelRunner runner = new ParallelRunner(details.workers);
+        int batchSize = details.batchSize > 0 ? details.batchSize : runner.getWorkers();
+        RunningStatistics[] statistics = new RunningStatistics[metrics.size()];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new RunningStatistics();
+        }
+
+        int started = 0;
+        int failed = 0;
+        boolean precise = false;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(details.resultsFile))) {
+            writer.write(String.join(SEPARATOR, "replication", "seed", "steps", String.join(SEPARATOR, metrics)));
+            writer.newLine();
+
+            while (started < details.maxReplications && !precise) {
+                int size = Math.min(batchSize, details.maxReplications - started);
+                List<String[]> jobs = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    List<String> job = new ArrayList<>(baseArguments);
+                    job.add(Constants.SEED_PARAMETER_PREFIX + (firstSeed + started + i));
+                    jobs.add(job.toArray(new String[0]));
+                }
+
+                RunResult[] results = runner.runAll(jobs);
+                int failedInBatch = 0;
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] == null) {
+                        failedInBatch++;
+                        continue;
+                    }
+                    StringBuilder row = new StringBuilder().append(started + i).append(SEPARATOR)
+                            .append(firstSeed + started + i).append(SEPARATOR).append(results[i].steps);
+                    for (int m = 0; m < statistics.length; m++) {
+                        double value = results[i].getMetric(metrics.get(m));
+                        statistics[m].add(value);
+                        row.append(SEPARATOR).append(value);
+                    }
+                    writer.write(row.toString());
+                    writer.newLine();
+                }
+                writer.flush();
+                started += size;
+                failed += failedInBatch;
+                if (failedInBatch == size) {
+                    MyLogger.logLoadingOrSimulationStartEnd("All replications of batch failed, stopping replications.",
+                            Constants.ERROR_FOR_LOGGING);
+                    return false;
+                }
+
+                precise = statistics[0].count() >= details.minReplications &&
+                        allPrecise(statistics, details.relativePrecision);
+                MyLogger.logLoadingOrSimulationStartEnd("After " + statistics[0].count() + " replications: " +
+                        summary(metrics, statistics), Constants.INFO_FOR_LOGGING);
+            }
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not write replications to " + details.resultsFile + ": " +
+                    e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd((precise ? "Replications reached precision " :
+                "Replications stopped at maximum without reaching precision ") + details.relativePrecision +
+                " after " + statistics[0].count() + " replications" + (failed == 0 ? "" : " (" + failed + " failed)") +
+                ", results written to " + details.resultsFile, precise ? Constants.INFO_FOR_LOGGING :
+                Constants.WARN_FOR_LOGGING);
+        return precise;
+    }
+
+    /**
+     * checks if confidence intervals of all metrics are precise enough
+     *
+     * @param statistics running statistics of metrics
+     * @param relativePrecision required half-width relative to the mean
+     * @return true if every interval is precise enough, false otherwise
+     **/
+    static boolean allPrecise(RunningStatistics[] statistics, double relativePrecision) {
+        for (RunningStatistics statistic : statistics) {
+            if (!statistic.isPrecise(relativePrecision)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * creates summary of metrics with means and half-widths of their intervals for logging
+     *
+     * @param metrics names of metrics
+     * @param statistics running statistics of metrics
+     * @return summary of metrics
+     **/
+    private static String summary(List<String> metrics, RunningStatistics[] statistics) {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < statistics.length; i++) {
+            summary.append(i == 0 ? "" : ", ").append(String.format("%s = %.3f +- %.3f", metrics.get(i),
+                    statistics[i].mean(), statistics[i].halfWidth()));
+        }
+        return summary.toString();
+    }
+
+    /********************************************
+     * Running mean and variance of one metric updated after every value (Welford algorithm), numerically stable and
+     * without keeping the values
+     ********************************************/
+    static class RunningStatistics {
+
+        /** number of values **/
+        private long count = 0;
+
+        /** mean of values **/
+        private double mean = 0.0;
+
+        /** sum of squared differences from the mean **/
+        private double sumOfSquares = 0.0;
+
+        /**
+         * adds value to statistics
+         *
+         * @param value new value
+         **/
+        void add(double value) {
+            this.count++;
+            double difference = value - this.mean;
+            this.mean += difference / this.count;
+            this.sumOfSquares += difference * (value - this.mean);
+        }
+
+        /**
+         * getter for number of values
+         *
+         * @return number of values
+         **/
+        long count() {
+            return this.count;
+        }
+
+        /**
+         * getter for mean of values
+         *
+         * @return mean, 0 if there are no values
+         **/
+        double mean() {
+            return this.mean;
+        }
+
+        /**
+         * computes sample variance of values
+         *
+         * @return sample variance, 0 if there is less than two values
+         **/
+        double variance() {
+            return this.count < 2 ? 0.0 : this.sumOfSquares / (this.count - 1);
+        }
+
+        /**
+         * computes half-width of 95% confidence interval of the mean
+         *
+         * @return half-width of the interval, infinity if there is less than two values
+         **/
+        double halfWidth() {
+            return SteadyStateDetector.halfWidth95(Math.sqrt(this.variance()), this.count);
+        }
+
+        /**
+         * checks if half-width of interval is at most given fraction of the mean
+         *
+         * @param relativePrecision required half-width relative to the mean
+         * @return true if estimate is precise enough, false otherwise
+         **/
+        boolean isPrecise(double relativePrecision) {
+            return this.halfWidth() <= relativePrecision * Math.abs(this.mean);
+        }
+    }
+}
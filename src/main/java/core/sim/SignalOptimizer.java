@@ -0,0 +1,506 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.LightPlan;
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.OptimizationDetails;
+import core.utils.RoadParameters;
+import core.utils.RoadXml;
+import core.utils.constants.Constants;
+import core.utils.loading.OptimizationLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/********************************************
+ * Optimizer of light plans (cycle time, green split and offset) of the loaded map. Search is random sampling with
+ * successive halving: candidates are evaluated by short simulations, better half goes to the next rung where
+ * simulations are twice as long, until the last two candidates are evaluated with full duration. Search is restarted around the
+ * best plan with ranges halved every restart. All candidates of a rung run at the same time as headless simulations
+ * (ParallelRunner) with the same seed, so differences of objective come from plans and not from random arrivals.
+ * The best plans are written to map file through RoadXml.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class SignalOptimizer {
+
+    /** suffix of map file with optimized plans when output map is not given **/
+    private static final String OPTIMIZED_MAP_SUFFIX = "_optimized.xml";
+
+    /** settings of the optimization **/
+    private final OptimizationDetails details;
+
+    /** roads of the loaded map, their light plans are changed when candidates are written **/
+    private final Road[] roads;
+
+    /** evaluator of candidates **/
+    private final CandidateEvaluator evaluator;
+
+    /** random generator of the search, independent of random generator of simulations **/
+    private final Random random;
+
+    /** light plans of all lanes of roads before the search, original plans are restored exactly from them **/
+    private final LightPlan[][] originalPlans;
+
+    /**
+     * constructor of optimizer
+     *
+     * @param details settings of the optimization
+     * @param roads roads of the loaded map
+     * @param evaluator evaluator of candidates
+     * @param seed seed of the search
+     **/
+    SignalOptimizer(OptimizationDetails details, Road[] roads, CandidateEvaluator evaluator, long seed) {
+        this.details = details;
+        this.roads = roads;
+        this.evaluator = evaluator;
+        this.random = new Random(seed);
+        this.originalPlans = snapshotPlans(roads);
+    }
+
+    /**
+     * loads optimization file, optimizes light plans of the loaded map with headless simulations of given duration
+     * and writes the best plans to output map
+     *
+     * @param optimizationFile optimization file with search ranges
+     * @param arguments input parameters of the application, configuration and models are passed to simulations
+     * @param duration duration of simulations in the last rung
+     * @return true if optimized map was written, false otherwise
+     **/
+    public static boolean run(String optimizationFile, String[] arguments, int duration) {
+        OptimizationDetails details = OptimizationLoader.load(optimizationFile);
+        if (details == null || AppContext.SIMULATION == null || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Optimization needs valid optimization file and loaded map.",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+        Road[] roads = AppContext.SIMULATION.getRoads();
+        for (OptimizationDetails.LightRange light : details.lights) {
+            if (light.road >= roads.length || light.lane >= roads[light.road].getNumberOfLanes()) {
+                MyLogger.logLoadingOrSimulationStartEnd("Optimized light " + light + " is not on the map.",
+                        Constants.FATAL_FOR_LOGGING);
+                return false;
+            }
+        }
+
+        long seed = details.seed != null ? details.seed : AppContext.RUN_DETAILS.seed;
+        File workDirectory;
+        try {
+            workDirectory = Files.createTempDirectory("optimization").toFile();
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not create directory for candidate maps: " +
+                    e.getMessage(), Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+
+        ProcessEvaluator evaluator = new ProcessEvaluator(details, roads, arguments, seed, workDirectory);
+        SignalOptimizer optimizer = new SignalOptimizer(details, roads, evaluator, seed);
+        Candidate baseline = optimizer.currentPlans();
+        Candidate best;
+        try {
+            best = optimizer.optimize(baseline, duration);
+        } finally {
+            ParallelRunner.deleteDirectory(workDirectory);
+        }
+
+        optimizer.apply(best);
+        String mapFile = AppContext.RUN_DETAILS.mapFile != null ? AppContext.RUN_DETAILS.mapFile : "map";
+        String outputMap = details.outputMap != null ? details.outputMap :
+                mapFile.replaceFirst("\\.xml$", "") + OPTIMIZED_MAP_SUFFIX;
+        ArrayList<RoadParameters> roadParameters = RoadParameters.existingRoadsToRoadParameters(roads);
+        boolean written = RoadXml.writeMapToXml(roadParameters, roadParameters.size(), outputMap);
+        MyLogger.logLoadingOrSimulationStartEnd("Optimization finished, objective of original plans " +
+                baseline.score + ", objective of best plans " + best.score + " (" + best + ")" +
+                (written ? ", written to " + outputMap : ", writing to " + outputMap + " failed"),
+                written ? Constants.INFO_FOR_LOGGING : Constants.ERROR_FOR_LOGGING);
+        return written;
+    }
+
+    /**
+     * runs the search, candidates of the first round are sampled from whole ranges, every restart samples around the
+     * best plan found so far, winner of a round replaces the best plan only when it is better with full duration
+     *
+     * @param baseline original plans of the map
+     * @param duration duration of simulations in the last rung
+     * @return best candidate, its score is objective with full duration, original plans are returned when no
+     * candidate is better
+     **/
+    Candidate optimize(Candidate baseline, int duration) {
+        baseline.score = this.evaluator.evaluate(List.of(baseline), duration)[0];
+        Candidate best = baseline;
+        for (int restart = 0; restart <= this.details.restarts; restart++) {
+            double scale = Math.pow(0.5, restart);
+            List<Candidate> candidates = new ArrayList<>();
+            while (candidates.size() < this.details.candidates) {
+                candidates.add(restart == 0 ? this.sample(null, 1.0) : this.sample(best, scale));
+            }
+            Candidate winner = this.successiveHalving(candidates, duration);
+            if (winner.score < best.score) {
+                best = winner;
+            }
+            MyLogger.logLoadingOrSimulationStartEnd("Round " + (restart + 1) + " of optimization, best objective " +
+                    best.score + " (" + best + ")", Constants.INFO_FOR_LOGGING);
+        }
+        return best;
+    }
+
+    /**
+     * evaluates candidates in rungs with growing duration, better half of candidates goes to next rung
+     *
+     * @param candidates candidates to evaluate
+     * @param duration duration of simulations in the last rung
+     * @return the best candidate of the last rung
+     **/
+    Candidate successiveHalving(List<Candidate> candidates, int duration) {
+        List<Candidate> alive = new ArrayList<>(candidates);
+        int[] durations = rungDurations(alive.size(), this.details.minDuration, duration);
+        for (int rung = 0; rung < durations.length; rung++) {
+            double[] scores = this.evaluator.evaluate(alive, durations[rung]);
+            for (int i = 0; i < alive.size(); i++) {
+                alive.get(i).score = Double.isNaN(scores[i]) ? Double.POSITIVE_INFINITY : scores[i];
+            }
+            alive.sort(Comparator.comparingDouble(candidate -> candidate.score));
+            if (rung < durations.length - 1) {
+                alive = new ArrayList<>(alive.subList(0, (alive.size() + 1) / 2));
+            }
+        }
+        return alive.get(0);
+    }
+
+    /**
+     * computes durations of rungs, in the last rung at most two candidates are evaluated with full duration, every
+     * previous rung is half as long but not shorter than minimum
+     *
+     * @param candidates number of candidates in the first rung
+     * @param minDuration minimal duration of a rung
+     * @param duration duration of the last rung
+     * @return durations of rungs
+     **/
+    static int[] rungDurations(int candidates, int minDuration, int duration) {
+        int rungs = 1;
+        for (int alive = candidates; alive > 2; alive = (alive + 1) / 2) {
+            rungs++;
+        }
+        int[] durations = new int[rungs];
+        for (int rung = 0; rung < rungs; rung++) {
+            long rungDuration = (long) duration >> (rungs - 1 - rung);
+            durations[rung] = (int) Math.max(Math.min(minDuration, duration), rungDuration);
+        }
+        return durations;
+    }
+
+    /**
+     * samples candidate uniformly from search ranges, or from ranges around center shrunk by scale
+     *
+     * @param center center of sampling, null for whole ranges
+     * @param scale part of ranges that is sampled around center
+     * @return sampled candidate
+     **/
+    Candidate sample(Candidate center, double scale) {
+        int lights = this.details.lights.size();
+        Candidate candidate = new Candidate(lights);
+        for (int i = 0; i < lights; i++) {
+            OptimizationDetails.LightRange range = this.details.lights.get(i);
+            double cycle = this.sampleAround(range.minCycle, range.maxCycle,
+                    center != null ? center.cycles[i] : Double.NaN, scale);
+            double split = this.sampleAround(range.minSplit, range.maxSplit,
+                    center != null ? (double) center.switches[i] / center.cycles[i] : Double.NaN, scale);
+            double offset = this.sampleAround(range.minOffset, range.maxOffset,
+                    center != null ? center.offsets[i] : Double.NaN, scale);
+            candidate.cycles[i] = (int) Math.round(cycle);
+            candidate.switches[i] = Math.max(1, Math.min(candidate.cycles[i] - 1,
+                    (int) Math.round(split * candidate.cycles[i])));
+            candidate.offsets[i] = (int) Math.round(offset);
+        }
+        return candidate;
+    }
+
+    /**
+     * samples value uniformly from range, or from range of given width around center clipped to the range
+     *
+     * @param min minimum of range
+     * @param max maximum of range
+     * @param center center of sampling, NaN for whole range
+     * @param scale part of range that is sampled around center
+     * @return sampled value
+     **/
+    private double sampleAround(double min, double max, double center, double scale) {
+        double low = min;
+        double high = max;
+        if (!Double.isNaN(center)) {
+            double halfWidth = (max - min) * scale / 2.0;
+            low = Math.max(min, Math.min(max, center - halfWidth));
+            high = Math.min(max, Math.max(min, center + halfWidth));
+        }
+        return low + (high - low) * this.random.nextDouble();
+    }
+
+    /**
+     * creates candidate of original light plans, values of optimized lights (first lane when all lanes of road are
+     * optimized) are only the center of sampling, applying the candidate restores plans of all lanes as they were
+     *
+     * @return candidate with original plans, its score is not evaluated yet
+     **/
+    Candidate currentPlans() {
+        int lights = this.details.lights.size();
+        Candidate candidate = new Candidate(lights);
+        candidate.original = true;
+        for (int i = 0; i < lights; i++) {
+            OptimizationDetails.LightRange range = this.details.lights.get(i);
+            LightPlan plan = this.roads[range.road].getLightPlans()[Math.max(0, range.lane)];
+            candidate.cycles[i] = plan.getCycleTime();
+            candidate.switches[i] = plan.getTimeOfSwitch();
+            candidate.offsets[i] = plan.getOffset();
+        }
+        return candidate;
+    }
+
+    /**
+     * writes plans of candidate to light plans of roads, lights keep whether they begin on green
+     *
+     * @param candidate candidate to apply
+     **/
+    void apply(Candidate candidate) {
+        if (candidate.original) {
+            restorePlans(this.roads, this.originalPlans);
+            return;
+        }
+        for (int i = 0; i < this.details.lights.size(); i++) {
+            OptimizationDetails.LightRange range = this.details.lights.get(i);
+            Road road = this.roads[range.road];
+            int firstLane = range.lane >= 0 ? range.lane : 0;
+            int lastLane = range.lane >= 0 ? range.lane : road.getNumberOfLanes() - 1;
+            for (int lane = firstLane; lane <= lastLane; lane++) {
+                LightPlan plan = new LightPlan(candidate.cycles[i], candidate.switches[i],
+                        road.getLightPlans()[lane].isBeginsOnGreen());
+                plan.setOffset(candidate.offsets[i]);
+                road.setLightPlan(lane, plan);
+            }
+        }
+    }
+
+    /**
+     * copies arrays of light plans of all roads, plans are never changed in place (candidates set new plans), so the
+     * copies keep the plans as they are now
+     *
+     * @param roads roads of the map
+     * @return light plans of every road by index of road, null for road without plans
+     **/
+    static LightPlan[][] snapshotPlans(Road[] roads) {
+        LightPlan[][] plans = new LightPlan[roads.length][];
+        for (int i = 0; i < roads.length; i++) {
+            LightPlan[] roadPlans = roads[i] != null ? roads[i].getLightPlans() : null;
+            plans[i] = roadPlans != null ? roadPlans.clone() : null;
+        }
+        return plans;
+    }
+
+    /**
+     * sets light plans of all lanes of roads back to copied plans
+     *
+     * @param roads roads of the map
+     * @param plans light plans of every road made by snapshotPlans
+     **/
+    static void restorePlans(Road[] roads, LightPlan[][] plans) {
+        for (int i = 0; i < roads.length; i++) {
+            if (roads[i] == null || plans[i] == null) {
+                continue;
+            }
+            for (int lane = 0; lane < plans[i].length; lane++) {
+                roads[i].setLightPlan(lane, plans[i][lane]);
+            }
+        }
+    }
+
+    /********************************************
+     * Evaluator of candidates, returns objective of every candidate for simulations of given duration
+     ********************************************/
+    @FunctionalInterface
+    interface CandidateEvaluator {
+
+        /**
+         * evaluates candidates
+         *
+         * @param candidates candidates to evaluate
+         * @param duration duration of simulations
+         * @return objective of every candidate in order of candidates, lower is better
+         **/
+        double[] evaluate(List<Candidate> candidates, int duration);
+    }
+
+    /********************************************
+     * Candidate plans of all optimized lights with objective of its last evaluation
+     ********************************************/
+    static class Candidate {
+
+        /** cycle times of lights **/
+        final int[] cycles;
+
+        /** times of switch of lights **/
+        final int[] switches;
+
+        /** offsets of lights **/
+        final int[] offsets;
+
+        /** objective of the last evaluation, positive infinity if not evaluated **/
+        double score = Double.POSITIVE_INFINITY;
+
+        /** whether candidate stands for original plans of the map **/
+        boolean original = false;
+
+        /**
+         * constructor of candidate
+         *
+         * @param lights number of optimized lights
+         **/
+        Candidate(int lights) {
+            this.cycles = new int[lights];
+            this.switches = new int[lights];
+            this.offsets = new int[lights];
+        }
+
+        /**
+         * toString method for Candidate
+         *
+         * @return String representation of Candidate
+         **/
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < this.cycles.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append("cycle=").append(this.cycles[i]).append(" switch=").append(this.switches[i])
+                        .append(" offset=").append(this.offsets[i]);
+            }
+            return sb.toString();
+        }
+    }
+
+    /********************************************
+     * Evaluator running every candidate as headless simulation in child process, candidate plans are written to map
+     * files in work directory, original plans are restored after the maps are written and the maps are deleted after
+     * the simulations
+     ********************************************/
+    private static class ProcessEvaluator implements CandidateEvaluator {
+
+        /** settings of the optimization **/
+        private final OptimizationDetails details;
+
+        /** roads of the loaded map **/
+        private final Road[] roads;
+
+        /** input parameters passed to every simulation (configuration and models) **/
+        private final List<String> baseArguments = new ArrayList<>();
+
+        /** directory of candidate maps **/
+        private final File workDirectory;
+
+        /** runner of simulations **/
+        private final ParallelRunner runner;
+
+        /** number of written candidate maps **/
+        private int mapsWritten = 0;
+
+        /**
+         * constructor of evaluator
+         *
+         * @param details settings of the optimization
+         * @param roads roads of the loaded map
+         * @param arguments input parameters of the application
+         * @param seed seed of all simulations
+         * @param workDirectory directory of candidate maps
+         **/
+        ProcessEvaluator(OptimizationDetails details, Road[] roads, String[] arguments, long seed,
+                         File workDirectory) {
+            this.details = details;
+            this.roads = roads;
+            this.workDirectory = workDirectory;
+            this.runner = new ParallelRunner(details.workers);
+            for (String argument : arguments) {
+                if (argument.startsWith(Constants.CONFIG_PATH_PARAMETER_PREFIX) ||
+                        argument.startsWith(Constants.CAR_FOLLOWING_MODEL_PARAMETER_PREFIX) ||
+                        argument.startsWith(Constants.LANE_CHANGING_MODEL_PARAMETER_PREFIX)) {
+                    this.baseArguments.add(argument);
+                }
+            }
+            this.baseArguments.add(Constants.SEED_PARAMETER_PREFIX + seed);
+        }
+
+        /**
+         * writes map of every candidate and runs all of them
+         *
+         * @param candidates candidates to evaluate
+         * @param duration duration of simulations
+         * @return objective of every candidate, positive infinity for failed simulation
+         **/
+        @Override
+        public double[] evaluate(List<Candidate> candidates, int duration) {
+            SignalOptimizer writer = new SignalOptimizer(this.details, this.roads, this, 0);
+            LightPlan[][] original = snapshotPlans(this.roads);
+            List<String[]> jobs = new ArrayList<>();
+            List<File> mapFiles = new ArrayList<>();
+            try {
+                for (Candidate candidate : candidates) {
+                    writer.apply(candidate);
+                    File candidateMap = new File(this.workDirectory, "candidate" + (this.mapsWritten++) + ".xml");
+                    mapFiles.add(candidateMap);
+                    String mapFile = candidateMap.getPath();
+                    ArrayList<RoadParameters> roadParameters = RoadParameters.existingRoadsToRoadParameters(this.roads);
+                    if (!RoadXml.writeMapToXml(roadParameters, roadParameters.size(), mapFile)) {
+                        deleteFiles(mapFiles);
+                        return failed(candidates.size());
+                    }
+                    List<String> job = new ArrayList<>(this.baseArguments);
+                    job.add(Constants.MAP_FILE_PARAMETER_PREFIX + mapFile);
+                    job.add(Constants.DURATION_PARAMETER_PREFIX + duration);
+                    jobs.add(job.toArray(new String[0]));
+                }
+            } finally {
+                restorePlans(this.roads, original);
+            }
+
+            RunResult[] results = this.runner.runAll(jobs);
+            deleteFiles(mapFiles);
+            double[] scores = new double[results.length];
+            for (int i = 0; i < results.length; i++) {
+                scores[i] = this.details.objective(results[i]);
+            }
+            return scores;
+        }
+
+        /**
+         * deletes candidate maps of finished rung, so maps of the whole search do not pile up in work directory
+         *
+         * @param mapFiles candidate maps
+         **/
+        private static void deleteFiles(List<File> mapFiles) {
+            for (File mapFile : mapFiles) {
+                if (!mapFile.delete() && mapFile.exists()) {
+                    MyLogger.log("Could not delete candidate map " + mapFile, Constants.WARN_FOR_LOGGING);
+                }
+            }
+        }
+
+        /**
+         * creates scores of failed evaluation
+         *
+         * @param candidates number of candidates
+         * @return positive infinity for every candidate
+         **/
+        private static double[] failed(int candidates) {
+            double[] scores = new double[candidates];
+            Arrays.fill(scores, Double.POSITIVE_INFINITY);
+            return scores;
+        }
+    }
+}
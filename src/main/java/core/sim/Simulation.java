@@ -1,10 +1,20 @@
 package core.sim;
 
 import app.AppContext;
+import core.model.CarGenerator;
 import core.model.Road;
+import core.utils.CheckpointDetails;
 import core.utils.constants.Constants;
+import core.utils.MetricsRegistry;
 import core.utils.MyLogger;
+import core.utils.RandomNumberGenerator;
 import core.utils.ResultsRecorder;
+import core.utils.RoadMetrics;
+import core.utils.SteadyStateDetails;
+import core.utils.TrajectoryRecorder;
+import core.utils.events.RoadStepEvent;
+
+import java.util.concurrent.TimeUnit;
 
 /***************************
  * Class representing the simulation, holding roads and stepping through the simulation
@@ -23,6 +33,25 @@ public class Simulation {
     /** flag indicating if the simulation is running **/
     private boolean running = false;
 
+    /** step from which results are measured, not 0 when simulation was warm started from snapshot **/
+    private int measurementStartStep = 0;
+
+    /** time when last checkpoint was written (or simulation run started) in nanoseconds **/
+    private long lastCheckpointTime = 0;
+
+    /** number of cars that passed all roads in the last step **/
+    private int carsPassedInLastStep = 0;
+
+    /** detector of steady state of the current run, null when detection is off or no run is in progress **/
+    private SteadyStateDetector steadyStateDetector = null;
+
+    /** schedule of switches of traffic lights, built when first needed and when roads, lights or step jump change **/
+    private LightSchedule lightSchedule = null;
+
+    /** time spent in phases of steps in nanoseconds (update of every road by its index, then update of lights), null
+     * when steps are not timed **/
+    private long[] phaseTimes = null;
+
     /**
      * Constructor for Simulation
      *
@@ -30,37 +59,101 @@ public class Simulation {
      **/
     public Simulation(Road[] roads) {
         this.roads = roads;
+        if (roads != null && AppContext.RUN_DETAILS != null && AppContext.RUN_DETAILS.commonRandomNumbers) {
+            seedGeneratorStreams(AppContext.RUN_DETAILS.seed);
+            resetCarQueues(); // queues were drawn from shared generator when map was loaded
+        }
     }
 
     /**
      * Steps through the simulation, updating each road and recording results if writingResults is enabled
      **/
     public void step() {
+        long recordingStart = MetricsRegistry.start();
         if (AppContext.RUN_DETAILS.writingResults() && this.stepCount == 0) {
             ResultsRecorder.getResultsRecorder().startTimer();
         }
 
+        TrajectoryRecorder.getTrajectoryRecorder().startStep(this.stepCount);
+        RoadMetrics simulationMetrics = null;
+        if (recordingStart != 0) {
+            simulationMetrics = MetricsRegistry.getMetricsRegistry().forRoad(MetricsRegistry.SIMULATION_ID);
+            simulationMetrics.addTime(MetricsRegistry.Phase.RECORDING, recordingStart);
+        }
+
+        this.carsPassedInLastStep = 0;
+        long[] times = this.phaseTimes;
         for (int i = 0; i < roads.length; i++) {
             Road r = roads[i];
             if (r != null) {
+                RoadStepEvent stepEvent = new RoadStepEvent();
+                stepEvent.begin();
+                long start = times != null ? System.nanoTime() : 0;
                 int carsPassed = r.updateRoad();
+                if (times != null) {
+                    times[i] += System.nanoTime() - start;
+                }
+                stepEvent.end();
+                if (stepEvent.shouldCommit()) {
+                    stepEvent.roadId = r.getId();
+                    stepEvent.step = this.stepCount;
+                    stepEvent.vehicles = r.getNumberOfCarsOnRoad();
+                    stepEvent.carsPassed = carsPassed;
+                    stepEvent.commit();
+                }
+                this.carsPassedInLastStep += carsPassed;
+                if (simulationMetrics != null) {
+                    r.getMetrics().endStep(r.getNumberOfCarsOnRoad());
+                }
 
                 // Record the number of cars that have passed on this road if results are to be written
                 if (AppContext.RUN_DETAILS.writingResults()) {
+                    recordingStart = MetricsRegistry.start();
                     ResultsRecorder.getResultsRecorder().recordCarsPassed(i, carsPassed);
+                    if (simulationMetrics != null) {
+                        simulationMetrics.addTime(MetricsRegistry.Phase.RECORDING, recordingStart);
+                    }
                 }
             }
         }
 
         this.stepCount++;
+        long lightsStart = times != null || simulationMetrics != null ? System.nanoTime() : 0;
         this.updateLights();
+        if (times != null) {
+            times[roads.length] += System.nanoTime() - lightsStart;
+        }
+        if (simulationMetrics != null) {
+            simulationMetrics.addTime(MetricsRegistry.Phase.LIGHTS, lightsStart);
+        }
 
         // Stop the timer if writing results and the simulation duration has been reached
         boolean shouldRun = this.stepCount >= (AppContext.RUN_DETAILS.duration - 1) && this.running;
         if (AppContext.RUN_DETAILS.writingResults() && shouldRun) {
             ResultsRecorder.getResultsRecorder().stopTimer();
         }
+        if (simulationMetrics != null) {
+            simulationMetrics.endStep(0);
+        }
+        StateHashRecorder.getStateHashRecorder().record(this);
+    }
 
+    /**
+     * Turns timing of phases of steps on or off, times are cleared when timing is turned on
+     *
+     * @param timed true to time phases of following steps, false to stop timing
+     **/
+    void setPhaseTiming(boolean timed) {
+        this.phaseTimes = timed ? new long[this.roads.length + 1] : null;
+    }
+
+    /**
+     * Getter for time spent in phases of timed steps, update of every road by its index, update of lights is last
+     *
+     * @return times of phases in nanoseconds, null when steps are not timed
+     **/
+    long[] getPhaseTimes() {
+        return this.phaseTimes;
     }
 
     /**
@@ -82,24 +175,144 @@ public class Simulation {
     }
 
     /**
-     * Runs the simulation for a specified amount of time
+     * Setter for the current step count, used when simulation is resumed from checkpoint
+     *
+     * @param stepCount step count to set
+     **/
+    void setStepCount(int stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    /**
+     * Getter for the step from which results are measured
+     *
+     * @return step from which results are measured, 0 if simulation was not warm started
+     **/
+    public int getMeasurementStartStep() {
+        return measurementStartStep;
+    }
+
+    /**
+     * Setter for the step from which results are measured, used when simulation is resumed from checkpoint
+     *
+     * @param measurementStartStep step from which results are measured
+     **/
+    void setMeasurementStartStep(int measurementStartStep) {
+        this.measurementStartStep = measurementStartStep;
+    }
+
+    /**
+     * Getter for the detector of steady state of the current run, used when checkpoint is written
+     *
+     * @return detector of steady state, null when detection is off or no run is in progress
+     **/
+    SteadyStateDetector getSteadyStateDetector() {
+        return this.steadyStateDetector;
+    }
+
+    /**
+     * Setter for the detector of steady state, used when simulation is resumed from checkpoint, so the resumed run
+     * continues detection from the same batches instead of starting over
+     *
+     * @param steadyStateDetector detector restored from checkpoint, null to start detection anew
+     **/
+    void setSteadyStateDetector(SteadyStateDetector steadyStateDetector) {
+        this.steadyStateDetector = steadyStateDetector;
+    }
+
+    /**
+     * Starts the simulation from state in snapshot file (checkpoint of filled roads) instead of empty roads, random
+     * generator is re-seeded with given seed so replications started from the same snapshot differ, and measuring of
+     * results starts from the step of the snapshot, so transient filling of the roads is not in the results
+     *
+     * @param snapshotFile checkpoint file with the state to start from
+     * @param seed new seed of random generator
+     * @return true if simulation was warm started, false if snapshot could not be loaded
+     **/
+    public boolean warmStart(String snapshotFile, long seed) {
+        if (!SimulationCheckpoint.load(this, snapshotFile)) {
+            return false;
+        }
+
+        RandomNumberGenerator.getInstance(seed).resetSeed(seed);
+        seedGeneratorStreams(seed);
+        for (Road road : this.roads) {
+            road.resetArrivalSchedule(); // arrivals drawn before the snapshot would be the same in all replications
+        }
+        this.steadyStateDetector = null; // steady state is detected from the start of measurement
+        this.measurementStartStep = this.stepCount;
+        ResultsRecorder.getResultsRecorder().startMeasurement(this.stepCount);
+        MyLogger.logLoadingOrSimulationStartEnd("Simulation warm started from " + snapshotFile + " at step " +
+                this.stepCount + " with seed " + seed, Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * Runs the simulation for a specified amount of time, when simulation was warm started the time is counted from
+     * the step of the snapshot. Run ends earlier when all roads and queues are empty or when steady state is detected
+     * (if enabled in run details), reason of the end is logged and recorded to results.
      *
      * @param time duration to run the simulation
      **/
     public void runSimulation(double time) {
-        int timeSteps = (int) Math.ceil(time);
+        int timeSteps = this.measurementStartStep + (int) Math.ceil(time);
         this.running = true;
+        this.lastCheckpointTime = System.nanoTime();
+        SteadyStateDetails steadyStateDetails = AppContext.RUN_DETAILS.steadyStateDetails;
+        if (this.steadyStateDetector == null && steadyStateDetails != null && steadyStateDetails.isDetecting()) {
+            this.steadyStateDetector = new SteadyStateDetector(steadyStateDetails); // not restored from checkpoint
+        }
+        SteadyStateDetector detector = this.steadyStateDetector;
+        String stopReason = Constants.STOP_REASON_DURATION;
 
         while (this.stepCount < timeSteps && this.running) {
             step();
             if (areAllRoadsAndQueuesEmpty(this.roads)) {
                 MyLogger.log("All car queues and roads are empty, ending simulation early at step " +
                         this.stepCount + ".", Constants.INFO_FOR_LOGGING);
+                stopReason = Constants.STOP_REASON_ALL_EMPTY;
+                this.running = false;
+            } else if (detector != null && detector.observe(this.carsPassedInLastStep,
+                    ResultsRecorder.getResultsRecorder().getStoppedCarsInLastStep())) {
+                stopReason = Constants.STOP_REASON_STEADY_STATE + ", " + detector.describe();
+                MyLogger.log("Steady state reached, ending simulation early at step " + this.stepCount + ".",
+                        Constants.INFO_FOR_LOGGING);
                 this.running = false;
+            } else {
+                checkpointIfDue();
             }
         }
+        if (this.stepCount < timeSteps && stopReason.equals(Constants.STOP_REASON_DURATION)) {
+            stopReason = Constants.STOP_REASON_STOPPED;
+        }
 
+        MyLogger.log("Simulation ended at step " + this.stepCount + ": " + stopReason + ".",
+                Constants.INFO_FOR_LOGGING);
+        this.steadyStateDetector = null;
+        ResultsRecorder.getResultsRecorder().recordStopReason(stopReason + " (step " + this.stepCount + ")");
         ResultsRecorder.getResultsRecorder().stopTimer();
+        TrajectoryRecorder.getTrajectoryRecorder().close();
+        StateHashRecorder.getStateHashRecorder().close();
+        SimulationCheckpoint.awaitBackgroundWrite();
+    }
+
+    /**
+     * Writes checkpoint of the simulation in background if checkpoints are enabled and enough steps or time passed
+     * since the last one
+     **/
+    private void checkpointIfDue() {
+        CheckpointDetails details = AppContext.RUN_DETAILS.checkpointDetails;
+        if (details == null || !details.isCheckpointing()) {
+            return;
+        }
+
+        boolean stepsDue = details.everyNSteps > 0 && this.stepCount % details.everyNSteps == 0;
+        boolean timeDue = details.everyNSeconds > 0 &&
+                System.nanoTime() - this.lastCheckpointTime >= TimeUnit.SECONDS.toNanos(details.everyNSeconds);
+        if (stepsDue || timeDue) {
+            SimulationCheckpoint.saveInBackground(this, details.checkpointFile);
+            this.lastCheckpointTime = System.nanoTime();
+        }
     }
 
     /**
@@ -154,12 +367,23 @@ public class Simulation {
     }
 
     /**
-     * Updates the traffic lights on all roads based on the current step count
+     * Updates the traffic lights on all roads based on the current step count, only lights that switch in this step are
+     * touched using the light schedule
      **/
     private void updateLights() {
-        for (Road road : roads) {
-            road.updateLights(this.stepCount);
+        if (this.lightSchedule == null || this.lightSchedule.isStale(this.roads, this.stepCount)) {
+            this.lightSchedule = new LightSchedule(this.roads, this.stepCount - 1);
         }
+        this.lightSchedule.update(this.stepCount);
+    }
+
+    /**
+     * Getter for number of cars that left all roads in the last step
+     *
+     * @return number of cars passed in the last step
+     **/
+    public int getCarsPassedInLastStep() {
+        return carsPassedInLastStep;
     }
 
     /**
@@ -197,9 +421,12 @@ public class Simulation {
      **/
     public void resetSimulationWithNewRoads(Road[] roads) {
         this.stepCount = 0;
+        this.measurementStartStep = 0;
+        this.steadyStateDetector = null;
         resetAllLightPlans(roads);
         this.running = false;
         this.roads = roads;
+        seedGeneratorStreams(AppContext.RUN_DETAILS.seed);
         ResultsRecorder.getResultsRecorder().resetCarNumbers();
         ResultsRecorder.getResultsRecorder().initialize(roads, AppContext.RUN_DETAILS.outputDetails.outputFile);
     }
@@ -211,9 +438,12 @@ public class Simulation {
      **/
     public void resetSimulationWithSameRoads() {
         this.stepCount = 0;
+        this.measurementStartStep = 0;
+        this.steadyStateDetector = null;
         this.running = false;
         resetAllLightPlans(this.roads);
         clearAllRoads();
+        seedGeneratorStreams(AppContext.RUN_DETAILS.seed);
         resetCarQueues();
         ResultsRecorder.getResultsRecorder().resetCarNumbers();
     }
@@ -237,6 +467,30 @@ public class Simulation {
         }
     }
 
+    /**
+     * Seeds own random streams of all generators when common random numbers are enabled, otherwise generators use the
+     * shared random generator. Stream of generator depends only on the seed, index of its road and its lane, so runs
+     * with the same seed and map get the same arrivals and cars whatever random numbers the models draw.
+     *
+     * @param seed seed of the simulation
+     **/
+    private void seedGeneratorStreams(long seed) {
+        boolean common = AppContext.RUN_DETAILS != null && AppContext.RUN_DETAILS.commonRandomNumbers;
+        for (int i = 0; i < roads.length; i++) {
+            CarGenerator[] generators = roads[i].getCarGenerators();
+            if (generators == null) {
+                continue;
+            }
+            for (int lane = 0; lane < generators.length; lane++) {
+                if (common) {
+                    generators[lane].useRandomStreams(seed, ((long) i << 16) + lane);
+                } else {
+                    generators[lane].useSharedRandom();
+                }
+            }
+        }
+    }
+
     /**
      * Resets all car queues on all roads, used when resetting the simulation with the same roads to ensure all queues are cleared
      * before running the simulation again.
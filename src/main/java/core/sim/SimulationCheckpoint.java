@@ -0,0 +1,327 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.RandomNumberGenerator;
+import core.utils.ResultsRecorder;
+import core.utils.SteadyStateDetails;
+import core.utils.constants.Constants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/********************************************
+ * Class for writing and reading checkpoints of the simulation. Checkpoint is compact binary file with complete state
+ * of the running simulation: step count, content of all roads (cars, queues, state of generators and lights), state of
+ * the random generator, recorded results and batches of steady state detection, so simulation resumed from checkpoint continues exactly as it would
+ * without interruption. Settings of roads and models are not written, they are loaded from the same map and config,
+ * header of the checkpoint contains type and number of lanes of every road to check that the map is the same.
+ * State is first written to memory in the simulation thread (this is fast) and then the file can be written in
+ * background, so periodic checkpoints do not stop the simulation. File is written to temporary file and then moved
+ * over the old checkpoint, so old checkpoint stays valid if the app is killed while writing.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class SimulationCheckpoint {
+
+    /** magic number at start of checkpoint file, "CHK1" **/
+    public static final int MAGIC = 0x43484B31;
+
+    /** version of the checkpoint format **/
+    public static final int VERSION = 7;
+
+    /** suffix of temporary file the checkpoint is written to before it is moved **/
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** flag set while checkpoint is being written in background **/
+    private static final AtomicBoolean WRITING = new AtomicBoolean(false);
+
+    /** executor writing checkpoints in background, created when first needed **/
+    private static ExecutorService writer = null;
+
+    /**
+     * private constructor, class has only static methods
+     **/
+    private SimulationCheckpoint() {}
+
+    /**
+     * writes complete state of the simulation to byte array
+     *
+     * @param simulation simulation to write
+     * @return bytes of the checkpoint, null if writing failed
+     **/
+    public static byte[] createSnapshot(Simulation simulation) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Road[] roads = simulation.getRoads();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(simulation.getStepCount());
+            out.writeInt(simulation.getMeasurementStartStep());
+            out.writeInt(roads.length);
+            for (Road road : roads) {
+                out.writeUTF(road.getType());
+                out.writeInt(road.getNumberOfLanes());
+            }
+
+            for (Road road : roads) {
+                road.writeState(out);
+            }
+            RandomNumberGenerator.getInstance(0).writeState(out);
+            ResultsRecorder.getResultsRecorder().writeState(out);
+            SteadyStateDetector detector = simulation.getSteadyStateDetector();
+            out.writeBoolean(detector != null);
+            if (detector != null) {
+                detector.writeState(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            MyLogger.log("Error creating checkpoint of simulation: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * writes checkpoint of the simulation to file and waits until it is written
+     *
+     * @param simulation simulation to write
+     * @param file path to checkpoint file
+     * @return true if checkpoint was written, false otherwise
+     **/
+    public static boolean save(Simulation simulation, String file) {
+        byte[] snapshot = createSnapshot(simulation);
+        return snapshot != null && writeAtomically(snapshot, file);
+    }
+
+    /**
+     * creates checkpoint of the simulation and writes it to file in background, if previous checkpoint is still being
+     * written, this one is skipped
+     *
+     * @param simulation simulation to write
+     * @param file path to checkpoint file
+     * @return true if writing of checkpoint was started, false if it was skipped or creating it failed
+     **/
+    public static boolean saveInBackground(Simulation simulation, String file) {
+        if (!WRITING.compareAndSet(false, true)) {
+            MyLogger.log("Previous checkpoint is still being written, skipping checkpoint at step " +
+                    simulation.getStepCount(), Constants.WARN_FOR_LOGGING);
+            return false;
+        }
+
+        byte[] snapshot = createSnapshot(simulation);
+        if (snapshot == null) {
+            WRITING.set(false);
+            return false;
+        }
+
+        getWriter().execute(() -> {
+            try {
+                writeAtomically(snapshot, file);
+            } finally {
+                WRITING.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * waits until checkpoint that is being written in background is written, used at the end of the simulation
+     **/
+    public static void awaitBackgroundWrite() {
+        ExecutorService current;
+        synchronized (SimulationCheckpoint.class) {
+            current = writer;
+            writer = null;
+        }
+        if (current == null) {
+            return;
+        }
+
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(1, TimeUnit.MINUTES)) {
+                MyLogger.log("Writing of checkpoint did not finish in time", Constants.WARN_FOR_LOGGING);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * loads checkpoint from file into the simulation, simulation has to have roads loaded from the same map as the
+     * simulation that wrote the checkpoint, header is checked before any state is changed
+     *
+     * @param simulation simulation to load checkpoint into
+     * @param file path to checkpoint file
+     * @return true if checkpoint was loaded, false otherwise
+     **/
+    public static boolean load(Simulation simulation, String file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(Path.of(file));
+        } catch (IOException | RuntimeException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not read checkpoint file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        if (!restore(simulation, bytes, file)) {
+            return false;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("Simulation resumed from checkpoint " + file + " at step " +
+                simulation.getStepCount(), Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * restores state of the simulation from bytes of checkpoint, simulation has to have roads loaded from the same map
+     * as the simulation that wrote the checkpoint, header is checked before any state is changed
+     *
+     * @param simulation simulation to restore state of
+     * @param bytes bytes of the checkpoint created by createSnapshot
+     * @param file name of the checkpoint, used for logging
+     * @return true if state was restored, false otherwise
+     **/
+    static boolean restore(Simulation simulation, byte[] bytes, String file) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int[] steps = readHeader(in, simulation.getRoads(), file);
+            if (steps == null) {
+                return false;
+            }
+
+            for (Road road : simulation.getRoads()) {
+                road.readState(in);
+            }
+            RandomNumberGenerator.getInstance(0).readState(in);
+            ResultsRecorder.getResultsRecorder().readState(in);
+            SteadyStateDetector detector = readSteadyStateDetector(in);
+            simulation.setStepCount(steps[0]);
+            simulation.setSteadyStateDetector(detector);
+            simulation.setMeasurementStartStep(steps[1]);
+        } catch (IOException | RuntimeException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Checkpoint file " + file + " is damaged: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * reads state of steady state detection, detector is created from current settings, so when detection is off now,
+     * the state is read and dropped
+     *
+     * @param in stream to read from
+     * @return restored detector, null if checkpoint has no detection state or detection is off
+     * @throws IOException if reading fails
+     **/
+    private static SteadyStateDetector readSteadyStateDetector(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        SteadyStateDetails details = AppContext.RUN_DETAILS.steadyStateDetails;
+        boolean detecting = details != null && details.isDetecting();
+        SteadyStateDetector detector = new SteadyStateDetector(detecting ? details : new SteadyStateDetails());
+        detector.readState(in);
+        return detecting ? detector : null;
+    }
+
+    /**
+     * reads header of the checkpoint and checks it against roads of the simulation
+     *
+     * @param in stream to read from
+     * @param roads roads of the simulation
+     * @param file name of the file, used for logging
+     * @return step count and measurement start step of the checkpoint, null if header does not match
+     * @throws IOException if reading fails
+     **/
+    private static int[] readHeader(DataInputStream in, Road[] roads, String file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            MyLogger.logLoadingOrSimulationStartEnd("File " + file + " is not a checkpoint file",
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            MyLogger.logLoadingOrSimulationStartEnd("Checkpoint file " + file + " has unsupported version " + version,
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        int stepCount = in.readInt();
+        int measurementStartStep = in.readInt();
+        int numberOfRoads = in.readInt();
+        if (numberOfRoads != roads.length) {
+            MyLogger.logLoadingOrSimulationStartEnd("Checkpoint has " + numberOfRoads + " roads, but loaded map has "
+                    + roads.length, Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        for (Road road : roads) {
+            String type = in.readUTF();
+            int numberOfLanes = in.readInt();
+            if (!type.equals(road.getType()) || numberOfLanes != road.getNumberOfLanes()) {
+                MyLogger.logLoadingOrSimulationStartEnd("Road " + road.getId() + " of checkpoint (" + type + ", " +
+                        numberOfLanes + " lanes) does not match loaded map", Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+        }
+
+        return new int[]{stepCount, measurementStartStep};
+    }
+
+    /**
+     * writes bytes to temporary file and moves it over the checkpoint file
+     *
+     * @param bytes bytes of the checkpoint
+     * @param file path to checkpoint file
+     * @return true if file was written, false otherwise
+     **/
+    private static boolean writeAtomically(byte[] bytes, String file) {
+        Path target = Path.of(file);
+        Path temp = Path.of(file + TEMP_SUFFIX);
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            MyLogger.log("Error writing checkpoint file " + file + ": " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        MyLogger.log("Checkpoint written to " + file + " (" + bytes.length + " B)", Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * getter for background writer, it is created when first needed
+     *
+     * @return executor writing checkpoints
+     **/
+    private static synchronized ExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "checkpoint-writer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,132 @@
+package core.sim;
+
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/********************************************
+ * Hash of state of roads, computed (64-bit FNV-1a) from the same bytes roads write to checkpoints: cars with all their
+ * parameters in order of lanes, queues, generators and lights. Two roads with the same hash are in the same state, so
+ * hashes of roads after every step are enough to compare two runs that should be equal. Bytes are hashed as they are
+ * written, so hashing does not copy state of the road.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class StateHash {
+
+    /** offset basis of FNV-1a **/
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    /** prime of FNV-1a **/
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * private constructor, class has only static methods
+     **/
+    private StateHash() {}
+
+    /**
+     * computes hash of state of the road
+     *
+     * @param road road to hash
+     * @return hash of state of the road, 0 if state cannot be written
+     **/
+    public static long ofRoad(Road road) {
+        HashingStream hashing = new HashingStream();
+        try {
+            road.writeState(new DataOutputStream(hashing));
+        } catch (IOException | RuntimeException e) {
+            MyLogger.log("State of road " + road.getId() + " cannot be hashed: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return 0;
+        }
+        return hashing.hash;
+    }
+
+    /**
+     * computes hash of state of all roads of the simulation and its step count
+     *
+     * @param simulation simulation to hash
+     * @return hash of the simulation
+     **/
+    public static long ofSimulation(Simulation simulation) {
+        Road[] roads = simulation.getRoads();
+        long[] roadHashes = new long[roads.length];
+        for (int i = 0; i < roads.length; i++) {
+            roadHashes[i] = roads[i] == null ? 0 : ofRoad(roads[i]);
+        }
+        return combine(simulation.getStepCount(), roadHashes);
+    }
+
+    /**
+     * combines step count and hashes of roads to hash of the simulation
+     *
+     * @param step step count of the simulation
+     * @param roadHashes hashes of roads by index
+     * @return hash of the simulation
+     **/
+    public static long combine(int step, long[] roadHashes) {
+        long hash = mix(FNV_OFFSET, step);
+        for (long roadHash : roadHashes) {
+            hash = mix(hash, roadHash);
+        }
+        return hash;
+    }
+
+    /**
+     * adds eight bytes of value to the hash
+     *
+     * @param hash hash so far
+     * @param value value to add
+     * @return new hash
+     **/
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /********************************************
+     * Stream that only adds written bytes to the hash
+     ********************************************/
+    private static class HashingStream extends OutputStream {
+
+        /** hash of bytes written so far **/
+        private long hash = FNV_OFFSET;
+
+        /**
+         * adds byte to the hash
+         *
+         * @param b byte to add
+         **/
+        @Override
+        public void write(int b) {
+            this.hash ^= b & 0xFF;
+            this.hash *= FNV_PRIME;
+        }
+
+        /**
+         * adds bytes to the hash
+         *
+         * @param bytes array with bytes
+         * @param offset index of the first byte to add
+         * @param length number of bytes to add
+         **/
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            long h = this.hash;
+            for (int i = offset; i < offset + length; i++) {
+                h ^= bytes[i] & 0xFF;
+                h *= FNV_PRIME;
+            }
+            this.hash = h;
+        }
+    }
+}
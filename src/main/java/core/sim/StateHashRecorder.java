@@ -0,0 +1,291 @@
+package core.sim;
+
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/************************************
+ * Singleton class writing hashes of states of roads (StateHash) after every step into compact side file, so runs that
+ * should be the same (parallel, resumed or warm started from the same snapshot, different versions) can be compared
+ * step by step without storing trajectories. Records carry number of the step, so file of resumed run is compared
+ * with the steps of the full run it continues. Simulation asks the recorder after every step, when it is not open the
+ * cost is one check of a field.
+ *
+ * Binary format: header (int MAGIC, int number of roads) followed by big endian records (int step, long hash of the
+ * simulation, long hash of every road by index).
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class StateHashRecorder {
+
+    /** magic number at start of state hash file ("SHS1") **/
+    public static final int MAGIC = 0x53485331;
+
+    /** the highest number of differing roads listed in comparison **/
+    private static final int MAX_LISTED_ROADS = 10;
+
+    /** singleton instance **/
+    private static StateHashRecorder instance;
+
+    /** stream to state hash file, null if recorder is not open **/
+    private DataOutputStream out = null;
+
+    /** file the hashes are written to, null if recorder is not open **/
+    private String file = null;
+
+    /** hashes of roads of the current step, reused between steps **/
+    private long[] roadHashes = null;
+
+    /** number of steps written since recorder was opened **/
+    private long stepsWritten = 0;
+
+    /**
+     * private constructor for singleton
+     **/
+    private StateHashRecorder() {
+    }
+
+    /**
+     * method to get singleton instance of state hash recorder
+     *
+     * @return instance of state hash recorder
+     **/
+    public static StateHashRecorder getStateHashRecorder() {
+        if (instance == null) {
+            instance = new StateHashRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * opens state hash file for roads of the simulation, if recorder was already open, previous file is closed first
+     *
+     * @param file file to write hashes to, null or empty means hashes are not written
+     * @param numberOfRoads number of roads of the simulation
+     * @return true if file was opened, false if no file is given or it could not be opened
+     **/
+    public boolean open(String file, int numberOfRoads) {
+        this.close();
+
+        if (file == null || file.isEmpty()) {
+            return false;
+        }
+
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(numberOfRoads);
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not open state hash file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            this.closeQuietly();
+            return false;
+        }
+
+        this.file = file;
+        this.roadHashes = new long[numberOfRoads];
+        this.stepsWritten = 0;
+        MyLogger.logLoadingOrSimulationStartEnd("Recording state hashes to " + file, Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * writes hashes of states of roads after the step, does nothing if recorder is not open, if writing fails
+     * recording is stopped
+     *
+     * @param simulation simulation after the step
+     **/
+    public void record(Simulation simulation) {
+        if (this.out == null) {
+            return;
+        }
+
+        Road[] roads = simulation.getRoads();
+        if (roads.length != this.roadHashes.length) {
+            MyLogger.log("Number of roads changed, state hash recording stopped", Constants.ERROR_FOR_LOGGING);
+            this.close();
+            return;
+        }
+
+        for (int i = 0; i < roads.length; i++) {
+            this.roadHashes[i] = roads[i] == null ? 0 : StateHash.ofRoad(roads[i]);
+        }
+        try {
+            this.out.writeInt(simulation.getStepCount());
+            this.out.writeLong(StateHash.combine(simulation.getStepCount(), this.roadHashes));
+            for (long roadHash : this.roadHashes) {
+                this.out.writeLong(roadHash);
+            }
+        } catch (IOException e) {
+            MyLogger.log("Error writing state hashes, recording stopped: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            this.closeQuietly();
+            return;
+        }
+        this.stepsWritten++;
+    }
+
+    /**
+     * writes rest of the hashes and closes the state hash file, does nothing if recorder is not open
+     **/
+    public void close() {
+        if (this.out == null) {
+            return;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("State hash recording finished, steps written to " + this.file + ": " +
+                this.stepsWritten, Constants.INFO_FOR_LOGGING);
+        this.closeQuietly();
+    }
+
+    /**
+     * closes stream and marks recorder as closed
+     **/
+    private void closeQuietly() {
+        try {
+            if (this.out != null) {
+                this.out.close();
+            }
+        } catch (IOException e) {
+            MyLogger.log("Error closing state hash file: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+        }
+        this.out = null;
+        this.file = null;
+        this.roadHashes = null;
+    }
+
+    /**
+     * checks if the state hash file is open
+     *
+     * @return true if recorder is open, false otherwise
+     **/
+    public boolean isOpen() {
+        return this.out != null;
+    }
+
+    /**
+     * getter for number of steps written since recorder was opened
+     *
+     * @return number of steps
+     **/
+    public long getStepsWritten() {
+        return this.stepsWritten;
+    }
+
+    /**
+     * compares two state hash files step by step, only steps present in both files are compared (resumed run starts
+     * later than the run it continues), the first step whose hashes differ is reported with roads that differ
+     *
+     * @param first the first state hash file
+     * @param second the second state hash file
+     * @return readable result of comparison, null if files cannot be read or are not state hash files of the same
+     * roads
+     **/
+    public static String compare(String first, String second) {
+        try (DataInputStream a = new DataInputStream(new BufferedInputStream(new FileInputStream(first)));
+             DataInputStream b = new DataInputStream(new BufferedInputStream(new FileInputStream(second)))) {
+            if (a.readInt() != MAGIC || b.readInt() != MAGIC) {
+                MyLogger.log("State hash files " + first + " and " + second + " are not both state hash files",
+                        Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+            int roads = a.readInt();
+            if (b.readInt() != roads) {
+                MyLogger.log("State hash files " + first + " and " + second + " have different number of roads",
+                        Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            long[] recordA = new long[roads + 1];
+            long[] recordB = new long[roads + 1];
+            int stepA = readRecord(a, recordA);
+            int stepB = readRecord(b, recordB);
+            long compared = 0;
+            int firstCompared = -1;
+            while (stepA >= 0 && stepB >= 0) {
+                if (stepA < stepB) {
+                    stepA = readRecord(a, recordA);
+                } else if (stepB < stepA) {
+                    stepB = readRecord(b, recordB);
+                } else {
+                    if (firstCompared < 0) {
+                        firstCompared = stepA;
+                    }
+                    if (recordA[0] != recordB[0]) {
+                        return describeDivergence(stepA, recordA, recordB, compared);
+                    }
+                    compared++;
+                    stepA = readRecord(a, recordA);
+                    stepB = readRecord(b, recordB);
+                }
+            }
+
+            if (compared == 0) {
+                return "No common steps to compare";
+            }
+            return String.format(Locale.US, "Identical in %d common steps (%d to %d)", compared, firstCompared,
+                    firstCompared + compared - 1);
+        } catch (IOException e) {
+            MyLogger.log("Error reading state hash files: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+    }
+
+    /**
+     * reads one record of state hash file
+     *
+     * @param in stream to read from
+     * @param record array for hash of the simulation followed by hashes of roads
+     * @return step of the record, -1 at the end of file
+     * @throws IOException if reading fails
+     **/
+    private static int readRecord(DataInputStream in, long[] record) throws IOException {
+        int step;
+        try {
+            step = in.readInt();
+        } catch (EOFException e) {
+            return -1;
+        }
+        for (int i = 0; i < record.length; i++) {
+            record[i] = in.readLong();
+        }
+        return step;
+    }
+
+    /**
+     * describes the first differing step
+     *
+     * @param step the first step whose hashes differ
+     * @param recordA record of the first file
+     * @param recordB record of the second file
+     * @param compared number of identical steps before
+     * @return description of divergence
+     **/
+    private static String describeDivergence(int step, long[] recordA, long[] recordB, long compared) {
+        List<String> roads = new ArrayList<>();
+        for (int i = 1; i < recordA.length; i++) {
+            if (recordA[i] != recordB[i]) {
+                if (roads.size() == MAX_LISTED_ROADS) {
+                    roads.add("...");
+                    break;
+                }
+                roads.add(String.format(Locale.US, "road %d (%016x vs %016x)", i - 1, recordA[i], recordB[i]));
+            }
+        }
+        return String.format(Locale.US, "Diverged at step %d after %d identical steps, differing: %s", step,
+                compared, String.join(", ", roads));
+    }
+}
@@ -0,0 +1,275 @@
+package core.sim;
+
+import core.utils.SteadyStateDetails;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/********************************************
+ * Online detector of steady state of the simulation using method of batch means. Every step the detector gets
+ * throughput (cars passed in the step) and number of stopped cars, consecutive steps are grouped to batches and 95%
+ * confidence interval of the mean is computed from means of the batches. Steady state is reached when half-width of
+ * the interval is at most configured fraction of the mean for both values. When there are too many batches, pairs of
+ * neighbouring batches are merged and the batch size is doubled, so memory is constant and batches get long enough
+ * for their means to be nearly independent.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class SteadyStateDetector {
+
+    /** maximal number of batches kept, when reached, pairs of batches are merged **/
+    static final int MAX_BATCHES = 64;
+
+    /** quantiles of student t distribution for two-sided 95% interval, index is degrees of freedom - 1 **/
+    private static final double[] T_QUANTILES_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    /** quantile of normal distribution for two-sided 95% interval, used for more than 30 degrees of freedom **/
+    private static final double Z_QUANTILE_95 = 1.960;
+
+    /** settings of the detection **/
+    private final SteadyStateDetails details;
+
+    /** batch means of throughput **/
+    private final BatchMeans throughput;
+
+    /** batch means of number of stopped cars **/
+    private final BatchMeans stoppedCars;
+
+    /** number of observed steps, including warm up **/
+    private int observedSteps = 0;
+
+    /**
+     * constructor of detector
+     *
+     * @param details settings of the detection
+     **/
+    public SteadyStateDetector(SteadyStateDetails details) {
+        this.details = details;
+        int minBatches = Math.max(2, Math.min(details.minBatches, MAX_BATCHES / 2));
+        this.throughput = new BatchMeans(details.batchSize, minBatches);
+        this.stoppedCars = new BatchMeans(details.batchSize, minBatches);
+    }
+
+    /**
+     * adds values of one step and checks if steady state was reached, steps of warm up are skipped
+     *
+     * @param carsPassed number of cars that passed all roads in the step
+     * @param stopped number of stopped cars on all roads in the step
+     * @return true if steady state was reached, false otherwise
+     **/
+    public boolean observe(double carsPassed, double stopped) {
+        this.observedSteps++;
+        if (this.observedSteps <= this.details.warmUpSteps) {
+            return false;
+        }
+
+        boolean newBatch = this.throughput.add(carsPassed);
+        this.stoppedCars.add(stopped);
+        return newBatch && this.throughput.isPrecise(this.details.relativeHalfWidth)
+                && this.stoppedCars.isPrecise(this.details.relativeHalfWidth);
+    }
+
+    /**
+     * creates description of current estimates, used for logging and output when the run ends
+     *
+     * @return description of means and half-widths of both values
+     **/
+    public String describe() {
+        return String.format(Locale.US, "throughput %.4f +- %.4f cars/step, stopped cars %.4f +- %.4f " +
+                        "(%d batches of %d steps)", this.throughput.mean(), this.throughput.halfWidth(),
+                this.stoppedCars.mean(), this.stoppedCars.halfWidth(), this.throughput.numberOfBatches,
+                this.throughput.batchSize);
+    }
+
+    /**
+     * writes state of the detection (observed steps and batches of both values) to checkpoint, settings are not
+     * written, they are loaded from the same config
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(this.observedSteps);
+        this.throughput.writeState(out);
+        this.stoppedCars.writeState(out);
+    }
+
+    /**
+     * reads state of the detection written by writeState
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails or state is invalid
+     **/
+    public void readState(DataInputStream in) throws IOException {
+        this.observedSteps = in.readInt();
+        this.throughput.readState(in);
+        this.stoppedCars.readState(in);
+    }
+
+    /**
+     * computes half-width of 95% confidence interval of mean from sample standard deviation
+     *
+     * @param standardDeviation sample standard deviation
+     * @param n number of samples
+     * @return half-width of the interval, infinity if there is less than two samples
+     **/
+    public static double halfWidth95(double standardDeviation, long n) {
+        if (n < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        long degreesOfFreedom = n - 1;
+        double t = degreesOfFreedom <= T_QUANTILES_95.length ? T_QUANTILES_95[(int) degreesOfFreedom - 1]
+                : Z_QUANTILE_95;
+        return t * standardDeviation / Math.sqrt(n);
+    }
+
+    /********************************************
+     * Batch means of one measured value
+     ********************************************/
+    private static class BatchMeans {
+
+        /** means of finished batches **/
+        private final double[] means = new double[MAX_BATCHES];
+
+        /** minimal number of batches before the interval is used **/
+        private final int minBatches;
+
+        /** number of finished batches **/
+        private int numberOfBatches = 0;
+
+        /** current size of batch in steps **/
+        private int batchSize;
+
+        /** sum of values in unfinished batch **/
+        private double currentSum = 0.0;
+
+        /** number of values in unfinished batch **/
+        private int currentCount = 0;
+
+        /**
+         * constructor of batch means
+         *
+         * @param batchSize initial size of batch in steps
+         * @param minBatches minimal number of batches before the interval is used
+         **/
+        BatchMeans(int batchSize, int minBatches) {
+            this.batchSize = Math.max(1, batchSize);
+            this.minBatches = minBatches;
+        }
+
+        /**
+         * adds value, finishes batch when it is full and merges batches when there is too many of them
+         *
+         * @param value value to add
+         * @return true if batch was finished by this value, false otherwise
+         **/
+        boolean add(double value) {
+            this.currentSum += value;
+            this.currentCount++;
+            if (this.currentCount < this.batchSize) {
+                return false;
+            }
+
+            this.means[this.numberOfBatches++] = this.currentSum / this.currentCount;
+            this.currentSum = 0.0;
+            this.currentCount = 0;
+            if (this.numberOfBatches == MAX_BATCHES) {
+                for (int i = 0; i < MAX_BATCHES / 2; i++) {
+                    this.means[i] = (this.means[2 * i] + this.means[2 * i + 1]) / 2.0;
+                }
+                this.numberOfBatches = MAX_BATCHES / 2;
+                this.batchSize *= 2;
+            }
+            return true;
+        }
+
+        /**
+         * writes batch size, finished batches and unfinished batch to checkpoint
+         *
+         * @param out stream to write to
+         * @throws IOException if writing fails
+         **/
+        void writeState(DataOutputStream out) throws IOException {
+            out.writeInt(this.batchSize);
+            out.writeInt(this.numberOfBatches);
+            for (int i = 0; i < this.numberOfBatches; i++) {
+                out.writeDouble(this.means[i]);
+            }
+            out.writeDouble(this.currentSum);
+            out.writeInt(this.currentCount);
+        }
+
+        /**
+         * reads state written by writeState
+         *
+         * @param in stream to read from
+         * @throws IOException if reading fails or number of batches is invalid
+         **/
+        void readState(DataInputStream in) throws IOException {
+            int newBatchSize = in.readInt();
+            int newNumberOfBatches = in.readInt();
+            if (newBatchSize < 1 || newNumberOfBatches < 0 || newNumberOfBatches >= MAX_BATCHES) {
+                throw new IOException("invalid state of steady state detection");
+            }
+            for (int i = 0; i < newNumberOfBatches; i++) {
+                this.means[i] = in.readDouble();
+            }
+            this.batchSize = newBatchSize;
+            this.numberOfBatches = newNumberOfBatches;
+            this.currentSum = in.readDouble();
+            this.currentCount = in.readInt();
+        }
+
+        /**
+         * computes mean of finished batches
+         *
+         * @return mean of the batch means, 0 if there are no batches
+         **/
+        double mean() {
+            if (this.numberOfBatches == 0) {
+                return 0.0;
+            }
+            double sum = 0.0;
+            for (int i = 0; i < this.numberOfBatches; i++) {
+                sum += this.means[i];
+            }
+            return sum / this.numberOfBatches;
+        }
+
+        /**
+         * computes half-width of 95% confidence interval from finished batches
+         *
+         * @return half-width of the interval, infinity if there is less than two batches
+         **/
+        double halfWidth() {
+            if (this.numberOfBatches < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double mean = this.mean();
+            double sumOfSquares = 0.0;
+            for (int i = 0; i < this.numberOfBatches; i++) {
+                double difference = this.means[i] - mean;
+                sumOfSquares += difference * difference;
+            }
+            return halfWidth95(Math.sqrt(sumOfSquares / (this.numberOfBatches - 1)), this.numberOfBatches);
+        }
+
+        /**
+         * checks if there is enough batches and half-width of interval is at most given fraction of the mean
+         *
+         * @param relativeHalfWidth required half-width relative to the mean
+         * @return true if estimate is precise enough, false otherwise
+         **/
+        boolean isPrecise(double relativeHalfWidth) {
+            return this.numberOfBatches >= this.minBatches
+                    && this.halfWidth() <= relativeHalfWidth * Math.abs(this.mean());
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.utils.BenchDetails;
+import core.utils.MetricsRegistry;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+import core.utils.loading.BenchLoader;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/********************************************
+ * Throughput benchmark of loaded scenario on this machine, simulation is run for warm up steps and then stepped for
+ * measurement window. Steps per second, vehicle updates per second (cars on all roads after every step), allocation of
+ * simulation thread, garbage collections and time of phases of steps (update of roads, update of lights, rest of step)
+ * with the slowest roads are reported as readable text to standard output and as JSON to file. Only time spent in steps
+ * is measured, counting of cars between steps is not. When step metrics are enabled, metrics of phases inside roads
+ * collected in the window are printed too. Used for planning capacity of machines the scenarios run on.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ThroughputBenchmark {
+
+    /** nanoseconds in second **/
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    /**
+     * loads benchmark file, measures throughput of the simulation and writes the report
+     *
+     * @param benchFile benchmark file
+     * @param simulation prepared simulation of the scenario
+     * @param maxSteps maximal number of measured steps (duration of the run)
+     * @return true if benchmark was measured and its report written, false otherwise
+     **/
+    public static boolean run(String benchFile, Simulation simulation, int maxSteps) {
+        BenchDetails details = BenchLoader.load(benchFile);
+        if (details == null || simulation == null || !AppContext.RUN_DETAILS.mapLoaded) {
+            MyLogger.logLoadingOrSimulationStartEnd("Benchmark needs valid benchmark file and loaded map.",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("Benchmark warms up for " + details.warmUpSteps + " steps and " +
+                "measures for " + details.windowSeconds + " s.", Constants.INFO_FOR_LOGGING);
+        Report report = measure(simulation, details, maxSteps);
+        System.out.println(report.toText(details.slowestRoads));
+        if (MetricsRegistry.isEnabled()) {
+            System.out.println(MetricsRegistry.getMetricsRegistry().dump());
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(details.resultsFile))) {
+            writer.write(report.toJson(details.slowestRoads));
+            writer.newLine();
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not write benchmark to " + details.resultsFile + ": " +
+                    e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Benchmark written to " + details.resultsFile,
+                Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * warms the simulation up and steps it until measurement window ends or maximal number of steps is reached
+     *
+     * @param simulation simulation of the scenario
+     * @param details details of benchmark
+     * @param maxSteps maximal number of measured steps
+     * @return report of measured steps
+     **/
+    static Report measure(Simulation simulation, BenchDetails details, int maxSteps) {
+        for (int i = 0; i < details.warmUpSteps; i++) {
+            simulation.step();
+        }
+
+        MetricsRegistry.getMetricsRegistry().reset();
+        Road[] roads = simulation.getRoads();
+        Report report = new Report(roads, details.warmUpSteps);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean bean &&
+                bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+
+        simulation.setPhaseTiming(true);
+        long window = (long) (details.windowSeconds * NANOS_IN_SECOND);
+        long windowStart = System.nanoTime();
+        while (report.steps < maxSteps && System.nanoTime() - windowStart < window) {
+            long start = System.nanoTime();
+            simulation.step();
+            long stepTime = System.nanoTime() - start;
+            report.stepTime += stepTime;
+            report.maxStepTime = Math.max(report.maxStepTime, stepTime);
+            report.steps++;
+            for (Road road : roads) {
+                if (road != null) {
+                    report.vehicleUpdates += road.getNumberOfCarsOnRoad();
+                }
+            }
+        }
+        report.wallTime = System.nanoTime() - windowStart;
+        long[] phaseTimes = simulation.getPhaseTimes();
+        simulation.setPhaseTiming(false);
+
+        System.arraycopy(phaseTimes, 0, report.roadTimes, 0, roads.length);
+        report.lightsTime = phaseTimes[roads.length];
+        report.allocatedBytes = allocations != null ?
+                allocations.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+        report.gcCount = gcCount() - gcCountBefore;
+        report.gcTime = gcTime() - gcTimeBefore;
+        return report;
+    }
+
+    /**
+     * sums number of collections of all garbage collectors
+     *
+     * @return number of collections since start of JVM
+     **/
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * sums time of collections of all garbage collectors
+     *
+     * @return time of collections since start of JVM in milliseconds
+     **/
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    /********************************************
+     * Measured values of benchmark, times are in nanoseconds, allocated bytes are -1 when JVM does not measure
+     * allocation of threads
+     ********************************************/
+    static class Report {
+
+        /** roads of the simulation **/
+        final Road[] roads;
+
+        /** number of steps run before measurement **/
+        final int warmUpSteps;
+
+        /** number of measured steps **/
+        int steps = 0;
+
+        /** time spent in measured steps **/
+        long stepTime = 0;
+
+        /** time of the longest step **/
+        long maxStepTime = 0;
+
+        /** time of whole window including counting of cars **/
+        long wallTime = 0;
+
+        /** sum of cars on roads after every step **/
+        long vehicleUpdates = 0;
+
+        /** time spent in update of every road by its index **/
+        final long[] roadTimes;
+
+        /** time spent in update of lights **/
+        long lightsTime = 0;
+
+        /** bytes allocated by simulation thread, -1 if not known **/
+        long allocatedBytes = -1;
+
+        /** number of garbage collections **/
+        long gcCount = 0;
+
+        /** time of garbage collections in milliseconds **/
+        long gcTime = 0;
+
+        /**
+         * constructor of empty report
+         *
+         * @param roads roads of the simulation
+         * @param warmUpSteps number of steps run before measurement
+         **/
+        Report(Road[] roads, int warmUpSteps) {
+            this.roads = roads;
+            this.warmUpSteps = warmUpSteps;
+            this.roadTimes = new long[roads.length];
+        }
+
+        /**
+         * computes number of steps per second of time spent in steps
+         *
+         * @return steps per second, 0 if nothing was measured
+         **/
+        double stepsPerSecond() {
+            return this.stepTime == 0 ? 0.0 : this.steps * NANOS_IN_SECOND / this.stepTime;
+        }
+
+        /**
+         * computes number of vehicle updates per second of time spent in steps
+         *
+         * @return vehicle updates per second, 0 if nothing was measured
+         **/
+        double vehicleUpdatesPerSecond() {
+            return this.stepTime == 0 ? 0.0 : this.vehicleUpdates * NANOS_IN_SECOND / this.stepTime;
+        }
+
+        /**
+         * computes number of bytes allocated per second of time spent in steps
+         *
+         * @return allocated bytes per second, -1 if not known
+         **/
+        double allocationRate() {
+            return this.allocatedBytes < 0 || this.stepTime == 0 ? -1.0 :
+                    this.allocatedBytes * NANOS_IN_SECOND / this.stepTime;
+        }
+
+        /**
+         * computes time spent in update of all roads
+         *
+         * @return time of update of roads
+         **/
+        long roadsTime() {
+            long time = 0;
+            for (long roadTime : this.roadTimes) {
+                time += roadTime;
+            }
+            return time;
+        }
+
+        /**
+         * computes time of step spent outside of update of roads and lights (recording of results and trajectories)
+         *
+         * @return rest of time of steps, never negative
+         **/
+        long otherTime() {
+            return Math.max(0, this.stepTime - this.roadsTime() - this.lightsTime);
+        }
+
+        /**
+         * computes share of phase on time spent in steps
+         *
+         * @param time time of the phase
+         * @return share of the phase from 0 to 1
+         **/
+        double share(long time) {
+            return this.stepTime == 0 ? 0.0 : (double) time / this.stepTime;
+        }
+
+        /**
+         * finds indexes of roads with the longest update time
+         *
+         * @param count maximal number of roads
+         * @return indexes of roads sorted from the slowest
+         **/
+        Integer[] slowestRoads(int count) {
+            Integer[] indexes = new Integer[this.roads.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = i;
+            }
+            Arrays.sort(indexes, Comparator.comparingLong((Integer i) -> this.roadTimes[i]).reversed());
+            int found = 0;
+            while (found < Math.min(count, indexes.length) && this.roads[indexes[found]] != null) {
+                found++;
+            }
+            return Arrays.copyOf(indexes, found);
+        }
+
+        /**
+         * creates readable report
+         *
+         * @param slowestRoads number of the slowest roads in report
+         * @return report as lines of text
+         **/
+        String toText(int slowestRoads) {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.US, "Benchmark of %s (%s, %s) on %d processors, Java %s%n",
+                    AppContext.RUN_DETAILS.mapFile, modelId(true), modelId(false),
+                    Runtime.getRuntime().availableProcessors(), System.getProperty("java.version")));
+            text.append(String.format(Locale.US, "  steps measured        %d after %d warm up steps, %.3f s in steps " +
+                    "(%.3f s window)%n", this.steps, this.warmUpSteps, this.stepTime / NANOS_IN_SECOND,
+                    this.wallTime / NANOS_IN_SECOND));
+            text.append(String.format(Locale.US, "  steps/s               %.1f (mean %.1f us, max %.1f us per step)%n",
+                    this.stepsPerSecond(), this.steps == 0 ? 0.0 : this.stepTime / 1e3 / this.steps,
+                    this.maxStepTime / 1e3));
+            text.append(String.format(Locale.US, "  vehicle updates/s     %.0f (%.1f vehicles per step)%n",
+                    this.vehicleUpdatesPerSecond(), this.steps == 0 ? 0.0 : (double) this.vehicleUpdates / this.steps));
+            text.append(this.allocatedBytes < 0 ? "  allocation            not measured by this JVM\n" :
+                    String.format(Locale.US, "  allocation            %.1f MB/s (%.0f B per step)%n",
+                            this.allocationRate() / 1e6, (double) this.allocatedBytes / Math.max(1, this.steps)));
+            text.append(String.format(Locale.US, "  garbage collection    %d collections, %d ms%n", this.gcCount,
+                    this.gcTime));
+            text.append(String.format(Locale.US, "  phases                roads %.1f %%, lights %.1f %%, other %.1f %%%n",
+                    100 * this.share(this.roadsTime()), 100 * this.share(this.lightsTime),
+                    100 * this.share(this.otherTime())));
+            for (int index : this.slowestRoads(slowestRoads)) {
+                Road road = this.roads[index];
+                text.append(String.format(Locale.US, "  road %-5d %-10s %d lanes, %.1f us per step, %.1f %%%n",
+                        road.getId(), road.getType(), road.getNumberOfLanes(),
+                        this.roadTimes[index] / 1e3 / Math.max(1, this.steps), 100 * this.share(this.roadTimes[index])));
+            }
+            return text.toString();
+        }
+
+        /**
+         * creates report as one JSON object
+         *
+         * @param slowestRoads number of the slowest roads in report
+         * @return report in JSON
+         **/
+        String toJson(int slowestRoads) {
+            StringBuilder json = new StringBuilder("{");
+            json.append("\"map\":").append(quote(AppContext.RUN_DETAILS.mapFile));
+            json.append(",\"carFollowingModel\":").append(quote(modelId(true)));
+            json.append(",\"laneChangingModel\":").append(quote(modelId(false)));
+            json.append(",\"processors\":").append(Runtime.getRuntime().availableProcessors());
+            json.append(",\"javaVersion\":").append(quote(System.getProperty("java.version")));
+            json.append(",\"maxHeapBytes\":").append(Runtime.getRuntime().maxMemory());
+            json.append(",\"warmUpSteps\":").append(this.warmUpSteps);
+            json.append(",\"steps\":").append(this.steps);
+            json.append(",\"stepSeconds\":").append(number(this.stepTime / NANOS_IN_SECOND));
+            json.append(",\"windowSeconds\":").append(number(this.wallTime / NANOS_IN_SECOND));
+            json.append(",\"stepsPerSecond\":").append(number(this.stepsPerSecond()));
+            json.append(",\"vehicleUpdatesPerSecond\":").append(number(this.vehicleUpdatesPerSecond()));
+            json.append(",\"maxStepMicros\":").append(number(this.maxStepTime / 1e3));
+            json.append(",\"allocatedBytes\":").append(this.allocatedBytes);
+            json.append(",\"allocationBytesPerSecond\":").append(number(this.allocationRate()));
+            json.append(",\"gcCount\":").append(this.gcCount);
+            json.append(",\"gcMillis\":").append(this.gcTime);
+            json.append(",\"phases\":{\"roads\":").append(number(this.roadsTime() / NANOS_IN_SECOND))
+                    .append(",\"lights\":").append(number(this.lightsTime / NANOS_IN_SECOND))
+                    .append(",\"other\":").append(number(this.otherTime() / NANOS_IN_SECOND)).append('}');
+            json.append(",\"slowestRoads\":[");
+            Integer[] slowest = this.slowestRoads(slowestRoads);
+            for (int i = 0; i < slowest.length; i++) {
+                Road road = this.roads[slowest[i]];
+                json.append(i == 0 ? "" : ",").append("{\"id\":").append(road.getId())
+                        .append(",\"type\":").append(quote(road.getType()))
+                        .append(",\"lanes\":").append(road.getNumberOfLanes())
+                        .append(",\"seconds\":").append(number(this.roadTimes[slowest[i]] / NANOS_IN_SECOND))
+                        .append('}');
+            }
+            return json.append("]}").toString();
+        }
+
+        /**
+         * gives id of model from app context
+         *
+         * @param carFollowing true for car following model, false for lane changing model
+         * @return id of the model, null if model is not set
+         **/
+        private static String modelId(boolean carFollowing) {
+            if (carFollowing) {
+                return AppContext.CAR_FOLLOWING_MODEL == null ? null : AppContext.CAR_FOLLOWING_MODEL.getID();
+            }
+            return AppContext.LANE_CHANGING_MODEL == null ? null : AppContext.LANE_CHANGING_MODEL.getID();
+        }
+
+        /**
+         * writes text as JSON string
+         *
+         * @param text text to write
+         * @return quoted and escaped text, null if text is null
+         **/
+        private static String quote(String text) {
+            if (text == null) {
+                return "null";
+            }
+            return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+
+        /**
+         * writes number as JSON number
+         *
+         * @param value number to write
+         * @return number with decimal point, 0 if number is not finite
+         **/
+        private static String number(double value) {
+            return Double.isFinite(value) ? String.format(Locale.US, "%.6f", value) : "0";
+        }
+    }
+}
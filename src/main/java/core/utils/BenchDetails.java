@@ -0,0 +1,49 @@
+package core.utils;
+
+/************************************
+ * Class to hold details about throughput benchmark of one scenario, number of steps run before measurement, length of
+ * measurement window, number of slowest roads in the report and file the report is written to as JSON.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class BenchDetails {
+
+    /** File of report in JSON **/
+    public String resultsFile = "bench.json";
+
+    /** Number of steps run before measurement, so JIT compiler and traffic on roads settle **/
+    public int warmUpSteps = 300;
+
+    /** Length of measurement window in seconds **/
+    public double windowSeconds = 10.0;
+
+    /** Number of roads with the longest update time listed in the report **/
+    public int slowestRoads = 5;
+
+    /**
+     * Checks if values of benchmark are valid (results file, non negative warm up and number of slowest roads, positive
+     * window).
+     *
+     * @return true if benchmark can be run, false otherwise
+     **/
+    public boolean isValid() {
+        return this.resultsFile != null && !this.resultsFile.isEmpty() && this.warmUpSteps >= 0 &&
+                this.windowSeconds > 0.0 && this.slowestRoads >= 0;
+    }
+
+    /**
+     * Returns a string representation of the BenchDetails object.
+     *
+     * @return a string representation of the BenchDetails object
+     **/
+    @Override
+    public String toString() {
+        return "BenchDetails{" +
+                "resultsFile=" + resultsFile +
+                ", warmUpSteps=" + warmUpSteps +
+                ", windowSeconds=" + windowSeconds +
+                ", slowestRoads=" + slowestRoads +
+                '}';
+    }
+}
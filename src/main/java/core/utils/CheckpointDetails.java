@@ -0,0 +1,81 @@
+package core.utils;
+
+import core.utils.constants.ConfigConstants;
+import core.utils.constants.Constants;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/************************************
+ * Class to hold details about periodic checkpoints of the simulation, such as file where checkpoint is written and
+ * how often it is written (every n steps and/or every n seconds of wall clock time), checkpoints are off when file or
+ * both periods are not specified.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class CheckpointDetails {
+
+    /** File where checkpoint is written, null or empty means checkpoints are not written **/
+    public String checkpointFile = null;
+
+    /** Checkpoint is written every n steps of simulation, 0 means no checkpoints based on steps **/
+    public int everyNSteps = 0;
+
+    /** Checkpoint is written when at least n seconds passed from the last one, 0 means no checkpoints based on time **/
+    public int everyNSeconds = 0;
+
+    /**
+     * Checks if checkpoints should be written (file and at least one period has to be specified).
+     *
+     * @return true if checkpoints are written, false otherwise
+     **/
+    public boolean isCheckpointing() {
+        return this.checkpointFile != null && !this.checkpointFile.isEmpty()
+                && (this.everyNSteps > 0 || this.everyNSeconds > 0);
+    }
+
+    /**
+     * Changes settings of checkpoints based on the provided XML element, tags that are missing keep their default
+     * value, invalid values (not numbers, negative periods) are ignored and logged.
+     *
+     * @param checkpointElement XML Element containing checkpoint configuration
+     **/
+    public void changeCheckpointDetails(Element checkpointElement) {
+        NodeList childNodes = checkpointElement.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            if (!(childNodes.item(i) instanceof Element childElement)) {
+                continue;
+            }
+
+            String value = childElement.getTextContent().trim();
+            try {
+                switch (childElement.getTagName()) {
+                    case ConfigConstants.FILE_TAG -> this.checkpointFile = value;
+                    case ConfigConstants.CHECKPOINT_EVERY_N_STEPS_TAG -> this.everyNSteps = Math.max(0,
+                            Integer.parseInt(value));
+                    case ConfigConstants.CHECKPOINT_EVERY_N_SECONDS_TAG -> this.everyNSeconds = Math.max(0,
+                            Integer.parseInt(value));
+                    default -> MyLogger.logLoadingOrSimulationStartEnd("Unknown checkpoint tag: "
+                            + childElement.getTagName(), Constants.WARN_FOR_LOGGING);
+                }
+            } catch (NumberFormatException e) {
+                MyLogger.logLoadingOrSimulationStartEnd("Invalid value '" + value + "' of checkpoint tag "
+                        + childElement.getTagName() + ", keeping default", Constants.WARN_FOR_LOGGING);
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the CheckpointDetails object.
+     *
+     * @return a string representation of the CheckpointDetails object
+     **/
+    @Override
+    public String toString() {
+        return "CheckpointDetails{" +
+                "checkpointFile='" + checkpointFile + '\'' +
+                ", everyNSteps=" + everyNSteps +
+                ", everyNSeconds=" + everyNSeconds +
+                '}';
+    }
+}
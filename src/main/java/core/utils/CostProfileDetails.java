@@ -0,0 +1,56 @@
+package core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/************************************
+ * Class to hold details about cost profile of models, car following and lane changing models whose combinations are
+ * measured on the loaded map, number of steps run before measurement, seed of every run and file the report is
+ * written to. Empty list of models means all models of the application, only models of the same type (cellular or
+ * continuous) are combined.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class CostProfileDetails {
+
+    /** File of report in CSV **/
+    public String resultsFile = "cost_profile.csv";
+
+    /** Number of steps run before measurement of every combination, so JIT compiler and traffic on roads settle **/
+    public int warmUpSteps = 200;
+
+    /** Seed of every run, null means seed from config **/
+    public Long seed = null;
+
+    /** Ids of car following models, empty means all models **/
+    public List<String> carFollowingModels = new ArrayList<>();
+
+    /** Ids of lane changing models, empty means all models **/
+    public List<String> laneChangingModels = new ArrayList<>();
+
+    /**
+     * Checks if values of cost profile are valid (results file and non negative warm up).
+     *
+     * @return true if cost profile can be measured, false otherwise
+     **/
+    public boolean isValid() {
+        return this.resultsFile != null && !this.resultsFile.isEmpty() && this.warmUpSteps >= 0;
+    }
+
+    /**
+     * Returns a string representation of the CostProfileDetails object.
+     *
+     * @return a string representation of the CostProfileDetails object
+     **/
+    @Override
+    public String toString() {
+        return "CostProfileDetails{" +
+                "resultsFile=" + resultsFile +
+                ", warmUpSteps=" + warmUpSteps +
+                ", seed=" + seed +
+                ", carFollowingModels=" + carFollowingModels +
+                ", laneChangingModels=" + laneChangingModels +
+                '}';
+    }
+}
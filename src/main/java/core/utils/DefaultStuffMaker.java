@@ -53,6 +53,22 @@ public class DefaultStuffMaker {
         CarGenerator generator = new CarGenerator(DefaultValues.DEFAULT_FLOW_RATE);
         generator.setQueueSize(DefaultValues.DEFAULT_QUEUE_MIN_SIZE, DefaultValues.DEFAULT_QUEUE_MAX_SIZE);
         generator.disableQueue();
+        addDefaultComParameters(generator);
+        String neededParameters = StringEditor.mergeRequestParameters(AppContext.CAR_FOLLOWING_MODEL.getParametersForGeneration(),
+                AppContext.LANE_CHANGING_MODEL.getParametersForGeneration());
+        generator.setCarGenerationParameters(neededParameters);
+
+        generator.copyComParametersToRealParameters(AppContext.CAR_FOLLOWING_MODEL.getType(), AppContext.CAR_FOLLOWING_MODEL.getCellSize());
+        return generator;
+    }
+
+    /**
+     * adds default ranges of parameters of generated cars (parameters of all models) to generator, models are not
+     * needed, so it can be used when map is written without loaded models
+     *
+     * @param generator generator to add parameters to
+     **/
+    public static void addDefaultComParameters(CarGenerator generator) {
         generator.addComParameter(RequestConstants.MAX_SPEED_REQUEST, "Max speed", DefaultValues.DEFAULT_MAX_SPEED_MIN, DefaultValues.DEFAULT_MAX_SPEED_MAX);
         generator.addComParameter(RequestConstants.LENGTH_REQUEST, "Length of vehicle",DefaultValues.DEFAULT_LENGTH_MIN, DefaultValues.DEFAULT_LENGTH_MAX);
         generator.addComParameter(RequestConstants.MAX_ACCELERATION_REQUEST, "Max acceleration",DefaultValues.DEFAULT_ACCELERATION_MIN, DefaultValues.DEFAULT_ACCELERATION_MAX);
@@ -70,12 +86,6 @@ public class DefaultStuffMaker {
                 DefaultValues.DEFAULT_EDGE_VALUE_FOR_LANE_CHANGE_MIN, DefaultValues.DEFAULT_EDGE_VALUE_FOR_LANE_CHANGE_MAX);
         generator.addComParameter(RequestConstants.POLITENESS_FACTOR_REQUEST, "Politeness factor", DefaultValues.POLITENESS_FACTOR_MIN,
                 DefaultValues.POLITENESS_FACTOR_MAX);
-        String neededParameters = StringEditor.mergeRequestParameters(AppContext.CAR_FOLLOWING_MODEL.getParametersForGeneration(),
-                AppContext.LANE_CHANGING_MODEL.getParametersForGeneration());
-        generator.setCarGenerationParameters(neededParameters);
-
-        generator.copyComParametersToRealParameters(AppContext.CAR_FOLLOWING_MODEL.getType(), AppContext.CAR_FOLLOWING_MODEL.getCellSize());
-        return generator;
     }
 
     /**
@@ -0,0 +1,87 @@
+package core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/************************************
+ * Class to hold details about fundamental diagram, range of densities of ring roads, car following and lane changing
+ * models, number of steps run before measurement, number of runs at the same time and file of results. Empty list of
+ * models means model from config or input parameters.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class FundamentalDiagramDetails {
+
+    /** File of results table (model, density, flow, speed) **/
+    public String resultsFile = "fundamental_diagram.csv";
+
+    /** Number of runs at the same time, 0 means number of processors **/
+    public int workers = 0;
+
+    /** Lowest density in cars per km and lane **/
+    public double minDensity = 5.0;
+
+    /** Highest density in cars per km and lane **/
+    public double maxDensity = 120.0;
+
+    /** Number of densities in range, spread evenly from lowest to highest **/
+    public int points = 24;
+
+    /** Number of steps run before measurement, so the ring leaves its evenly placed starting state **/
+    public int transientSteps = 300;
+
+    /** Seed of all runs, null means seed from config **/
+    public Long seed = null;
+
+    /** Ids of car following models **/
+    public List<String> carFollowingModels = new ArrayList<>();
+
+    /** Ids of lane changing models, every car following model uses the first one of its type **/
+    public List<String> laneChangingModels = new ArrayList<>();
+
+    /**
+     * Computes densities of the diagram, spread evenly from lowest to highest density.
+     *
+     * @return densities in cars per km and lane
+     **/
+    public double[] densities() {
+        double[] densities = new double[this.points];
+        for (int i = 0; i < this.points; i++) {
+            densities[i] = this.points == 1 ? this.minDensity :
+                    this.minDensity + (this.maxDensity - this.minDensity) * i / (this.points - 1);
+        }
+        return densities;
+    }
+
+    /**
+     * Checks if values of fundamental diagram are valid (positive range of densities and number of points, non
+     * negative number of transient steps).
+     *
+     * @return true if diagram can be measured, false otherwise
+     **/
+    public boolean isValid() {
+        return this.resultsFile != null && !this.resultsFile.isEmpty() && this.minDensity > 0.0 &&
+                this.maxDensity >= this.minDensity && this.points > 0 && this.transientSteps >= 0;
+    }
+
+    /**
+     * Returns a string representation of the FundamentalDiagramDetails object.
+     *
+     * @return a string representation of the FundamentalDiagramDetails object
+     **/
+    @Override
+    public String toString() {
+        return "FundamentalDiagramDetails{" +
+                "resultsFile=" + resultsFile +
+                ", workers=" + workers +
+                ", minDensity=" + minDensity +
+                ", maxDensity=" + maxDensity +
+                ", points=" + points +
+                ", transientSteps=" + transientSteps +
+                ", seed=" + seed +
+                ", carFollowingModels=" + carFollowingModels +
+                ", laneChangingModels=" + laneChangingModels +
+                '}';
+    }
+}
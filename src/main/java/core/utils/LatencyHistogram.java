@@ -0,0 +1,155 @@
+package core.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/************************************
+ * Histogram of latencies in nanoseconds with logarithmic buckets split linearly (like HDR histogram), every power of
+ * two is split to SUB_BUCKETS buckets, so relative error of percentiles is at most 1 / SUB_BUCKETS. Values are
+ * recorded and read without locks, so simulation thread can record while GUI reads. Values above MAX_VALUE are
+ * recorded in the last bucket, negative values as 0.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class LatencyHistogram {
+
+    /** number of bits of buckets within one power of two **/
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** number of buckets within one power of two **/
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** the highest exactly recorded value (about 68 s) **/
+    static final long MAX_VALUE = (1L << 36) - 1;
+
+    /** number of buckets **/
+    private static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    /** number of values in buckets **/
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /** number of recorded values **/
+    private final AtomicLong count = new AtomicLong();
+
+    /** sum of recorded values **/
+    private final AtomicLong sum = new AtomicLong();
+
+    /** the highest recorded value **/
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * records one value
+     *
+     * @param value latency in nanoseconds
+     **/
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        this.buckets.incrementAndGet(bucketIndex(Math.min(clamped, MAX_VALUE)));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(clamped);
+        this.max.accumulateAndGet(clamped, Math::max);
+    }
+
+    /**
+     * getter for number of recorded values
+     *
+     * @return number of recorded values
+     **/
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * getter for sum of recorded values
+     *
+     * @return sum of recorded values in nanoseconds
+     **/
+    public long getSum() {
+        return this.sum.get();
+    }
+
+    /**
+     * getter for the highest recorded value
+     *
+     * @return the highest recorded value in nanoseconds, 0 if nothing was recorded
+     **/
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * computes mean of recorded values
+     *
+     * @return mean in nanoseconds, 0 if nothing was recorded
+     **/
+    public double getMean() {
+        long recorded = this.count.get();
+        return recorded == 0 ? 0.0 : (double) this.sum.get() / recorded;
+    }
+
+    /**
+     * computes percentile of recorded values, value is the upper bound of the bucket the percentile falls into, not
+     * higher than the highest recorded value
+     *
+     * @param percentile percentile from 0 to 100
+     * @return value of percentile in nanoseconds, 0 if nothing was recorded
+     **/
+    public long getPercentile(double percentile) {
+        long recorded = this.count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * clears all recorded values
+     **/
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    /**
+     * computes index of bucket of value, values below SUB_BUCKETS have own bucket, higher values are in bucket of their
+     * highest bit split by next SUB_BUCKET_BITS bits
+     *
+     * @param value non negative value
+     * @return index of bucket
+     **/
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * computes the highest value that falls into bucket
+     *
+     * @param index index of bucket
+     * @return the highest value of bucket
+     **/
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = ((long) (index % SUB_BUCKETS + SUB_BUCKETS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
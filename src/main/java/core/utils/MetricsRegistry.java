@@ -0,0 +1,187 @@
+package core.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/************************************
+ * Registry of metrics of phases of steps kept per road (RoadMetrics), phases are timed only when metrics are enabled,
+ * otherwise start() returns 0 and roads skip timing after one check of a flag. Roads and simulation record to the
+ * registry without locks, GUI and end of console run read it at any time.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class MetricsRegistry {
+
+    /** id under which phases of the whole simulation (not of one road) are kept **/
+    public static final int SIMULATION_ID = -1;
+
+    /** whether phases are timed **/
+    private static volatile boolean enabled = false;
+
+    /** singleton instance **/
+    private static final MetricsRegistry instance = new MetricsRegistry();
+
+    /** metrics of roads by id of road **/
+    private final ConcurrentHashMap<Integer, RoadMetrics> roads = new ConcurrentHashMap<>();
+
+    /********************************************
+     * Phases of step, time of phase is kept per step and road
+     ********************************************/
+    public enum Phase {
+        /** movement of cars by car following model **/
+        FORWARD_STEP,
+        /** decisions of lane changing model **/
+        LANE_CHANGE_DECISION,
+        /** moving cars that changed lane **/
+        LANE_CHANGE_APPLY,
+        /** generation of cars and their insertion at start of road **/
+        GENERATION,
+        /** switching of traffic lights **/
+        LIGHTS,
+        /** recording of results and trajectories **/
+        RECORDING
+    }
+
+    /********************************************
+     * Counted events of road
+     ********************************************/
+    public enum Counter {
+        /** finished steps **/
+        STEPS,
+        /** cars that changed lane **/
+        LANE_CHANGES,
+        /** cars put at start of road from generator or queue **/
+        CARS_ADDED,
+        /** generated cars that did not fit at start of road **/
+        CARS_BLOCKED,
+        /** lookups of neighbouring cars for parameters requested by models **/
+        NEIGHBOUR_LOOKUPS,
+        /** evaluations of car following model that move cars **/
+        SPEED_EVALUATIONS,
+        /** evaluations of car following model for accelerations requested by lane changing model **/
+        NESTED_SPEED_EVALUATIONS
+    }
+
+    /**
+     * private constructor of singleton
+     **/
+    private MetricsRegistry() {}
+
+    /**
+     * Returns the singleton instance of MetricsRegistry.
+     *
+     * @return The singleton instance.
+     **/
+    public static MetricsRegistry getMetricsRegistry() {
+        return instance;
+    }
+
+    /**
+     * checks if phases are timed
+     *
+     * @return true if metrics are enabled
+     **/
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * turns timing of phases on or off, collected metrics are kept
+     *
+     * @param enable true to time phases
+     **/
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * gives start of phase
+     *
+     * @return current time in nanoseconds, 0 when metrics are disabled
+     **/
+    public static long start() {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return now == 0 ? 1 : now;
+    }
+
+    /**
+     * gives metrics of road, they are created when road is asked for the first time
+     *
+     * @param roadId id of road, SIMULATION_ID for phases of the simulation
+     * @return metrics of road
+     **/
+    public RoadMetrics forRoad(int roadId) {
+        return this.roads.computeIfAbsent(roadId, RoadMetrics::new);
+    }
+
+    /**
+     * gives metrics of all roads sorted by id, simulation first
+     *
+     * @return metrics of roads
+     **/
+    public List<RoadMetrics> getAll() {
+        List<RoadMetrics> all = new ArrayList<>(this.roads.values());
+        all.sort(Comparator.comparingInt(RoadMetrics::getRoadId));
+        return all;
+    }
+
+    /**
+     * clears metrics of all roads, roads keep their metrics objects
+     **/
+    public void reset() {
+        for (RoadMetrics metrics : this.roads.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * creates readable table of metrics, for every road and phase number of steps, mean, median, 99th percentile and
+     * maximum of time of phase per step and share of phase on time of all phases
+     *
+     * @return table of metrics, empty line when nothing was recorded
+     **/
+    public String dump() {
+        List<RoadMetrics> all = this.getAll();
+        long total = 0;
+        for (RoadMetrics metrics : all) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = metrics.getHistogram(phase);
+                total += histogram == null ? 0 : histogram.getSum();
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.US, "%-10s %-20s %8s %10s %10s %10s %10s %7s%n", "road", "phase", "steps",
+                "mean us", "p50 us", "p99 us", "max us", "share"));
+        for (RoadMetrics metrics : all) {
+            String road = metrics.getRoadId() == SIMULATION_ID ? "simulation" : String.valueOf(metrics.getRoadId());
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = metrics.getHistogram(phase);
+                if (histogram == null || histogram.getCount() == 0) {
+                    continue;
+                }
+                text.append(String.format(Locale.US, "%-10s %-20s %8d %10.2f %10.2f %10.2f %10.2f %6.1f%%%n", road,
+                        phase.name().toLowerCase(Locale.ROOT), histogram.getCount(), histogram.getMean() / 1e3,
+                        histogram.getPercentile(50) / 1e3, histogram.getPercentile(99) / 1e3,
+                        histogram.getMax() / 1e3, total == 0 ? 0.0 : 100.0 * histogram.getSum() / total));
+            }
+            if (metrics.getRoadId() != SIMULATION_ID) {
+                text.append(String.format(Locale.US, "%-10s vehicles %d, lane changes %d, cars added %d, cars " +
+                        "blocked %d%n", road, metrics.getVehicles(), metrics.getCount(Counter.LANE_CHANGES),
+                        metrics.getCount(Counter.CARS_ADDED), metrics.getCount(Counter.CARS_BLOCKED)));
+                text.append(String.format(Locale.US, "%-10s speed evaluations %d (nested %d), neighbour lookups " +
+                        "%d%n", road, metrics.getCount(Counter.SPEED_EVALUATIONS),
+                        metrics.getCount(Counter.NESTED_SPEED_EVALUATIONS),
+                        metrics.getCount(Counter.NEIGHBOUR_LOOKUPS)));
+            }
+        }
+        return text.toString();
+    }
+}
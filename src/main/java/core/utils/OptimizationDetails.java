@@ -0,0 +1,157 @@
+package core.utils;
+
+import core.sim.RunResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/************************************
+ * Class to hold details about optimization of light plans, such as search ranges of light plans, number of candidate
+ * plans and restarts of search, number of simulations running at the same time and weights of objective that is
+ * minimised (queues are added, cars passed are subtracted).
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class OptimizationDetails {
+
+    /** Map file the best light plans are written to, null means map file with suffix _optimized **/
+    public String outputMap = null;
+
+    /** Number of simulations running at the same time, 0 means number of processors **/
+    public int workers = 0;
+
+    /** Number of candidate plans evaluated in one round of search **/
+    public int candidates = 16;
+
+    /** Number of restarts of search around the best plan, ranges are halved with every restart **/
+    public int restarts = 2;
+
+    /** Duration of simulations in the first rung of successive halving, doubled in every next rung **/
+    public int minDuration = 100;
+
+    /** Seed of search and of all simulations, null means seed from config **/
+    public Long seed = null;
+
+    /** Weight of average queue on last red step **/
+    public double queueOnLastRedWeight = 1.0;
+
+    /** Weight of maximal queue **/
+    public double maxQueueWeight = 0.0;
+
+    /** Weight of cars passed, subtracted from objective **/
+    public double carsPassedWeight = 0.0;
+
+    /** Search ranges of optimized light plans **/
+    public List<LightRange> lights = new ArrayList<>();
+
+    /**
+     * Computes objective of the run, lower is better.
+     *
+     * @param result result of the run, null if run failed
+     * @return objective of the run, positive infinity if run failed
+     **/
+    public double objective(RunResult result) {
+        if (result == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return this.queueOnLastRedWeight * result.averageQueueOnLastRed + this.maxQueueWeight * result.maxQueue
+                - this.carsPassedWeight * result.carsPassed;
+    }
+
+    /**
+     * Checks if details can be used for optimization.
+     *
+     * @return true if at least one light is optimized, all ranges are valid and numbers of candidates and duration are
+     * positive, false otherwise
+     **/
+    public boolean isValid() {
+        if (this.lights.isEmpty() || this.candidates < 1 || this.restarts < 0 || this.minDuration < 1) {
+            return false;
+        }
+        for (LightRange light : this.lights) {
+            if (!light.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a string representation of the OptimizationDetails object.
+     *
+     * @return a string representation of the OptimizationDetails object
+     **/
+    @Override
+    public String toString() {
+        return "OptimizationDetails{" +
+                "outputMap=" + outputMap +
+                ", workers=" + workers +
+                ", candidates=" + candidates +
+                ", restarts=" + restarts +
+                ", minDuration=" + minDuration +
+                ", seed=" + seed +
+                ", queueOnLastRedWeight=" + queueOnLastRedWeight +
+                ", maxQueueWeight=" + maxQueueWeight +
+                ", carsPassedWeight=" + carsPassedWeight +
+                ", lights=" + lights +
+                '}';
+    }
+
+    /************************************
+     * Search ranges of light plan of one lane or of all lanes of the road, split is part of the cycle before the
+     * switch (green time when light begins on green).
+     *
+     * @author Michael Hladky
+     * @version 1.0
+     ************************************/
+    public static class LightRange {
+
+        /** Index of the road **/
+        public int road = 0;
+
+        /** Lane of the road, -1 means all lanes **/
+        public int lane = -1;
+
+        /** Minimal cycle time **/
+        public int minCycle = 30;
+
+        /** Maximal cycle time **/
+        public int maxCycle = 120;
+
+        /** Minimal part of cycle before switch **/
+        public double minSplit = 0.2;
+
+        /** Maximal part of cycle before switch **/
+        public double maxSplit = 0.8;
+
+        /** Minimal offset of cycle **/
+        public int minOffset = 0;
+
+        /** Maximal offset of cycle **/
+        public int maxOffset = 0;
+
+        /**
+         * Checks if ranges are valid (minimum is not above maximum, cycle has at least two steps, split is between 0
+         * and 1).
+         *
+         * @return true if ranges are valid, false otherwise
+         **/
+        public boolean isValid() {
+            return this.road >= 0 && this.lane >= -1 && this.minCycle >= 2 && this.minCycle <= this.maxCycle &&
+                    this.minSplit > 0.0 && this.maxSplit < 1.0 && this.minSplit <= this.maxSplit &&
+                    this.minOffset <= this.maxOffset;
+        }
+
+        /**
+         * Returns a string representation of the LightRange object.
+         *
+         * @return a string representation of the LightRange object
+         **/
+        @Override
+        public String toString() {
+            return "LightRange{road=" + road + ", lane=" + lane + ", cycle=" + minCycle + "-" + maxCycle +
+                    ", split=" + minSplit + "-" + maxSplit + ", offset=" + minOffset + "-" + maxOffset + "}";
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package core.utils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Random;
 
 /************************************
  * Class responsible for generating random numbers for the simulation, it uses a singleton pattern to ensure that the
  * same random generator is used throughout the simulation, and it allows for setting a random seed for reproducibility
- * of the simulation results.
+ * of the simulation results. Besides the shared generator, independent streams can be created for parts of the
+ * simulation that should draw the same numbers whatever other parts do (common random numbers of generators).
  *
  * @author Michael Hladky
  * @version 1.0
@@ -20,6 +29,9 @@ public class RandomNumberGenerator {
 
     private static RandomNumberGenerator randomNumberGenerator;
 
+    /** odd constant (golden ratio) spreading ids of streams over the space of seeds **/
+    private static final long STREAM_INCREMENT = 0x9E3779B97F4A7C15L;
+
     /**
      * Constructor to initialize the random generator with a specific seed.
      *
@@ -43,6 +55,22 @@ public class RandomNumberGenerator {
         return randomNumberGenerator;
     }
 
+    /**
+     * Creates independent random generator (not the singleton) for one stream of random numbers, seed of the stream
+     * is mixed from the seed of simulation and id of the stream, so neighbouring ids give unrelated sequences and the
+     * same seed and id always give the same sequence
+     *
+     * @param seed seed of the simulation
+     * @param stream id of the stream
+     * @return new random generator of the stream
+     **/
+    public static RandomNumberGenerator createStream(long seed, long stream) {
+        long z = seed + (stream + 1) * STREAM_INCREMENT; // SplitMix64 finalizer
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new RandomNumberGenerator(z ^ (z >>> 31));
+    }
+
     /**
      * Generates a random integer between min (inclusive) and max (inclusive).
      *
@@ -79,4 +107,40 @@ public class RandomNumberGenerator {
     public void resetSeed() {
         this.random.setSeed(this.seed);
     }
+
+    /**
+     * writes seed and exact internal state of the random generator to the stream, so that after reading it the
+     * generator continues with the same sequence of numbers, used for checkpoints of the simulation
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+            objectOut.writeObject(this.random);
+        }
+        out.writeLong(this.seed);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    /**
+     * reads state of the random generator written by writeState from the stream
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails or written state is not state of random generator
+     **/
+    public void readState(DataInputStream in) throws IOException {
+        long newSeed = in.readLong();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            objectIn.setObjectInputFilter(ObjectInputFilter.Config.createFilter("java.util.Random;!*"));
+            this.random = (Random) objectIn.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("invalid state of random generator", e);
+        }
+        this.seed = newSeed;
+    }
 }
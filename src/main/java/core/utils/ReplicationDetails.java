@@ -0,0 +1,73 @@
+package core.utils;
+
+import core.sim.RunResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/************************************
+ * Class to hold details about sequential replications of one scenario, metrics of results whose confidence intervals
+ * are tracked, required relative precision of the intervals, limits of number of replications, size of batches run at
+ * the same time and file of results. Empty list of metrics means cars passed and average queue.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class ReplicationDetails {
+
+    /** File of results table (one row for every replication) **/
+    public String resultsFile = "replications.csv";
+
+    /** Number of runs at the same time, 0 means number of processors **/
+    public int workers = 0;
+
+    /** Number of replications in one batch, 0 means number of workers **/
+    public int batchSize = 0;
+
+    /** Minimal number of finished replications before replications can stop **/
+    public int minReplications = 3;
+
+    /** Maximal number of replications, replications stop even when intervals are not precise enough **/
+    public int maxReplications = 50;
+
+    /** Required half-width of 95% confidence interval of every metric relative to its mean **/
+    public double relativePrecision = 0.05;
+
+    /** Seed of the first replication, next replications use following seeds, null means seed from config **/
+    public Long seed = null;
+
+    /** Names of metrics of results (RunResult.METRICS) **/
+    public List<String> metrics = new ArrayList<>();
+
+    /**
+     * Checks if values of replications are valid (at least two replications, maximum not below minimum, positive
+     * precision, non negative workers and batch size, known metrics).
+     *
+     * @return true if replications can be run, false otherwise
+     **/
+    public boolean isValid() {
+        return this.resultsFile != null && !this.resultsFile.isEmpty() && this.minReplications >= 2 &&
+                this.maxReplications >= this.minReplications && this.relativePrecision > 0.0 && this.workers >= 0 &&
+                this.batchSize >= 0 && Arrays.asList(RunResult.METRICS).containsAll(this.metrics);
+    }
+
+    /**
+     * Returns a string representation of the ReplicationDetails object.
+     *
+     * @return a string representation of the ReplicationDetails object
+     **/
+    @Override
+    public String toString() {
+        return "ReplicationDetails{" +
+                "resultsFile=" + resultsFile +
+                ", workers=" + workers +
+                ", batchSize=" + batchSize +
+                ", minReplications=" + minReplications +
+                ", maxReplications=" + maxReplications +
+                ", relativePrecision=" + relativePrecision +
+                ", seed=" + seed +
+                ", metrics=" + metrics +
+                '}';
+    }
+}
@@ -4,8 +4,11 @@ import app.AppContext;
 import core.model.Road;
 import core.utils.constants.ConfigConstants;
 import core.utils.constants.Constants;
+import core.utils.events.ResultsFlushEvent;
 
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -54,6 +57,12 @@ public class ResultsRecorder {
     /** records of stopped cars on roads **/
     private StoppedCarsOnRoadRecord[] stoppedCarsOnRoadRecord;
 
+    /** step of simulation from which results are recorded, not 0 when simulation was warm started from snapshot **/
+    private int measurementStartStep = 0;
+
+    /** reason why the simulation run ended, null if it did not end yet **/
+    private String stopReason = null;
+
     /**
      * Private constructor to prevent instantiation
      **/
@@ -132,6 +141,19 @@ public class ResultsRecorder {
         timeStart = BigInteger.valueOf(System.nanoTime());
     }
 
+    /**
+     * Starts measuring of results from given step of simulation, results recorded before (filling of the roads in
+     * warm start snapshot) are cleared and timer is started.
+     *
+     * @param step step of simulation from which results are measured
+     **/
+    public void startMeasurement(int step) {
+        this.resetCarNumbers();
+        this.measurementStartStep = step;
+        this.timeEnd = null;
+        this.startTimer();
+    }
+
     /**
      * Stops the timer for measuring simulation time.
      **/
@@ -187,12 +209,21 @@ public class ResultsRecorder {
     private void write() {
         if (this.fileName != null && !this.fileName.isEmpty()) {
             try {
+                ResultsFlushEvent event = new ResultsFlushEvent();
+                event.begin();
                 File file = new File(resolveFileName(this.fileName));
                 FileWriter fw = new FileWriter(file);
                 BufferedWriter bw = getBufferedWriter(fw);
                 bw.close();
                 fw.close();
                 decideToWriteDetailedExport();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.output = ResultsFlushEvent.RESULTS;
+                    event.file = file.getPath();
+                    event.bytes = file.length();
+                    event.commit();
+                }
             } catch (Exception e) {
                 MyLogger.log("Error writing results to file: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
             }
@@ -278,7 +309,11 @@ public class ResultsRecorder {
         bw.write("=== Simulation Time Results ===\n");
         BigInteger elapsedTime = getElapsedTimeNs();
         int timeMillis = elapsedTime.divide(BigInteger.valueOf(1_000_000)).intValue();
-        bw.write("Total Simulation Time: " + timeMillis + " ms\n\n");
+        bw.write("Total Simulation Time: " + timeMillis + " ms\n");
+        if (this.stopReason != null) {
+            bw.write("Simulation Ended: " + this.stopReason + "\n");
+        }
+        bw.write("\n");
     }
 
     /**
@@ -572,18 +607,19 @@ public class ResultsRecorder {
      **/
     private void decideToWriteDetailedExport() {
         OutputDetails outputDetails = AppContext.RUN_DETAILS.outputDetails;
+        int measuredSteps = AppContext.SIMULATION.getStepCount() - this.measurementStartStep;
         if (outputDetails.writePart(ConfigConstants.DETAILED_LANE_QUEUE_LENGTH_TAG)) {
             if (outputDetails.writePart(ConfigConstants.EXPORT_DETAILED_TO_SEPARATE_FILES_TAG)) {
-                this.processDetailedLaneQueueOutputSeparateFiles(outputDetails, AppContext.SIMULATION.getStepCount());
+                this.processDetailedLaneQueueOutputSeparateFiles(outputDetails, measuredSteps);
             } else {
-                this.processDetailedLaneQueueOutput(outputDetails, AppContext.SIMULATION.getStepCount());
+                this.processDetailedLaneQueueOutput(outputDetails, measuredSteps);
             }
         }
         if (outputDetails.writePart(ConfigConstants.DETAILED_LIGHT_PLANS_TAG)) {
             if (outputDetails.writePart(ConfigConstants.EXPORT_DETAILED_TO_SEPARATE_FILES_TAG)) {
-                this.processLightPlanOfAllRoadsSeparateFiles(outputDetails, AppContext.SIMULATION.getStepCount());
+                this.processLightPlanOfAllRoadsSeparateFiles(outputDetails, measuredSteps);
             } else {
-                this.processLightPlanOfAllRoads(outputDetails, AppContext.SIMULATION.getStepCount());
+                this.processLightPlanOfAllRoads(outputDetails, measuredSteps);
             }
         }
     }
@@ -594,7 +630,7 @@ public class ResultsRecorder {
      * @param roadIndex The index of the road to retrieve the average lane queue length for.
      * @return The average lane queue length for the specified road.
      **/
-    private double getAverageLaneQueueLength(int roadIndex) {
+    public double getAverageLaneQueueLength(int roadIndex) {
         StoppedCarsOnRoadRecord record = stoppedCarsOnRoadRecord[roadIndex];
         return record.getAverageStoppedCars();
     }
@@ -605,7 +641,7 @@ public class ResultsRecorder {
      * @param roadIndex The index of the road to retrieve the average lane queue length on the last red step for.
      * @return The average lane queue length on the last red step for the specified road.
      **/
-    private double getAverageLaneQueueLengthOnLastRed(int roadIndex) {
+    public double getAverageLaneQueueLengthOnLastRed(int roadIndex) {
         StoppedCarsOnRoadRecord record = stoppedCarsOnRoadRecord[roadIndex];
         return record.getAverageOnLastRedStepInLightPlan();
     }
@@ -616,7 +652,7 @@ public class ResultsRecorder {
      * @param roadIndex The index of the road to retrieve the maximum lane queue length for.
      * @return The maximum lane queue length for the specified road.
      **/
-    private int getMaxSizeOfLaneQueue(int roadIndex) {
+    public int getMaxSizeOfLaneQueue(int roadIndex) {
         StoppedCarsOnRoadRecord record = stoppedCarsOnRoadRecord[roadIndex];
         return record.getMaxQueueSize();
     }
@@ -676,6 +712,8 @@ public class ResultsRecorder {
                 record.reset();
             }
         }
+        this.measurementStartStep = 0;
+        this.stopReason = null;
     }
 
     /**
@@ -738,6 +776,148 @@ public class ResultsRecorder {
         this.stoppedCarsOnRoadRecord[roadIndex].recordStoppedCars(count, onRed, lane);
     }
 
+    /**
+     * sums the number of stopped cars recorded in the last step on all roads, used for detecting steady state of the
+     * simulation.
+     *
+     * @return The number of stopped cars on all roads in the last recorded step, 0 if nothing was recorded.
+     **/
+    public int getStoppedCarsInLastStep() {
+        if (this.stoppedCarsOnRoadRecord == null) {
+            return 0;
+        }
+        int total = 0;
+        for (StoppedCarsOnRoadRecord record : this.stoppedCarsOnRoadRecord) {
+            total += record.getStoppedCarsInLastStep();
+        }
+        return total;
+    }
+
+    /**
+     * records the reason why the simulation run ended, it is written to the output.
+     *
+     * @param stopReason The reason why the run ended.
+     **/
+    public void recordStopReason(String stopReason) {
+        this.stopReason = stopReason;
+    }
+
+    /**
+     * getter for the reason why the simulation run ended.
+     *
+     * @return The reason why the run ended, null if it did not end yet.
+     **/
+    public String getStopReason() {
+        return this.stopReason;
+    }
+
+    /**
+     * writes all recorded results (cars passed, collisions, lane changes, when were roads empty, accumulators of
+     * stopped cars) and time elapsed since start of the timer to the stream, used for checkpoints of the simulation,
+     * history of stopped cars in every step is written only when detailed export is enabled
+     *
+     * @param out stream to write to
+     * @throws IOException if writing fails
+     **/
+    public void writeState(DataOutputStream out) throws IOException {
+        writeIntArray(out, this.carsPassedPerRoad);
+        writeIntArray(out, this.whenWasRoadEmpty);
+        writeIntArray(out, this.collisionsCount);
+        writeIntArray(out, this.laneChangesCount);
+
+        if (this.stoppedCarsOnRoadRecord == null) {
+            out.writeInt(Constants.NO_RECORD_YET);
+        } else {
+            boolean withHistory = isDetailedExportEnabled();
+            out.writeInt(this.stoppedCarsOnRoadRecord.length);
+            for (StoppedCarsOnRoadRecord record : this.stoppedCarsOnRoadRecord) {
+                record.writeState(out, withHistory);
+            }
+        }
+
+        out.writeInt(this.measurementStartStep);
+        out.writeLong(this.timeStart == null ? Constants.NO_RECORD_YET : this.getElapsedTimeNs().longValue());
+    }
+
+    /**
+     * reads recorded results written by writeState from the stream, timer is set as if it was started before the
+     * written elapsed time, so time of the resumed run is added to time before the checkpoint
+     *
+     * @param in stream to read from
+     * @throws IOException if reading fails
+     **/
+    public void readState(DataInputStream in) throws IOException {
+        this.carsPassedPerRoad = readIntArray(in);
+        this.whenWasRoadEmpty = readIntArray(in);
+        this.collisionsCount = readIntArray(in);
+        this.laneChangesCount = readIntArray(in);
+
+        int numberOfRoads = in.readInt();
+        if (numberOfRoads == Constants.NO_RECORD_YET) {
+            this.stoppedCarsOnRoadRecord = null;
+        } else {
+            this.stoppedCarsOnRoadRecord = new StoppedCarsOnRoadRecord[numberOfRoads];
+            for (int i = 0; i < numberOfRoads; i++) {
+                this.stoppedCarsOnRoadRecord[i] = StoppedCarsOnRoadRecord.readState(in);
+            }
+        }
+
+        this.measurementStartStep = in.readInt();
+        long elapsed = in.readLong();
+        this.timeStart = elapsed == Constants.NO_RECORD_YET ? null :
+                BigInteger.valueOf(System.nanoTime()).subtract(BigInteger.valueOf(elapsed));
+        this.timeEnd = null;
+    }
+
+    /**
+     * checks if any detailed export (per step queue lengths or light plans) is enabled, these are the only outputs
+     * that need history of stopped cars of every step
+     *
+     * @return true if detailed export is enabled, false otherwise
+     **/
+    private static boolean isDetailedExportEnabled() {
+        OutputDetails outputDetails = AppContext.RUN_DETAILS == null ? null : AppContext.RUN_DETAILS.outputDetails;
+        return outputDetails != null && (outputDetails.writePart(ConfigConstants.DETAILED_LANE_QUEUE_LENGTH_TAG)
+                || outputDetails.writePart(ConfigConstants.DETAILED_LIGHT_PLANS_TAG));
+    }
+
+    /**
+     * writes array of ints with its length to the stream, null array is written as its length NO_RECORD_YET
+     *
+     * @param out stream to write to
+     * @param array array to write, can be null
+     * @throws IOException if writing fails
+     **/
+    private static void writeIntArray(DataOutputStream out, int[] array) throws IOException {
+        if (array == null) {
+            out.writeInt(Constants.NO_RECORD_YET);
+            return;
+        }
+        out.writeInt(array.length);
+        for (int value : array) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * reads array of ints written by writeIntArray from the stream
+     *
+     * @param in stream to read from
+     * @return read array, null if null array was written
+     * @throws IOException if reading fails
+     **/
+    private static int[] readIntArray(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == Constants.NO_RECORD_YET) {
+            return null;
+        }
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = in.readInt();
+        }
+        return array;
+    }
+
     /**
      * processes the detailed lane queue output by writing the data for each road and lane to a single CSV file, it
      * creates a file name for the detailed lane queue output by appending "DetailedLaneQueue.csv" to the base name of
@@ -907,13 +1087,8 @@ public class ResultsRecorder {
      **/
     private void addNumberOfSoppedCarsToString(String csvSeparator, StoppedCarsOnRoadRecord record, int step,
                                                StringBuilder line, int lane) {
-        LinkedList<NumberOfStandingCars> stoppedCarsList = record.stoppedCarsPerStep.get(lane);
-        if (step < stoppedCarsList.size()) {
-            NumberOfStandingCars entry = stoppedCarsList.get(step);
-            line.append(entry.count).append(csvSeparator);
-        } else {
-            line.append("0").append(csvSeparator); // No data for this step
-        }
+        NumberOfStandingCars entry = record.getStoppedCarsAtStep(lane, step); // count 0 if there is no data
+        line.append(entry.count).append(csvSeparator);
     }
 
     /**
@@ -1030,7 +1205,9 @@ public class ResultsRecorder {
     /************************************
      * Class representing the record of stopped cars on a road during the simulation, it maintains a list (lanes)
      * of linked lists (steps) that store the number of standing cars and whether they were on red light for each lane
-     * of the road at each time step (instance of NumberOfStandingCars class)
+     * of the road at each time step (instance of NumberOfStandingCars class), this history is used by detailed
+     * exports. Aggregated values (average and maximal queue on red, peaks of red phases) are kept in running
+     * accumulators of every lane, so they do not depend on the history and checkpoint of the record has constant size.
      *
      * @author Michael Hladky
      * @version 1.0
@@ -1042,6 +1219,37 @@ public class ResultsRecorder {
          * contains entries for each time step, where each entry is an instance of the NumberOfStandingCars class. **/
         List<LinkedList<NumberOfStandingCars>> stoppedCarsPerStep;
 
+        /** number of recorded steps of every lane that are not in the history (run resumed from checkpoint without
+         * history), first entry of the history is this step **/
+        private final int[] historyStart;
+
+        /** number of recorded steps of every lane **/
+        private final int[] recordedSteps;
+
+        /** number of stopped cars in the last recorded step of every lane **/
+        private final int[] lastCount;
+
+        /** sum of stopped cars in steps on red of every lane **/
+        private final long[] sumOnRed;
+
+        /** number of steps on red of every lane **/
+        private final int[] stepsOnRed;
+
+        /** maximal number of stopped cars on red of every lane **/
+        private final int[] maxOnRed;
+
+        /** sum of peaks of finished red phases of every lane **/
+        private final long[] sumOfRedPeaks;
+
+        /** number of finished red phases of every lane **/
+        private final int[] redPhases;
+
+        /** flag if the last recorded step of every lane was on red **/
+        private final boolean[] inRedPhase;
+
+        /** peak of stopped cars in the current red phase of every lane **/
+        private final int[] currentRedPeak;
+
         /**
          * Constructor to initialize the stoppedCarsPerStep list based on the number of lanes on the road. It creates a
          * new ArrayList to hold the linked lists for each lane, and for each lane, it initializes a new LinkedList to
@@ -1054,28 +1262,58 @@ public class ResultsRecorder {
             for (int i = 0; i < numberOfLanes; i++) {
                 stoppedCarsPerStep.add(new LinkedList<>());
             }
+            historyStart = new int[numberOfLanes];
+            recordedSteps = new int[numberOfLanes];
+            lastCount = new int[numberOfLanes];
+            sumOnRed = new long[numberOfLanes];
+            stepsOnRed = new int[numberOfLanes];
+            maxOnRed = new int[numberOfLanes];
+            sumOfRedPeaks = new long[numberOfLanes];
+            redPhases = new int[numberOfLanes];
+            inRedPhase = new boolean[numberOfLanes];
+            currentRedPeak = new int[numberOfLanes];
         }
 
         /**
          * Records the number of stopped cars and whether they were on red light for a specific lane at a given time
-         * step. It checks if the lane index is within bounds and then adds a new instance of NumberOfStandingCars to
-         * the corresponding linked list for that lane in the stoppedCarsPerStep list.
+         * step. It checks if the lane index is within bounds, adds a new instance of NumberOfStandingCars to the
+         * corresponding linked list for that lane in the stoppedCarsPerStep list and updates accumulators of the lane.
          *
          * @param count The number of stopped cars to record.
          * @param onRed A boolean indicating whether the light was red at the end of the lane
          * @param lane The index of the lane where the cars are stopped.
          */
         public void recordStoppedCars(int count, boolean onRed, int lane) {
-            if (lane < stoppedCarsPerStep.size()) {
-                stoppedCarsPerStep.get(lane).add(new NumberOfStandingCars(count, onRed));
+            if (lane >= stoppedCarsPerStep.size()) {
+                return;
+            }
+
+            stoppedCarsPerStep.get(lane).add(new NumberOfStandingCars(count, onRed));
+            recordedSteps[lane]++;
+            lastCount[lane] = count;
+            if (onRed) {
+                sumOnRed[lane] += count;
+                stepsOnRed[lane]++;
+                maxOnRed[lane] = Math.max(maxOnRed[lane], count);
+                if (!inRedPhase[lane]) {
+                    // new red phase started, reset the peak counter for this phase
+                    inRedPhase[lane] = true;
+                    currentRedPeak[lane] = 0;
+                }
+                currentRedPeak[lane] = Math.max(currentRedPeak[lane], count);
+            } else if (inRedPhase[lane]) {
+                // red phase ended, add the peak of this phase to the total and increment the count of red phases
+                sumOfRedPeaks[lane] += currentRedPeak[lane];
+                redPhases[lane]++;
+                inRedPhase[lane] = false;
             }
         }
 
         /**
          * Retrieves the number of stopped cars and whether they were on red light for a specific lane at a given time
          * step. It checks if the lane index and step index are within bounds and returns the corresponding entry from
-         * the linked list for that lane. If the lane or step index is out of bounds, it returns a default instance of
-         * NumberOfStandingCars with count 0 and onRed false.
+         * the linked list for that lane. If the lane or step index is out of bounds (or the step is not in the history),
+         * it returns a default instance of NumberOfStandingCars with count 0 and onRed false.
          *
          * @param lane The index of the lane to retrieve the data for.
          * @param step The index of the time step to retrieve the data for.
@@ -1085,110 +1323,93 @@ public class ResultsRecorder {
         public NumberOfStandingCars getStoppedCarsAtStep(int lane, int step) {
             if (lane < stoppedCarsPerStep.size()) {
                 LinkedList<NumberOfStandingCars> stoppedCarsList = stoppedCarsPerStep.get(lane);
-                if (step < stoppedCarsList.size()) {
-                    return stoppedCarsList.get(step);
+                int index = step - historyStart[lane];
+                if (index >= 0 && index < stoppedCarsList.size()) {
+                    return stoppedCarsList.get(index);
                 }
             }
             return new NumberOfStandingCars(0, false); // Return default if lane or step is out of bounds
         }
 
         /**
-         * Resets the recorded stopped cars data by clearing the lists for each lane. It iterates through the
-         * stoppedCarsPerStep list and calls the clear method on each LinkedList to remove all recorded entries of
-         * stopped cars for each lane.
+         * Resets the recorded stopped cars data by clearing the lists and accumulators of each lane.
          **/
         public void reset() {
             for (LinkedList<NumberOfStandingCars> laneList : stoppedCarsPerStep) {
                 laneList.clear();
             }
+            Arrays.fill(historyStart, 0);
+            Arrays.fill(recordedSteps, 0);
+            Arrays.fill(lastCount, 0);
+            Arrays.fill(sumOnRed, 0);
+            Arrays.fill(stepsOnRed, 0);
+            Arrays.fill(maxOnRed, 0);
+            Arrays.fill(sumOfRedPeaks, 0);
+            Arrays.fill(redPhases, 0);
+            Arrays.fill(inRedPhase, false);
+            Arrays.fill(currentRedPeak, 0);
+        }
+
+        /**
+         * Sums the last recorded number of stopped cars of all lanes, lanes without records count as 0.
+         *
+         * @return The number of stopped cars on the road in the last recorded step.
+         **/
+        public int getStoppedCarsInLastStep() {
+            int total = 0;
+            for (int count : lastCount) {
+                total += count;
+            }
+            return total;
         }
 
         /**
          * Calculates the average number of stopped cars across all lanes and time steps, considering only those entries
-         * where the cars were stopped at a red light. It iterates through the stoppedCarsPerStep list, sums up the
-         * counts of stopped cars for entries where onRed is true, and counts the number of such entries to calculate
-         * the average.
+         * where the cars were stopped at a red light.
          *
          * @return The average number of stopped cars at red lights across all lanes and time steps. If there are no
          *         entries with onRed true, it returns 0.0 to avoid division by zero.
          */
         public double getAverageStoppedCars() {
-            int totalCount = 0;
-            int totalEntries = 0;
-
-            for (LinkedList<NumberOfStandingCars> laneList : stoppedCarsPerStep) {
-                for (NumberOfStandingCars entry : laneList) {
-                    if (entry.onRed) {
-                        totalCount += entry.count;
-                        totalEntries++;
-                    }
-                }
+            long totalCount = 0;
+            long totalEntries = 0;
+            for (int lane = 0; lane < stepsOnRed.length; lane++) {
+                totalCount += sumOnRed[lane];
+                totalEntries += stepsOnRed[lane];
             }
 
             return totalEntries > 0 ? (double) totalCount / totalEntries : 0.0;
         }
 
         /**
-         * Retrieves the maximum queue size of stopped cars at red lights across all lanes and time steps. It iterates
-         * through the stoppedCarsPerStep list and checks each entry for whether it was on red light, keeping track of
-         * the maximum count of stopped cars found for entries where onRed is true.
+         * Retrieves the maximum queue size of stopped cars at red lights across all lanes and time steps.
          *
          * @return The maximum queue size of stopped cars at red lights across all lanes and time steps. If there are no
          *         entries with onRed true, it returns 0.
          **/
         public int getMaxQueueSize() {
             int maxQueueSize = 0;
-
-            for (LinkedList<NumberOfStandingCars> laneList : stoppedCarsPerStep) {
-                for (NumberOfStandingCars entry : laneList) {
-                    if (entry.onRed && entry.count > maxQueueSize) {
-                        maxQueueSize = entry.count;
-                    }
-                }
+            for (int max : maxOnRed) {
+                maxQueueSize = Math.max(maxQueueSize, max);
             }
 
             return maxQueueSize;
         }
 
         /**
-         * Retrieves the average peak queue size of stopped cars during red light phases on lane.
-         * It iterates through the stoppedCarsPerStep list, tracking the maximum count of stopped cars
-         * for each contiguous red phase, and calculates the average of these peaks.
+         * Retrieves the average peak queue size of stopped cars during red light phases on lane, red phase that did
+         * not end yet (the simulation ended during a red phase) is counted with its peak so far.
          *
          * @return The average peak queue size at red lights. If there are no red phases, returns 0.0.
          **/
         public double getAverageOnLastRedStepInLightPlan() {
-            int totalPeakCarsOnRed = 0;
+            long totalPeakCarsOnRed = 0;
             int redPhasesCount = 0;
-
-            for (LinkedList<NumberOfStandingCars> laneList : stoppedCarsPerStep) {
-                int currentRedPhasePeak = 0;
-                boolean currentlyInRedPhase = false;
-
-                for (NumberOfStandingCars current : laneList) {
-                    if (current.onRed) {
-                        if (!currentlyInRedPhase) {
-                            // new red phase started, reset the peak counter for this phase
-                            currentlyInRedPhase = true;
-                            currentRedPhasePeak = 0;
-                        }
-                        // look for biggest number of stopped cars during the red phase
-                        if (current.count > currentRedPhasePeak) {
-                            currentRedPhasePeak = current.count;
-                        }
-                    } else {
-                        if (currentlyInRedPhase) {
-                            // red phase ended, add the peak of this phase to the total and increment the count of red phases
-                            totalPeakCarsOnRed += currentRedPhasePeak;
-                            redPhasesCount++;
-                            currentlyInRedPhase = false;
-                        }
-                    }
-                }
-
-                // check if we ended while still in red phase (in case the simulation ended during a red phase)
-                if (currentlyInRedPhase) {
-                    totalPeakCarsOnRed += currentRedPhasePeak;
+            for (int lane = 0; lane < redPhases.length; lane++) {
+                totalPeakCarsOnRed += sumOfRedPeaks[lane];
+                redPhasesCount += redPhases[lane];
+                if (inRedPhase[lane]) {
+                    totalPeakCarsOnRed += currentRedPeak[lane];
                     redPhasesCount++;
                 }
             }
@@ -1196,6 +1417,85 @@ public class ResultsRecorder {
             // block of zero division
             return redPhasesCount > 0 ? (double) totalPeakCarsOnRed / redPhasesCount : 0.0;
         }
+
+        /**
+         * writes accumulators of all lanes to the stream, history of steps is written only when it is needed by
+         * detailed export, so checkpoint without detailed export does not grow with number of steps
+         *
+         * @param out stream to write to
+         * @param withHistory true if history of steps should be written
+         * @throws IOException if writing fails
+         **/
+        void writeState(DataOutputStream out, boolean withHistory) throws IOException {
+            out.writeInt(stoppedCarsPerStep.size());
+            for (int lane = 0; lane < stoppedCarsPerStep.size(); lane++) {
+                out.writeInt(recordedSteps[lane]);
+                out.writeInt(lastCount[lane]);
+                out.writeLong(sumOnRed[lane]);
+                out.writeInt(stepsOnRed[lane]);
+                out.writeInt(maxOnRed[lane]);
+                out.writeLong(sumOfRedPeaks[lane]);
+                out.writeInt(redPhases[lane]);
+                out.writeBoolean(inRedPhase[lane]);
+                out.writeInt(currentRedPeak[lane]);
+            }
+
+            out.writeBoolean(withHistory);
+            if (!withHistory) {
+                return;
+            }
+            for (int lane = 0; lane < stoppedCarsPerStep.size(); lane++) {
+                LinkedList<NumberOfStandingCars> laneList = stoppedCarsPerStep.get(lane);
+                out.writeInt(historyStart[lane]);
+                out.writeInt(laneList.size());
+                for (NumberOfStandingCars entry : laneList) {
+                    out.writeInt(entry.count);
+                    out.writeBoolean(entry.onRed);
+                }
+            }
+        }
+
+        /**
+         * reads record written by writeState, when history was not written, history of the resumed run starts at the
+         * step of the checkpoint
+         *
+         * @param in stream to read from
+         * @return read record
+         * @throws IOException if reading fails
+         **/
+        static StoppedCarsOnRoadRecord readState(DataInputStream in) throws IOException {
+            int numberOfLanes = in.readInt();
+            if (numberOfLanes < 0) {
+                throw new IOException("invalid number of lanes in results record: " + numberOfLanes);
+            }
+            StoppedCarsOnRoadRecord record = new StoppedCarsOnRoadRecord(numberOfLanes);
+            for (int lane = 0; lane < numberOfLanes; lane++) {
+                record.recordedSteps[lane] = in.readInt();
+                record.lastCount[lane] = in.readInt();
+                record.sumOnRed[lane] = in.readLong();
+                record.stepsOnRed[lane] = in.readInt();
+                record.maxOnRed[lane] = in.readInt();
+                record.sumOfRedPeaks[lane] = in.readLong();
+                record.redPhases[lane] = in.readInt();
+                record.inRedPhase[lane] = in.readBoolean();
+                record.currentRedPeak[lane] = in.readInt();
+                record.historyStart[lane] = record.recordedSteps[lane];
+            }
+
+            if (!in.readBoolean()) {
+                return record;
+            }
+            for (int lane = 0; lane < numberOfLanes; lane++) {
+                record.historyStart[lane] = in.readInt();
+                int numberOfEntries = in.readInt();
+                LinkedList<NumberOfStandingCars> laneList = record.stoppedCarsPerStep.get(lane);
+                for (int entry = 0; entry < numberOfEntries; entry++) {
+                    int count = in.readInt();
+                    laneList.add(new NumberOfStandingCars(count, in.readBoolean()));
+                }
+            }
+            return record;
+        }
     }
 
     /**********************************
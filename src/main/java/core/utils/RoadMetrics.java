@@ -0,0 +1,168 @@
+package core.utils;
+
+import core.utils.MetricsRegistry.Counter;
+import core.utils.MetricsRegistry.Phase;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/************************************
+ * Metrics of one road (or of the simulation), time of phases is summed during step by the thread that steps the road
+ * and at the end of step it is recorded to histogram of the phase, so histograms hold time of phase per step. Time of
+ * phase nested in other phase (lane change of continuous road is decided during forward step) is subtracted from the
+ * outer phase, so phases do not overlap. Histograms, counters and gauge are read without locks.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class RoadMetrics {
+
+    /** id of road, MetricsRegistry.SIMULATION_ID for phases of the simulation **/
+    private final int roadId;
+
+    /** time of phases in current step in nanoseconds, used only by the thread that steps the road **/
+    private final long[] stepTimes = new long[Phase.values().length];
+
+    /** whether phase happened in current step **/
+    private final boolean[] phaseInStep = new boolean[Phase.values().length];
+
+    /** histograms of time of phases per step, created when phase first happens **/
+    private final AtomicReferenceArray<LatencyHistogram> histograms =
+            new AtomicReferenceArray<>(Phase.values().length);
+
+    /** counters of events **/
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+
+    /** number of cars on the road after the last step (gauge) **/
+    private volatile int vehicles = 0;
+
+    /**
+     * constructor of empty metrics
+     *
+     * @param roadId id of road
+     **/
+    public RoadMetrics(int roadId) {
+        this.roadId = roadId;
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * adds time from start until now to phase in current step
+     *
+     * @param phase phase that ended
+     * @param start start of phase from MetricsRegistry.start(), 0 means metrics were disabled and nothing is added
+     **/
+    public void addTime(Phase phase, long start) {
+        if (start == 0) {
+            return;
+        }
+        this.stepTimes[phase.ordinal()] += System.nanoTime() - start;
+        this.phaseInStep[phase.ordinal()] = true;
+    }
+
+    /**
+     * adds time from start until now to phase that runs inside outer phase and subtracts it from the outer phase, outer
+     * phase adds its whole time when it ends
+     *
+     * @param phase phase that ended
+     * @param start start of phase from MetricsRegistry.start(), 0 means metrics were disabled and nothing is added
+     * @param outer phase the phase runs in
+     **/
+    public void addNestedTime(Phase phase, long start, Phase outer) {
+        if (start == 0) {
+            return;
+        }
+        long time = System.nanoTime() - start;
+        this.stepTimes[phase.ordinal()] += time;
+        this.phaseInStep[phase.ordinal()] = true;
+        this.stepTimes[outer.ordinal()] -= time;
+    }
+
+    /**
+     * increments counter of event
+     *
+     * @param counter counter to increment
+     **/
+    public void increment(Counter counter) {
+        this.counters[counter.ordinal()].increment();
+    }
+
+    /**
+     * records time of phases of finished step to histograms and sets number of cars on the road
+     *
+     * @param vehiclesOnRoad number of cars on the road after the step
+     **/
+    public void endStep(int vehiclesOnRoad) {
+        for (int i = 0; i < this.stepTimes.length; i++) {
+            if (this.phaseInStep[i]) {
+                LatencyHistogram histogram = this.histograms.get(i);
+                if (histogram == null) {
+                    this.histograms.compareAndSet(i, null, new LatencyHistogram());
+                    histogram = this.histograms.get(i);
+                }
+                histogram.record(this.stepTimes[i]);
+                this.stepTimes[i] = 0;
+                this.phaseInStep[i] = false;
+            }
+        }
+        this.vehicles = vehiclesOnRoad;
+        this.counters[Counter.STEPS.ordinal()].increment();
+    }
+
+    /**
+     * getter for id of road
+     *
+     * @return id of road, MetricsRegistry.SIMULATION_ID for the simulation
+     **/
+    public int getRoadId() {
+        return this.roadId;
+    }
+
+    /**
+     * getter for histogram of time of phase per step
+     *
+     * @param phase phase
+     * @return histogram of phase, null if phase did not happen yet
+     **/
+    public LatencyHistogram getHistogram(Phase phase) {
+        return this.histograms.get(phase.ordinal());
+    }
+
+    /**
+     * getter for value of counter
+     *
+     * @param counter counter
+     * @return number of counted events
+     **/
+    public long getCount(Counter counter) {
+        return this.counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * getter for number of cars on the road after the last step
+     *
+     * @return number of cars on the road
+     **/
+    public int getVehicles() {
+        return this.vehicles;
+    }
+
+    /**
+     * clears histograms, counters and gauge, time of current step is kept, because the road may be in the middle of
+     * step
+     **/
+    public void reset() {
+        for (int i = 0; i < this.histograms.length(); i++) {
+            LatencyHistogram histogram = this.histograms.get(i);
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+        for (LongAdder counter : this.counters) {
+            counter.reset();
+        }
+        this.vehicles = 0;
+    }
+}
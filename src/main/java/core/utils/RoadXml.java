@@ -2,6 +2,7 @@ package core.utils;
 
 import app.AppContext;
 import core.model.CarGenerator;
+import core.model.DemandProfile;
 import core.model.LightPlan;
 import core.model.Parameter;
 import core.utils.constants.Constants;
@@ -247,6 +248,11 @@ public class RoadXml {
             Element lightPlanStartWithGreenElement = doc.createElement(RoadLoadingConstants.START_WITH_GREEN_TAG);
             lightPlanElement.appendChild(lightPlanStartWithGreenElement);
             lightPlanStartWithGreenElement.appendChild(doc.createTextNode(String.valueOf(lp.get(lane).isBeginsOnGreen())));
+            if (lp.get(lane).getOffset() != 0) {
+                Element lightPlanOffsetElement = doc.createElement(RoadLoadingConstants.OFFSET_TAG);
+                lightPlanElement.appendChild(lightPlanOffsetElement);
+                lightPlanOffsetElement.appendChild(doc.createTextNode(String.valueOf(lp.get(lane).getOffset())));
+            }
 
             //write generator to XML
             //flow rate
@@ -266,6 +272,33 @@ public class RoadXml {
             Element maxSizeElement = doc.createElement(RoadLoadingConstants.MAX_VALUE_TAG);
             queueElement.appendChild(maxSizeElement);
             maxSizeElement.appendChild(doc.createTextNode(String.valueOf(generator.getMaxQueueSize())));
+
+            DemandProfile profile = generator.getDemandProfile();
+            if (profile != null) {
+                Element profileElement = doc.createElement(RoadLoadingConstants.DEMAND_PROFILE_TAG);
+                generatorElement.appendChild(profileElement);
+                Element interpolationElement = doc.createElement(RoadLoadingConstants.INTERPOLATION_TAG);
+                profileElement.appendChild(interpolationElement);
+                interpolationElement.appendChild(doc.createTextNode(profile.getInterpolation()));
+                if (profile.getSourceFile() != null) {
+                    Element fileElement = doc.createElement(RoadLoadingConstants.PROFILE_FILE_TAG);
+                    profileElement.appendChild(fileElement);
+                    fileElement.appendChild(doc.createTextNode(profile.getSourceFile()));
+                } else {
+                    double[] times = profile.getTimes();
+                    double[] rates = profile.getRates();
+                    for (int point = 0; point < times.length; point++) {
+                        Element pointElement = doc.createElement(RoadLoadingConstants.PROFILE_POINT_TAG);
+                        profileElement.appendChild(pointElement);
+                        Element timeElement = doc.createElement(RoadLoadingConstants.PROFILE_TIME_TAG);
+                        pointElement.appendChild(timeElement);
+                        timeElement.appendChild(doc.createTextNode(String.valueOf(times[point])));
+                        Element rateElement = doc.createElement(RoadLoadingConstants.PROFILE_RATE_TAG);
+                        pointElement.appendChild(rateElement);
+                        rateElement.appendChild(doc.createTextNode(String.valueOf(rates[point])));
+                    }
+                }
+            }
             // car parameters
             Element paramElement = doc.createElement(RoadLoadingConstants.CAR_PARAMS_TAG);
             generatorElement.appendChild(paramElement);
@@ -45,12 +45,33 @@ public class RunDetails {
     /** Enable debug mode, writing id of cars, controlling if cars aren't duplicated or in collision **/
     public boolean debug = false;
 
+    /** Whether cars that left the road are reused for new cars, pooling is off by default **/
+    public boolean carPooling = false;
+
+    /** Whether generators draw arrivals and cars from own random streams (common random numbers), off by default **/
+    public boolean commonRandomNumbers = false;
+
+    /** Whether phases of steps are timed per road in metrics registry, off by default **/
+    public boolean stepMetrics = false;
+
+    /** File where hashes of states of roads are written after every step, null or empty means hashes are not written **/
+    public String stateHashFile = null;
+
     /** Whether the map has been loaded successfully **/
     public boolean mapLoaded = false;
 
     /** Random seed for the simulation, can be set for reproducibility **/
     public long seed;
 
+    /** Settings of per vehicle trajectory recording, recording is off by default **/
+    public TrajectoryDetails trajectoryDetails = new TrajectoryDetails();
+
+    /** Settings of periodic checkpoints of the simulation, checkpoints are off by default **/
+    public CheckpointDetails checkpointDetails = new CheckpointDetails();
+
+    /** Settings of automatic steady state detection, detection is off by default **/
+    public SteadyStateDetails steadyStateDetails = new SteadyStateDetails();
+
     /**
      * Checks if the simulation results should be written to an output file (null or empty output file/details
      * means results should not be recorded).
@@ -94,8 +115,15 @@ public class RunDetails {
                 ", mapFile='" + mapFile + '\'' +
                 ", mapChanged=" + mapChanged +
                 ", debug=" + debug +
+                ", carPooling=" + carPooling +
+                ", commonRandomNumbers=" + commonRandomNumbers +
+                ", stepMetrics=" + stepMetrics +
+                ", stateHashFile='" + stateHashFile + '\'' +
                 ", mapLoaded=" + mapLoaded +
                 ", seed=" + seed +
+                ", trajectoryDetails=" + trajectoryDetails +
+                ", checkpointDetails=" + checkpointDetails +
+                ", steadyStateDetails=" + steadyStateDetails +
                 '}';
     }
 
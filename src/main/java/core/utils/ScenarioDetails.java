@@ -0,0 +1,113 @@
+package core.utils;
+
+/************************************
+ * Class to hold compact description of synthetic scenario (map) used for scale testing, number of roads and ranges
+ * from which length, lanes and speed limit of every road and flow rate, queue and light plan of every lane are drawn
+ * uniformly. Lights and queues are given to the share of lanes, other lanes are always green and generate straight to
+ * the road. The same details and seed give the same scenario.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class ScenarioDetails {
+
+    /** Map file the scenario is written to **/
+    public String outputMap = "generated_map.xml";
+
+    /** Seed of drawing of the scenario (not of the simulation) **/
+    public long seed = 1;
+
+    /** Number of roads **/
+    public int roads = 1000;
+
+    /** Minimal length of road in meters **/
+    public double minLength = 200.0;
+
+    /** Maximal length of road in meters **/
+    public double maxLength = 2000.0;
+
+    /** Minimal number of lanes of road **/
+    public int minLanes = 1;
+
+    /** Maximal number of lanes of road **/
+    public int maxLanes = 3;
+
+    /** Minimal speed limit of road in meters per second **/
+    public double minSpeedLimit = 14.0;
+
+    /** Maximal speed limit of road in meters per second **/
+    public double maxSpeedLimit = 36.0;
+
+    /** Minimal flow rate of generator of lane in cars per second **/
+    public double minFlowRate = 0.1;
+
+    /** Maximal flow rate of generator of lane in cars per second **/
+    public double maxFlowRate = 0.5;
+
+    /** Share of lanes with traffic light (0 to 1) **/
+    public double lightShare = 0.5;
+
+    /** Minimal cycle of traffic light in steps **/
+    public int minCycle = 40;
+
+    /** Maximal cycle of traffic light in steps **/
+    public int maxCycle = 120;
+
+    /** Minimal part of cycle that is green **/
+    public double minSplit = 0.3;
+
+    /** Maximal part of cycle that is green **/
+    public double maxSplit = 0.7;
+
+    /** Share of lanes whose generator generates to queue (0 to 1) **/
+    public double queueShare = 0.2;
+
+    /** Minimal size of queue **/
+    public int minQueueSize = 5;
+
+    /** Maximal size of queue **/
+    public int maxQueueSize = 50;
+
+    /**
+     * Checks if values of scenario are valid (at least one road, positive lengths, lanes and speed limits, non negative
+     * flow rates and queue sizes, cycle of at least 2 steps, split and shares between 0 and 1, minimum not above
+     * maximum).
+     *
+     * @return true if scenario can be generated, false otherwise
+     **/
+    public boolean isValid() {
+        return this.outputMap != null && !this.outputMap.isEmpty() && this.roads > 0
+                && this.minLength > 0 && this.minLength <= this.maxLength
+                && this.minLanes > 0 && this.minLanes <= this.maxLanes
+                && this.minSpeedLimit > 0 && this.minSpeedLimit <= this.maxSpeedLimit
+                && this.minFlowRate >= 0 && this.minFlowRate <= this.maxFlowRate
+                && this.lightShare >= 0 && this.lightShare <= 1
+                && this.minCycle >= 2 && this.minCycle <= this.maxCycle
+                && this.minSplit > 0 && this.minSplit <= this.maxSplit && this.maxSplit < 1
+                && this.queueShare >= 0 && this.queueShare <= 1
+                && this.minQueueSize >= 0 && this.minQueueSize <= this.maxQueueSize;
+    }
+
+    /**
+     * Returns a string representation of the ScenarioDetails object.
+     *
+     * @return a string representation of the ScenarioDetails object
+     **/
+    @Override
+    public String toString() {
+        return "ScenarioDetails{" +
+                "outputMap=" + outputMap +
+                ", seed=" + seed +
+                ", roads=" + roads +
+                ", length=" + minLength + "-" + maxLength +
+                ", lanes=" + minLanes + "-" + maxLanes +
+                ", speedLimit=" + minSpeedLimit + "-" + maxSpeedLimit +
+                ", flowRate=" + minFlowRate + "-" + maxFlowRate +
+                ", lightShare=" + lightShare +
+                ", cycle=" + minCycle + "-" + maxCycle +
+                ", split=" + minSplit + "-" + maxSplit +
+                ", queueShare=" + queueShare +
+                ", queueSize=" + minQueueSize + "-" + maxQueueSize +
+                '}';
+    }
+}
@@ -0,0 +1,330 @@
+package core.utils;
+
+import app.AppContext;
+import core.model.CarGenerator;
+import core.model.LightPlan;
+import core.model.Parameter;
+import core.model.Road;
+import core.model.cellular.CellularRoad;
+import core.model.continous.ContinuosRoad;
+import core.utils.constants.Constants;
+import core.utils.constants.DefaultValues;
+import core.utils.constants.RoadLoadingConstants;
+import core.utils.loading.ScenarioLoader;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+/********************************************
+ * Generator of synthetic scenarios for scale testing, roads are drawn one by one from compact description
+ * (ScenarioDetails) and either streamed to map file, so maps of any size are written with constant memory, or built
+ * directly as roads for models in app context (cellular or continuous). Both ways draw the same roads from the same
+ * seed, so map file loaded by RoadLoader gives the same roads as the ones built in memory. Map files contain default
+ * ranges of parameters of cars of all models, so one map is usable with any model.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ScenarioGenerator {
+
+    /** cycle of light of lane without light, switch at the end of cycle keeps the light always green **/
+    private static final int ALWAYS_GREEN_CYCLE = DefaultValues.DEFAULT_LIGHT_PLAN_CYCLE_DURATION;
+
+    /**
+     * private constructor, class has only static methods
+     **/
+    private ScenarioGenerator() {}
+
+    /**
+     * generates map of scenario from scenario file, it is used from command line
+     *
+     * @param scenarioFile scenario file (XML)
+     * @return true if map was written, false if scenario cannot be loaded or map cannot be written
+     **/
+    public static boolean run(String scenarioFile) {
+        ScenarioDetails details = ScenarioLoader.load(scenarioFile);
+        if (details == null) {
+            MyLogger.logLoadingOrSimulationStartEnd("Scenario could not be loaded from " + scenarioFile + ", exiting.",
+                    Constants.FATAL_FOR_LOGGING);
+            return false;
+        }
+        return writeMap(details, details.outputMap);
+    }
+
+    /**
+     * streams map of scenario to file, only one road is held in memory at a time
+     *
+     * @param details description of scenario
+     * @param mapFile file the map is written to
+     * @return true if map was written, false if details are not valid or writing failed
+     **/
+    public static boolean writeMap(ScenarioDetails details, String mapFile) {
+        if (details == null || !details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Scenario is not valid, map is not generated: " + details,
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        CarGenerator parameters = new CarGenerator(0);
+        DefaultStuffMaker.addDefaultComParameters(parameters);
+        Random random = new Random(details.seed);
+        long lanes = 0;
+        double laneKilometers = 0;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(mapFile))) {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out,
+                    StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement(RoadLoadingConstants.MAP_TAG);
+            for (int i = 0; i < details.roads; i++) {
+                RoadSpec road = RoadSpec.draw(details, random);
+                writeRoad(xml, road, i, parameters.getAllComParameters());
+                lanes += road.lanes;
+                laneKilometers += road.lanes * road.length / 1000.0;
+            }
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (IOException | XMLStreamException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error while generating map " + mapFile + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd(String.format(java.util.Locale.US, "Generated map %s: %d roads, %d " +
+                "lanes, %.1f km of lanes", mapFile, details.roads, lanes, laneKilometers), Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * builds roads of scenario in memory for car following and lane changing model in app context, roads are the same
+     * as roads loaded from map written by writeMap with the same details
+     *
+     * @param details description of scenario
+     * @return roads of scenario, null if details are not valid or models are not set
+     **/
+    public static Road[] buildRoads(ScenarioDetails details) {
+        if (details == null || !details.isValid() || AppContext.CAR_FOLLOWING_MODEL == null
+                || AppContext.LANE_CHANGING_MODEL == null) {
+            MyLogger.logLoadingOrSimulationStartEnd("Scenario is not valid or models are not set, roads are not built",
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        Random random = new Random(details.seed);
+        Road[] roads = new Road[details.roads];
+        for (int i = 0; i < roads.length; i++) {
+            roads[i] = buildRoad(RoadSpec.draw(details, random), i);
+        }
+        return roads;
+    }
+
+    /**
+     * builds one drawn road for car following model in app context, with light plans, generators and queues of its
+     * lanes
+     *
+     * @param spec drawn road
+     * @param index index of the road
+     * @return built road
+     **/
+    private static Road buildRoad(RoadSpec spec, int index) {
+        String type = AppContext.CAR_FOLLOWING_MODEL.getType();
+        String id = AppContext.CAR_FOLLOWING_MODEL.getID();
+        Road road;
+        if (type.equals(Constants.CELLULAR)) {
+            road = new CellularRoad(spec.length, spec.lanes, spec.speedLimit,
+                    AppContext.CAR_FOLLOWING_MODEL.getCellSize(), index);
+        } else {
+            road = new ContinuosRoad(spec.length, spec.lanes, spec.speedLimit, index);
+        }
+
+        for (int lane = 0; lane < spec.lanes; lane++) {
+            road.setLightPlan(lane, spec.lightPlan(lane));
+            CarGenerator generator = DefaultStuffMaker.createDefaultGenerator();
+            generator.setFlowRate(spec.flowRates[lane]);
+            if (spec.queues[lane]) {
+                generator.setQueueSize(spec.minQueueSize, spec.maxQueueSize);
+            }
+            generator.setType(type);
+            if (id.equals("nagel-schreckenberg") || id.equals("rule-184")) {
+                generator.setLengthReturnAsOne(true);
+            }
+            road.setRoadGenerator(lane, generator);
+        }
+        road.setUpQueuesIfNeeded();
+        return road;
+    }
+
+    /**
+     * writes one road to the map in the format read by RoadLoader
+     *
+     * @param xml writer of the map
+     * @param road drawn road
+     * @param index index of the road
+     * @param carParams ranges of parameters of cars of generators
+     * @throws XMLStreamException if writing fails
+     **/
+    private static void writeRoad(XMLStreamWriter xml, RoadSpec road, int index, Map<String, Parameter> carParams)
+            throws XMLStreamException {
+        xml.writeCharacters("\n");
+        xml.writeStartElement(RoadLoadingConstants.ROAD_TAG);
+        writeValue(xml, RoadLoadingConstants.ROAD_INDEX_TAG, String.valueOf(index));
+        writeValue(xml, RoadLoadingConstants.ROAD_LENGTH_TAG, String.valueOf(road.length));
+        writeValue(xml, RoadLoadingConstants.ROAD_MAX_SPEED_TAG, String.valueOf(road.speedLimit));
+        writeValue(xml, RoadLoadingConstants.NUMBER_OF_LANES_TAG, String.valueOf(road.lanes));
+        for (int lane = 0; lane < road.lanes; lane++) {
+            xml.writeStartElement(RoadLoadingConstants.ROAD_LANE_TAG);
+
+            xml.writeStartElement(RoadLoadingConstants.GENERATOR_TAG);
+            writeValue(xml, RoadLoadingConstants.FLOW_RATE_TAG, String.valueOf(road.flowRates[lane]));
+            xml.writeStartElement(RoadLoadingConstants.QUEUE_TAG);
+            writeValue(xml, RoadLoadingConstants.USE_TAG, String.valueOf(road.queues[lane]));
+            writeValue(xml, RoadLoadingConstants.MIN_VALUE_TAG, String.valueOf(road.minQueueSize));
+            writeValue(xml, RoadLoadingConstants.MAX_VALUE_TAG, String.valueOf(road.maxQueueSize));
+            xml.writeEndElement();
+            xml.writeStartElement(RoadLoadingConstants.CAR_PARAMS_TAG);
+            for (Map.Entry<String, Parameter> parameter : carParams.entrySet()) {
+                xml.writeStartElement(parameter.getKey());
+                writeValue(xml, RoadLoadingConstants.NAME_TAG, parameter.getValue().name);
+                writeValue(xml, RoadLoadingConstants.MIN_VALUE_TAG, String.valueOf(parameter.getValue().minValue));
+                writeValue(xml, RoadLoadingConstants.MAX_VALUE_TAG, String.valueOf(parameter.getValue().maxValue));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            LightPlan plan = road.lightPlan(lane);
+            xml.writeStartElement(RoadLoadingConstants.LIGHT_PLAN_TAG);
+            writeValue(xml, RoadLoadingConstants.CYCLE_DURATION_TAG, String.valueOf(plan.getCycleTime()));
+            writeValue(xml, RoadLoadingConstants.TIME_OF_SWITCH_TAG, String.valueOf(plan.getTimeOfSwitch()));
+            writeValue(xml, RoadLoadingConstants.START_WITH_GREEN_TAG, String.valueOf(plan.isBeginsOnGreen()));
+            if (plan.getOffset() != 0) {
+                writeValue(xml, RoadLoadingConstants.OFFSET_TAG, String.valueOf(plan.getOffset()));
+            }
+            xml.writeEndElement();
+
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * writes element with text
+     *
+     * @param xml writer of the map
+     * @param tag tag of the element
+     * @param value text of the element
+     * @throws XMLStreamException if writing fails
+     **/
+    private static void writeValue(XMLStreamWriter xml, String tag, String value) throws XMLStreamException {
+        xml.writeStartElement(tag);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    /********************************************
+     * One drawn road, lengths and speed limits are whole numbers so map file stays compact
+     ********************************************/
+    private static class RoadSpec {
+
+        /** length of the road in meters **/
+        private double length;
+
+        /** speed limit of the road in meters per second **/
+        private double speedLimit;
+
+        /** number of lanes **/
+        private int lanes;
+
+        /** flow rates of lanes **/
+        private double[] flowRates;
+
+        /** whether lanes generate to queue **/
+        private boolean[] queues;
+
+        /** minimal size of queues **/
+        private int minQueueSize;
+
+        /** maximal size of queues **/
+        private int maxQueueSize;
+
+        /** cycles of lights of lanes, 0 for lane without light **/
+        private int[] cycles;
+
+        /** times of switch of lights of lanes **/
+        private int[] switches;
+
+        /** offsets of lights of lanes **/
+        private int[] offsets;
+
+        /**
+         * draws next road of scenario, values are drawn in fixed order, so the same seed gives the same roads
+         *
+         * @param details description of scenario
+         * @param random random generator of scenario
+         * @return drawn road
+         **/
+        private static RoadSpec draw(ScenarioDetails details, Random random) {
+            RoadSpec road = new RoadSpec();
+            road.length = Math.max(1, Math.round(uniform(random, details.minLength, details.maxLength)));
+            road.speedLimit = Math.max(1, Math.round(uniform(random, details.minSpeedLimit, details.maxSpeedLimit)));
+            road.lanes = details.minLanes + random.nextInt(details.maxLanes - details.minLanes + 1);
+            road.minQueueSize = details.minQueueSize;
+            road.maxQueueSize = details.maxQueueSize;
+            road.flowRates = new double[road.lanes];
+            road.queues = new boolean[road.lanes];
+            road.cycles = new int[road.lanes];
+            road.switches = new int[road.lanes];
+            road.offsets = new int[road.lanes];
+            for (int lane = 0; lane < road.lanes; lane++) {
+                road.flowRates[lane] = Math.round(uniform(random, details.minFlowRate, details.maxFlowRate) * 1000)
+                        / 1000.0;
+                road.queues[lane] = random.nextDouble() < details.queueShare;
+                if (random.nextDouble() < details.lightShare) {
+                    int cycle = details.minCycle + random.nextInt(details.maxCycle - details.minCycle + 1);
+                    double split = uniform(random, details.minSplit, details.maxSplit);
+                    road.cycles[lane] = cycle;
+                    road.switches[lane] = Math.max(1, Math.min(cycle - 1, (int) Math.round(cycle * split)));
+                    road.offsets[lane] = random.nextInt(cycle);
+                }
+            }
+            return road;
+        }
+
+        /**
+         * creates light plan of lane, lane without light gets plan that is always green
+         *
+         * @param lane lane of the road
+         * @return light plan of the lane
+         **/
+        private LightPlan lightPlan(int lane) {
+            if (this.cycles[lane] == 0) {
+                return new LightPlan(ALWAYS_GREEN_CYCLE, ALWAYS_GREEN_CYCLE, true);
+            }
+            LightPlan plan = new LightPlan(this.cycles[lane], this.switches[lane], true);
+            plan.setOffset(this.offsets[lane]);
+            return plan;
+        }
+
+        /**
+         * draws value uniformly from range
+         *
+         * @param random random generator of scenario
+         * @param min minimum of range
+         * @param max maximum of range
+         * @return drawn value
+         **/
+        private static double uniform(Random random, double min, double max) {
+            return min + (max - min) * random.nextDouble();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package core.utils;
+
+import core.utils.constants.ConfigConstants;
+import core.utils.constants.Constants;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/************************************
+ * Class to hold details about automatic detection of steady state of the simulation, such as required relative
+ * half-width of 95% confidence interval of the measured values, size of batches for batch means, minimal number of
+ * batches and number of steps that are skipped before detection starts, detection is off when half-width is not
+ * specified.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class SteadyStateDetails {
+
+    /** Required half-width of confidence interval relative to the mean, 0 means steady state is not detected **/
+    public double relativeHalfWidth = 0.0;
+
+    /** Number of steps in one batch at the start of detection, batches are merged when there is too many of them **/
+    public int batchSize = 100;
+
+    /** Minimal number of batches before the run can be ended **/
+    public int minBatches = 10;
+
+    /** Number of steps from start of measuring that are not used for detection (filling of the roads) **/
+    public int warmUpSteps = 0;
+
+    /**
+     * Checks if steady state should be detected (half-width has to be specified).
+     *
+     * @return true if steady state is detected, false otherwise
+     **/
+    public boolean isDetecting() {
+        return this.relativeHalfWidth > 0.0;
+    }
+
+    /**
+     * Changes settings of steady state detection based on the provided XML element, tags that are missing keep their
+     * default value, invalid values (not numbers, negative values) are ignored and logged.
+     *
+     * @param steadyStateElement XML Element containing steady state configuration
+     **/
+    public void changeSteadyStateDetails(Element steadyStateElement) {
+        NodeList childNodes = steadyStateElement.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            if (!(childNodes.item(i) instanceof Element childElement)) {
+                continue;
+            }
+
+            String value = childElement.getTextContent().trim();
+            try {
+                switch (childElement.getTagName()) {
+                    case ConfigConstants.STEADY_STATE_HALF_WIDTH_TAG -> this.relativeHalfWidth = Math.max(0.0,
+                            Double.parseDouble(value));
+                    case ConfigConstants.STEADY_STATE_BATCH_SIZE_TAG -> this.batchSize = Math.max(1,
+                            Integer.parseInt(value));
+                    case ConfigConstants.STEADY_STATE_MIN_BATCHES_TAG -> this.minBatches = Math.max(2,
+                            Integer.parseInt(value));
+                    case ConfigConstants.STEADY_STATE_WARM_UP_TAG -> this.warmUpSteps = Math.max(0,
+                            Integer.parseInt(value));
+                    default -> MyLogger.logLoadingOrSimulationStartEnd("Unknown steady state tag: "
+                            + childElement.getTagName(), Constants.WARN_FOR_LOGGING);
+                }
+            } catch (NumberFormatException e) {
+                MyLogger.logLoadingOrSimulationStartEnd("Invalid value '" + value + "' of steady state tag "
+                        + childElement.getTagName() + ", keeping default", Constants.WARN_FOR_LOGGING);
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the SteadyStateDetails object.
+     *
+     * @return a string representation of the SteadyStateDetails object
+     **/
+    @Override
+    public String toString() {
+        return "SteadyStateDetails{" +
+                "relativeHalfWidth=" + relativeHalfWidth +
+                ", batchSize=" + batchSize +
+                ", minBatches=" + minBatches +
+                ", warmUpSteps=" + warmUpSteps +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/************************************
+ * Class to hold details about parameter sweep, lists of values of every dimension of the grid (car following and
+ * lane changing models, flow rates of generators, numbers of lanes and speed limits of roads, seeds), number of runs
+ * at the same time, number of repeated runs of failed cell and file of consolidated results. Empty list means value
+ * from config or map is used in every cell.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class SweepDetails {
+
+    /** File of consolidated results table, cells already in the file are not run again **/
+    public String resultsFile = "sweep_results.csv";
+
+    /** Number of runs at the same time, 0 means number of processors **/
+    public int workers = 0;
+
+    /** Number of repeated runs of cell whose run failed **/
+    public int retries = 1;
+
+    /** Ids of car following models **/
+    public List<String> carFollowingModels = new ArrayList<>();
+
+    /** Ids of lane changing models **/
+    public List<String> laneChangingModels = new ArrayList<>();
+
+    /** Flow rates of all generators in cars per second **/
+    public List<Double> flowRates = new ArrayList<>();
+
+    /** Numbers of lanes of all roads **/
+    public List<Integer> lanes = new ArrayList<>();
+
+    /** Speed limits of all roads **/
+    public List<Double> speedLimits = new ArrayList<>();
+
+    /** Seeds of random generator **/
+    public List<Long> seeds = new ArrayList<>();
+
+    /**
+     * Checks if values of sweep are valid (positive numbers of lanes and speed limits, non negative flow rates).
+     *
+     * @return true if sweep can be run, false otherwise
+     **/
+    public boolean isValid() {
+        if (this.resultsFile == null || this.resultsFile.isEmpty() || this.retries < 0) {
+            return false;
+        }
+        for (double flowRate : this.flowRates) {
+            if (!(flowRate >= 0.0)) {
+                return false;
+            }
+        }
+        for (int lane : this.lanes) {
+            if (lane < 1) {
+                return false;
+            }
+        }
+        for (double speedLimit : this.speedLimits) {
+            if (!(speedLimit > 0.0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a string representation of the SweepDetails object.
+     *
+     * @return a string representation of the SweepDetails object
+     **/
+    @Override
+    public String toString() {
+        return "SweepDetails{" +
+                "resultsFile=" + resultsFile +
+                ", workers=" + workers +
+                ", retries=" + retries +
+                ", carFollowingModels=" + carFollowingModels +
+                ", laneChangingModels=" + laneChangingModels +
+                ", flowRates=" + flowRates +
+                ", lanes=" + lanes +
+                ", speedLimits=" + speedLimits +
+                ", seeds=" + seeds +
+                '}';
+    }
+}
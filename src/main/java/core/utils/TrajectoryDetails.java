@@ -0,0 +1,120 @@
+package core.utils;
+
+import core.utils.constants.ConfigConstants;
+import core.utils.constants.Constants;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/************************************
+ * Class to hold details about per vehicle trajectory recording, such as file where trajectories are written, format of
+ * the records, sampling of steps and vehicles and spatial filter, recording is off when file is not specified.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class TrajectoryDetails {
+
+    /** binary format of trajectory file, fixed width records **/
+    public static final String FORMAT_BINARY = "binary";
+
+    /** newline delimited json format of trajectory file, one record per line **/
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    /** default number of records held in memory before they are written to file **/
+    public static final int DEFAULT_BUFFER_RECORDS = 8192;
+
+    /** File where trajectories are written, null or empty means trajectories are not recorded **/
+    public String trajectoryFile = null;
+
+    /** Format of the records, FORMAT_BINARY or FORMAT_NDJSON **/
+    public String format = FORMAT_BINARY;
+
+    /** Whether the file is compressed with gzip **/
+    public boolean gzip = false;
+
+    /** Only every n-th step is recorded **/
+    public int everyNthStep = 1;
+
+    /** Only every n-th car (by id) is recorded **/
+    public int everyNthCar = 1;
+
+    /** Cars with position lower than this are not recorded (in units of road, meters or cells) **/
+    public double minX = Double.NEGATIVE_INFINITY;
+
+    /** Cars with position higher than this are not recorded (in units of road, meters or cells) **/
+    public double maxX = Double.POSITIVE_INFINITY;
+
+    /** Number of records held in memory before writing them to file **/
+    public int bufferRecords = DEFAULT_BUFFER_RECORDS;
+
+    /**
+     * Checks if trajectories should be recorded (null or empty trajectory file means they should not be).
+     *
+     * @return true if trajectory file is specified, false otherwise
+     **/
+    public boolean isRecording() {
+        return this.trajectoryFile != null && !this.trajectoryFile.isEmpty();
+    }
+
+    /**
+     * Changes settings of trajectory recording based on the provided XML element, tags that are missing keep their
+     * default value, invalid values (not numbers, not positive sampling) are ignored and logged.
+     *
+     * @param trajectoryElement XML Element containing trajectory configuration
+     **/
+    public void changeTrajectoryDetails(Element trajectoryElement) {
+        NodeList childNodes = trajectoryElement.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            if (!(childNodes.item(i) instanceof Element childElement)) {
+                continue;
+            }
+
+            String value = childElement.getTextContent().trim();
+            try {
+                switch (childElement.getTagName()) {
+                    case ConfigConstants.FILE_TAG -> this.trajectoryFile = value;
+                    case ConfigConstants.TRAJECTORY_FORMAT_TAG -> {
+                        if (value.equalsIgnoreCase(FORMAT_NDJSON)) {
+                            this.format = FORMAT_NDJSON;
+                        } else {
+                            this.format = FORMAT_BINARY;
+                        }
+                    }
+                    case ConfigConstants.TRAJECTORY_GZIP_TAG -> this.gzip = Boolean.parseBoolean(value);
+                    case ConfigConstants.TRAJECTORY_EVERY_NTH_STEP_TAG -> this.everyNthStep = Math.max(1,
+                            Integer.parseInt(value));
+                    case ConfigConstants.TRAJECTORY_EVERY_NTH_CAR_TAG -> this.everyNthCar = Math.max(1,
+                            Integer.parseInt(value));
+                    case ConfigConstants.TRAJECTORY_MIN_X_TAG -> this.minX = Double.parseDouble(value);
+                    case ConfigConstants.TRAJECTORY_MAX_X_TAG -> this.maxX = Double.parseDouble(value);
+                    case ConfigConstants.TRAJECTORY_BUFFER_RECORDS_TAG -> this.bufferRecords = Math.max(1,
+                            Integer.parseInt(value));
+                    default -> MyLogger.logLoadingOrSimulationStartEnd("Unknown trajectory tag: "
+                            + childElement.getTagName(), Constants.WARN_FOR_LOGGING);
+                }
+            } catch (NumberFormatException e) {
+                MyLogger.logLoadingOrSimulationStartEnd("Invalid value '" + value + "' of trajectory tag "
+                        + childElement.getTagName() + ", keeping default", Constants.WARN_FOR_LOGGING);
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the TrajectoryDetails object.
+     *
+     * @return a string representation of the TrajectoryDetails object
+     **/
+    @Override
+    public String toString() {
+        return "TrajectoryDetails{" +
+                "trajectoryFile='" + trajectoryFile + '\'' +
+                ", format=" + format +
+                ", gzip=" + gzip +
+                ", everyNthStep=" + everyNthStep +
+                ", everyNthCar=" + everyNthCar +
+                ", minX=" + minX +
+                ", maxX=" + maxX +
+                ", bufferRecords=" + bufferRecords +
+                '}';
+    }
+}
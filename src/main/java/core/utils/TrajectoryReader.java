@@ -0,0 +1,355 @@
+package core.utils;
+
+import core.model.CarParams;
+import core.model.Road;
+import core.utils.constants.Constants;
+import core.utils.constants.RequestConstants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/************************************
+ * Class for reading binary trajectory files written by TrajectoryRecorder, used for replaying recorded run without
+ * computing it again. When opened, the file is scanned once and index of frames (one frame = all records of one
+ * recorded step) is built, index holds step number, offset in file and number of records of every frame, so any frame
+ * can be read directly without going through the file. Only uncompressed binary files can be read, because gzip and
+ * ndjson do not allow random access.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class TrajectoryReader implements AutoCloseable {
+
+    /** number of records read at once when building the index **/
+    private static final int INDEX_CHUNK_RECORDS = 8192;
+
+    /** starting capacity of index arrays **/
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    /** magic bytes of gzip file, used to give better error message **/
+    private static final int GZIP_MAGIC = 0x1f8b;
+
+    /** channel of the opened trajectory file **/
+    private final FileChannel channel;
+
+    /** step number of every frame **/
+    private int[] frameSteps = new int[INITIAL_INDEX_CAPACITY];
+
+    /** offset of first record of every frame in file **/
+    private long[] frameOffsets = new long[INITIAL_INDEX_CAPACITY];
+
+    /** number of records of every frame **/
+    private int[] frameRecords = new int[INITIAL_INDEX_CAPACITY];
+
+    /** number of frames in file **/
+    private int numberOfFrames = 0;
+
+    /** whether steps of frames are increasing, so binary search can be used when seeking by step **/
+    private boolean stepsIncreasing = true;
+
+    /**
+     * private constructor, use open method
+     *
+     * @param channel channel of the trajectory file
+     **/
+    private TrajectoryReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * opens trajectory file and builds index of its frames
+     *
+     * @param file path to binary trajectory file
+     * @return reader of the file, or null if the file could not be opened or is not a binary trajectory file
+     **/
+    public static TrajectoryReader open(String file) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(Path.of(file), StandardOpenOption.READ);
+        } catch (IOException | RuntimeException e) {
+            MyLogger.log("Could not open trajectory file " + file + ": " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        TrajectoryReader reader = new TrajectoryReader(channel);
+        if (!reader.readHeader(file) || !reader.buildIndex()) {
+            reader.close();
+            return null;
+        }
+
+        MyLogger.log("Trajectory file " + file + " opened, frames: " + reader.numberOfFrames,
+                Constants.INFO_FOR_LOGGING);
+        return reader;
+    }
+
+    /**
+     * reads and checks header of the file
+     *
+     * @param file name of the file, used for logging
+     * @return true if header is valid, false otherwise
+     **/
+    private boolean readHeader(String file) {
+        ByteBuffer header = ByteBuffer.allocate(TrajectoryRecorder.HEADER_SIZE);
+        try {
+            this.readFully(header, 0);
+        } catch (IOException e) {
+            MyLogger.log("Trajectory file " + file + " is too short or unreadable: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        int magic = header.getInt(0);
+        if (magic != TrajectoryRecorder.MAGIC) {
+            if ((magic >>> 16) == GZIP_MAGIC) {
+                MyLogger.log("Trajectory file " + file + " is compressed, only uncompressed binary files can be " +
+                        "replayed", Constants.ERROR_FOR_LOGGING);
+            } else {
+                MyLogger.log("File " + file + " is not a binary trajectory file", Constants.ERROR_FOR_LOGGING);
+            }
+            return false;
+        }
+
+        if (header.getInt(Integer.BYTES) != TrajectoryRecorder.RECORD_SIZE) {
+            MyLogger.log("Trajectory file " + file + " has unsupported record size " + header.getInt(Integer.BYTES),
+                    Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * scans the file and builds index of frames, new frame starts every time step number of record changes
+     *
+     * @return true if index was built, false if reading failed
+     **/
+    private boolean buildIndex() {
+        ByteBuffer chunk = ByteBuffer.allocate(INDEX_CHUNK_RECORDS * TrajectoryRecorder.RECORD_SIZE);
+        try {
+            long size = this.channel.size();
+            long position = TrajectoryRecorder.HEADER_SIZE;
+            int lastStep = 0;
+            while (position + TrajectoryRecorder.RECORD_SIZE <= size) {
+                chunk.clear();
+                long remainingRecords = (size - position) / TrajectoryRecorder.RECORD_SIZE;
+                chunk.limit((int) Math.min(INDEX_CHUNK_RECORDS, remainingRecords) * TrajectoryRecorder.RECORD_SIZE);
+                this.readFully(chunk, position);
+
+                for (int i = 0; i < chunk.limit(); i += TrajectoryRecorder.RECORD_SIZE) {
+                    int step = chunk.getInt(i);
+                    if (this.numberOfFrames == 0 || step != lastStep) {
+                        this.addFrame(step, position + i);
+                        lastStep = step;
+                    }
+                    this.frameRecords[this.numberOfFrames - 1]++;
+                }
+                position += chunk.limit();
+            }
+        } catch (IOException e) {
+            MyLogger.log("Error reading trajectory file: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * adds new frame to index, arrays of index are grown if needed
+     *
+     * @param step step number of the frame
+     * @param offset offset of first record of the frame
+     **/
+    private void addFrame(int step, long offset) {
+        if (this.numberOfFrames == this.frameSteps.length) {
+            int newCapacity = this.frameSteps.length * 2;
+            this.frameSteps = Arrays.copyOf(this.frameSteps, newCapacity);
+            this.frameOffsets = Arrays.copyOf(this.frameOffsets, newCapacity);
+            this.frameRecords = Arrays.copyOf(this.frameRecords, newCapacity);
+        }
+
+        if (this.numberOfFrames > 0 && step <= this.frameSteps[this.numberOfFrames - 1]) {
+            this.stepsIncreasing = false;
+        }
+
+        this.frameSteps[this.numberOfFrames] = step;
+        this.frameOffsets[this.numberOfFrames] = offset;
+        this.frameRecords[this.numberOfFrames] = 0;
+        this.numberOfFrames++;
+    }
+
+    /**
+     * reads from channel until buffer is full
+     *
+     * @param buffer buffer to fill
+     * @param position position in file to read from
+     * @throws IOException if end of file is reached before buffer is full or reading fails
+     **/
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("unexpected end of file");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * getter for number of frames in the file
+     *
+     * @return number of frames
+     **/
+    public int getNumberOfFrames() {
+        return this.numberOfFrames;
+    }
+
+    /**
+     * getter for step number of given frame
+     *
+     * @param frame index of the frame
+     * @return step number, or Constants.NO_RECORD_YET if frame does not exist
+     **/
+    public int getStepOfFrame(int frame) {
+        if (frame < 0 || frame >= this.numberOfFrames) {
+            return Constants.NO_RECORD_YET;
+        }
+        return this.frameSteps[frame];
+    }
+
+    /**
+     * getter for number of records in given frame
+     *
+     * @param frame index of the frame
+     * @return number of records, 0 if frame does not exist
+     **/
+    public int getNumberOfRecordsInFrame(int frame) {
+        if (frame < 0 || frame >= this.numberOfFrames) {
+            return 0;
+        }
+        return this.frameRecords[frame];
+    }
+
+    /**
+     * finds first frame with step number equal or higher than given step, used for seeking to a step
+     *
+     * @param step step to find
+     * @return index of the frame, last frame if step is after end of recording
+     **/
+    public int findFrameOfStep(int step) {
+        if (this.numberOfFrames == 0) {
+            return 0;
+        }
+
+        if (this.stepsIncreasing) {
+            int index = Arrays.binarySearch(this.frameSteps, 0, this.numberOfFrames, step);
+            if (index < 0) {
+                index = -index - 1; // insertion point
+            }
+            return Math.min(index, this.numberOfFrames - 1);
+        }
+
+        for (int i = 0; i < this.numberOfFrames; i++) {
+            if (this.frameSteps[i] >= step) {
+                return i;
+            }
+        }
+        return this.numberOfFrames - 1;
+    }
+
+    /**
+     * reads all records of given frame as cars, road ids of the cars are added to roadIds in the same order
+     *
+     * @param frame index of the frame
+     * @param roadIds list to which road ids of the read cars are added, can be null
+     * @return list of cars in the frame, or null if frame does not exist or reading failed
+     **/
+    public ArrayList<CarParams> readFrame(int frame, ArrayList<Integer> roadIds) {
+        if (frame < 0 || frame >= this.numberOfFrames) {
+            return null;
+        }
+
+        int records = this.frameRecords[frame];
+        ByteBuffer buffer = ByteBuffer.allocate(records * TrajectoryRecorder.RECORD_SIZE);
+        try {
+            this.readFully(buffer, this.frameOffsets[frame]);
+        } catch (IOException e) {
+            MyLogger.log("Error reading frame " + frame + " of trajectory file: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        buffer.flip();
+
+        ArrayList<CarParams> cars = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            buffer.getInt(); // step, same for the whole frame
+            int roadId = buffer.getInt();
+            CarParams car = new CarParams();
+            car.id = buffer.getInt();
+            car.lane = buffer.getInt();
+            car.xPosition = buffer.getDouble();
+            car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, buffer.getDouble());
+            car.setParameter(RequestConstants.LENGTH_REQUEST, buffer.getDouble());
+            car.color = Constants.CAR_COLORS[Math.floorMod(car.id, Constants.CAR_COLORS.length)];
+            cars.add(car);
+            if (roadIds != null) {
+                roadIds.add(roadId);
+            }
+        }
+
+        return cars;
+    }
+
+    /**
+     * replaces content of roads with cars of given frame, roads are matched by their id, cars of roads that are not
+     * in the array are ignored, cars are grouped by road first, so every car is visited once
+     *
+     * @param frame index of the frame
+     * @param roads roads to fill
+     * @return true if frame was loaded, false otherwise
+     **/
+    public boolean loadFrameIntoRoads(int frame, Road[] roads) {
+        ArrayList<Integer> roadIds = new ArrayList<>();
+        ArrayList<CarParams> cars = this.readFrame(frame, roadIds);
+        if (cars == null || roads == null) {
+            return false;
+        }
+
+        HashMap<Integer, ArrayList<CarParams>> carsOfRoads = new HashMap<>();
+        for (int i = 0; i < cars.size(); i++) {
+            carsOfRoads.computeIfAbsent(roadIds.get(i), id -> new ArrayList<>()).add(cars.get(i));
+        }
+
+        for (Road road : roads) {
+            ArrayList<CarParams> carsOfRoad = carsOfRoads.get(road.getId());
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized (road) { // renderer is drawing in different thread
+                road.removeAllCars();
+                if (carsOfRoad != null) {
+                    for (CarParams car : carsOfRoad) {
+                        road.placeCarAt(car, car.xPosition, car.lane);
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * closes the trajectory file
+     **/
+    @Override
+    public void close() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            MyLogger.log("Error closing trajectory file: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+        }
+    }
+}
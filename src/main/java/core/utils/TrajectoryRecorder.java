@@ -0,0 +1,279 @@
+package core.utils;
+
+import core.model.CarParams;
+import core.utils.constants.Constants;
+import core.utils.constants.RequestConstants;
+import core.utils.events.ResultsFlushEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/************************************
+ * Singleton class for recording per vehicle trajectories (step, road, car id, lane, position, speed, length) into
+ * file. Records
+ * are not kept in memory for the whole run like in ResultsRecorder, they are put into one fixed size buffer which is
+ * written to file when full, so memory used does not grow with duration of simulation. Roads ask static
+ * isRecordingStep() before touching the recorder, so when recording is off the cost is one check of static flag per
+ * car.
+ *
+ * Binary format: header (int MAGIC, int RECORD_SIZE) followed by fixed width big endian records
+ * (int step, int road id, int car id, int lane, double x, double speed, double length). Ndjson format: one json object per line with
+ * the same fields. Both can be compressed with gzip.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+public class TrajectoryRecorder {
+
+    /** magic number at start of binary trajectory file ("TRJ1") **/
+    public static final int MAGIC = 0x54524A31;
+
+    /** size of one binary record in bytes **/
+    public static final int RECORD_SIZE = 4 * Integer.BYTES + 3 * Double.BYTES;
+
+    /** size of binary file header in bytes **/
+    public static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    /** upper estimate of length of one ndjson record in bytes, used for sizing the buffer **/
+    private static final int MAX_NDJSON_RECORD_SIZE = 160;
+
+    /** singleton instance **/
+    private static TrajectoryRecorder instance;
+
+    /** flag read by roads in their update loops, true only if recorder is open and current step is sampled **/
+    private static boolean recordingStep = false;
+
+    /** settings of the recording, null if recorder is not open **/
+    private TrajectoryDetails details = null;
+
+    /** stream to trajectory file, null if recorder is not open **/
+    private OutputStream out = null;
+
+    /** buffer holding records before they are written to file **/
+    private ByteBuffer buffer = null;
+
+    /** step that is being currently recorded **/
+    private int currentStep = 0;
+
+    /** number of records written since recorder was opened **/
+    private long recordsWritten = 0;
+
+    /**
+     * private constructor for singleton
+     **/
+    private TrajectoryRecorder() {
+    }
+
+    /**
+     * method to get singleton instance of trajectory recorder
+     *
+     * @return instance of trajectory recorder
+     **/
+    public static TrajectoryRecorder getTrajectoryRecorder() {
+        if (instance == null) {
+            instance = new TrajectoryRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * method that roads call before recording car, it is static and only reads flag so it costs nearly nothing when
+     * recording is off
+     *
+     * @return true if cars in current step should be passed to recordCar, false otherwise
+     **/
+    public static boolean isRecordingStep() {
+        return recordingStep;
+    }
+
+    /**
+     * opens trajectory file described by details, if recorder was already open, previous file is closed first
+     *
+     * @param details settings of recording
+     * @return true if file was opened, false if details are not recording or file could not be opened
+     **/
+    public boolean open(TrajectoryDetails details) {
+        this.close();
+
+        if (details == null || !details.isRecording()) {
+            return false;
+        }
+
+        try {
+            OutputStream stream = new BufferedOutputStream(new FileOutputStream(details.trajectoryFile));
+            if (details.gzip) {
+                stream = new GZIPOutputStream(stream);
+            }
+            this.out = stream;
+        } catch (IOException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not open trajectory file " + details.trajectoryFile + ": "
+                    + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            this.out = null;
+            return false;
+        }
+
+        this.details = details;
+        int recordSize = this.isBinary() ? RECORD_SIZE : MAX_NDJSON_RECORD_SIZE;
+        this.buffer = ByteBuffer.allocate(Math.max(HEADER_SIZE, details.bufferRecords * recordSize));
+        this.recordsWritten = 0;
+        this.currentStep = 0;
+
+        if (this.isBinary()) {
+            this.buffer.putInt(MAGIC);
+            this.buffer.putInt(RECORD_SIZE);
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("Recording trajectories to " + details.trajectoryFile + " ("
+                + details.format + (details.gzip ? ", gzip" : "") + ")", Constants.INFO_FOR_LOGGING);
+        return true;
+    }
+
+    /**
+     * method called by simulation at start of each step, decides if the step is sampled
+     *
+     * @param step number of step that is about to be computed
+     **/
+    public void startStep(int step) {
+        this.currentStep = step;
+        recordingStep = this.out != null && step % this.details.everyNthStep == 0;
+    }
+
+    /**
+     * records car after its update in current step, cars not matching the vehicle sampling or the spatial filter are
+     * skipped, when buffer is full it is written to file
+     *
+     * @param roadId id of the road car is on
+     * @param car car to record
+     **/
+    public void recordCar(int roadId, CarParams car) {
+        if (this.out == null || car == null) {
+            return;
+        }
+
+        if (car.id % this.details.everyNthCar != 0 || car.xPosition < this.details.minX
+                || car.xPosition > this.details.maxX) {
+            return;
+        }
+
+        double speed = car.getParameter(RequestConstants.CURRENT_SPEED_REQUEST);
+        double length = car.getParameter(RequestConstants.LENGTH_REQUEST);
+        if (this.isBinary()) {
+            if (this.buffer.remaining() < RECORD_SIZE && !this.flush()) {
+                return;
+            }
+            this.buffer.putInt(this.currentStep);
+            this.buffer.putInt(roadId);
+            this.buffer.putInt(car.id);
+            this.buffer.putInt(car.lane);
+            this.buffer.putDouble(car.xPosition);
+            this.buffer.putDouble(speed);
+            this.buffer.putDouble(length);
+        } else {
+            String line = "{\"step\":" + this.currentStep + ",\"road\":" + roadId + ",\"id\":" + car.id + ",\"lane\":"
+                    + car.lane + ",\"x\":" + car.xPosition + ",\"speed\":" + speed + ",\"length\":" + length + "}\n";
+            byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+            if (this.buffer.remaining() < bytes.length && !this.flush()) {
+                return;
+            }
+            this.buffer.put(bytes);
+        }
+        this.recordsWritten++;
+    }
+
+    /**
+     * writes content of the buffer to file, if writing fails recording is stopped
+     *
+     * @return true if buffer was written (or there was nothing to write), false if recorder is closed
+     **/
+    public boolean flush() {
+        if (this.out == null) {
+            return false;
+        }
+        if (this.buffer.position() == 0) {
+            return true;
+        }
+
+        ResultsFlushEvent event = new ResultsFlushEvent();
+        event.begin();
+        try {
+            this.out.write(this.buffer.array(), 0, this.buffer.position());
+        } catch (IOException e) {
+            MyLogger.log("Error writing trajectories, recording stopped: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            this.closeQuietly();
+            return false;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.output = ResultsFlushEvent.TRAJECTORY;
+            event.file = this.details.trajectoryFile;
+            event.bytes = this.buffer.position();
+            event.commit();
+        }
+        this.buffer.clear();
+        return true;
+    }
+
+    /**
+     * writes rest of the buffer and closes the trajectory file, does nothing if recorder is not open
+     **/
+    public void close() {
+        if (this.out == null) {
+            return;
+        }
+
+        if (!this.flush()) { // flush failed and already closed the stream
+            return;
+        }
+
+        MyLogger.logLoadingOrSimulationStartEnd("Trajectory recording finished, records written: " + this.recordsWritten,
+                Constants.INFO_FOR_LOGGING);
+        this.closeQuietly();
+    }
+
+    /**
+     * closes stream without writing the buffer and marks recorder as closed
+     **/
+    private void closeQuietly() {
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            MyLogger.log("Error closing trajectory file: " + e.getMessage(), Constants.ERROR_FOR_LOGGING);
+        }
+        this.out = null;
+        this.buffer = null;
+        recordingStep = false;
+    }
+
+    /**
+     * checks if the recorder is writing in binary format
+     *
+     * @return true if format is binary, false if ndjson
+     **/
+    private boolean isBinary() {
+        return !TrajectoryDetails.FORMAT_NDJSON.equals(this.details.format);
+    }
+
+    /**
+     * checks if the trajectory file is open
+     *
+     * @return true if recorder is open, false otherwise
+     **/
+    public boolean isOpen() {
+        return this.out != null;
+    }
+
+    /**
+     * getter for number of records recorded since recorder was opened
+     *
+     * @return number of records
+     **/
+    public long getRecordsWritten() {
+        return this.recordsWritten;
+    }
+}
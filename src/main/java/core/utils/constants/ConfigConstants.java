@@ -38,6 +38,18 @@ public class ConfigConstants {
     /** tag for debug mode in configuration file **/
     public static final String DEBUG_TAG = "debug";
 
+    /** tag for reusing cars that left the road in configuration file **/
+    public static final String CAR_POOLING_TAG = "carPooling";
+
+    /** tag for own random streams of generators (common random numbers) in configuration file **/
+    public static final String COMMON_RANDOM_NUMBERS_TAG = "commonRandomNumbers";
+
+    /** tag for timing of phases of steps (metrics registry) in configuration file **/
+    public static final String STEP_METRICS_TAG = "stepMetrics";
+
+    /** tag for file of hashes of states of roads after every step in configuration file **/
+    public static final String STATE_HASH_FILE_TAG = "stateHashFile";
+
     /** tag for output section in configuration file **/
     public static final String OUTPUT_TAG = "output";
 
@@ -63,6 +75,63 @@ public class ConfigConstants {
     public static final String SEED_TAG = "seed";
 
 
+    // trajectory recording constants
+
+    /** tag for trajectory recording section in configuration file **/
+    public static final String TRAJECTORY_TAG = "trajectory";
+
+    /** tag for format of trajectory file (binary/ndjson) in configuration file **/
+    public static final String TRAJECTORY_FORMAT_TAG = "format";
+
+    /** tag for gzip compression of trajectory file in configuration file **/
+    public static final String TRAJECTORY_GZIP_TAG = "gzip";
+
+    /** tag for recording only every n-th step in configuration file **/
+    public static final String TRAJECTORY_EVERY_NTH_STEP_TAG = "everyNthStep";
+
+    /** tag for recording only every n-th car in configuration file **/
+    public static final String TRAJECTORY_EVERY_NTH_CAR_TAG = "everyNthCar";
+
+    /** tag for minimal recorded position in configuration file **/
+    public static final String TRAJECTORY_MIN_X_TAG = "minX";
+
+    /** tag for maximal recorded position in configuration file **/
+    public static final String TRAJECTORY_MAX_X_TAG = "maxX";
+
+    /** tag for number of records buffered before writing in configuration file **/
+    public static final String TRAJECTORY_BUFFER_RECORDS_TAG = "bufferRecords";
+
+
+    // checkpoint constants
+
+    /** tag for checkpoint section in configuration file **/
+    public static final String CHECKPOINT_TAG = "checkpoint";
+
+    /** tag for writing checkpoint every n steps in configuration file **/
+    public static final String CHECKPOINT_EVERY_N_STEPS_TAG = "everyNSteps";
+
+    /** tag for writing checkpoint every n seconds of wall clock time in configuration file **/
+    public static final String CHECKPOINT_EVERY_N_SECONDS_TAG = "everyNSeconds";
+
+
+    // steady state constants
+
+    /** tag for steady state detection section in configuration file **/
+    public static final String STEADY_STATE_TAG = "steadyState";
+
+    /** tag for required relative half-width of confidence interval in configuration file **/
+    public static final String STEADY_STATE_HALF_WIDTH_TAG = "relativeHalfWidth";
+
+    /** tag for number of steps in one batch in configuration file **/
+    public static final String STEADY_STATE_BATCH_SIZE_TAG = "batchSize";
+
+    /** tag for minimal number of batches in configuration file **/
+    public static final String STEADY_STATE_MIN_BATCHES_TAG = "minBatches";
+
+    /** tag for number of steps skipped before steady state detection starts in configuration file **/
+    public static final String STEADY_STATE_WARM_UP_TAG = "warmUpSteps";
+
+
     // logging constants
 
     /** tag for logging section in configuration file **/
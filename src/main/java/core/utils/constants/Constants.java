@@ -150,6 +150,54 @@ public class Constants {
     /** prefix for help parameter in input parameters, used for showing help message in console **/
     public static final String HELP_PARAMETER_PREFIX = "--help";
 
+    /** prefix for checkpoint file parameter in input parameters, used for resuming simulation from checkpoint **/
+    public static final String RESUME_PARAMETER_PREFIX = "--resume=";
+
+    /** prefix for snapshot file parameter in input parameters, state at the end of the run is written to this file **/
+    public static final String SNAPSHOT_PARAMETER_PREFIX = "--snapshot=";
+
+    /** prefix for warm start parameter in input parameters, simulation starts from state in snapshot file **/
+    public static final String WARM_START_PARAMETER_PREFIX = "--warm=";
+
+    /** prefix for seed parameter in input parameters, overrides seed from configuration file **/
+    public static final String SEED_PARAMETER_PREFIX = "--seed=";
+
+    /** prefix for optimization file parameter in input parameters, light plans of the map are optimized **/
+    public static final String OPTIMIZE_PARAMETER_PREFIX = "--optimize=";
+
+    /** prefix for sweep file parameter in input parameters, grid of runs described in the file is run **/
+    public static final String SWEEP_PARAMETER_PREFIX = "--sweep=";
+
+    /** prefix for fundamental diagram file parameter in input parameters, ring roads at densities from the file are run **/
+    public static final String FUNDAMENTAL_DIAGRAM_PARAMETER_PREFIX = "--fd=";
+
+    /** prefix for replications file parameter in input parameters, replications of the scenario are run until results
+     * are precise enough **/
+    public static final String REPLICATE_PARAMETER_PREFIX = "--replicate=";
+
+    /** prefix for benchmark file parameter in input parameters, throughput of the scenario is measured on this machine **/
+    public static final String BENCH_PARAMETER_PREFIX = "--bench=";
+
+    /** prefix for scenario file parameter in input parameters, synthetic map described in the file is generated **/
+    public static final String GENERATE_PARAMETER_PREFIX = "--generate=";
+
+    /** prefix for cost profile file parameter in input parameters, cost of combinations of models is measured **/
+    public static final String COST_PROFILE_PARAMETER_PREFIX = "--costProfile=";
+
+    /** prefix for state hash file parameter in input parameters, hashes of states of roads after every step are
+     * written to this file (overrides configuration file) **/
+    public static final String STATE_HASH_PARAMETER_PREFIX = "--stateHash=";
+
+    /** prefix for comparison of two state hash files in input parameters (files separated by comma) **/
+    public static final String COMPARE_HASHES_PARAMETER_PREFIX = "--compareHashes=";
+
+    /** prefix for density of ring roads (cars per km and lane) in input parameters of headless run, roads of the map
+     * are made ring roads with this density **/
+    public static final String RING_PARAMETER_PREFIX = "--ring=";
+
+    /** prefix for number of steps run before measurement in input parameters of headless run **/
+    public static final String TRANSIENT_PARAMETER_PREFIX = "--transient=";
+
     // state of logging in input parameters
 
     /** value indicating that logging is on from input parameters **/
@@ -160,4 +208,18 @@ public class Constants {
 
     /** value indicating that logging is off from input parameters **/
     public static final int LOGGING_OFF_FROM_INPUT_PARAMETERS = -1;
+
+    // reasons of ending the simulation run
+
+    /** simulation ended because its duration was reached **/
+    public static final String STOP_REASON_DURATION = "duration reached";
+
+    /** simulation ended because all roads and car queues were empty **/
+    public static final String STOP_REASON_ALL_EMPTY = "all roads and car queues empty";
+
+    /** simulation ended because steady state was detected **/
+    public static final String STOP_REASON_STEADY_STATE = "steady state reached";
+
+    /** simulation was stopped from outside (for example by user in gui) **/
+    public static final String STOP_REASON_STOPPED = "stopped";
 }
@@ -0,0 +1,188 @@
+package core.utils.constants;
+
+/***************************
+ * Class holding constants for experiment files (optimization of light plans, parameter sweeps, fundamental diagrams,
+ * replications, benchmarks), it holds the tags used in the XML files describing experiments that run many headless
+ * simulations
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ***************************/
+public class ExperimentConstants {
+
+    // optimization of light plans
+
+    /** root tag of optimization file **/
+    public static final String OPTIMIZATION_TAG = "optimization";
+
+    /** tag for map file the best light plans are written to **/
+    public static final String OUTPUT_MAP_TAG = "outputMap";
+
+    /** tag for number of simulations running at the same time **/
+    public static final String WORKERS_TAG = "workers";
+
+    /** tag for number of candidate plans in one round of search **/
+    public static final String CANDIDATES_TAG = "candidates";
+
+    /** tag for number of restarts of search around the best plan **/
+    public static final String RESTARTS_TAG = "restarts";
+
+    /** tag for duration of simulations in the first rung of successive halving **/
+    public static final String MIN_DURATION_TAG = "minDuration";
+
+    /** tag for seed of search and of simulations **/
+    public static final String SEED_TAG = "seed";
+
+    /** tag for weights of objective **/
+    public static final String OBJECTIVE_TAG = "objective";
+
+    /** tag for weight of average queue on last red step **/
+    public static final String QUEUE_ON_LAST_RED_WEIGHT_TAG = "queueOnLastRed";
+
+    /** tag for weight of maximal queue **/
+    public static final String MAX_QUEUE_WEIGHT_TAG = "maxQueue";
+
+    /** tag for weight of cars passed (subtracted from objective) **/
+    public static final String CARS_PASSED_WEIGHT_TAG = "carsPassed";
+
+    /** tag for search ranges of one light plan **/
+    public static final String LIGHT_TAG = "light";
+
+    /** tag for index of road of the light **/
+    public static final String ROAD_TAG = "road";
+
+    /** tag for lane of the light, all lanes of the road when missing **/
+    public static final String LANE_TAG = "lane";
+
+    /** tag for range of cycle time **/
+    public static final String CYCLE_TAG = "cycle";
+
+    /** tag for range of green split (part of cycle before switch) **/
+    public static final String SPLIT_TAG = "split";
+
+    /** tag for range of offset of the cycle **/
+    public static final String OFFSET_TAG = "offset";
+
+    /** tag for minimum of range **/
+    public static final String MIN_TAG = "min";
+
+    /** tag for maximum of range **/
+    public static final String MAX_TAG = "max";
+
+    // parameter sweep
+
+    /** root tag of sweep file **/
+    public static final String SWEEP_TAG = "sweep";
+
+    /** tag for file of consolidated results table **/
+    public static final String RESULTS_TAG = "results";
+
+    /** tag for number of repeated runs of failed cell **/
+    public static final String RETRIES_TAG = "retries";
+
+    /** tag for list of car following models **/
+    public static final String CAR_FOLLOWING_MODELS_TAG = "carFollowingModels";
+
+    /** tag for list of lane changing models **/
+    public static final String LANE_CHANGING_MODELS_TAG = "laneChangingModels";
+
+    /** tag for id of model in list of models **/
+    public static final String MODEL_TAG = "model";
+
+    /** tag for list of flow rates of generators **/
+    public static final String FLOW_RATES_TAG = "flowRates";
+
+    /** tag for list of numbers of lanes of roads **/
+    public static final String LANES_TAG = "lanes";
+
+    /** tag for list of speed limits of roads **/
+    public static final String SPEED_LIMITS_TAG = "speedLimits";
+
+    /** tag for list of seeds **/
+    public static final String SEEDS_TAG = "seeds";
+
+    /** tag for value in list of values **/
+    public static final String VALUE_TAG = "value";
+
+    // fundamental diagram
+
+    /** root tag of fundamental diagram file **/
+    public static final String FUNDAMENTAL_DIAGRAM_TAG = "fundamentalDiagram";
+
+    /** tag for range of densities (cars per km and lane) **/
+    public static final String DENSITY_TAG = "density";
+
+    /** tag for number of densities in range **/
+    public static final String POINTS_TAG = "points";
+
+    /** tag for number of steps run before measurement **/
+    public static final String TRANSIENT_TAG = "transient";
+
+    // sequential replications
+
+    /** root tag of replications file **/
+    public static final String REPLICATIONS_TAG = "replications";
+
+    /** tag for number of replications run in one batch **/
+    public static final String BATCH_TAG = "batch";
+
+    /** tag for minimal number of replications before stopping **/
+    public static final String MIN_REPLICATIONS_TAG = "minReplications";
+
+    /** tag for maximal number of replications **/
+    public static final String MAX_REPLICATIONS_TAG = "maxReplications";
+
+    /** tag for required half-width of confidence interval relative to the mean **/
+    public static final String PRECISION_TAG = "precision";
+
+    /** tag for list of metrics of results **/
+    public static final String METRICS_TAG = "metrics";
+
+    /** tag for name of metric in list of metrics **/
+    public static final String METRIC_TAG = "metric";
+
+    // throughput benchmark
+
+    /** root tag of benchmark file **/
+    public static final String BENCH_TAG = "bench";
+
+    /** tag for number of steps run before measurement window **/
+    public static final String WARM_UP_TAG = "warmUp";
+
+    /** tag for length of measurement window in seconds **/
+    public static final String WINDOW_TAG = "window";
+
+    /** tag for number of slowest roads in report **/
+    public static final String SLOWEST_ROADS_TAG = "slowestRoads";
+
+    // synthetic scenario
+
+    /** root tag of scenario file **/
+    public static final String SCENARIO_TAG = "scenario";
+
+    /** tag for number of roads of scenario **/
+    public static final String ROADS_TAG = "roads";
+
+    /** tag for range of lengths of roads **/
+    public static final String LENGTH_TAG = "length";
+
+    /** tag for range of speed limits of roads **/
+    public static final String SPEED_LIMIT_TAG = "speedLimit";
+
+    /** tag for range of flow rates of lanes **/
+    public static final String FLOW_RATE_TAG = "flowRate";
+
+    /** tag for share of lanes with traffic light **/
+    public static final String LIGHT_SHARE_TAG = "lightShare";
+
+    /** tag for share of lanes generating to queue **/
+    public static final String QUEUE_SHARE_TAG = "queueShare";
+
+    /** tag for range of sizes of queues **/
+    public static final String QUEUE_SIZE_TAG = "queueSize";
+
+    // cost profile of models
+
+    /** root tag of cost profile file **/
+    public static final String COST_PROFILE_TAG = "costProfile";
+}
@@ -45,6 +45,9 @@ public class RoadLoadingConstants {
     /** tag if traffic light plan starts with green in map XML file **/
     public static final String START_WITH_GREEN_TAG = "startWithGreen";
 
+    /** tag for offset of cycle of traffic light plan in map XML file, optional **/
+    public static final String OFFSET_TAG = "offset";
+
     /** tag for flow rate of generator in map XML file **/
     public static final String FLOW_RATE_TAG = "flowRate";
 
@@ -66,4 +69,22 @@ public class RoadLoadingConstants {
     /** tag queue is supposed to be used in generator in map XML file **/
     public static final String USE_TAG = "use";
 
+    /** tag for demand profile (flow rate changing in time) of generator in map XML file **/
+    public static final String DEMAND_PROFILE_TAG = "demandProfile";
+
+    /** tag for interpolation of demand profile (constant or linear) in map XML file **/
+    public static final String INTERPOLATION_TAG = "interpolation";
+
+    /** tag for CSV file with points of demand profile in map XML file **/
+    public static final String PROFILE_FILE_TAG = "file";
+
+    /** tag for point of demand profile in map XML file **/
+    public static final String PROFILE_POINT_TAG = "point";
+
+    /** tag for time of point of demand profile in map XML file **/
+    public static final String PROFILE_TIME_TAG = "time";
+
+    /** tag for flow rate of point of demand profile in map XML file **/
+    public static final String PROFILE_RATE_TAG = "rate";
+
 }
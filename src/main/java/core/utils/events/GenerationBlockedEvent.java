@@ -0,0 +1,45 @@
+package core.utils.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/************************************
+ * Flight recorder event of generated car that did not fit at start of the lane and was thrown away. Disabled unless
+ * recording settings enable it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+@Name("trafficSim.GenerationBlocked")
+@Label("Generation Blocked")
+@Category({"Traffic Simulation", "Generation"})
+@Description("Generated car did not fit at start of the lane")
+@Enabled(false)
+public class GenerationBlockedEvent extends jdk.jfr.Event {
+
+    /** id of the road **/
+    @Label("Road")
+    public int roadId;
+
+    /** lane the car was generated for **/
+    @Label("Lane")
+    public int lane;
+
+    /**
+     * commits event if it is enabled
+     *
+     * @param roadId id of the road
+     * @param lane lane the car was generated for
+     **/
+    public static void emit(int roadId, int lane) {
+        GenerationBlockedEvent event = new GenerationBlockedEvent();
+        if (event.isEnabled()) {
+            event.roadId = roadId;
+            event.lane = lane;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package core.utils.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/************************************
+ * Flight recorder event of one decision of lane changing model about one car, duration of the event is duration of the
+ * decision. Disabled unless recording settings enable it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+@Name("trafficSim.LaneChangeDecision")
+@Label("Lane Change Decision")
+@Category({"Traffic Simulation", "Lane Change"})
+@Description("Decision of lane changing model whether car changes lane")
+@StackTrace(false)
+@Enabled(false)
+public class LaneChangeDecisionEvent extends jdk.jfr.Event {
+
+    /** id of the road **/
+    @Label("Road")
+    public int roadId;
+
+    /** id of the car **/
+    @Label("Car")
+    public int carId;
+
+    /** lane of the car before the decision **/
+    @Label("Lane")
+    public int lane;
+
+    /** direction that was decided about (LEFT, RIGHT, or STRAIGHT when cellular road found no lane change) **/
+    @Label("Direction")
+    public String direction;
+
+    /** whether the car wants to change lane in the direction **/
+    @Label("Desired")
+    public boolean desired;
+}
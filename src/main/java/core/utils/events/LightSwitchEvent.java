@@ -0,0 +1,57 @@
+package core.utils.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/************************************
+ * Flight recorder event of traffic light of the lane that changed its color. Disabled unless recording settings enable
+ * it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+@Name("trafficSim.LightSwitch")
+@Label("Light Switch")
+@Category({"Traffic Simulation", "Lights"})
+@Description("Traffic light of the lane changed its color")
+@Enabled(false)
+public class LightSwitchEvent extends jdk.jfr.Event {
+
+    /** id of the road **/
+    @Label("Road")
+    public int roadId;
+
+    /** lane of the light **/
+    @Label("Lane")
+    public int lane;
+
+    /** step of the simulation **/
+    @Label("Step")
+    public long step;
+
+    /** whether the light is green after the switch **/
+    @Label("Green")
+    public boolean green;
+
+    /**
+     * commits event if it is enabled
+     *
+     * @param roadId id of the road
+     * @param lane lane of the light
+     * @param step step of the simulation
+     * @param green whether the light is green after the switch
+     **/
+    public static void emit(int roadId, int lane, long step, boolean green) {
+        LightSwitchEvent event = new LightSwitchEvent();
+        if (event.isEnabled()) {
+            event.roadId = roadId;
+            event.lane = lane;
+            event.step = step;
+            event.green = green;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package core.utils.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/************************************
+ * Flight recorder event of car that left queue of the lane and was placed at start of the road. Disabled unless
+ * recording settings enable it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+@Name("trafficSim.QueueAdmission")
+@Label("Queue Admission")
+@Category({"Traffic Simulation", "Generation"})
+@Description("Car from queue of the lane was placed at start of the road")
+@Enabled(false)
+public class QueueAdmissionEvent extends jdk.jfr.Event {
+
+    /** id of the road **/
+    @Label("Road")
+    public int roadId;
+
+    /** lane of the queue **/
+    @Label("Lane")
+    public int lane;
+
+    /** id the car got on the road **/
+    @Label("Car")
+    public int carId;
+
+    /** number of cars left in the queue **/
+    @Label("Queue Length")
+    public int queueLength;
+
+    /**
+     * commits event if it is enabled
+     *
+     * @param roadId id of the road
+     * @param lane lane of the queue
+     * @param carId id the car got on the road
+     * @param queueLength number of cars left in the queue
+     **/
+    public static void emit(int roadId, int lane, int carId, int queueLength) {
+        QueueAdmissionEvent event = new QueueAdmissionEvent();
+        if (event.isEnabled()) {
+            event.roadId = roadId;
+            event.lane = lane;
+            event.carId = carId;
+            event.queueLength = queueLength;
+            event.commit();
+        }
+    }
+}
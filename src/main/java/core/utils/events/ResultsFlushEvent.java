@@ -0,0 +1,42 @@
+package core.utils.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/************************************
+ * Flight recorder event of writing of results or buffered trajectories to file, duration of the event is duration of
+ * the write. Disabled unless recording settings enable it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+@Name("trafficSim.ResultsFlush")
+@Label("Results Flush")
+@Category({"Traffic Simulation", "Output"})
+@Description("Results or buffered trajectories written to file")
+@Enabled(false)
+public class ResultsFlushEvent extends jdk.jfr.Event {
+
+    /** trajectory results **/
+    public static final String TRAJECTORY = "trajectory";
+
+    /** results of the simulation **/
+    public static final String RESULTS = "results";
+
+    /** what was written, TRAJECTORY or RESULTS **/
+    @Label("Output")
+    public String output;
+
+    /** file that was written **/
+    @Label("File")
+    public String file;
+
+    /** number of written bytes, size of the whole file for results **/
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,40 @@
+package core.utils.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/************************************
+ * Flight recorder event of update of one road in one simulation step, begin and end of the event are begin and end of
+ * the update, number of cars on the road is taken after the update. Disabled unless recording settings enable it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************************/
+@Name("trafficSim.RoadStep")
+@Label("Road Step")
+@Category({"Traffic Simulation", "Step"})
+@Description("Update of one road in one simulation step")
+@StackTrace(false)
+@Enabled(false)
+public class RoadStepEvent extends jdk.jfr.Event {
+
+    /** id of the road **/
+    @Label("Road")
+    public int roadId;
+
+    /** step of the simulation **/
+    @Label("Step")
+    public int step;
+
+    /** number of cars on the road after the update **/
+    @Label("Vehicles")
+    public int vehicles;
+
+    /** number of cars that left the road in the update **/
+    @Label("Cars Passed")
+    public int carsPassed;
+}
@@ -0,0 +1,87 @@
+package core.utils.loading;
+
+import core.utils.BenchDetails;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+
+/******************************************************
+ * Class for loading throughput benchmark from XML file, file contains file of report, number of warm up steps, length
+ * of measurement window and number of slowest roads in report. Missing values keep their default value.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class BenchLoader {
+
+    /**
+     * method to load benchmark from XML file
+     *
+     * @param file path to benchmark file
+     * @return loaded benchmark details, or null if file cannot be read or is not valid
+     **/
+    public static BenchDetails load(String file) {
+        BenchDetails details = new BenchDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.BENCH_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of benchmark file " + file + " is not " +
+                        ExperimentConstants.BENCH_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String resultsFile = getText(root, ExperimentConstants.RESULTS_TAG);
+            if (resultsFile != null && !resultsFile.isEmpty()) {
+                details.resultsFile = resultsFile;
+            }
+            String warmUp = getText(root, ExperimentConstants.WARM_UP_TAG);
+            if (warmUp != null && !warmUp.isEmpty()) {
+                details.warmUpSteps = Integer.parseInt(warmUp);
+            }
+            String window = getText(root, ExperimentConstants.WINDOW_TAG);
+            if (window != null && !window.isEmpty()) {
+                details.windowSeconds = Double.parseDouble(window);
+            }
+            String slowestRoads = getText(root, ExperimentConstants.SLOWEST_ROADS_TAG);
+            if (slowestRoads != null && !slowestRoads.isEmpty()) {
+                details.slowestRoads = Integer.parseInt(slowestRoads);
+            }
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading benchmark file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Benchmark in " + file + " is not valid (results file, non " +
+                    "negative warm up and positive window are needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded benchmark from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+}
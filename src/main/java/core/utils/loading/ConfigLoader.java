@@ -3,6 +3,7 @@ package core.utils.loading;
 import app.AppContext;
 import core.model.*;
 import core.sim.Simulation;
+import core.sim.StateHashRecorder;
 import core.utils.*;
 import core.utils.constants.ConfigConstants;
 import core.utils.constants.Constants;
@@ -44,6 +45,20 @@ public class ConfigLoader {
     /** configuration file **/
     private static File configFile;
 
+    /** whether trajectory and state hash files from config are opened when map is loaded, off in headless child
+     * processes, which would overwrite files of the parent run **/
+    private static boolean openingRecorders = true;
+
+    /**
+     * method to turn opening of trajectory and state hash files from config on or off, headless runs started in
+     * parallel turn it off before loading config, so they do not write to the same files
+     *
+     * @param opening true if recorders should be opened when map is loaded, false otherwise
+     **/
+    public static void setOpeningRecorders(boolean opening) {
+        openingRecorders = opening;
+    }
+
     /**
      * method to set the configuration file path.
      * If a custom file is provided but missing, it fails.
@@ -419,8 +434,20 @@ public class ConfigLoader {
                     .item(0);
             Element laneChange = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.LANE_CHANGE_TAG).item(0);
             Element debug = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.DEBUG_TAG).item(0);
+            Element carPooling = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.CAR_POOLING_TAG)
+                    .item(0);
+            Element commonRandomNumbers = (Element) runDetailsElement.getElementsByTagName(
+                    ConfigConstants.COMMON_RANDOM_NUMBERS_TAG).item(0);
+            Element stepMetrics = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.STEP_METRICS_TAG)
+                    .item(0);
+            Element stateHashFile = (Element) runDetailsElement.getElementsByTagName(
+                    ConfigConstants.STATE_HASH_FILE_TAG).item(0);
             Element preventCollisions = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.PREVENT_COLLISION_TAG).item(0);
             Element seed = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.SEED_TAG).item(0);
+            Element trajectory = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.TRAJECTORY_TAG).item(0);
+            Element checkpoint = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.CHECKPOINT_TAG).item(0);
+            Element steadyState = (Element) runDetailsElement.getElementsByTagName(ConfigConstants.STEADY_STATE_TAG)
+                    .item(0);
 
             if (duration != Constants.NO_DURATION_PROVIDED) {
                 detailsFromConfig.duration = duration;
@@ -471,6 +498,37 @@ public class ConfigLoader {
                 detailsFromConfig.debug = false;
             }
 
+            if (carPooling != null) {
+                detailsFromConfig.carPooling = Boolean.parseBoolean(carPooling.getTextContent().trim());
+                MyLogger.logLoadingOrSimulationStartEnd("Car pooling from config: " + detailsFromConfig.carPooling,
+                        Constants.INFO_FOR_LOGGING);
+            } else {
+                detailsFromConfig.carPooling = false;
+            }
+
+            if (commonRandomNumbers != null) {
+                detailsFromConfig.commonRandomNumbers = Boolean.parseBoolean(commonRandomNumbers.getTextContent().trim());
+                MyLogger.logLoadingOrSimulationStartEnd("Common random numbers from config: " +
+                        detailsFromConfig.commonRandomNumbers, Constants.INFO_FOR_LOGGING);
+            } else {
+                detailsFromConfig.commonRandomNumbers = false;
+            }
+
+            if (stepMetrics != null) {
+                detailsFromConfig.stepMetrics = Boolean.parseBoolean(stepMetrics.getTextContent().trim());
+                MyLogger.logLoadingOrSimulationStartEnd("Step metrics from config: " + detailsFromConfig.stepMetrics,
+                        Constants.INFO_FOR_LOGGING);
+            } else {
+                detailsFromConfig.stepMetrics = false;
+            }
+            MetricsRegistry.setEnabled(detailsFromConfig.stepMetrics);
+
+            if (stateHashFile != null && !stateHashFile.getTextContent().trim().isEmpty()) {
+                detailsFromConfig.stateHashFile = stateHashFile.getTextContent().trim();
+                MyLogger.logLoadingOrSimulationStartEnd("State hash file from config: " +
+                        detailsFromConfig.stateHashFile, Constants.INFO_FOR_LOGGING);
+            }
+
             if (drawCells != null) {
                 detailsFromConfig.drawCells = Boolean.parseBoolean(drawCells.getTextContent());
                 MyLogger.logLoadingOrSimulationStartEnd("Draw cells from config: " + drawCells.getTextContent()
@@ -518,6 +576,24 @@ public class ConfigLoader {
 
             loadLoggingFromConfig(detailsFromConfig, logElements, logParameter);
 
+            if (trajectory != null) {
+                detailsFromConfig.trajectoryDetails.changeTrajectoryDetails(trajectory);
+                MyLogger.logLoadingOrSimulationStartEnd("Trajectory recording from config: " +
+                        detailsFromConfig.trajectoryDetails, Constants.INFO_FOR_LOGGING);
+            }
+
+            if (checkpoint != null) {
+                detailsFromConfig.checkpointDetails.changeCheckpointDetails(checkpoint);
+                MyLogger.logLoadingOrSimulationStartEnd("Checkpoints from config: " +
+                        detailsFromConfig.checkpointDetails, Constants.INFO_FOR_LOGGING);
+            }
+
+            if (steadyState != null) {
+                detailsFromConfig.steadyStateDetails.changeSteadyStateDetails(steadyState);
+                MyLogger.logLoadingOrSimulationStartEnd("Steady state detection from config: " +
+                        detailsFromConfig.steadyStateDetails, Constants.INFO_FOR_LOGGING);
+            }
+
             return detailsFromConfig;
         } catch (Exception e) {
             MyLogger.logLoadingOrSimulationStartEnd("Error loading config file: " + e.getMessage()
@@ -809,6 +885,12 @@ public class ConfigLoader {
         if (mapLoaded) {
             ResultsRecorder.getResultsRecorder().initialize(roads, runDetails.outputDetails.outputFile);
             AppContext.RUN_DETAILS.mapLoaded = true;
+            if (openingRecorders && runDetails.trajectoryDetails.isRecording()) {
+                TrajectoryRecorder.getTrajectoryRecorder().open(runDetails.trajectoryDetails);
+            }
+            if (openingRecorders && runDetails.stateHashFile != null) {
+                StateHashRecorder.getStateHashRecorder().open(runDetails.stateHashFile, roads.length);
+            }
         }
 
         if (!mapLoaded && !runDetails.showGui) {
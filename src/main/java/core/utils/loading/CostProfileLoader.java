@@ -0,0 +1,107 @@
+package core.utils.loading;
+
+import core.utils.CostProfileDetails;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.List;
+
+/******************************************************
+ * Class for loading cost profile of models from XML file, file contains results file, warm up, seed and lists of car
+ * following and lane changing models. Missing settings keep their default value, missing list means all models.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class CostProfileLoader {
+
+    /**
+     * method to load cost profile from XML file
+     *
+     * @param file path to cost profile file
+     * @return loaded cost profile details, or null if file cannot be read or is not valid
+     **/
+    public static CostProfileDetails load(String file) {
+        CostProfileDetails details = new CostProfileDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.COST_PROFILE_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of cost profile file " + file + " is not " +
+                        ExperimentConstants.COST_PROFILE_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String resultsFile = getText(root, ExperimentConstants.RESULTS_TAG);
+            if (resultsFile != null && !resultsFile.isEmpty()) {
+                details.resultsFile = resultsFile;
+            }
+            String warmUp = getText(root, ExperimentConstants.WARM_UP_TAG);
+            if (warmUp != null && !warmUp.isEmpty()) {
+                details.warmUpSteps = Integer.parseInt(warmUp);
+            }
+            String seed = getText(root, ExperimentConstants.SEED_TAG);
+            if (seed != null && !seed.isEmpty()) {
+                details.seed = Long.parseLong(seed);
+            }
+            loadModels(root, ExperimentConstants.CAR_FOLLOWING_MODELS_TAG, details.carFollowingModels);
+            loadModels(root, ExperimentConstants.LANE_CHANGING_MODELS_TAG, details.laneChangingModels);
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading cost profile file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Cost profile in " + file + " is not valid (results file and non " +
+                    "negative warm up are needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded cost profile from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to load ids of models of one list
+     *
+     * @param root root element of cost profile file
+     * @param listTag tag of the list
+     * @param models list the ids are added to
+     **/
+    private static void loadModels(Element root, String listTag, List<String> models) {
+        Element list = (Element) root.getElementsByTagName(listTag).item(0);
+        if (list == null) {
+            return;
+        }
+        NodeList modelNodes = list.getElementsByTagName(ExperimentConstants.MODEL_TAG);
+        for (int i = 0; i < modelNodes.getLength(); i++) {
+            String model = modelNodes.item(i).getTextContent().trim();
+            if (!model.isEmpty()) {
+                models.add(model);
+            }
+        }
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+}
@@ -0,0 +1,148 @@
+package core.utils.loading;
+
+import core.model.DemandProfile;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+import core.utils.constants.RoadLoadingConstants;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/******************************************************
+ * Class for loading demand profiles of generators, points of the profile are either directly in the map XML file or
+ * in external CSV file with two columns (time in steps, flow rate in cars per second), separated by comma, semicolon
+ * or tab. Empty lines, lines starting with # and header line are skipped.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class DemandProfileLoader {
+
+    /** regex of separators of columns in CSV file **/
+    private static final String CSV_SEPARATORS = "[,;\\t]";
+
+    /** prefix of comment line in CSV file **/
+    private static final String CSV_COMMENT = "#";
+
+    /**
+     * method to load demand profile from element of generator in map XML file
+     *
+     * @param profileElement XML Element containing demand profile
+     * @return loaded demand profile, or null if it is not valid
+     **/
+    public static DemandProfile loadFromXml(Element profileElement) {
+        String interpolation = DemandProfile.INTERPOLATION_CONSTANT;
+        Element interpolationElement = (Element) profileElement.getElementsByTagName(
+                RoadLoadingConstants.INTERPOLATION_TAG).item(0);
+        if (interpolationElement != null) {
+            interpolation = interpolationElement.getTextContent().trim().toLowerCase();
+        }
+
+        Element fileElement = (Element) profileElement.getElementsByTagName(RoadLoadingConstants.PROFILE_FILE_TAG)
+                .item(0);
+        if (fileElement != null) {
+            return loadFromCsv(fileElement.getTextContent().trim(), interpolation);
+        }
+
+        NodeList pointNodes = profileElement.getElementsByTagName(RoadLoadingConstants.PROFILE_POINT_TAG);
+        double[] times = new double[pointNodes.getLength()];
+        double[] rates = new double[pointNodes.getLength()];
+        try {
+            for (int i = 0; i < pointNodes.getLength(); i++) {
+                Element pointElement = (Element) pointNodes.item(i);
+                times[i] = Double.parseDouble(pointElement.getElementsByTagName(RoadLoadingConstants.PROFILE_TIME_TAG)
+                        .item(0).getTextContent().trim());
+                rates[i] = Double.parseDouble(pointElement.getElementsByTagName(RoadLoadingConstants.PROFILE_RATE_TAG)
+                        .item(0).getTextContent().trim());
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Invalid point of demand profile in map file: " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        return create(times, rates, interpolation, "map file");
+    }
+
+    /**
+     * method to load demand profile from CSV file
+     *
+     * @param file path to CSV file
+     * @param interpolation interpolation of the profile, DemandProfile.INTERPOLATION_CONSTANT or INTERPOLATION_LINEAR
+     * @return loaded demand profile, or null if file cannot be read or is not valid
+     **/
+    public static DemandProfile loadFromCsv(String file, String interpolation) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Path.of(file));
+        } catch (IOException | RuntimeException e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Could not read demand profile file " + file + ": " +
+                    e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith(CSV_COMMENT)) {
+                continue;
+            }
+
+            String[] columns = line.split(CSV_SEPARATORS);
+            try {
+                if (columns.length < 2) {
+                    throw new NumberFormatException("two columns expected");
+                }
+                points.add(new double[]{Double.parseDouble(columns[0].trim()), Double.parseDouble(columns[1].trim())});
+            } catch (NumberFormatException e) {
+                if (points.isEmpty()) {
+                    continue; // header line
+                }
+                MyLogger.logLoadingOrSimulationStartEnd("Invalid line " + (i + 1) + " of demand profile file " + file +
+                        ": " + line, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+        }
+
+        double[] times = new double[points.size()];
+        double[] rates = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            times[i] = points.get(i)[0];
+            rates[i] = points.get(i)[1];
+        }
+
+        DemandProfile profile = create(times, rates, interpolation, file);
+        if (profile != null) {
+            profile.setSourceFile(file);
+        }
+        return profile;
+    }
+
+    /**
+     * helper to create profile from points and log the result
+     *
+     * @param times times of points in steps
+     * @param rates flow rates of points
+     * @param interpolation interpolation of the profile
+     * @param source source of the points, used for logging
+     * @return created profile, or null if points are not valid
+     **/
+    private static DemandProfile create(double[] times, double[] rates, String interpolation, String source) {
+        DemandProfile profile = DemandProfile.create(times, rates, interpolation);
+        if (profile == null) {
+            MyLogger.logLoadingOrSimulationStartEnd("Demand profile from " + source + " is not valid (at least one " +
+                    "point, increasing non negative times, non negative rates and interpolation constant or linear " +
+                    "are needed)", Constants.ERROR_FOR_LOGGING);
+        } else {
+            MyLogger.logLoadingOrSimulationStartEnd("Loaded demand profile from " + source + ": " + profile,
+                    Constants.INFO_FOR_LOGGING);
+        }
+        return profile;
+    }
+}
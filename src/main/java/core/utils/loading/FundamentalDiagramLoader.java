@@ -0,0 +1,129 @@
+package core.utils.loading;
+
+import core.utils.FundamentalDiagramDetails;
+import core.utils.MyLogger;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.List;
+
+/******************************************************
+ * Class for loading fundamental diagram from XML file, file contains range of densities, models, number of transient
+ * steps and settings of runs (results file, workers, seed). Missing values keep their default value.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class FundamentalDiagramLoader {
+
+    /**
+     * method to load fundamental diagram from XML file
+     *
+     * @param file path to fundamental diagram file
+     * @return loaded fundamental diagram details, or null if file cannot be read or is not valid
+     **/
+    public static FundamentalDiagramDetails load(String file) {
+        FundamentalDiagramDetails details = new FundamentalDiagramDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.FUNDAMENTAL_DIAGRAM_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of fundamental diagram file " + file + " is not " +
+                        ExperimentConstants.FUNDAMENTAL_DIAGRAM_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String resultsFile = getText(root, ExperimentConstants.RESULTS_TAG);
+            if (resultsFile != null && !resultsFile.isEmpty()) {
+                details.resultsFile = resultsFile;
+            }
+            String workers = getText(root, ExperimentConstants.WORKERS_TAG);
+            if (workers != null && !workers.isEmpty()) {
+                details.workers = Integer.parseInt(workers);
+            }
+            String points = getText(root, ExperimentConstants.POINTS_TAG);
+            if (points != null && !points.isEmpty()) {
+                details.points = Integer.parseInt(points);
+            }
+            String transientSteps = getText(root, ExperimentConstants.TRANSIENT_TAG);
+            if (transientSteps != null && !transientSteps.isEmpty()) {
+                details.transientSteps = Integer.parseInt(transientSteps);
+            }
+            String seed = getText(root, ExperimentConstants.SEED_TAG);
+            if (seed != null && !seed.isEmpty()) {
+                details.seed = Long.parseLong(seed);
+            }
+
+            Element density = (Element) root.getElementsByTagName(ExperimentConstants.DENSITY_TAG).item(0);
+            if (density != null) {
+                String min = getText(density, ExperimentConstants.MIN_TAG);
+                if (min != null && !min.isEmpty()) {
+                    details.minDensity = Double.parseDouble(min);
+                }
+                String max = getText(density, ExperimentConstants.MAX_TAG);
+                if (max != null && !max.isEmpty()) {
+                    details.maxDensity = Double.parseDouble(max);
+                }
+            }
+
+            loadModels(root, ExperimentConstants.CAR_FOLLOWING_MODELS_TAG, details.carFollowingModels);
+            loadModels(root, ExperimentConstants.LANE_CHANGING_MODELS_TAG, details.laneChangingModels);
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading fundamental diagram file " + file + ": " +
+                    e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Fundamental diagram in " + file + " is not valid (results file, " +
+                    "positive densities with minimum not above maximum, positive number of points and non negative " +
+                    "transient are needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded fundamental diagram from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to load ids of models in list of models
+     *
+     * @param root root element of fundamental diagram file
+     * @param listTag tag of the list
+     * @param models list the ids are added to
+     **/
+    private static void loadModels(Element root, String listTag, List<String> models) {
+        Element list = (Element) root.getElementsByTagName(listTag).item(0);
+        if (list == null) {
+            return;
+        }
+        NodeList modelNodes = list.getElementsByTagName(ExperimentConstants.MODEL_TAG);
+        for (int i = 0; i < modelNodes.getLength(); i++) {
+            String model = modelNodes.item(i).getTextContent().trim();
+            if (!model.isEmpty()) {
+                models.add(model);
+            }
+        }
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+}
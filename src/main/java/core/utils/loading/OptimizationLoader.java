@@ -0,0 +1,155 @@
+package core.utils.loading;
+
+import core.utils.MyLogger;
+import core.utils.OptimizationDetails;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+
+/******************************************************
+ * Class for loading optimization of light plans from XML file, file contains settings of the search (output map,
+ * workers, candidates, restarts, minimal duration, seed), weights of objective and search ranges of light plans.
+ * Missing settings keep their default value.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class OptimizationLoader {
+
+    /**
+     * method to load optimization from XML file
+     *
+     * @param file path to optimization file
+     * @return loaded optimization details, or null if file cannot be read or is not valid
+     **/
+    public static OptimizationDetails load(String file) {
+        OptimizationDetails details = new OptimizationDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.OPTIMIZATION_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of optimization file " + file + " is not " +
+                        ExperimentConstants.OPTIMIZATION_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String outputMap = getText(root, ExperimentConstants.OUTPUT_MAP_TAG);
+            if (outputMap != null && !outputMap.isEmpty()) {
+                details.outputMap = outputMap;
+            }
+            details.workers = getInt(root, ExperimentConstants.WORKERS_TAG, details.workers);
+            details.candidates = getInt(root, ExperimentConstants.CANDIDATES_TAG, details.candidates);
+            details.restarts = getInt(root, ExperimentConstants.RESTARTS_TAG, details.restarts);
+            details.minDuration = getInt(root, ExperimentConstants.MIN_DURATION_TAG, details.minDuration);
+            String seed = getText(root, ExperimentConstants.SEED_TAG);
+            if (seed != null && !seed.isEmpty()) {
+                details.seed = Long.parseLong(seed);
+            }
+
+            Element objective = (Element) root.getElementsByTagName(ExperimentConstants.OBJECTIVE_TAG).item(0);
+            if (objective != null) {
+                details.queueOnLastRedWeight = getDouble(objective, ExperimentConstants.QUEUE_ON_LAST_RED_WEIGHT_TAG,
+                        details.queueOnLastRedWeight);
+                details.maxQueueWeight = getDouble(objective, ExperimentConstants.MAX_QUEUE_WEIGHT_TAG,
+                        details.maxQueueWeight);
+                details.carsPassedWeight = getDouble(objective, ExperimentConstants.CARS_PASSED_WEIGHT_TAG,
+                        details.carsPassedWeight);
+            }
+
+            NodeList lightNodes = root.getElementsByTagName(ExperimentConstants.LIGHT_TAG);
+            for (int i = 0; i < lightNodes.getLength(); i++) {
+                details.lights.add(loadLightRange((Element) lightNodes.item(i)));
+            }
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading optimization file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Optimization in " + file + " is not valid (at least one light, " +
+                    "minimum not above maximum, cycle of at least 2 steps, split between 0 and 1, positive number " +
+                    "of candidates and minimal duration are needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded optimization from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to load search ranges of one light, missing ranges keep default, missing offset range means offset 0
+     *
+     * @param lightElement XML Element of the light
+     * @return search ranges of the light
+     **/
+    private static OptimizationDetails.LightRange loadLightRange(Element lightElement) {
+        OptimizationDetails.LightRange light = new OptimizationDetails.LightRange();
+        light.road = getInt(lightElement, ExperimentConstants.ROAD_TAG, light.road);
+        light.lane = getInt(lightElement, ExperimentConstants.LANE_TAG, light.lane);
+
+        Element cycle = (Element) lightElement.getElementsByTagName(ExperimentConstants.CYCLE_TAG).item(0);
+        if (cycle != null) {
+            light.minCycle = getInt(cycle, ExperimentConstants.MIN_TAG, light.minCycle);
+            light.maxCycle = getInt(cycle, ExperimentConstants.MAX_TAG, light.maxCycle);
+        }
+        Element split = (Element) lightElement.getElementsByTagName(ExperimentConstants.SPLIT_TAG).item(0);
+        if (split != null) {
+            light.minSplit = getDouble(split, ExperimentConstants.MIN_TAG, light.minSplit);
+            light.maxSplit = getDouble(split, ExperimentConstants.MAX_TAG, light.maxSplit);
+        }
+        Element offset = (Element) lightElement.getElementsByTagName(ExperimentConstants.OFFSET_TAG).item(0);
+        if (offset != null) {
+            light.minOffset = getInt(offset, ExperimentConstants.MIN_TAG, light.minOffset);
+            light.maxOffset = getInt(offset, ExperimentConstants.MAX_TAG, light.maxOffset);
+        }
+        return light;
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+
+    /**
+     * helper to get integer value of child element
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @param defaultValue value used when there is no such child
+     * @return value of the child
+     **/
+    private static int getInt(Element parent, String tag, int defaultValue) {
+        String text = getText(parent, tag);
+        return text == null || text.isEmpty() ? defaultValue : Integer.parseInt(text);
+    }
+
+    /**
+     * helper to get decimal value of child element
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @param defaultValue value used when there is no such child
+     * @return value of the child
+     **/
+    private static double getDouble(Element parent, String tag, double defaultValue) {
+        String text = getText(parent, tag);
+        return text == null || text.isEmpty() ? defaultValue : Double.parseDouble(text);
+    }
+}
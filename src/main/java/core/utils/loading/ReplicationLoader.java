@@ -0,0 +1,112 @@
+package core.utils.loading;
+
+import core.utils.MyLogger;
+import core.utils.ReplicationDetails;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+
+/******************************************************
+ * Class for loading sequential replications from XML file, file contains metrics, required precision, limits of number
+ * of replications and settings of runs (results file, workers, batch size, seed). Missing values keep their default
+ * value.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class ReplicationLoader {
+
+    /**
+     * method to load replications from XML file
+     *
+     * @param file path to replications file
+     * @return loaded replication details, or null if file cannot be read or is not valid
+     **/
+    public static ReplicationDetails load(String file) {
+        ReplicationDetails details = new ReplicationDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.REPLICATIONS_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of replications file " + file + " is not " +
+                        ExperimentConstants.REPLICATIONS_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String resultsFile = getText(root, ExperimentConstants.RESULTS_TAG);
+            if (resultsFile != null && !resultsFile.isEmpty()) {
+                details.resultsFile = resultsFile;
+            }
+            String workers = getText(root, ExperimentConstants.WORKERS_TAG);
+            if (workers != null && !workers.isEmpty()) {
+                details.workers = Integer.parseInt(workers);
+            }
+            String batchSize = getText(root, ExperimentConstants.BATCH_TAG);
+            if (batchSize != null && !batchSize.isEmpty()) {
+                details.batchSize = Integer.parseInt(batchSize);
+            }
+            String minReplications = getText(root, ExperimentConstants.MIN_REPLICATIONS_TAG);
+            if (minReplications != null && !minReplications.isEmpty()) {
+                details.minReplications = Integer.parseInt(minReplications);
+            }
+            String maxReplications = getText(root, ExperimentConstants.MAX_REPLICATIONS_TAG);
+            if (maxReplications != null && !maxReplications.isEmpty()) {
+                details.maxReplications = Integer.parseInt(maxReplications);
+            }
+            String precision = getText(root, ExperimentConstants.PRECISION_TAG);
+            if (precision != null && !precision.isEmpty()) {
+                details.relativePrecision = Double.parseDouble(precision);
+            }
+            String seed = getText(root, ExperimentConstants.SEED_TAG);
+            if (seed != null && !seed.isEmpty()) {
+                details.seed = Long.parseLong(seed);
+            }
+
+            Element metrics = (Element) root.getElementsByTagName(ExperimentConstants.METRICS_TAG).item(0);
+            if (metrics != null) {
+                NodeList metricNodes = metrics.getElementsByTagName(ExperimentConstants.METRIC_TAG);
+                for (int i = 0; i < metricNodes.getLength(); i++) {
+                    String metric = metricNodes.item(i).getTextContent().trim();
+                    if (!metric.isEmpty() && !details.metrics.contains(metric)) {
+                        details.metrics.add(metric);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading replications file " + file + ": " +
+                    e.getMessage(), Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Replications in " + file + " are not valid (results file, at " +
+                    "least 2 replications with maximum not below minimum, positive precision and known metrics are " +
+                    "needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded replications from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+}
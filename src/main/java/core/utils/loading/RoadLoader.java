@@ -2,6 +2,7 @@ package core.utils.loading;
 
 import app.AppContext;
 import core.model.CarGenerator;
+import core.model.DemandProfile;
 import core.model.LightPlan;
 import core.model.Road;
 import core.model.cellular.CellularRoad;
@@ -83,14 +84,15 @@ public class RoadLoader {
             DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
             Document doc = dBuilder.parse(xmlFile);
             doc.getDocumentElement().normalize();
-            int roadCount = doc.getElementsByTagName(RoadLoadingConstants.ROAD_TAG).getLength();
+            NodeList roadElements = doc.getElementsByTagName(RoadLoadingConstants.ROAD_TAG);
+            int roadCount = roadElements.getLength();
             MyLogger.logLoadingOrSimulationStartEnd("Loading map from config: number of roads=" + roadCount
                     , Constants.INFO_FOR_LOGGING);
 
             map = new Road[roadCount];
 
             for (int i = 0; i < roadCount; i++) {
-                Element roadElement = (Element) doc.getElementsByTagName(RoadLoadingConstants.ROAD_TAG).item(i);
+                Element roadElement = (Element) roadElements.item(i);
                 Road road = loadRoad(roadElement, i);
                 if (road != null) {
                     map[i] = road;
@@ -145,6 +147,10 @@ public class RoadLoader {
             int timeOfSwitch = Integer.parseInt(laneElement.getElementsByTagName(RoadLoadingConstants.TIME_OF_SWITCH_TAG).item(0).getTextContent());
             boolean startWithGreen = Boolean.parseBoolean(laneElement.getElementsByTagName(RoadLoadingConstants.START_WITH_GREEN_TAG).item(0).getTextContent());
             LightPlan lp = new LightPlan(cycleDuration, timeOfSwitch, startWithGreen);
+            Element offsetElement = (Element) laneElement.getElementsByTagName(RoadLoadingConstants.OFFSET_TAG).item(0);
+            if (offsetElement != null) {
+                lp.setOffset(Integer.parseInt(offsetElement.getTextContent().trim()));
+            }
             road.setLightPlan(i, lp);
         }
 
@@ -202,6 +208,17 @@ public class RoadLoader {
             }
         }
 
+        // demand profile
+        Element profileElement = (Element) generatorElement.getElementsByTagName(RoadLoadingConstants.DEMAND_PROFILE_TAG)
+                .item(0);
+        if (profileElement != null) {
+            DemandProfile profile = DemandProfileLoader.loadFromXml(profileElement);
+            if (profile == null) {
+                throw new IllegalArgumentException("invalid demand profile of generator");
+            }
+            generator.setDemandProfile(profile);
+        }
+
         // load all car parameters
         Element carParamsElement = (Element) generatorElement.getElementsByTagName(RoadLoadingConstants.CAR_PARAMS_TAG).item(0);
         NodeList paramNodes = carParamsElement.getChildNodes();
@@ -0,0 +1,157 @@
+package core.utils.loading;
+
+import core.utils.MyLogger;
+import core.utils.ScenarioDetails;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+
+/******************************************************
+ * Class for loading description of synthetic scenario from XML file, file contains output map, seed, number of roads
+ * and ranges (min, max) of lengths, lanes, speed limits, flow rates, cycles and splits of lights and sizes of queues
+ * with shares of lanes with light and queue. Missing values keep their default value.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class ScenarioLoader {
+
+    /**
+     * method to load description of synthetic scenario from XML file
+     *
+     * @param file path to scenario file
+     * @return loaded scenario details, or null if file cannot be read or is not valid
+     **/
+    public static ScenarioDetails load(String file) {
+        ScenarioDetails details = new ScenarioDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.SCENARIO_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of scenario file " + file + " is not " +
+                        ExperimentConstants.SCENARIO_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String outputMap = getText(root, ExperimentConstants.OUTPUT_MAP_TAG);
+            if (outputMap != null && !outputMap.isEmpty()) {
+                details.outputMap = outputMap;
+            }
+            String seed = getText(root, ExperimentConstants.SEED_TAG);
+            if (seed != null && !seed.isEmpty()) {
+                details.seed = Long.parseLong(seed);
+            }
+            details.roads = getInt(root, ExperimentConstants.ROADS_TAG, details.roads);
+            details.lightShare = getDouble(root, ExperimentConstants.LIGHT_SHARE_TAG, details.lightShare);
+            details.queueShare = getDouble(root, ExperimentConstants.QUEUE_SHARE_TAG, details.queueShare);
+
+            Element length = getChild(root, ExperimentConstants.LENGTH_TAG);
+            if (length != null) {
+                details.minLength = getDouble(length, ExperimentConstants.MIN_TAG, details.minLength);
+                details.maxLength = getDouble(length, ExperimentConstants.MAX_TAG, details.maxLength);
+            }
+            Element lanes = getChild(root, ExperimentConstants.LANES_TAG);
+            if (lanes != null) {
+                details.minLanes = getInt(lanes, ExperimentConstants.MIN_TAG, details.minLanes);
+                details.maxLanes = getInt(lanes, ExperimentConstants.MAX_TAG, details.maxLanes);
+            }
+            Element speedLimit = getChild(root, ExperimentConstants.SPEED_LIMIT_TAG);
+            if (speedLimit != null) {
+                details.minSpeedLimit = getDouble(speedLimit, ExperimentConstants.MIN_TAG, details.minSpeedLimit);
+                details.maxSpeedLimit = getDouble(speedLimit, ExperimentConstants.MAX_TAG, details.maxSpeedLimit);
+            }
+            Element flowRate = getChild(root, ExperimentConstants.FLOW_RATE_TAG);
+            if (flowRate != null) {
+                details.minFlowRate = getDouble(flowRate, ExperimentConstants.MIN_TAG, details.minFlowRate);
+                details.maxFlowRate = getDouble(flowRate, ExperimentConstants.MAX_TAG, details.maxFlowRate);
+            }
+            Element cycle = getChild(root, ExperimentConstants.CYCLE_TAG);
+            if (cycle != null) {
+                details.minCycle = getInt(cycle, ExperimentConstants.MIN_TAG, details.minCycle);
+                details.maxCycle = getInt(cycle, ExperimentConstants.MAX_TAG, details.maxCycle);
+            }
+            Element split = getChild(root, ExperimentConstants.SPLIT_TAG);
+            if (split != null) {
+                details.minSplit = getDouble(split, ExperimentConstants.MIN_TAG, details.minSplit);
+                details.maxSplit = getDouble(split, ExperimentConstants.MAX_TAG, details.maxSplit);
+            }
+            Element queueSize = getChild(root, ExperimentConstants.QUEUE_SIZE_TAG);
+            if (queueSize != null) {
+                details.minQueueSize = getInt(queueSize, ExperimentConstants.MIN_TAG, details.minQueueSize);
+                details.maxQueueSize = getInt(queueSize, ExperimentConstants.MAX_TAG, details.maxQueueSize);
+            }
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading scenario file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Scenario in " + file + " is not valid (output map, at least one " +
+                    "road, positive lengths, lanes and speed limits, minimum not above maximum, cycle of at least 2 " +
+                    "steps, split and shares between 0 and 1 are needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded scenario from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to get the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return the child, null if there is no such child
+     **/
+    private static Element getChild(Element parent, String tag) {
+        return (Element) parent.getElementsByTagName(tag).item(0);
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+
+    /**
+     * helper to get integer value of child element
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @param defaultValue value used when there is no such child
+     * @return value of the child
+     **/
+    private static int getInt(Element parent, String tag, int defaultValue) {
+        String text = getText(parent, tag);
+        return text == null || text.isEmpty() ? defaultValue : Integer.parseInt(text);
+    }
+
+    /**
+     * helper to get decimal value of child element
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @param defaultValue value used when there is no such child
+     * @return value of the child
+     **/
+    private static double getDouble(Element parent, String tag, double defaultValue) {
+        String text = getText(parent, tag);
+        return text == null || text.isEmpty() ? defaultValue : Double.parseDouble(text);
+    }
+}
@@ -0,0 +1,124 @@
+package core.utils.loading;
+
+import core.utils.MyLogger;
+import core.utils.SweepDetails;
+import core.utils.constants.Constants;
+import core.utils.constants.ExperimentConstants;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.List;
+import java.util.function.Function;
+
+/******************************************************
+ * Class for loading parameter sweep from XML file, file contains settings of the sweep (results file, workers,
+ * retries) and lists of values of dimensions of the grid. Missing settings keep their default value, missing list
+ * means value from config or map.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ******************************************************/
+public class SweepLoader {
+
+    /**
+     * method to load sweep from XML file
+     *
+     * @param file path to sweep file
+     * @return loaded sweep details, or null if file cannot be read or is not valid
+     **/
+    public static SweepDetails load(String file) {
+        SweepDetails details = new SweepDetails();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new File(file));
+            Element root = doc.getDocumentElement();
+            if (!root.getTagName().equals(ExperimentConstants.SWEEP_TAG)) {
+                MyLogger.logLoadingOrSimulationStartEnd("Root of sweep file " + file + " is not " +
+                        ExperimentConstants.SWEEP_TAG, Constants.ERROR_FOR_LOGGING);
+                return null;
+            }
+
+            String resultsFile = getText(root, ExperimentConstants.RESULTS_TAG);
+            if (resultsFile != null && !resultsFile.isEmpty()) {
+                details.resultsFile = resultsFile;
+            }
+            String workers = getText(root, ExperimentConstants.WORKERS_TAG);
+            if (workers != null && !workers.isEmpty()) {
+                details.workers = Integer.parseInt(workers);
+            }
+            String retries = getText(root, ExperimentConstants.RETRIES_TAG);
+            if (retries != null && !retries.isEmpty()) {
+                details.retries = Integer.parseInt(retries);
+            }
+
+            loadList(root, ExperimentConstants.CAR_FOLLOWING_MODELS_TAG, ExperimentConstants.MODEL_TAG,
+                    details.carFollowingModels, value -> value);
+            loadList(root, ExperimentConstants.LANE_CHANGING_MODELS_TAG, ExperimentConstants.MODEL_TAG,
+                    details.laneChangingModels, value -> value);
+            loadList(root, ExperimentConstants.FLOW_RATES_TAG, ExperimentConstants.VALUE_TAG, details.flowRates,
+                    Double::parseDouble);
+            loadList(root, ExperimentConstants.LANES_TAG, ExperimentConstants.VALUE_TAG, details.lanes,
+                    Integer::parseInt);
+            loadList(root, ExperimentConstants.SPEED_LIMITS_TAG, ExperimentConstants.VALUE_TAG, details.speedLimits,
+                    Double::parseDouble);
+            loadList(root, ExperimentConstants.SEEDS_TAG, ExperimentConstants.VALUE_TAG, details.seeds,
+                    Long::parseLong);
+        } catch (Exception e) {
+            MyLogger.logLoadingOrSimulationStartEnd("Error loading sweep file " + file + ": " + e.getMessage(),
+                    Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+
+        if (!details.isValid()) {
+            MyLogger.logLoadingOrSimulationStartEnd("Sweep in " + file + " is not valid (results file, positive " +
+                    "lanes and speed limits and non negative flow rates are needed)", Constants.ERROR_FOR_LOGGING);
+            return null;
+        }
+        MyLogger.logLoadingOrSimulationStartEnd("Loaded sweep from " + file + ": " + details,
+                Constants.INFO_FOR_LOGGING);
+        return details;
+    }
+
+    /**
+     * helper to load values of one dimension of the grid
+     *
+     * @param root root element of sweep file
+     * @param listTag tag of the list
+     * @param valueTag tag of values in the list
+     * @param values list the values are added to
+     * @param parser parser of one value
+     * @param <T> type of values
+     **/
+    private static <T> void loadList(Element root, String listTag, String valueTag, List<T> values,
+                                     Function<String, T> parser) {
+        Element list = (Element) root.getElementsByTagName(listTag).item(0);
+        if (list == null) {
+            return;
+        }
+        NodeList valueNodes = list.getElementsByTagName(valueTag);
+        for (int i = 0; i < valueNodes.getLength(); i++) {
+            String value = valueNodes.item(i).getTextContent().trim();
+            if (!value.isEmpty()) {
+                values.add(parser.apply(value));
+            }
+        }
+    }
+
+    /**
+     * helper to get trimmed text of the first child element with given tag
+     *
+     * @param parent parent element
+     * @param tag tag of the child
+     * @return text of the child, null if there is no such child
+     **/
+    private static String getText(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+}
@@ -207,6 +207,27 @@ public class Actions {
         DialogMaker.changeTimeBetweenSteps(stage, engine);
     }
 
+    /**
+     * method for turning collection of step metrics on or off, already collected metrics are kept
+     *
+     * @param enable true to collect metrics of phases of steps
+     **/
+    public static void toggleStepMetricsAction(boolean enable) {
+        MyLogger.log("Step metrics " + (enable ? "enabled" : "disabled"), Constants.INFO_FOR_LOGGING);
+        MetricsRegistry.setEnabled(enable);
+        AppContext.RUN_DETAILS.stepMetrics = enable;
+    }
+
+    /**
+     * method for showing collected step metrics in dialog
+     *
+     * @param stage the stage of the application, used for showing dialogs
+     **/
+    public static void showStepMetricsAction(Stage stage) {
+        MyLogger.log("Show step metrics action triggered", Constants.INFO_FOR_LOGGING);
+        DialogMaker.stepMetricsDialog(stage);
+    }
+
     /**
      * method for performing the next step of the simulation, which steps the simulation and then repaints the map to
      * reflect the change
@@ -1126,6 +1126,47 @@ public class DialogMaker {
         });
     }
 
+    /**
+     * dialog showing table of step metrics (time of phases of steps per road and counters), metrics can be refreshed
+     * while simulation runs or cleared
+     *
+     * @param stage owner stage for the dialog
+     **/
+    public static void stepMetricsDialog(Stage stage) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Step metrics");
+        dialog.setHeaderText(MetricsRegistry.isEnabled() ? "Time of phases of steps per road." :
+                "Collection of step metrics is off, turn it on in Simulation menu.");
+        dialog.initOwner(stage);
+
+        ButtonType refreshButtonType = new ButtonType("Refresh", ButtonBar.ButtonData.OTHER);
+        ButtonType resetButtonType = new ButtonType("Reset", ButtonBar.ButtonData.OTHER);
+        dialog.getDialogPane().getButtonTypes().addAll(refreshButtonType, resetButtonType, ButtonType.CLOSE);
+
+        TextArea metricsArea = new TextArea(MetricsRegistry.getMetricsRegistry().dump());
+        metricsArea.setEditable(false);
+        metricsArea.setStyle("-fx-font-family: monospace;");
+        metricsArea.setPrefColumnCount(100);
+        metricsArea.setPrefRowCount(25);
+        dialog.getDialogPane().setContent(metricsArea);
+
+        // refresh and reset keep the dialog open
+        final Button refreshButton = (Button) dialog.getDialogPane().lookupButton(refreshButtonType);
+        refreshButton.addEventFilter(ActionEvent.ACTION, event -> {
+            metricsArea.setText(MetricsRegistry.getMetricsRegistry().dump());
+            event.consume();
+        });
+        final Button resetButton = (Button) dialog.getDialogPane().lookupButton(resetButtonType);
+        resetButton.addEventFilter(ActionEvent.ACTION, event -> {
+            MetricsRegistry.getMetricsRegistry().reset();
+            MyLogger.log("Step metrics were reset via dialog.", Constants.INFO_FOR_LOGGING);
+            metricsArea.setText(MetricsRegistry.getMetricsRegistry().dump());
+            event.consume();
+        });
+
+        dialog.showAndWait();
+    }
+
     /**
      * dialog for selecting output file for simulation results, sets the selected file in results recorder and run
      * details
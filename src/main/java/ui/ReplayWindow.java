@@ -0,0 +1,241 @@
+package ui;
+
+import core.engine.CoreEngine;
+import core.model.Road;
+import core.utils.MyLogger;
+import core.utils.TrajectoryReader;
+import core.utils.constants.Constants;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+/********************************************
+ * Small window with controls for replaying recorded trajectory file in main window. Replay does not compute the
+ * simulation, cars of recorded frame are put directly on roads of opened map and main window is repainted with its
+ * renderer. Replay can be played with different rates (fast-forward), paused and moved to any step with slider or by
+ * writing number of step, index of TrajectoryReader is used so seeking does not read the whole file.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ********************************************/
+public class ReplayWindow {
+
+    /** available playback rates, number of frames moved per tick of the replay **/
+    private static final Double[] PLAYBACK_RATES = {0.25, 0.5, 1.0, 2.0, 4.0, 8.0, 16.0, 64.0};
+
+    /** reader of the replayed trajectory file **/
+    private final TrajectoryReader reader;
+
+    /** roads into which frames are loaded **/
+    private final Road[] roads;
+
+    /** runnable to repaint the main window **/
+    private final Runnable paintAll;
+
+    /** runnable called when the replay window is closed **/
+    private final Runnable onClose;
+
+    /** engine for playing the replay **/
+    private final CoreEngine engine;
+
+    /** stage of the replay window **/
+    private final Stage stage;
+
+    /** position in frames, can be fractional when playing slower than one frame per tick **/
+    private double framePosition = 0.0;
+
+    /** frame currently shown **/
+    private int shownFrame = -1;
+
+    /** current playback rate **/
+    private volatile double rate = 1.0;
+
+    /** slider for seeking **/
+    private Slider seekSlider;
+
+    /** label with current step **/
+    private Label stepLabel;
+
+    /** button for play/pause **/
+    private Button playPauseBtn;
+
+    /** flag set when slider is moved by the replay itself, not by user **/
+    private boolean updatingSlider = false;
+
+    /**
+     * constructor of replay window
+     *
+     * @param owner owner stage (main window)
+     * @param reader reader of trajectory file, it is closed when the replay window is closed
+     * @param roads roads into which frames are loaded
+     * @param periodMs time between ticks of replay in milliseconds
+     * @param paintAll runnable to repaint main window
+     * @param onClose runnable called after replay window is closed, used for restoring the simulation
+     **/
+    public ReplayWindow(Stage owner, TrajectoryReader reader, Road[] roads, long periodMs, Runnable paintAll,
+                        Runnable onClose) {
+        this.reader = reader;
+        this.roads = roads;
+        this.paintAll = paintAll;
+        this.onClose = onClose;
+        this.engine = new CoreEngine(this::tick, Math.max(1, periodMs));
+        this.stage = new Stage();
+        this.stage.initOwner(owner);
+        this.stage.setTitle("Trajectory replay");
+        this.stage.setScene(new Scene(this.createControls()));
+        this.stage.setOnHidden(e -> this.close());
+    }
+
+    /**
+     * shows the replay window and the first frame
+     **/
+    public void show() {
+        this.showFrame(0);
+        this.stage.show();
+    }
+
+    /**
+     * checks if replay window is showing
+     *
+     * @return true if replay window is showing, false otherwise
+     **/
+    public boolean isShowing() {
+        return this.stage.isShowing();
+    }
+
+    /**
+     * creates layout with controls of the replay
+     *
+     * @return root of the replay window
+     **/
+    private VBox createControls() {
+        int lastFrame = Math.max(0, this.reader.getNumberOfFrames() - 1);
+
+        this.seekSlider = new Slider(0, lastFrame, 0);
+        this.seekSlider.setPrefWidth(500);
+        this.seekSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (!this.updatingSlider) {
+                this.seek(newVal.intValue());
+            }
+        });
+
+        this.playPauseBtn = new Button("Play");
+        this.playPauseBtn.setOnAction(e -> this.togglePlay());
+
+        Button backBtn = new Button("<");
+        backBtn.setOnAction(e -> this.seek(this.shownFrame - 1));
+        Button forwardBtn = new Button(">");
+        forwardBtn.setOnAction(e -> this.seek(this.shownFrame + 1));
+
+        ComboBox<Double> rateBox = new ComboBox<>();
+        rateBox.getItems().addAll(PLAYBACK_RATES);
+        rateBox.setValue(this.rate);
+        rateBox.setOnAction(e -> this.rate = rateBox.getValue());
+
+        TextField stepField = new TextField();
+        stepField.setPromptText("Go to step");
+        stepField.setPrefColumnCount(8);
+        stepField.setOnAction(e -> {
+            try {
+                this.seek(this.reader.findFrameOfStep(Integer.parseInt(stepField.getText().trim())));
+            } catch (NumberFormatException ex) {
+                MyLogger.log("Invalid step to seek to: " + stepField.getText(), Constants.WARN_FOR_LOGGING);
+            }
+        });
+
+        this.stepLabel = new Label();
+
+        HBox buttons = new HBox(5, backBtn, this.playPauseBtn, forwardBtn, new Label("Rate:"), rateBox, stepField);
+        VBox root = new VBox(5, buttons, this.seekSlider, this.stepLabel);
+        root.setPadding(new Insets(10));
+        return root;
+    }
+
+    /**
+     * starts or pauses the replay
+     **/
+    private void togglePlay() {
+        if (this.engine.getRunning()) {
+            this.engine.stop();
+            this.playPauseBtn.setText("Play");
+        } else {
+            if (this.shownFrame >= this.reader.getNumberOfFrames() - 1) {
+                this.seek(0); // replay from start when at the end
+            }
+            this.engine.start();
+            this.playPauseBtn.setText("Pause");
+        }
+    }
+
+    /**
+     * moves replay to given frame
+     *
+     * @param frame index of frame to show
+     **/
+    private synchronized void seek(int frame) {
+        this.framePosition = frame;
+        this.showFrame(frame);
+    }
+
+    /**
+     * tick of the replay engine, moves by current rate of frames and shows the new frame, stops at the end
+     **/
+    private synchronized void tick() {
+        int lastFrame = this.reader.getNumberOfFrames() - 1;
+        this.framePosition = Math.min(lastFrame, this.framePosition + this.rate);
+        int frame = (int) this.framePosition;
+        if (frame != this.shownFrame) {
+            this.showFrame(frame);
+        }
+
+        if (frame >= lastFrame) {
+            this.engine.stop();
+            Platform.runLater(() -> this.playPauseBtn.setText("Play"));
+        }
+    }
+
+    /**
+     * loads frame into roads and repaints main window and controls
+     *
+     * @param frame index of frame to show
+     **/
+    private synchronized void showFrame(int frame) {
+        int lastFrame = this.reader.getNumberOfFrames() - 1;
+        frame = Math.max(0, Math.min(frame, lastFrame));
+        if (lastFrame < 0 || !this.reader.loadFrameIntoRoads(frame, this.roads)) {
+            return;
+        }
+        this.shownFrame = frame;
+
+        final int shown = frame;
+        final String text = "Step: " + this.reader.getStepOfFrame(frame) + " | frame " + (frame + 1) + " / "
+                + (lastFrame + 1) + " | cars: " + this.reader.getNumberOfRecordsInFrame(frame);
+        Platform.runLater(() -> {
+            this.updatingSlider = true;
+            this.seekSlider.setValue(shown);
+            this.updatingSlider = false;
+            this.stepLabel.setText(text);
+            this.paintAll.run();
+        });
+    }
+
+    /**
+     * stops replay, closes the trajectory file and calls onClose
+     **/
+    private void close() {
+        this.engine.stop();
+        synchronized (this) { // wait for tick that may be running
+            this.reader.close();
+        }
+        this.onClose.run();
+    }
+}
@@ -29,7 +29,9 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -86,6 +88,9 @@ public class Window extends Application {
      * items in sync **/
     private BooleanProperty[] logSettingsProps;
 
+    /** window controlling replay of trajectory file, null if no replay was opened **/
+    private ReplayWindow replayWindow;
+
     /**
      * start method for JavaFX application
      *
@@ -971,13 +976,20 @@ public class Window extends Application {
                 "/icons/collisionBan.png", collisionBanProp);
         MenuItem setTimeBetweenStepsItem = new MenuItem("Set time between simulation steps (ms)",
                 createMenuIcon("/icons/time.png"));
+        MenuItem replayItem = new MenuItem("Replay trajectory file...");
+        CheckMenuItem stepMetricsItem = new CheckMenuItem("Collect step metrics");
+        stepMetricsItem.setSelected(MetricsRegistry.isEnabled());
+        MenuItem showStepMetricsItem = new MenuItem("Show step metrics...");
 
         menuStartStopItem.setOnAction(e -> handleStartStopAction(primaryStage));
         nextStepItem.setOnAction(e -> this.handleNextStep(primaryStage, paintAll));
         resetSimulationItem.setOnAction(e -> handleReset(primaryStage, paintAll));
         setTimeBetweenStepsItem.setOnAction(e -> Actions.setTimeBetweenStepsAction(primaryStage, engine));
+        replayItem.setOnAction(e -> handleReplay(primaryStage, paintAll));
+        stepMetricsItem.setOnAction(e -> Actions.toggleStepMetricsAction(stepMetricsItem.isSelected()));
+        showStepMetricsItem.setOnAction(e -> Actions.showStepMetricsAction(primaryStage));
 
-        Object[] disabledItems = {menuStartStopItem, nextStepItem, resetSimulationItem};
+        Object[] disabledItems = {menuStartStopItem, nextStepItem, resetSimulationItem, replayItem};
         this.bindDisabledButtons(disabledItems);
 
         simulationMenu.getItems().addAll(
@@ -986,7 +998,10 @@ public class Window extends Application {
                 resetSimulationItem,
                 changeLaneToggleItem,
                 collisionBanToggleItem,
-                setTimeBetweenStepsItem
+                setTimeBetweenStepsItem,
+                replayItem,
+                stepMetricsItem,
+                showStepMetricsItem
         );
 
         return simulationMenu;
@@ -1055,6 +1070,7 @@ public class Window extends Application {
         if (engine != null && engine.getRunning()) {
             engine.stop();
         }
+        TrajectoryRecorder.getTrajectoryRecorder().close();
         Platform.exit();
     }
 
@@ -1077,6 +1093,11 @@ public class Window extends Application {
             return;
         }
 
+        if (this.isReplaying()) {
+            DialogMaker.warningDialog(stage, "Cannot run simulation while replay is open. Close the replay first.");
+            return;
+        }
+
         boolean isRunning = engine.getRunning();
 
         if (!isRunning && simulation.getStepCount() <= 0 && AppContext.RUN_DETAILS.mapChanged) {
@@ -1209,6 +1230,66 @@ public class Window extends Application {
             return;
         }
 
+        if (this.isReplaying()) {
+            DialogMaker.warningDialog(stage, "Cannot step simulation while replay is open. Close the replay first.");
+            return;
+        }
+
         Actions.nextStepAction(simulation, paintAll);
     }
+
+    /**
+     * helper method to check if replay of trajectory file is open
+     *
+     * @return true if replay window is showing, false otherwise
+     **/
+    private boolean isReplaying() {
+        return this.replayWindow != null && this.replayWindow.isShowing();
+    }
+
+    /**
+     * helper method to handle opening replay of trajectory file, simulation is stopped and cars of recorded frames are
+     * shown on roads of opened map, after replay is closed simulation is reset
+     *
+     * @param stage primary stage for file chooser and dialogs
+     * @param paintAll runnable to repaint all roads
+     **/
+    private void handleReplay(Stage stage, Runnable paintAll) {
+        if (this.isReplaying()) {
+            return;
+        }
+
+        if (engine != null && engine.getRunning()) {
+            engine.stop();
+            setButtonImage("/icons/run.png", toolbarStartStopBtn);
+            setButtonImage("/icons/run.png", menuStartStopItem);
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Choose trajectory file to replay");
+        fileChooser.setInitialDirectory(new File(System.getProperty("user.dir")));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Binary trajectory files", "*.bin"),
+                new FileChooser.ExtensionFilter("All files", "*.*")
+        );
+        File selectedFile = fileChooser.showOpenDialog(stage);
+        if (selectedFile == null) {
+            return;
+        }
+
+        TrajectoryReader reader = TrajectoryReader.open(selectedFile.getAbsolutePath());
+        if (reader == null) {
+            DialogMaker.warningDialog(stage, "Could not open trajectory file. Only uncompressed binary trajectory " +
+                    "files can be replayed.");
+            return;
+        }
+
+        MyLogger.log("Replaying trajectory file " + selectedFile.getAbsolutePath(), Constants.INFO_FOR_LOGGING);
+        this.replayWindow = new ReplayWindow(stage, reader, this.simulation.getRoads(),
+                AppContext.RUN_DETAILS.timeBetweenSteps, paintAll, () -> {
+                    this.simulation.resetSimulationWithSameRoads();
+                    Platform.runLater(paintAll);
+                });
+        this.replayWindow.show();
+    }
 }
\ No newline at end of file
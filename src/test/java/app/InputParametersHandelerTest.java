@@ -243,6 +243,19 @@ public class InputParametersHandelerTest {
         }
     }
 
+    /**
+     * test to verify that seed is parsed as number, other text is converted by hash code and missing seed is null
+     **/
+    @Test
+    void getSeedFromParameter_ShouldParseSeed() {
+        try (MockedStatic<MyLogger> loggerMock = mockStatic(MyLogger.class)) {
+            assertNull(InputParametersHandeler.getSeedFromParameter(null));
+            assertNull(InputParametersHandeler.getSeedFromParameter(""));
+            assertEquals(42L, InputParametersHandeler.getSeedFromParameter("42"));
+            assertEquals((long) "abc".hashCode(), InputParametersHandeler.getSeedFromParameter("abc"));
+        }
+    }
+
     // --------------------------------------------------------------------------------
     // TESTS FOR MODEL REFLECTION (CAR FOLLOWING & LANE CHANGING)
     // --------------------------------------------------------------------------------
@@ -1,5 +1,6 @@
 package core.model;
 
+import core.model.continous.ContinuosRoad;
 import core.utils.RandomNumberGenerator;
 import core.utils.constants.Constants;
 import core.utils.constants.RequestConstants;
@@ -9,8 +10,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.lang.reflect.Field;
-import java.util.Queue;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -82,6 +86,99 @@ public class CarGeneratorTest {
         assertFalse(generator.decideIfNewCar(), "Should not generate car when random > p");
     }
 
+    /**
+     * test to verify that next arrival for single car per tick is geometric number of steps drawn from one random number
+     **/
+    @Test
+    void nextArrivalAfter_SinglePerTick_ShouldDrawGeometricSteps() {
+        // Arrange
+        generator.setAllowMultiplePerTick(false);
+
+        // Act & Assert - u = 0.5, -ln(0.5) / 2 = 0.35 -> arrival in the next step
+        when(mockRandom.nextDouble()).thenReturn(0.5);
+        assertEquals(11, generator.nextArrivalAfter(10));
+
+        // u = 0.001, -ln(0.001) / 2 = 3.45 -> three steps without arrival
+        when(mockRandom.nextDouble()).thenReturn(0.999);
+        assertEquals(14, generator.nextArrivalAfter(10));
+        verify(mockRandom, times(2)).nextDouble();
+    }
+
+    /**
+     * test to verify that next arrival with multiple cars per tick is step of the first exponential arrival after the
+     * step, arrivals in the same step are merged
+     **/
+    @Test
+    void nextArrivalAfter_MultiplePerTick_ShouldSkipArrivalsInSameStep() {
+        // Arrange
+        generator.setAllowMultiplePerTick(true);
+        // inter-arrival times -ln(u) / 2: 0.35, 0.35, 1.15
+        when(mockRandom.nextDouble()).thenReturn(0.5, 0.5, 0.9);
+
+        // Act & Assert
+        assertEquals(1, generator.nextArrivalAfter(0), "First arrival at 0.35 is in step 1");
+        assertEquals(2, generator.nextArrivalAfter(1), "Arrival at 0.69 is in step 1 too, next at 1.85 in step 2");
+    }
+
+    /**
+     * test to verify that generator without flow never arrives
+     **/
+    @Test
+    void nextArrivalAfter_ZeroFlow_ShouldReturnNever() {
+        generator.setFlowRate(0.0);
+        assertEquals(CarGenerator.NEVER, generator.nextArrivalAfter(5));
+    }
+
+    /**
+     * test to verify that geometric draws keep the arrival rate of the Bernoulli process, p = 1 - exp(-lambda)
+     **/
+    @Test
+    void nextArrivalAfter_SinglePerTick_ShouldKeepBernoulliRate() {
+        // Arrange - generator with real random numbers
+        RandomNumberGenerator.getInstance(0).resetSeed(3);
+        CarGenerator realGenerator = new CarGenerator(0.1);
+        int steps = 200000;
+
+        // Act
+        int arrivals = 0;
+        long step = realGenerator.nextArrivalAfter(0);
+        while (step <= steps) {
+            arrivals++;
+            step = realGenerator.nextArrivalAfter(step);
+        }
+
+        // Assert
+        double expected = (1.0 - Math.exp(-0.1)) * steps;
+        assertEquals(expected, arrivals, expected * 0.02, "Arrival rate should match Bernoulli process");
+    }
+
+    /**
+     * test to verify that generator with demand profile follows the rate of the profile, no cars in the first half
+     * and rate 0.2 in the second half
+     **/
+    @Test
+    void nextArrivalAfter_DemandProfile_ShouldFollowProfileRate() {
+        // Arrange - generator with real random numbers
+        RandomNumberGenerator.getInstance(0).resetSeed(5);
+        CarGenerator realGenerator = new CarGenerator(1.0);
+        realGenerator.setDemandProfile(DemandProfile.create(new double[]{0, 100000}, new double[]{0.0, 0.2},
+                DemandProfile.INTERPOLATION_CONSTANT));
+        int steps = 200000;
+
+        // Act
+        int arrivals = 0;
+        long step = realGenerator.nextArrivalAfter(0);
+        assertTrue(step > 100000, "No car should arrive while rate of profile is 0");
+        while (step <= steps) {
+            arrivals++;
+            step = realGenerator.nextArrivalAfter(step);
+        }
+
+        // Assert
+        double expected = (1.0 - Math.exp(-0.2)) * 100000;
+        assertEquals(expected, arrivals, expected * 0.02, "Arrival rate should match rate of the profile");
+    }
+
     /**
      * test to verify continuous car generation sets correct scaled parameters and assigns a color
      **/
@@ -155,7 +252,8 @@ public class CarGeneratorTest {
     }
 
     /**
-     * test to verify generateCarsInToQueue correctly generates the specified random amount of cars
+     * test to verify generateCarsInToQueue correctly draws the specified random amount of cars and generates them only
+     * when they get to the head of the queue
      **/
     @Test
     void generateCarsInToQueue_ShouldGenerateCorrectNumberOfCars() {
@@ -169,10 +267,20 @@ public class CarGeneratorTest {
         when(mockRandom.nextDouble()).thenReturn(0.1); // for colors
 
         // Act
-        Queue<CarParams> queue = generator.generateCarsInToQueue();
+        CarQueue queue = generator.generateCarsInToQueue();
 
         // Assert
-        assertEquals(3, queue.size(), "Queue should contain exactly 3 generated cars");
+        assertEquals(3, queue.size(), "Queue should contain exactly 3 cars");
+        verify(mockRandom, never()).nextDouble();
+
+        CarParams head = queue.peek();
+        assertNotNull(head, "Car at the head should be generated when needed");
+        assertSame(head, queue.peek(), "Car at the head should be generated only once");
+        assertSame(head, queue.poll());
+        assertNotNull(queue.poll());
+        assertNotNull(queue.poll());
+        assertTrue(queue.isEmpty(), "Queue should be empty after 3 cars");
+        assertNull(queue.peek());
     }
 
     /**
@@ -268,4 +376,110 @@ public class CarGeneratorTest {
         assertEquals(1.0, cloned.getAllParameters().get("p1").minValue);
         assertEquals(5.0, cloned.getAllComParameters().get("c1").minValue);
     }
+
+    /**
+     * test to verify that with own random streams generators with the same seed and id draw the same arrivals and the
+     * same cars even when they generate cars at different times and the shared generator is used in between
+     **/
+    @Test
+    void useRandomStreams_SameSeedAndStream_ShouldDrawSameArrivalsAndCars() {
+        // Arrange
+        CarGenerator first = new CarGenerator(0.3);
+        CarGenerator second = new CarGenerator(0.3);
+        for (CarGenerator gen : new CarGenerator[]{first, second}) {
+            gen.setType(Constants.CONTINUOUS);
+            gen.setCarGenerationParameters("speed");
+            gen.addParameter("speed", "Speed", 10.0, 30.0);
+            gen.useRandomStreams(42, 7);
+        }
+
+        // Act
+        long[] firstArrivals = new long[5];
+        for (int i = 0; i < firstArrivals.length; i++) {
+            firstArrivals[i] = first.nextArrivalAfter(i == 0 ? 0 : firstArrivals[i - 1]);
+            first.generateCar();
+        }
+        double[] firstSpeeds = {first.generateCar().getParameter("speed"), first.generateCar().getParameter("speed")};
+
+        long[] secondArrivals = new long[5];
+        for (int i = 0; i < secondArrivals.length; i++) {
+            RandomNumberGenerator.getInstance(0).nextDouble(); // model drawing from shared generator
+            secondArrivals[i] = second.nextArrivalAfter(i == 0 ? 0 : secondArrivals[i - 1]);
+        }
+        for (int i = 0; i < 5; i++) {
+            second.generateCar();
+        }
+        double[] secondSpeeds = {second.generateCar().getParameter("speed"), second.generateCar().getParameter("speed")};
+
+        // Assert
+        assertArrayEquals(firstArrivals, secondArrivals, "Arrivals should not depend on cars or shared generator");
+        assertArrayEquals(firstSpeeds, secondSpeeds, "Cars should not depend on arrivals or shared generator");
+        verifyNoInteractions(mockRandom);
+    }
+
+    /**
+     * test to verify that state of own random streams is written and read with the state of the generator, and that
+     * generator without streams goes back to shared generator when reading state
+     **/
+    @Test
+    void writeState_RandomStreams_ShouldContinueSameSequence() throws Exception {
+        // Arrange
+        CarGenerator original = new CarGenerator(0.5);
+        original.useRandomStreams(3, 1);
+        original.nextArrivalAfter(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeState(new DataOutputStream(bytes));
+        ByteArrayOutputStream sharedBytes = new ByteArrayOutputStream();
+        generator.writeState(new DataOutputStream(sharedBytes));
+        CarGenerator restored = new CarGenerator(0.5);
+
+        // Act & Assert
+        restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(original.nextArrivalAfter(10), restored.nextArrivalAfter(10),
+                "Restored generator should continue sequence of its arrival stream");
+
+        restored.readState(new DataInputStream(new ByteArrayInputStream(sharedBytes.toByteArray())));
+        Field randomField = CarGenerator.class.getDeclaredField("randomNumberGenerator");
+        randomField.setAccessible(true);
+        assertSame(RandomNumberGenerator.getInstance(0), randomField.get(restored),
+                "Generator without streams should use shared generator after reading state");
+    }
+
+    /**
+     * test to verify that change of settings of generator changes version of its own road only and makes stale only
+     * arrival schedule of that road
+     **/
+    @Test
+    void setFlowRate_ShouldMakeStaleOnlyScheduleWithTheGenerator() {
+        // Arrange
+        app.AppContext.CAR_FOLLOWING_MODEL = new models.carFollowingModels.IDM();
+        app.AppContext.LANE_CHANGING_MODEL = new models.laneChangingModels.Mobil();
+        Road firstRoad = new ContinuosRoad(100, 2, 30, 0);
+        Road secondRoad = new ContinuosRoad(100, 1, 30, 1);
+        CarGenerator[] firstGenerators = new CarGenerator[]{new CarGenerator(0.5), new CarGenerator(0.5)};
+        CarGenerator[] secondGenerators = new CarGenerator[]{new CarGenerator(0.5)};
+        firstRoad.setCarGenerators(firstGenerators);
+        secondRoad.setCarGenerators(secondGenerators);
+        ArrivalSchedule firstSchedule = new ArrivalSchedule(firstGenerators, firstRoad.getGeneratorSettingsVersion(), 0);
+        ArrivalSchedule secondSchedule = new ArrivalSchedule(secondGenerators, secondRoad.getGeneratorSettingsVersion(),
+                0);
+        int versionBefore = firstRoad.getGeneratorSettingsVersion();
+
+        // Act
+        secondGenerators[0].setFlowRate(0.8);
+
+        // Assert
+        assertEquals(versionBefore, firstRoad.getGeneratorSettingsVersion(), "Other roads should keep their version");
+        assertFalse(firstSchedule.isStale(firstGenerators, firstRoad.getGeneratorSettingsVersion()),
+                "Schedule of other road should stay valid");
+        assertTrue(secondSchedule.isStale(secondGenerators, secondRoad.getGeneratorSettingsVersion()),
+                "Schedule with changed generator should be stale");
+
+        firstGenerators[1].setFlowRate(0.1);
+        assertTrue(firstSchedule.isStale(firstGenerators, firstRoad.getGeneratorSettingsVersion()),
+                "Change of any lane should make schedule stale");
+        ArrivalSchedule rebuilt = new ArrivalSchedule(secondGenerators, secondRoad.getGeneratorSettingsVersion(), 0);
+        assertTrue(rebuilt.isStale(secondGenerators.clone(), secondRoad.getGeneratorSettingsVersion()),
+                "Replaced generators should make schedule stale");
+    }
 }
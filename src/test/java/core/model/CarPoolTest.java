@@ -0,0 +1,92 @@
+package core.model;
+
+import app.AppContext;
+import core.utils.RunDetails;
+import core.utils.constants.Constants;
+import core.utils.constants.RequestConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**************************************
+ * Unit tests for CarPool class, focusing on reusing of cars and counting of cars in use
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ **************************************/
+public class CarPoolTest {
+
+    /** The CarPool instance under test **/
+    private CarPool pool;
+
+    /**
+     * Set up method to initialize the pool and run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        pool = new CarPool();
+    }
+
+    /**
+     * test to verify that returned car is reused and reset to the state of new car
+     **/
+    @Test
+    void acquire_AfterRelease_ShouldReuseResetCar() {
+        CarParams car = pool.acquire();
+        car.id = 5;
+        car.lane = 1;
+        car.xPosition = 42.0;
+        car.processedInCurrentStep = true;
+        car.setParameter(RequestConstants.LENGTH_REQUEST, 4.5);
+        assertEquals(1, pool.getCarsInUse());
+
+        assertTrue(pool.release(car));
+        assertEquals(0, pool.getCarsInUse());
+        CarParams reused = pool.acquire();
+
+        CarParams fresh = new CarParams();
+        assertSame(car, reused, "Returned car should be reused");
+        assertEquals(1, pool.getCarsCreated(), "No new car should be created");
+        assertEquals(fresh.id, reused.id);
+        assertEquals(fresh.lane, reused.lane);
+        assertEquals(fresh.xPosition, reused.xPosition);
+        assertFalse(reused.processedInCurrentStep);
+        assertEquals(fresh.getParameter(RequestConstants.LENGTH_REQUEST),
+                reused.getParameter(RequestConstants.LENGTH_REQUEST), "Parameters should be removed");
+    }
+
+    /**
+     * test to verify that car returned twice is refused in debug mode
+     **/
+    @Test
+    void release_Twice_ShouldBeRefusedInDebugMode() {
+        AppContext.RUN_DETAILS.debug = true;
+        CarParams car = pool.acquire();
+
+        assertTrue(pool.release(car));
+        assertFalse(pool.release(car), "Car returned twice should be refused");
+        assertEquals(0, pool.getCarsInUse());
+        assertEquals(1, pool.getFreeCars());
+        assertFalse(pool.release(null));
+    }
+
+    /**
+     * test to verify that generator fills car from the pool
+     **/
+    @Test
+    void generateCar_WithPool_ShouldUsePooledCar() {
+        CarGenerator generator = new CarGenerator(1.0);
+        generator.setType(Constants.CONTINUOUS);
+        generator.setCarGenerationParameters("");
+        CarParams car = pool.acquire();
+        pool.release(car);
+
+        CarParams generated = generator.generateCar(pool);
+
+        assertSame(car, generated);
+        assertNotNull(generated.color, "Generated car should get color");
+    }
+}
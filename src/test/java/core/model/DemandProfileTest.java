@@ -0,0 +1,83 @@
+package core.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**************************************
+ * Unit tests for DemandProfile class, focusing on cumulative rate and its inverse
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ **************************************/
+public class DemandProfileTest {
+
+    /**
+     * test to verify rate and cumulative rate of profile with constant interpolation
+     **/
+    @Test
+    void cumulativeRate_Constant_ShouldSumRatesOfSegments() {
+        DemandProfile profile = DemandProfile.create(new double[]{0, 10, 20}, new double[]{1.0, 3.0, 0.5},
+                DemandProfile.INTERPOLATION_CONSTANT);
+
+        assertNotNull(profile);
+        assertEquals(3.0, profile.rateAt(15), 1e-12);
+        assertEquals(10.0, profile.cumulativeRate(10), 1e-12);
+        assertEquals(25.0, profile.cumulativeRate(15), 1e-12);
+        assertEquals(42.5, profile.cumulativeRate(25), 1e-12, "Rate of the last point is used after it");
+    }
+
+    /**
+     * test to verify rate and cumulative rate of profile with linear interpolation
+     **/
+    @Test
+    void cumulativeRate_Linear_ShouldIntegrateRamp() {
+        DemandProfile profile = DemandProfile.create(new double[]{0, 10}, new double[]{0.0, 2.0},
+                DemandProfile.INTERPOLATION_LINEAR);
+
+        assertNotNull(profile);
+        assertEquals(1.0, profile.rateAt(5), 1e-12);
+        assertEquals(2.5, profile.cumulativeRate(5), 1e-12);
+        assertEquals(10.0, profile.cumulativeRate(10), 1e-12);
+    }
+
+    /**
+     * test to verify that timeOfCumulativeRate is inverse of cumulativeRate for both interpolations
+     **/
+    @Test
+    void timeOfCumulativeRate_ShouldInvertCumulativeRate() {
+        DemandProfile constant = DemandProfile.create(new double[]{5, 10, 20}, new double[]{1.0, 0.0, 0.5},
+                DemandProfile.INTERPOLATION_CONSTANT);
+        DemandProfile linear = DemandProfile.create(new double[]{0, 10, 30}, new double[]{0.0, 2.0, 0.5},
+                DemandProfile.INTERPOLATION_LINEAR);
+
+        for (double time = 0.5; time < 40; time += 1.5) {
+            assertEquals(time, linear.timeOfCumulativeRate(linear.cumulativeRate(time)), 1e-9);
+        }
+        assertEquals(7.0, constant.timeOfCumulativeRate(7.0), 1e-12);
+        assertEquals(10.0, constant.timeOfCumulativeRate(10.0), 1e-12, "First time of the value should be returned");
+        assertEquals(22.0, constant.timeOfCumulativeRate(11.0), 1e-12, "Segment with zero rate should be skipped");
+    }
+
+    /**
+     * test to verify that value is never reached when rate after the last point is 0
+     **/
+    @Test
+    void timeOfCumulativeRate_ZeroRateAtEnd_ShouldReturnInfinity() {
+        DemandProfile profile = DemandProfile.create(new double[]{0, 10}, new double[]{1.0, 0.0},
+                DemandProfile.INTERPOLATION_CONSTANT);
+
+        assertEquals(Double.POSITIVE_INFINITY, profile.timeOfCumulativeRate(11.0));
+    }
+
+    /**
+     * test to verify that invalid points and interpolation are refused
+     **/
+    @Test
+    void create_InvalidPoints_ShouldReturnNull() {
+        assertNull(DemandProfile.create(new double[]{}, new double[]{}, DemandProfile.INTERPOLATION_CONSTANT));
+        assertNull(DemandProfile.create(new double[]{0, 0}, new double[]{1, 1}, DemandProfile.INTERPOLATION_CONSTANT));
+        assertNull(DemandProfile.create(new double[]{0}, new double[]{-1}, DemandProfile.INTERPOLATION_CONSTANT));
+        assertNull(DemandProfile.create(new double[]{0}, new double[]{1}, "cubic"));
+    }
+}
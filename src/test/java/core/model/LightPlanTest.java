@@ -203,4 +203,67 @@ public class LightPlanTest {
         assertEquals("LightPlan(cycleTime=80, timeOfSwitch=40, beginsOnGreen=true)", result,
                 "toString should return the correctly formatted representation");
     }
-}
\ No newline at end of file
+
+    /**
+     * test to verify that nextSwitchAfter returns start of the next cycle or time of switch, whichever comes first
+     **/
+    @Test
+    void nextSwitchAfter_ShouldReturnNextStartOrSwitch() {
+        // Arrange
+        LightPlan plan = new LightPlan(60, 20, true);
+
+        // Act & Assert
+        assertEquals(20, plan.nextSwitchAfter(0));
+        assertEquals(20, plan.nextSwitchAfter(19));
+        assertEquals(60, plan.nextSwitchAfter(20));
+        assertEquals(120, plan.nextSwitchAfter(119), "Start of the cycle should be the next switch");
+        assertEquals(140, plan.nextSwitchAfter(120));
+        assertEquals(0, plan.nextSwitchAfter(-1));
+    }
+
+    /**
+     * test to verify that light that is always green never switches
+     **/
+    @Test
+    void nextSwitchAfter_AlwaysGreen_ShouldReturnNever() {
+        LightPlan plan = new LightPlan(60, 60, true);
+
+        assertEquals(LightPlan.NEVER, plan.nextSwitchAfter(10));
+    }
+
+    /**
+     * test to verify that offset shifts the cycle, switches and phase at time 0
+     **/
+    @Test
+    void offset_ShouldShiftCycle() {
+        // Arrange
+        LightPlan plan = new LightPlan(60, 20, true);
+
+        // Act
+        plan.setOffset(10);
+
+        // Assert
+        assertFalse(plan.isGreen(), "At time 0 the light is in the red part of the previous cycle");
+        assertEquals(10, plan.nextSwitchAfter(0), "Cycle should start at offset");
+        assertEquals(30, plan.nextSwitchAfter(10), "Switch should be shifted by offset");
+        plan.tryToSwitchLight(10);
+        assertTrue(plan.isGreen());
+        plan.tryToSwitchLight(30);
+        assertFalse(plan.isGreen());
+    }
+
+    /**
+     * test to verify that clone keeps the offset
+     **/
+    @Test
+    void clone_ShouldCopyOffset() {
+        LightPlan plan = new LightPlan(60, 20, true);
+        plan.setOffset(45);
+
+        LightPlan clone = plan.clone();
+
+        assertEquals(45, clone.getOffset());
+        assertEquals(plan.isGreen(), clone.isGreen());
+        assertEquals("LightPlan(cycleTime=60, timeOfSwitch=20, beginsOnGreen=true, offset=45)", clone.toString());
+    }
+}
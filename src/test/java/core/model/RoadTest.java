@@ -16,6 +16,8 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -73,6 +75,46 @@ public class RoadTest {
             return true;
         }
 
+        /**
+         * placeCarAt is an abstract method that we need to override, but for testing purposes we can leave it empty
+         *
+         * @param car the CarParams object representing the car to be placed
+         * @param position position of the car
+         * @param lane the lane in which to place the car
+         **/
+        @Override
+        public void placeCarAt(CarParams car, double position, int lane) {
+        }
+
+        /**
+         * placeCarsEvenly is an abstract method that we need to override, dummy road has no cars so none are placed
+         *
+         * @param carsPerLane number of cars on every lane
+         * @return always 0
+         **/
+        @Override
+        public int placeCarsEvenly(int carsPerLane) {
+            return 0;
+        }
+
+        /**
+         * writeCars is an abstract method that we need to override, dummy road has no cars so nothing is written
+         *
+         * @param out stream to write to
+         **/
+        @Override
+        protected void writeCars(DataOutputStream out) {
+        }
+
+        /**
+         * readCars is an abstract method that we need to override, dummy road has no cars so nothing is read
+         *
+         * @param in stream to read from
+         **/
+        @Override
+        protected void readCars(DataInputStream in) {
+        }
+
         /**
          * getContent is an abstract method that we need to override, but for testing purposes we can simply return null
          *
@@ -307,6 +349,52 @@ public class RoadTest {
         assertEquals(initialCarId + 1, road.idOfCar, "The road.idOfCar counter should increment after adding a car");
     }
 
+    /**
+     * test to verify that tryToAddCar generates cars only in steps when arrival of lane is due
+     **/
+    @Test
+    void tryToAddCar_ShouldGenerateOnlyOnDueArrivals() {
+        // Arrange - both lanes share the generator, next arrival is always three steps later
+        when(mockGenerator.nextArrivalAfter(anyLong())).thenAnswer(invocation -> (long) invocation.getArgument(0) + 3);
+        CarParams newCar = new CarParams();
+        newCar.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+        when(mockGenerator.generateCar()).thenReturn(newCar);
+
+        // Act & Assert
+        road.tryToAddCar();
+        road.tryToAddCar();
+        verify(mockGenerator, never()).generateCar();
+        road.tryToAddCar();
+        verify(mockGenerator, times(2)).generateCar(); // arrival on both lanes in step 3
+        road.tryToAddCar();
+        road.tryToAddCar();
+        road.tryToAddCar();
+        verify(mockGenerator, times(4)).generateCar(); // and again in step 6
+        verify(mockGenerator, never()).decideIfNewCar();
+    }
+
+    /**
+     * test to verify that cars of queue are generated only when they are added to the road
+     **/
+    @Test
+    void addFromQueue_ShouldGenerateCarsOnlyWhenAdded() {
+        // Arrange
+        CarParams newCar = new CarParams();
+        newCar.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+        when(mockGenerator.generateCar()).thenReturn(newCar);
+        road.carQueuesPerLane = new CarQueue[]{new CarQueue(mockGenerator, 100000), null};
+        verify(mockGenerator, never()).generateCar();
+
+        // Act
+        road.addFromQueue(0);
+        road.addFromQueue(0);
+
+        // Assert
+        verify(mockGenerator, times(2)).generateCar();
+        assertEquals(99998, road.carQueuesPerLane[0].size(), "Two cars should leave the queue");
+        assertFalse(road.areAllQueuesEmpty());
+    }
+
     /**
      * test to verify queue status methods when queues are not initialized or empty
      **/
@@ -318,7 +406,7 @@ public class RoadTest {
 
         // Initialize empty queues
         when(mockGenerator.generatingToQueue()).thenReturn(true);
-        when(mockGenerator.generateCarsInToQueue()).thenReturn(new LinkedList<>());
+        when(mockGenerator.generateCarsInToQueue()).thenReturn(new CarQueue(mockGenerator, 0));
 
         road.setUpQueuesIfNeeded();
 
@@ -5,6 +5,8 @@ import core.model.CarGenerator;
 import core.model.CarParams;
 import core.utils.ResultsRecorder;
 import core.utils.RunDetails;
+import core.utils.TrajectoryDetails;
+import core.utils.TrajectoryRecorder;
 import core.utils.constants.RequestConstants;
 import models.ICarFollowingModel;
 import models.ILaneChangingModel;
@@ -12,11 +14,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.File;
 import java.util.LinkedList;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -287,6 +291,47 @@ public class CellularRoadTest {
         assertFalse(cells[0][19].isOccupied(), "Cell 19 should be empty");
     }
 
+    /**
+     * test to verify that car which reaches the end of the road and is only cut is recorded to trajectory as well
+     *
+     * @param tempDir temporary directory for trajectory file
+     **/
+    @Test
+    void updateRoad_CarReachingEnd_ShouldBeRecordedToTrajectory(@TempDir File tempDir) {
+        CarParams car = new CarParams();
+        car.id = 4;
+        car.lane = 0;
+        car.xPosition = 19.0;
+        car.setParameter(RequestConstants.LENGTH_REQUEST, 3.0);
+        car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, 2.0);
+
+        Cell[][] cells = road.getContent();
+        for (int position = 17; position <= 19; position++) {
+            cells[0][position].setOccupied(true);
+            cells[0][position].setHead(position == 19);
+            cells[0][position].setCarParams(car);
+        }
+
+        when(mockCarFollowingModel.requestParameters()).thenReturn(RequestConstants.CURRENT_SPEED_REQUEST);
+        when(mockCarFollowingModel.getNewSpeed(any())).thenReturn(2.0); // head leaves, body stays on the road
+
+        TrajectoryDetails details = new TrajectoryDetails();
+        details.trajectoryFile = new File(tempDir, "traj.bin").getAbsolutePath();
+        TrajectoryRecorder recorder = TrajectoryRecorder.getTrajectoryRecorder();
+        try {
+            recorder.open(details);
+            recorder.startStep(0);
+
+            road.updateRoad();
+
+            assertEquals(1, road.getNumberOfCarsOnRoad(), "Cut car should stay on the road");
+            assertEquals(1, recorder.getRecordsWritten(), "Car reaching the end should be recorded");
+        } finally {
+            recorder.close();
+            recorder.startStep(1); // recorder is closed, so recording step is turned off for other tests
+        }
+    }
+
     /**
      * test to verify that getNumberOfCarsOnRoad counts only head cells
      **/
@@ -348,4 +393,53 @@ public class CellularRoadTest {
         assertFalse(cells[1][8].isOccupied(), "Cell 1,8 should be cleared");
         assertEquals(0, road.getNumberOfCarsOnRoad(), "Road should be completely empty");
     }
+
+    /**
+     * test to verify that on ring road car passing the end enters the start and is slowed by the car that is ahead of
+     * it behind the end of the road
+     **/
+    @Test
+    void updateRoad_PeriodicRoad_ShouldWrapCarsAround() {
+        road.setPeriodic(true);
+        AppContext.SIMULATION = mock(core.sim.Simulation.class);
+        CarParams frontCar = new CarParams();
+        frontCar.setParameter(RequestConstants.LENGTH_REQUEST, 1.0);
+        CarParams firstCar = new CarParams();
+        firstCar.setParameter(RequestConstants.LENGTH_REQUEST, 1.0);
+        road.placeCarAt(frontCar, 19, 0);
+        road.placeCarAt(firstCar, 1, 0);
+
+        when(mockCarFollowingModel.getNewSpeed(any())).thenReturn(5.0);
+
+        int carsPassed = road.updateRoad();
+
+        assertEquals(1, carsPassed, "Car passing the end of the ring should be counted");
+        assertEquals(0.0, frontCar.xPosition, "Front car should stop behind the first car at the start of the ring");
+        assertEquals(6.0, firstCar.xPosition, "First car should move by its speed");
+        assertEquals(2, road.getNumberOfCarsOnRoad());
+        verify(mockGenerator, never()).generateCar();
+    }
+
+    /**
+     * test to verify that cars are placed with the same distance on every lane of the ring
+     **/
+    @Test
+    void placeCarsEvenly_ShouldPlaceCarsWithSameDistance() {
+        road.setPeriodic(true);
+        when(mockGenerator.generateCar()).thenAnswer(invocation -> {
+            CarParams car = new CarParams();
+            car.setParameter(RequestConstants.LENGTH_REQUEST, 2.0);
+            return car;
+        });
+
+        int placed = road.placeCarsEvenly(4);
+        Cell[][] cells = road.getContent();
+
+        assertEquals(8, placed);
+        for (int head : new int[]{1, 6, 11, 16}) {
+            assertTrue(cells[1][head].isHead(), "Head should be at cell " + head);
+            assertTrue(cells[1][head - 1].isOccupied(), "Body should be behind head at cell " + head);
+        }
+        assertTrue(road.placeCarsEvenly(11) < 22, "Cars longer than their distance should not be placed");
+    }
 }
\ No newline at end of file
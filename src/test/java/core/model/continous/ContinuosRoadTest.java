@@ -227,6 +227,31 @@ public class ContinuosRoadTest {
         assertEquals(0, road.getNumberOfCarsOnRoad(), "Car should be removed from the list after passing 100m");
     }
 
+    /**
+     * test to verify that car leaving the road is returned to the pool when car pooling is enabled and the pool is
+     * given to generators
+     **/
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateRoad_CarExitingWithPooling_ShouldReturnCarToPool() {
+        AppContext.RUN_DETAILS.carPooling = true;
+        CarParams car = new CarParams();
+        car.lane = 0;
+        car.xPosition = 98.0;
+        car.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+        ((LinkedList<CarParams>[]) road.getContent())[0].add(car);
+
+        when(mockCarFollowingModel.requestParameters()).thenReturn(RequestConstants.X_POSITION_REQUEST);
+        when(mockCarFollowingModel.getNewSpeed(any())).thenReturn(10.0);
+
+        road.updateRoad();
+
+        org.mockito.ArgumentCaptor<CarPool> poolCaptor = org.mockito.ArgumentCaptor.forClass(CarPool.class);
+        verify(mockGenerator, atLeastOnce()).generateCar(poolCaptor.capture());
+        assertEquals(0, road.getNumberOfCarsOnRoad());
+        assertEquals(1, poolCaptor.getValue().getFreeCars(), "Car that left the road should be in the pool");
+    }
+
     /**
      * test to verify that lane changing logic moves a car to a different lane
      * when requested by the lane changing model
@@ -312,4 +337,84 @@ public class ContinuosRoadTest {
 
         assertEquals(0, road.getNumberOfCarsOnRoad(), "All lanes should be empty after removeAllCars()");
     }
+
+    /**
+     * test to verify that car passing the end of ring road enters its start and no car is generated
+     **/
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateRoad_PeriodicRoad_ShouldWrapCarToStart() {
+        road.setPeriodic(true);
+        CarParams car = new CarParams();
+        car.lane = 0;
+        car.xPosition = 98.0;
+        car.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+        ((LinkedList<CarParams>[]) road.getContent())[0].add(car);
+
+        when(mockCarFollowingModel.requestParameters()).thenReturn(RequestConstants.X_POSITION_REQUEST);
+        when(mockCarFollowingModel.getNewSpeed(any())).thenReturn(10.0);
+
+        int carsPassed = road.updateRoad();
+
+        assertEquals(1, carsPassed, "Car passing the end of the ring should be counted");
+        assertEquals(1, road.getNumberOfCarsOnRoad(), "Car should stay on the ring");
+        assertEquals(8.0, car.xPosition, 1e-9, "Car should continue from the start of the ring");
+        verify(mockGenerator, never()).generateCar(any());
+        verify(mockGenerator, never()).generateCar();
+    }
+
+    /**
+     * test to verify that the front car of ring road follows the last car of the lane, which is ahead of it by one
+     * length of the road
+     **/
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateRoad_PeriodicRoad_FrontCarShouldFollowFirstCar() {
+        road.setPeriodic(true);
+        LinkedList<CarParams>[] vehicles = (LinkedList<CarParams>[]) road.getContent();
+        CarParams firstCar = new CarParams();
+        firstCar.lane = 0;
+        firstCar.xPosition = 3.0;
+        firstCar.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+        vehicles[0].add(firstCar);
+        CarParams frontCar = new CarParams();
+        frontCar.lane = 0;
+        frontCar.xPosition = 95.0;
+        frontCar.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+        vehicles[0].add(frontCar);
+
+        when(mockCarFollowingModel.requestParameters()).thenReturn(RequestConstants.X_POSITION_REQUEST);
+        when(mockCarFollowingModel.getNewSpeed(any())).thenReturn(20.0);
+
+        road.updateRoad();
+
+        // back of the first car is at 98 on the ring, so gap of the front car is 3 and speed gap - 1.0
+        assertEquals(2.0, frontCar.getParameter(RequestConstants.CURRENT_SPEED_REQUEST),
+                "Front car should be slowed by the first car of the ring");
+        assertEquals(97.0, frontCar.xPosition, 1e-9);
+    }
+
+    /**
+     * test to verify that cars are placed with the same distance on every lane and that cars that do not fit are not
+     * placed
+     **/
+    @Test
+    @SuppressWarnings("unchecked")
+    void placeCarsEvenly_ShouldPlaceCarsWithSameDistance() {
+        road.setPeriodic(true);
+        when(mockGenerator.generateCar()).thenAnswer(invocation -> {
+            CarParams car = new CarParams();
+            car.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+            return car;
+        });
+
+        int placed = road.placeCarsEvenly(4);
+        LinkedList<CarParams>[] vehicles = (LinkedList<CarParams>[]) road.getContent();
+
+        assertEquals(8, placed);
+        assertEquals(8, road.getNumberOfCarsOnRoad());
+        assertEquals(5.0, vehicles[1].get(0).xPosition, 1e-9);
+        assertEquals(80.0, vehicles[1].get(3).xPosition, 1e-9);
+        assertTrue(road.placeCarsEvenly(25) < 50, "Cars longer than their distance should not be placed");
+    }
 }
\ No newline at end of file
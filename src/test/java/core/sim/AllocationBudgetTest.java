@@ -0,0 +1,179 @@
+package core.sim;
+
+import app.AppContext;
+import app.InputParametersHandeler;
+import core.model.Road;
+import core.model.cellular.CellularRoad;
+import core.model.continous.ContinuosRoad;
+import core.utils.ResultsRecorder;
+import core.utils.RunDetails;
+import core.utils.constants.Constants;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/************************
+ * Allocation regression tests, standard ring road scenarios are stepped until the code is compiled and bytes allocated
+ * by the simulation thread per step are compared with budget declared for the scenario. Car following models run on
+ * one lane without lane changes, lane changing models on three lanes with reference car following model of their type.
+ * Budget is about one and a half of the allocation measured when the budget was set (runs differ by less than a tenth),
+ * so only real regressions fail, when allocation of hot path is lowered, budget is lowered with it.
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class AllocationBudgetTest {
+
+    /** length of ring road in meters **/
+    private static final int LENGTH = 1000;
+
+    /** number of cars per kilometer of one lane **/
+    private static final int DENSITY = 30;
+
+    /** speed limit of the road in meters per second **/
+    private static final double SPEED_LIMIT = 30.0;
+
+    /** steps made before measurement, so hot paths are compiled **/
+    private static final int WARM_UP_STEPS = 2000;
+
+    /** measured steps **/
+    private static final int MEASURED_STEPS = 200;
+
+    /** run details before the test **/
+    private RunDetails previousRunDetails;
+
+    /**
+     * setup method to initialize run details needed by roads, models and simulation, logging is turned off
+     **/
+    @BeforeEach
+    void setUp() {
+        this.previousRunDetails = AppContext.RUN_DETAILS;
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        AppContext.RUN_DETAILS.timeStep = 1.0;
+        AppContext.RUN_DETAILS.duration = Integer.MAX_VALUE;
+    }
+
+    /**
+     * restores app context changed by scenario
+     **/
+    @AfterEach
+    void tearDown() {
+        AppContext.RUN_DETAILS = this.previousRunDetails;
+        AppContext.SIMULATION = null;
+        AppContext.CAR_FOLLOWING_MODEL = null;
+        AppContext.LANE_CHANGING_MODEL = null;
+    }
+
+    /**
+     * test to verify that car following models stay within their budget of allocated bytes per step
+     *
+     * @param carFollowingModel id of car following model
+     * @param laneChangingModel id of lane changing model of the same type (unused without lane changes)
+     * @param budget allowed allocated bytes per step
+     **/
+    @ParameterizedTest(name = "{0}: {2} B per step")
+    @CsvSource({
+            "idm,                 mobil, 150000",
+            "gipps,               mobil, 160000",
+            "fvdm,                mobil, 150000",
+            "helly,               mobil, 150000",
+            "juts,                stca,  85000",
+            "ovm-original,        mobil, 120000",
+            "ovm-different,       mobil, 120000",
+            "nagel-schreckenberg, stca,  85000",
+            "kkw-linear,          stca,  115000",
+            "kkw-quadratic,       stca,  115000",
+            "rule-184,            stca,  70000"
+    })
+    void carFollowingModel_ShouldStayWithinBudget(String carFollowingModel, String laneChangingModel, long budget) {
+        long allocated = bytesPerStep(carFollowingModel, laneChangingModel, 1, false);
+        assertTrue(allocated <= budget, carFollowingModel + " allocated " + allocated + " B per step, budget is " +
+                budget + " B");
+    }
+
+    /**
+     * test to verify that lane changing models stay within their budget of allocated bytes per step
+     *
+     * @param carFollowingModel id of reference car following model of the same type
+     * @param laneChangingModel id of lane changing model
+     * @param budget allowed allocated bytes per step
+     **/
+    @ParameterizedTest(name = "{1}: {2} B per step")
+    @CsvSource({
+            "idm,                 mobil,             11000000",
+            "idm,                 mobil-simple,      10500000",
+            "nagel-schreckenberg, stca,              850000",
+            "nagel-schreckenberg, f-stca,            850000",
+            "nagel-schreckenberg, rickert,           850000",
+            "nagel-schreckenberg, rickert-transsims, 850000"
+    })
+    void laneChangingModel_ShouldStayWithinBudget(String carFollowingModel, String laneChangingModel, long budget) {
+        long allocated = bytesPerStep(carFollowingModel, laneChangingModel, 3, true);
+        assertTrue(allocated <= budget, laneChangingModel + " allocated " + allocated + " B per step, budget is " +
+                budget + " B");
+    }
+
+    /**
+     * builds ring road with evenly placed cars, warms it up and measures bytes allocated by this thread per step
+     *
+     * @param carFollowingModelId id of car following model, it gives type of road
+     * @param laneChangingModelId id of lane changing model
+     * @param lanes number of lanes
+     * @param laneChange whether cars change lanes
+     * @return allocated bytes per measured step
+     **/
+    private static long bytesPerStep(String carFollowingModelId, String laneChangingModelId, int lanes,
+                                     boolean laneChange) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "allocation of threads is not measured by this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation of threads is not measured by this JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ICarFollowingModel carFollowingModel = InputParametersHandeler.getCarFollowingModelById(carFollowingModelId);
+        ILaneChangingModel laneChangingModel = InputParametersHandeler.getLaneChangingModelById(laneChangingModelId);
+        assertNotNull(carFollowingModel, carFollowingModelId);
+        assertNotNull(laneChangingModel, laneChangingModelId);
+        assertEquals(carFollowingModel.getType(), laneChangingModel.getType());
+        AppContext.CAR_FOLLOWING_MODEL = carFollowingModel;
+        AppContext.LANE_CHANGING_MODEL = laneChangingModel;
+        AppContext.RUN_DETAILS.laneChange = laneChange;
+
+        Road road;
+        if (Constants.CELLULAR.equals(carFollowingModel.getType())) {
+            road = new CellularRoad(LENGTH, lanes, SPEED_LIMIT, carFollowingModel.getCellSize(), 0);
+        } else {
+            road = new ContinuosRoad(LENGTH, lanes, SPEED_LIMIT, 0);
+        }
+        road.setTypesOfGenerators();
+        road.setPeriodic(true);
+        Simulation simulation = new Simulation(new Road[]{road});
+        AppContext.SIMULATION = simulation;
+        ResultsRecorder.getResultsRecorder().initialize(simulation.getRoads(), null);
+        int carsPerLane = DENSITY * LENGTH / 1000;
+        assertEquals(carsPerLane * lanes, road.placeCarsEvenly(carsPerLane));
+
+        for (int i = 0; i < WARM_UP_STEPS; i++) {
+            simulation.step();
+        }
+        // records of stopped cars grow with steps, they are started again so measured steps do not copy them
+        ResultsRecorder.getResultsRecorder().initialize(simulation.getRoads(), null);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_STEPS; i++) {
+            simulation.step();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        return allocated / MEASURED_STEPS;
+    }
+}
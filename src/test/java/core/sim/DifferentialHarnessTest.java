@@ -0,0 +1,155 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.CarParams;
+import core.model.Road;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Tests of differential harness, variants of the engine in this version have to give the same states as the reference
+ * engine on random scenarios and deliberately broken variant has to be caught at the step it broke the state
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class DifferentialHarnessTest {
+
+    /** seed of the first random scenario **/
+    private static final long SEED = 20240601L;
+
+    /** number of random scenarios per variant **/
+    private static final int SCENARIOS = 5;
+
+    /** steps of every scenario **/
+    private static final int STEPS = 250;
+
+    /** step at which the broken variant moves car **/
+    private static final int BROKEN_STEP = 120;
+
+    /** run details before the test **/
+    private RunDetails previousRunDetails;
+
+    /**
+     * setup method to initialize run details, harness restores them after every comparison
+     **/
+    @BeforeEach
+    void setUp() {
+        this.previousRunDetails = AppContext.RUN_DETAILS;
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * restores app context
+     **/
+    @AfterEach
+    void tearDown() {
+        AppContext.RUN_DETAILS = this.previousRunDetails;
+        AppContext.SIMULATION = null;
+        AppContext.CAR_FOLLOWING_MODEL = null;
+        AppContext.LANE_CHANGING_MODEL = null;
+    }
+
+    /**
+     * test to verify that variants of the engine do not diverge from the reference engine
+     *
+     * @param variant variant of the engine
+     **/
+    @ParameterizedTest
+    @EnumSource(DifferentialHarness.BuiltInVariant.class)
+    void builtInVariant_ShouldMatchReference(DifferentialHarness.BuiltInVariant variant) {
+        DifferentialHarness.Divergence divergence = DifferentialHarness.compareRandom(variant, SEED, SCENARIOS,
+                STEPS);
+        assertNull(divergence, () -> String.valueOf(divergence));
+    }
+
+    /**
+     * test to verify that random scenario is the same for the same seed
+     **/
+    @Test
+    void random_ShouldBeReproducible() {
+        assertEquals(DifferentialHarness.Scenario.random(SEED).toString(),
+                DifferentialHarness.Scenario.random(SEED).toString());
+    }
+
+    /**
+     * test to verify that divergence is reported at the step the candidate moved car, with the moved car in difference
+     **/
+    @Test
+    void brokenVariant_ShouldBeReportedAtFirstDivergingStep() {
+        DifferentialHarness.Scenario scenario = DifferentialHarness.Scenario.random(SEED);
+        scenario.carFollowingModel = "idm";
+        scenario.laneChangingModel = "mobil";
+        scenario.laneChange = false;
+        int[] movedCar = {-1};
+        IEngineVariant broken = new IEngineVariant() {
+            @Override
+            public String getName() {
+                return "broken";
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void step(Simulation simulation) {
+                simulation.step();
+                if (simulation.getStepCount() != BROKEN_STEP) {
+                    return;
+                }
+                for (Road road : simulation.getRoads()) {
+                    for (List<CarParams> lane : (List<CarParams>[]) road.getContent()) {
+                        if (!lane.isEmpty()) {
+                            lane.get(0).xPosition += 0.5;
+                            movedCar[0] = lane.get(0).id;
+                            return;
+                        }
+                    }
+                }
+            }
+        };
+
+        DifferentialHarness.Divergence divergence = DifferentialHarness.compare(scenario,
+                DifferentialHarness.BuiltInVariant.REFERENCE, broken, STEPS);
+
+        assertTrue(movedCar[0] >= 0, "no car to move at step " + BROKEN_STEP);
+        assertNotNull(divergence);
+        assertEquals(BROKEN_STEP, divergence.step);
+        assertNotEquals(divergence.referenceHash, divergence.candidateHash);
+        assertTrue(divergence.differences.stream().anyMatch(line -> line.startsWith("car " + movedCar[0] + ":")),
+                divergence::toString);
+    }
+
+    /**
+     * test to verify that exception of candidate is reported as divergence
+     **/
+    @Test
+    void failingVariant_ShouldBeReportedAsDivergence() {
+        IEngineVariant failing = new IEngineVariant() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public void step(Simulation simulation) {
+                throw new IllegalStateException("not implemented");
+            }
+        };
+
+        DifferentialHarness.Divergence divergence = DifferentialHarness.compare(
+                DifferentialHarness.Scenario.random(SEED), DifferentialHarness.BuiltInVariant.REFERENCE, failing, 10);
+
+        assertNotNull(divergence);
+        assertEquals(1, divergence.step);
+        assertEquals(-1, divergence.road);
+        assertTrue(divergence.toString().contains("not implemented"));
+    }
+}
@@ -0,0 +1,99 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.utils.FundamentalDiagramDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/************************
+ * Unit tests for FundamentalDiagram class, focusing on pairing of models, preparing ring roads and computing points of
+ * the diagram, ring runs are not started
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class FundamentalDiagramTest {
+
+    /** mock road of the map **/
+    @Mock
+    private Road mockRoad;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that every car following model gets the first lane changing model of its type and model without
+     * one is skipped
+     **/
+    @Test
+    void pairModels_ShouldPairFirstCompatibleLaneChangingModel() {
+        // Arrange
+        FundamentalDiagramDetails details = new FundamentalDiagramDetails();
+        details.carFollowingModels.addAll(List.of("idm", "nagel", "kkw"));
+        details.laneChangingModels.addAll(List.of("mobil", "rickert", "mobil-simple"));
+        List<String> cellular = List.of("nagel", "rickert");
+
+        // Act
+        List<String[]> models = FundamentalDiagram.pairModels(details, (carFollowing, laneChanging) ->
+                !carFollowing.equals("kkw") && cellular.contains(carFollowing) == cellular.contains(laneChanging));
+
+        // Assert
+        assertEquals(2, models.size());
+        assertArrayEquals(new String[]{"idm", "mobil"}, models.get(0));
+        assertArrayEquals(new String[]{"nagel", "rickert"}, models.get(1));
+    }
+
+    /**
+     * test to verify that roads are made ring roads with number of cars given by density and that failed placement
+     * is reported
+     **/
+    @Test
+    void prepareRings_ShouldPlaceCarsByDensity() {
+        // Arrange
+        when(mockRoad.getLength()).thenReturn(500.0);
+        when(mockRoad.getNumberOfLanes()).thenReturn(2);
+        when(mockRoad.placeCarsEvenly(10)).thenReturn(20);
+        when(mockRoad.placeCarsEvenly(100)).thenReturn(150);
+
+        // Act & Assert
+        assertTrue(FundamentalDiagram.prepareRings(new Road[]{mockRoad}, 20.0));
+        assertFalse(FundamentalDiagram.prepareRings(new Road[]{mockRoad}, 200.0));
+        verify(mockRoad, times(2)).setPeriodic(true);
+    }
+
+    /**
+     * test to verify that flow is computed per hour and lane and speed is flow divided by density
+     **/
+    @Test
+    void measurePoint_ShouldComputeFlowAndSpeed() {
+        // Arrange
+        when(mockRoad.getLength()).thenReturn(1000.0);
+        when(mockRoad.getNumberOfLanes()).thenReturn(2);
+        RunResult result = new RunResult(600, 0.0, 0.0, 0, 3600);
+
+        // Act
+        double[] point = FundamentalDiagram.measurePoint(new Road[]{mockRoad}, 20.0, result, 1.0);
+
+        // Assert
+        assertEquals(20.0, point[0], 1e-9, "Density should be cars per km and lane");
+        assertEquals(300.0, point[1], 1e-9, "Flow should be cars per hour and lane");
+        assertEquals(15.0, point[2], 1e-9, "Speed should be flow divided by density");
+    }
+}
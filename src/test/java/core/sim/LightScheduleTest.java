@@ -0,0 +1,140 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.LightPlan;
+import core.model.Road;
+import core.model.continous.ContinuosRoad;
+import models.carFollowingModels.IDM;
+import models.laneChangingModels.Mobil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/************************
+ * Unit tests for LightSchedule class, focusing on equivalence with switching lights every step
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class LightScheduleTest {
+
+    /** mock road with light plans **/
+    @Mock
+    private Road mockRoad;
+
+    /**
+     * sets models needed by default generators of real roads
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.CAR_FOLLOWING_MODEL = new IDM();
+        AppContext.LANE_CHANGING_MODEL = new Mobil();
+    }
+
+    /**
+     * test to verify that lights switched by schedule are in the same state as lights switched every step, also for
+     * cycles longer than the wheel
+     **/
+    @Test
+    void update_ShouldMatchSwitchingEveryStep() {
+        // Arrange
+        Random random = new Random(7);
+        int numberOfLights = 40;
+        LightPlan[] scheduled = new LightPlan[numberOfLights];
+        LightPlan[] polled = new LightPlan[numberOfLights];
+        for (int i = 0; i < numberOfLights; i++) {
+            int cycle = 1 + random.nextInt(i % 2 == 0 ? 100 : 3 * LightSchedule.WHEEL_SIZE);
+            int switchTime = random.nextInt(cycle + 1);
+            boolean green = random.nextBoolean();
+            scheduled[i] = new LightPlan(cycle, switchTime, green);
+            polled[i] = new LightPlan(cycle, switchTime, green);
+        }
+        when(mockRoad.getLightPlans()).thenReturn(scheduled);
+        Road[] roads = new Road[]{mockRoad, null};
+        LightSchedule schedule = new LightSchedule(roads, 0);
+
+        // Act & Assert
+        for (int step = 1; step <= 5000; step++) {
+            assertFalse(schedule.isStale(roads, step));
+            schedule.update(step);
+            for (int i = 0; i < numberOfLights; i++) {
+                polled[i].tryToSwitchLight(step);
+                assertEquals(polled[i].isGreen(), scheduled[i].isGreen(), "Light " + i + " differs in step " + step);
+            }
+        }
+    }
+
+    /**
+     * test to verify that only switching lights are touched and lights that never switch are left out
+     **/
+    @Test
+    void update_ShouldTouchOnlySwitchingLights() {
+        // Arrange
+        LightPlan alwaysGreen = new LightPlan(60, 60, true);
+        LightPlan light = new LightPlan(100, 30, true);
+        when(mockRoad.getLightPlans()).thenReturn(new LightPlan[]{alwaysGreen, light});
+        Road[] roads = new Road[]{mockRoad};
+        LightSchedule schedule = new LightSchedule(roads, 0);
+
+        // Act & Assert
+        assertEquals(1, schedule.getNumberOfLights(), "Always green light should not be scheduled");
+        int touched = 0;
+        for (int step = 1; step <= 1000; step++) {
+            touched += schedule.update(step);
+        }
+        assertEquals(20, touched, "Light switches twice per cycle");
+    }
+
+    /**
+     * test to verify that schedule is stale after jump of step or change of light plan
+     **/
+    @Test
+    void isStale_ShouldDetectJumpAndChange() {
+        // Arrange
+        LightPlan light = new LightPlan(100, 30, true);
+        Road road = new ContinuosRoad(100, 1, 30, 0);
+        road.setLightPlan(new LightPlan[]{light});
+        Road[] roads = new Road[]{road};
+        LightSchedule schedule = new LightSchedule(roads, 0);
+
+        // Act & Assert
+        assertFalse(schedule.isStale(roads, 1));
+        assertTrue(schedule.isStale(roads, 5), "Jump of step should need new schedule");
+        assertTrue(schedule.isStale(new Road[]{road}, 1), "Other roads should need new schedule");
+        light.setTimeOfSwitch(40);
+        assertTrue(schedule.isStale(roads, 1), "Changed light plan should need new schedule");
+    }
+
+    /**
+     * test to verify that schedule checks only light plans on roads, change of plan of no road keeps it valid, change
+     * of plan that never switched and replacement of plan on lane make it stale
+     **/
+    @Test
+    void isStale_ShouldCheckOnlyHeldPlans() {
+        // Arrange
+        LightPlan[] plans = new LightPlan[]{new LightPlan(100, 30, true), new LightPlan(60, 60, true)};
+        Road road = new ContinuosRoad(100, 2, 30, 0);
+        road.setLightPlan(plans);
+        Road[] roads = new Road[]{road};
+        LightSchedule schedule = new LightSchedule(roads, 0);
+        LightPlan otherPlan = new LightPlan(80, 20, false);
+
+        // Act & Assert
+        otherPlan.setCycleTime(90);
+        assertFalse(schedule.isStale(roads, 1), "Change of plan of other map should keep schedule valid");
+        plans[1].setTimeOfSwitch(20);
+        assertTrue(schedule.isStale(roads, 1), "Change of held plan that never switched should need new schedule");
+
+        LightSchedule rebuilt = new LightSchedule(roads, 0);
+        road.setLightPlan(0, otherPlan);
+        assertTrue(rebuilt.isStale(roads, 1), "Plan replaced on lane should need new schedule");
+    }
+}
@@ -0,0 +1,161 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.utils.CostProfileDetails;
+import core.utils.MetricsRegistry;
+import core.utils.ResultsRecorder;
+import core.utils.RunDetails;
+import core.utils.ScenarioDetails;
+import core.utils.ScenarioGenerator;
+import models.ICarFollowingModel;
+import models.ILaneChangingModel;
+import models.carFollowingModels.IDM;
+import models.laneChangingModels.Mobil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for ModelCostProfile class, combinations are made only of models of the same type, nested evaluations of
+ * car following model are counted only for lane changing models asking for accelerations and app context is set back
+ * after profile
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class ModelCostProfileTest {
+
+    /** Temporary directory for generated map **/
+    @TempDir
+    File tempDir;
+
+    /** Generated map with car parameters of all models **/
+    private String mapFile;
+
+    /**
+     * resets results recorder singleton, sets up run details without logging and output and generates small map
+     **/
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instanceField = ResultsRecorder.class.getDeclaredField("instance");
+        instanceField.setAccessible(true);
+        instanceField.set(null, null);
+
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        AppContext.RUN_DETAILS.laneChange = true;
+        AppContext.RUN_DETAILS.preventCollisions = true;
+        AppContext.RUN_DETAILS.timeStep = 1.0;
+        AppContext.RUN_DETAILS.seed = 5;
+        AppContext.CAR_FOLLOWING_MODEL = new IDM();
+        AppContext.LANE_CHANGING_MODEL = new Mobil();
+
+        ScenarioDetails scenario = new ScenarioDetails();
+        scenario.roads = 4;
+        scenario.minLanes = 2;
+        scenario.minFlowRate = 0.4;
+        scenario.maxFlowRate = 0.6;
+        scenario.lightShare = 0.0;
+        scenario.queueShare = 0.0;
+        this.mapFile = new File(this.tempDir, "map.xml").getPath();
+        assertTrue(ScenarioGenerator.writeMap(scenario, this.mapFile));
+    }
+
+    /**
+     * turns step metrics off for other tests
+     **/
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.setEnabled(false);
+        MetricsRegistry.getMetricsRegistry().reset();
+    }
+
+    /**
+     * helper to create cost profile of given models
+     *
+     * @param carFollowingModels ids of car following models
+     * @param laneChangingModels ids of lane changing models
+     * @return details of cost profile
+     **/
+    private CostProfileDetails createDetails(List<String> carFollowingModels, List<String> laneChangingModels) {
+        CostProfileDetails details = new CostProfileDetails();
+        details.warmUpSteps = 60;
+        details.seed = 1L;
+        details.carFollowingModels.addAll(carFollowingModels);
+        details.laneChangingModels.addAll(laneChangingModels);
+        return details;
+    }
+
+    /**
+     * test to verify that only models of the same type are combined and unknown models are left out
+     **/
+    @Test
+    void combinations_ShouldCombineOnlyModelsOfTheSameType() {
+        CostProfileDetails details = createDetails(List.of("idm", "nagel-schreckenberg", "unknown"),
+                List.of("mobil", "rickert", "unknown"));
+
+        List<String[]> combinations = ModelCostProfile.combinations(details);
+
+        assertEquals(2, combinations.size());
+        assertArrayEquals(new String[]{"idm", "mobil"}, combinations.get(0));
+        assertArrayEquals(new String[]{"nagel-schreckenberg", "rickert"}, combinations.get(1));
+    }
+
+    /**
+     * test to verify that every car is evaluated once per step, nested evaluations are counted for mobil asking for
+     * accelerations and not for cellular models and that time and lookups are measured
+     **/
+    @Test
+    void profile_ShouldCountEvaluationsAndLookupsPerVehicleStep() {
+        CostProfileDetails details = createDetails(List.of("idm", "nagel-schreckenberg"),
+                List.of("mobil", "rickert"));
+
+        List<ModelCostProfile.Cost> costs = ModelCostProfile.profile(details, this.mapFile, 40);
+
+        assertEquals(2, costs.size());
+        for (ModelCostProfile.Cost cost : costs) {
+            assertEquals(40, cost.steps);
+            assertTrue(cost.vehicleSteps > 0, cost.carFollowingModel);
+            assertEquals(cost.vehicleSteps, cost.countedVehicleSteps, cost.carFollowingModel);
+            assertTrue(cost.nanosPerVehicleStep > 0, cost.carFollowingModel);
+            assertTrue(cost.neighbourLookupsPerVehicleStep > 0, cost.carFollowingModel);
+            assertEquals(1.0, cost.speedEvaluationsPerVehicleStep, 0.1, cost.carFollowingModel);
+            String[] line = cost.toCsvLine().split(",");
+            assertEquals(ModelCostProfile.CSV_HEADER.split(",").length, line.length);
+        }
+        ModelCostProfile.Cost continuous = costs.stream().filter(cost -> cost.carFollowingModel.equals("idm"))
+                .findFirst().orElseThrow();
+        ModelCostProfile.Cost cellular = costs.stream().filter(cost -> cost.laneChangingModel.equals("rickert"))
+                .findFirst().orElseThrow();
+        assertTrue(continuous.nestedSpeedEvaluationsPerVehicleStep > 0);
+        assertEquals(0.0, cellular.nestedSpeedEvaluationsPerVehicleStep);
+        assertTrue(costs.get(0).nanosPerVehicleStep <= costs.get(1).nanosPerVehicleStep);
+    }
+
+    /**
+     * test to verify that models, simulation, seed and step metrics of app context are set back after profile
+     **/
+    @Test
+    void profile_ShouldRestoreAppContext() {
+        Simulation simulation = new Simulation(new Road[0]);
+        AppContext.SIMULATION = simulation;
+        ICarFollowingModel carFollowingModel = AppContext.CAR_FOLLOWING_MODEL;
+        ILaneChangingModel laneChangingModel = AppContext.LANE_CHANGING_MODEL;
+
+        ModelCostProfile.profile(createDetails(List.of("gipps"), List.of("mobil-simple")), this.mapFile, 5);
+
+        assertSame(carFollowingModel, AppContext.CAR_FOLLOWING_MODEL);
+        assertSame(laneChangingModel, AppContext.LANE_CHANGING_MODEL);
+        assertSame(simulation, AppContext.SIMULATION);
+        assertEquals(5, AppContext.RUN_DETAILS.seed);
+        assertFalse(MetricsRegistry.isEnabled());
+    }
+}
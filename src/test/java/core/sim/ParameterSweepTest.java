@@ -0,0 +1,177 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.CarGenerator;
+import core.model.LightPlan;
+import core.model.Road;
+import core.utils.RoadParameters;
+import core.utils.RunDetails;
+import core.utils.SweepDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/************************
+ * Unit tests for ParameterSweep class, focusing on grid of cells, resuming from results table and map variants,
+ * simulations are not run
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class ParameterSweepTest {
+
+    /** mock road of the map **/
+    @Mock
+    private Road mockRoad;
+
+    /** temporary directory for results table **/
+    @TempDir
+    Path tempDir;
+
+    /** settings of the sweep **/
+    private SweepDetails details;
+
+    /**
+     * setup method to initialize run details needed for logging and sweep with values in every dimension
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        details = new SweepDetails();
+        details.carFollowingModels.addAll(List.of("idm", "nagel"));
+        details.laneChangingModels.addAll(List.of("mobil", "rickert"));
+        details.flowRates.addAll(List.of(0.2, 0.5));
+        details.seeds.addAll(List.of(1L, 2L, 3L));
+    }
+
+    /**
+     * test to verify that grid contains every combination of values and skips models of different type
+     **/
+    @Test
+    void buildCells_ShouldCreateCartesianGridWithCompatibleModels() {
+        // Arrange
+        List<String> cellular = List.of("nagel", "rickert");
+
+        // Act
+        List<ParameterSweep.Cell> cells = ParameterSweep.buildCells(details,
+                (carFollowing, laneChanging) -> cellular.contains(carFollowing) == cellular.contains(laneChanging));
+
+        // Assert
+        assertEquals(2 * 2 * 3, cells.size());
+        for (ParameterSweep.Cell cell : cells) {
+            assertEquals(cellular.contains(cell.carFollowingModel), cellular.contains(cell.laneChangingModel));
+            assertNull(cell.lanes);
+            assertNull(cell.speedLimit);
+        }
+        assertEquals("idm,mobil,0.2,default,default,1", cells.get(0).key());
+    }
+
+    /**
+     * test to verify that keys of cells in results table are read and header and broken lines are ignored
+     **/
+    @Test
+    void readCompletedCells_ShouldReturnKeysOfFinishedCells() throws Exception {
+        // Arrange
+        Path results = tempDir.resolve("results.csv");
+        Files.writeString(results, ParameterSweep.HEADER + "\n" +
+                "idm,mobil,0.2,default,default,1,400,120,0.5,0.7,4,400\n" +
+                "idm,mobil,0.5\n");
+
+        // Act
+        Set<String> completed = ParameterSweep.readCompletedCells(results.toString());
+        Set<String> missing = ParameterSweep.readCompletedCells(tempDir.resolve("missing.csv").toString());
+
+        // Assert
+        assertEquals(Set.of("idm,mobil,0.2,default,default,1,400"), completed);
+        assertTrue(missing.isEmpty());
+    }
+
+    /**
+     * test to verify that results table with different columns (older version without duration) is not resumed
+     **/
+    @Test
+    void readCompletedCells_DifferentHeader_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path results = tempDir.resolve("results.csv");
+        Files.writeString(results, "carFollowingModel,laneChangingModel,flowRate,lanes,speedLimit,seed,carsPassed," +
+                "averageQueueOnLastRed,averageQueue,maxQueue,steps\n" +
+                "idm,mobil,0.2,default,default,1,120,0.5,0.7,4,400\n");
+        details.resultsFile = results.toString();
+        ParameterSweep sweep = new ParameterSweep(details, new Road[0], new String[0], tempDir.toFile());
+
+        // Act & Assert
+        assertNull(ParameterSweep.readCompletedCells(results.toString()));
+        assertFalse(sweep.runCells(List.of(new ParameterSweep.Cell("idm", "mobil", 0.2, null, null, 1L)), 400),
+                "Sweep should refuse to resume table with different columns");
+    }
+
+    /**
+     * test to verify that finished cells are appended to results table under one header and are skipped when resumed
+     **/
+    @Test
+    void appendResult_ShouldWriteHeaderOnceAndResumeSkipsCell() throws Exception {
+        // Arrange
+        details.resultsFile = tempDir.resolve("results.csv").toString();
+        ParameterSweep sweep = new ParameterSweep(details, new Road[0], new String[0], tempDir.toFile());
+        ParameterSweep.Cell first = new ParameterSweep.Cell("idm", "mobil", 0.2, null, null, 1L);
+        ParameterSweep.Cell second = new ParameterSweep.Cell("idm", "mobil", 0.5, null, null, 1L);
+
+        // Act
+        sweep.appendResult(first, 400, new RunResult(120, 0.5, 0.7, 4, 400));
+        sweep.appendResult(second, 400, new RunResult(200, 1.5, 1.7, 6, 400));
+        List<String> lines = Files.readAllLines(Path.of(details.resultsFile));
+
+        // Assert
+        assertEquals(3, lines.size());
+        assertEquals(ParameterSweep.HEADER, lines.get(0));
+        assertEquals(first.key() + ",400,120,0.5,0.7,4,400", lines.get(1));
+        Set<String> completed = ParameterSweep.readCompletedCells(details.resultsFile);
+        assertEquals(Set.of(first.key(400), second.key(400)), completed);
+        assertFalse(completed.contains(first.key(800)), "Cell run with different duration should not be skipped");
+    }
+
+    /**
+     * test to verify that map variant changes lanes, speed limit and flow rate without changing the loaded roads
+     **/
+    @Test
+    void createMapVariant_ShouldResizeLanesAndKeepOriginalRoads() {
+        // Arrange
+        LightPlan lightPlan = new LightPlan(60, 30, true);
+        CarGenerator generator = new CarGenerator(0.1);
+        when(mockRoad.getSpeedLimit()).thenReturn(13.9);
+        when(mockRoad.getNumberOfLanes()).thenReturn(1);
+        when(mockRoad.getLightPlans()).thenReturn(new LightPlan[]{lightPlan});
+        when(mockRoad.getCarGenerators()).thenReturn(new CarGenerator[]{generator});
+        ParameterSweep.Cell cell = new ParameterSweep.Cell(null, null, 0.4, 3, 22.2, null);
+
+        // Act
+        ArrayList<RoadParameters> variant = ParameterSweep.createMapVariant(new Road[]{mockRoad}, cell);
+
+        // Assert
+        RoadParameters road = variant.get(0);
+        assertEquals(3, road.lanes);
+        assertEquals(22.2, road.maxSpeed);
+        assertEquals(3, road.lightPlan.size());
+        assertEquals(3, road.carGenerators.size());
+        for (int lane = 0; lane < 3; lane++) {
+            assertEquals(60, road.lightPlan.get(lane).getCycleTime());
+            assertNotSame(generator, road.carGenerators.get(lane));
+            assertEquals(0.4, road.carGenerators.get(lane).getFlowRate());
+        }
+        assertEquals(0.1, generator.getFlowRate());
+    }
+}
@@ -0,0 +1,64 @@
+package core.sim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**************************************
+ * Unit tests for RunResult class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ **************************************/
+public class RunResultTest {
+
+    /**
+     * test to verify that result written by toLine is parsed back
+     **/
+    @Test
+    void parse_LineFromToLine_ShouldReturnSameValues() {
+        // Arrange
+        RunResult result = new RunResult(120, 3.5, 1.25, 9, 400);
+
+        // Act
+        RunResult parsed = RunResult.parse(result.toLine());
+
+        // Assert
+        assertNotNull(parsed);
+        assertEquals(120, parsed.carsPassed);
+        assertEquals(3.5, parsed.averageQueueOnLastRed);
+        assertEquals(1.25, parsed.averageQueue);
+        assertEquals(9, parsed.maxQueue);
+        assertEquals(400, parsed.steps);
+    }
+
+    /**
+     * test to verify that other lines of output of child process are not parsed as result
+     **/
+    @Test
+    void parse_OtherLine_ShouldReturnNull() {
+        assertNull(RunResult.parse("[15:00:00][INFO ] - Loaded map"));
+        assertNull(RunResult.parse(RunResult.LINE_PREFIX + ";1;2"));
+        assertNull(RunResult.parse(RunResult.LINE_PREFIX + ";a;1.0;1.0;1;1"));
+        assertNull(RunResult.parse(null));
+    }
+
+    /**
+     * test to verify that every metric name gives its value and unknown name gives NaN
+     **/
+    @Test
+    void getMetric_ShouldReturnValueByName() {
+        // Arrange
+        RunResult result = new RunResult(120, 2.5, 1.5, 7, 3600);
+
+        // Act & Assert
+        assertEquals(120.0, result.getMetric("carsPassed"));
+        assertEquals(2.5, result.getMetric("averageQueueOnLastRed"));
+        assertEquals(1.5, result.getMetric("averageQueue"));
+        assertEquals(7.0, result.getMetric("maxQueue"));
+        assertTrue(Double.isNaN(result.getMetric("speed")), "Unknown metric should be NaN");
+        for (String metric : RunResult.METRICS) {
+            assertFalse(Double.isNaN(result.getMetric(metric)), "Every listed metric should have value");
+        }
+    }
+}
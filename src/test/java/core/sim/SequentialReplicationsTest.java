@@ -0,0 +1,61 @@
+package core.sim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for SequentialReplications class, focusing on running statistics of metrics and stopping rule,
+ * replications are not started
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class SequentialReplicationsTest {
+
+    /**
+     * test to verify that running mean and variance equal mean and sample variance computed from all values
+     **/
+    @Test
+    void runningStatistics_ShouldMatchTwoPassMeanAndVariance() {
+        // Arrange
+        double[] values = {1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16};
+        SequentialReplications.RunningStatistics statistics = new SequentialReplications.RunningStatistics();
+
+        // Act
+        for (double value : values) {
+            statistics.add(value);
+        }
+
+        // Assert
+        assertEquals(4, statistics.count());
+        assertEquals(1e9 + 10, statistics.mean(), 1e-6, "Mean should be exact");
+        assertEquals(30.0, statistics.variance(), 1e-6, "Variance should not lose precision with large values");
+        assertEquals(SteadyStateDetector.halfWidth95(Math.sqrt(30.0), 4), statistics.halfWidth(), 1e-9);
+    }
+
+    /**
+     * test to verify that interval with less than two values is never precise and that all metrics must be precise
+     * to stop replications
+     **/
+    @Test
+    void allPrecise_ShouldNeedEveryMetricWithinPrecision() {
+        // Arrange
+        SequentialReplications.RunningStatistics quiet = new SequentialReplications.RunningStatistics();
+        SequentialReplications.RunningStatistics noisy = new SequentialReplications.RunningStatistics();
+        SequentialReplications.RunningStatistics single = new SequentialReplications.RunningStatistics();
+        for (int i = 0; i < 10; i++) {
+            quiet.add(100 + (i % 2));
+            noisy.add(i % 2 == 0 ? 50 : 150);
+        }
+        single.add(5);
+
+        // Act & Assert
+        assertTrue(quiet.isPrecise(0.05), "Quiet metric should be precise");
+        assertFalse(noisy.isPrecise(0.05), "Noisy metric should not be precise");
+        assertFalse(single.isPrecise(0.05), "One value should never be precise");
+        assertTrue(SequentialReplications.allPrecise(new SequentialReplications.RunningStatistics[]{quiet}, 0.05));
+        assertFalse(SequentialReplications.allPrecise(
+                new SequentialReplications.RunningStatistics[]{quiet, noisy}, 0.05));
+    }
+}
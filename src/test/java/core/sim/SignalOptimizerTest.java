@@ -0,0 +1,232 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.LightPlan;
+import core.model.Road;
+import core.model.continous.ContinuosRoad;
+import core.utils.OptimizationDetails;
+import core.utils.RunDetails;
+import models.carFollowingModels.IDM;
+import models.laneChangingModels.Mobil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/************************
+ * Unit tests for SignalOptimizer class, focusing on successive halving and sampling, simulations are replaced by
+ * evaluator computing objective directly from candidate plans
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class SignalOptimizerTest {
+
+    /** mock road with optimized lights **/
+    @Mock
+    private Road mockRoad;
+
+    /** settings of the optimization **/
+    private OptimizationDetails details;
+
+    /**
+     * setup method to initialize run details needed for logging and settings with one optimized light
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        details = new OptimizationDetails();
+        details.candidates = 8;
+        details.restarts = 2;
+        details.minDuration = 100;
+        OptimizationDetails.LightRange light = new OptimizationDetails.LightRange();
+        light.minCycle = 20;
+        light.maxCycle = 100;
+        light.maxOffset = 40;
+        details.lights.add(light);
+    }
+
+    /**
+     * test to verify that rungs double duration up to full duration and are not shorter than minimum
+     **/
+    @Test
+    void rungDurations_ShouldDoubleUpToFullDuration() {
+        assertArrayEquals(new int[]{100, 200, 400, 800}, SignalOptimizer.rungDurations(16, 100, 800));
+        assertArrayEquals(new int[]{100, 200, 400}, SignalOptimizer.rungDurations(6, 100, 400));
+        assertArrayEquals(new int[]{300, 300, 400, 800}, SignalOptimizer.rungDurations(16, 300, 800));
+        assertArrayEquals(new int[]{50}, SignalOptimizer.rungDurations(2, 100, 50));
+    }
+
+    /**
+     * test to verify that successive halving evaluates half of candidates in every next rung and returns the best one
+     **/
+    @Test
+    void successiveHalving_ShouldKeepBetterHalfAndReturnBest() {
+        // Arrange
+        List<Integer> evaluatedSizes = new ArrayList<>();
+        List<Integer> evaluatedDurations = new ArrayList<>();
+        SignalOptimizer optimizer = new SignalOptimizer(details, new Road[]{mockRoad}, (candidates, duration) -> {
+            evaluatedSizes.add(candidates.size());
+            evaluatedDurations.add(duration);
+            return scores(candidates);
+        }, 1);
+        List<SignalOptimizer.Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            candidates.add(optimizer.sample(null, 1.0));
+        }
+        double bestScore = Double.POSITIVE_INFINITY;
+        for (double score : scores(candidates)) {
+            bestScore = Math.min(bestScore, score);
+        }
+
+        // Act
+        SignalOptimizer.Candidate best = optimizer.successiveHalving(candidates, 400);
+
+        // Assert
+        assertEquals(List.of(8, 4, 2), evaluatedSizes);
+        assertEquals(List.of(100, 200, 400), evaluatedDurations);
+        assertEquals(bestScore, best.score, "Objective does not depend on duration, best candidate has to win");
+    }
+
+    /**
+     * test to verify that sampled plans are in search ranges and switch is inside the cycle
+     **/
+    @Test
+    void sample_ShouldStayInRanges() {
+        SignalOptimizer optimizer = new SignalOptimizer(details, new Road[]{mockRoad}, (c, d) -> scores(c), 3);
+        SignalOptimizer.Candidate center = optimizer.sample(null, 1.0);
+
+        for (int i = 0; i < 200; i++) {
+            SignalOptimizer.Candidate candidate = optimizer.sample(i % 2 == 0 ? null : center, 0.25);
+            assertTrue(candidate.cycles[0] >= 20 && candidate.cycles[0] <= 100, "Cycle out of range: " + candidate);
+            assertTrue(candidate.switches[0] >= 1 && candidate.switches[0] < candidate.cycles[0],
+                    "Switch out of cycle: " + candidate);
+            assertTrue(candidate.offsets[0] >= 0 && candidate.offsets[0] <= 40, "Offset out of range: " + candidate);
+        }
+    }
+
+    /**
+     * test to verify that original plans are kept when no candidate is better and that better candidate replaces them
+     **/
+    @Test
+    void optimize_ShouldReturnBetterCandidateOrOriginalPlans() {
+        // Arrange
+        SignalOptimizer.Candidate baseline = new SignalOptimizer.Candidate(1);
+        baseline.cycles[0] = 50;
+        baseline.switches[0] = 25;
+        SignalOptimizer keeping = new SignalOptimizer(details, new Road[]{mockRoad}, (candidates, duration) -> {
+            double[] scores = new double[candidates.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = candidates.get(i) == baseline ? 0.0 : 1.0;
+            }
+            return scores;
+        }, 5);
+        SignalOptimizer improving = new SignalOptimizer(details, new Road[]{mockRoad}, (c, d) -> scores(c), 5);
+
+        // Act
+        SignalOptimizer.Candidate kept = keeping.optimize(baseline, 400);
+        SignalOptimizer.Candidate improved = improving.optimize(baseline, 400);
+
+        // Assert
+        assertSame(baseline, kept);
+        assertNotSame(baseline, improved);
+        assertTrue(improved.score < baseline.score, "Best plan should be better than original plans");
+    }
+
+    /**
+     * test to verify that candidate is written to all lanes of the road and lights keep whether they begin on green
+     **/
+    @Test
+    void apply_AllLanes_ShouldSetPlansWithOffset() {
+        // Arrange
+        when(mockRoad.getNumberOfLanes()).thenReturn(2);
+        when(mockRoad.getLightPlans()).thenReturn(new LightPlan[]{new LightPlan(60, 30, true),
+                new LightPlan(60, 30, false)});
+        SignalOptimizer optimizer = new SignalOptimizer(details, new Road[]{mockRoad}, (c, d) -> scores(c), 1);
+        SignalOptimizer.Candidate candidate = new SignalOptimizer.Candidate(1);
+        candidate.cycles[0] = 80;
+        candidate.switches[0] = 50;
+        candidate.offsets[0] = 15;
+        ArgumentCaptor<LightPlan> firstLane = ArgumentCaptor.forClass(LightPlan.class);
+        ArgumentCaptor<LightPlan> secondLane = ArgumentCaptor.forClass(LightPlan.class);
+
+        // Act
+        optimizer.apply(candidate);
+
+        // Assert
+        verify(mockRoad).setLightPlan(eq(0), firstLane.capture());
+        verify(mockRoad).setLightPlan(eq(1), secondLane.capture());
+        assertEquals(80, firstLane.getValue().getCycleTime());
+        assertEquals(50, firstLane.getValue().getTimeOfSwitch());
+        assertEquals(15, firstLane.getValue().getOffset());
+        assertTrue(firstLane.getValue().isBeginsOnGreen());
+        assertFalse(secondLane.getValue().isBeginsOnGreen());
+    }
+
+    /**
+     * test to verify that lanes with different plans of road optimized on all lanes get their own plans back when
+     * original plans are applied after a candidate, plans are not flattened to plan of the first lane
+     **/
+    @Test
+    void apply_OriginalPlansOfAllLanes_ShouldRestoreEveryLane() {
+        // Arrange
+        AppContext.CAR_FOLLOWING_MODEL = new IDM();
+        AppContext.LANE_CHANGING_MODEL = new Mobil();
+        Road road = new ContinuosRoad(500, 3, 30, 0);
+        LightPlan first = new LightPlan(60, 30, true);
+        LightPlan second = new LightPlan(90, 20, false);
+        second.setOffset(7);
+        LightPlan third = new LightPlan(45, 45, true);
+        road.setLightPlan(0, first);
+        road.setLightPlan(1, second);
+        road.setLightPlan(2, third);
+        details.lights.get(0).lane = -1;
+        SignalOptimizer optimizer = new SignalOptimizer(details, new Road[]{road}, (c, d) -> scores(c), 1);
+        SignalOptimizer.Candidate baseline = optimizer.currentPlans();
+        SignalOptimizer.Candidate candidate = new SignalOptimizer.Candidate(1);
+        candidate.cycles[0] = 80;
+        candidate.switches[0] = 50;
+        candidate.offsets[0] = 15;
+
+        // Act
+        optimizer.apply(baseline);
+        LightPlan[] afterBaseline = road.getLightPlans().clone();
+        optimizer.apply(candidate);
+        LightPlan[] afterCandidate = road.getLightPlans().clone();
+        optimizer.apply(baseline);
+
+        // Assert
+        assertArrayEquals(new LightPlan[]{first, second, third}, afterBaseline);
+        assertEquals(80, afterCandidate[2].getCycleTime());
+        assertFalse(afterCandidate[1].isBeginsOnGreen());
+        assertArrayEquals(new LightPlan[]{first, second, third}, road.getLightPlans());
+        assertEquals(7, road.getLightPlans()[1].getOffset());
+    }
+
+    /**
+     * objective of test evaluator, distance of plan from cycle 60 with split 0.5 and offset 10
+     *
+     * @param candidates candidates to evaluate
+     * @return objective of every candidate
+     **/
+    private static double[] scores(List<SignalOptimizer.Candidate> candidates) {
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            SignalOptimizer.Candidate candidate = candidates.get(i);
+            scores[i] = Math.abs(candidate.cycles[0] - 60) + Math.abs(candidate.switches[0] - 30) +
+                    Math.abs(candidate.offsets[0] - 10);
+        }
+        return scores;
+    }
+}
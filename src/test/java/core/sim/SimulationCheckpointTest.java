@@ -0,0 +1,360 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.model.cellular.CellularRoad;
+import core.model.continous.ContinuosRoad;
+import core.utils.OutputDetails;
+import core.utils.RandomNumberGenerator;
+import core.utils.ResultsRecorder;
+import core.utils.RunDetails;
+import core.utils.constants.ConfigConstants;
+import models.carFollowingModels.IDM;
+import models.carFollowingModels.NagelSchreckenberg;
+import models.laneChangingModels.Mobil;
+import models.laneChangingModels.Rickert;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for SimulationCheckpoint class, simulation resumed from checkpoint has to continue exactly the same as
+ * simulation that was not interrupted, so state of both after the same number of steps is compared byte by byte
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class SimulationCheckpointTest {
+
+    /** Temporary directory for checkpoint files **/
+    @TempDir
+    File tempDir;
+
+    /**
+     * resets results recorder singleton (so its timer is not running) and sets up run details without logging and
+     * output
+     **/
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instanceField = ResultsRecorder.class.getDeclaredField("instance");
+        instanceField.setAccessible(true);
+        instanceField.set(null, null);
+
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        AppContext.RUN_DETAILS.laneChange = true;
+        AppContext.RUN_DETAILS.preventCollisions = true;
+        AppContext.RUN_DETAILS.timeStep = 1.0;
+    }
+
+    /**
+     * helper to create simulation with two continuous roads with default generators and light plans
+     *
+     * @return new simulation
+     **/
+    private Simulation createContinuousSimulation() {
+        AppContext.CAR_FOLLOWING_MODEL = new IDM();
+        AppContext.LANE_CHANGING_MODEL = new Mobil();
+        Road[] roads = new Road[]{new ContinuosRoad(400, 2, 30, 0), new ContinuosRoad(300, 3, 20, 1)};
+        return createSimulation(roads);
+    }
+
+    /**
+     * helper to create simulation with one cellular road with default generators and light plans
+     *
+     * @return new simulation
+     **/
+    private Simulation createCellularSimulation() {
+        AppContext.CAR_FOLLOWING_MODEL = new NagelSchreckenberg();
+        AppContext.LANE_CHANGING_MODEL = new Rickert();
+        Road[] roads = new Road[]{new CellularRoad(600, 2, 30, AppContext.CAR_FOLLOWING_MODEL.getCellSize(), 0)};
+        return createSimulation(roads);
+    }
+
+    /**
+     * helper to finish set up of roads and create simulation with them
+     *
+     * @param roads roads of the simulation
+     * @return new simulation
+     **/
+    private Simulation createSimulation(Road[] roads) {
+        for (Road road : roads) {
+            road.setTypesOfGenerators();
+            for (int lane = 0; lane < road.getNumberOfLanes(); lane++) {
+                road.getCarGenerators()[lane].setFlowRate(0.6);
+            }
+        }
+        ResultsRecorder.getResultsRecorder().initialize(roads, null);
+        AppContext.SIMULATION = new Simulation(roads); // cellular models ask simulation for parity of step
+        return AppContext.SIMULATION;
+    }
+
+    /**
+     * helper to run given number of steps
+     *
+     * @param simulation simulation to step
+     * @param steps number of steps
+     **/
+    private void runSteps(Simulation simulation, int steps) {
+        for (int i = 0; i < steps; i++) {
+            simulation.step();
+        }
+    }
+
+    /**
+     * helper to write state of roads and random generator of simulation, without results recorder whose timer differs
+     * between runs
+     *
+     * @param simulation simulation to write
+     * @return bytes of the state
+     **/
+    private byte[] roadsAndRandomState(Simulation simulation) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Road road : simulation.getRoads()) {
+                road.writeState(out);
+            }
+            RandomNumberGenerator.getInstance(0).writeState(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * helper that runs simulation, writes checkpoint, continues it, and then resumes fresh simulation from the
+     * checkpoint, checks that both end in the same state
+     *
+     * @param first simulation that is run without interruption
+     * @param resumedSupplier supplier of fresh simulation with the same map
+     **/
+    private void assertResumedRunIsSame(Simulation first, Supplier<Simulation> resumedSupplier)
+            throws Exception {
+        String file = new File(tempDir, "run.chk").getAbsolutePath();
+        RandomNumberGenerator.getInstance(0).resetSeed(42);
+        runSteps(first, 150);
+        assertTrue(SimulationCheckpoint.save(first, file), "Checkpoint should be written");
+        runSteps(first, 150);
+        byte[] expected = SimulationCheckpoint.createSnapshot(first);
+
+        RandomNumberGenerator.getInstance(0).resetSeed(7); // different random state, must be restored from checkpoint
+        Simulation resumed = resumedSupplier.get();
+        assertTrue(SimulationCheckpoint.load(resumed, file), "Checkpoint should be loaded");
+        assertEquals(150, resumed.getStepCount(), "Step count should be restored");
+        runSteps(resumed, 150);
+
+        assertArrayEquals(expected, SimulationCheckpoint.createSnapshot(resumed),
+                "Resumed simulation should be in exactly the same state as uninterrupted one");
+    }
+
+    /**
+     * test to verify that resumed continuous simulation continues bit exactly
+     **/
+    @Test
+    void load_ContinuousRoads_ShouldContinueBitExact() throws Exception {
+        Simulation first = createContinuousSimulation();
+        assertResumedRunIsSame(first, this::createContinuousSimulation);
+        assertTrue(first.getRoads()[0].getNumberOfCarsOnRoad() > 0, "Test should have cars on the road");
+    }
+
+    /**
+     * test to verify that resumed cellular simulation continues bit exactly
+     **/
+    @Test
+    void load_CellularRoad_ShouldContinueBitExact() throws Exception {
+        Simulation first = createCellularSimulation();
+        assertResumedRunIsSame(first, this::createCellularSimulation);
+        assertTrue(first.getRoads()[0].getNumberOfCarsOnRoad() > 0, "Test should have cars on the road");
+    }
+
+    /**
+     * test to verify that history of stopped cars is in checkpoint when detailed export needs it, so resumed simulation
+     * continues bit exactly with the history
+     **/
+    @Test
+    void load_DetailedExport_ShouldContinueBitExactWithHistory() throws Exception {
+        AppContext.RUN_DETAILS.outputDetails = new OutputDetails();
+        AppContext.RUN_DETAILS.outputDetails.setPart(ConfigConstants.DETAILED_LANE_QUEUE_LENGTH_TAG, true);
+        Simulation first = createContinuousSimulation();
+        byte[] withoutSteps = SimulationCheckpoint.createSnapshot(first);
+
+        assertResumedRunIsSame(first, this::createContinuousSimulation);
+        assertTrue(SimulationCheckpoint.createSnapshot(first).length > withoutSteps.length + 300 * 5 * 5,
+                "Checkpoint should contain history of all 300 steps of 5 lanes");
+    }
+
+    /**
+     * test to verify that size of checkpoint does not grow with number of steps when history of stopped cars is not
+     * needed by outputs, only accumulators of results are written
+     **/
+    @Test
+    void createSnapshot_LongerRun_ShouldNotGrowWithSteps() throws Exception {
+        // Arrange
+        RandomNumberGenerator.getInstance(0).resetSeed(42);
+        Simulation simulation = createContinuousSimulation();
+        runSteps(simulation, 200);
+        byte[] early = SimulationCheckpoint.createSnapshot(simulation);
+        int earlyResults = resultsState().length;
+
+        // Act
+        runSteps(simulation, 2000);
+        byte[] late = SimulationCheckpoint.createSnapshot(simulation);
+
+        // Assert
+        assertNotNull(early);
+        assertNotNull(late);
+        assertEquals(earlyResults, resultsState().length, "Recorded results should have constant size");
+        assertTrue(late.length < early.length * 2, "Checkpoint after " + 2200 + " steps (" + late.length +
+                " B) should not be much bigger than after 200 steps (" + early.length + " B)");
+    }
+
+    /**
+     * helper to write state of results recorder
+     *
+     * @return bytes of the state
+     **/
+    private byte[] resultsState() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ResultsRecorder.getResultsRecorder().writeState(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * test to verify that checkpoint of different map is rejected without changing the simulation
+     **/
+    @Test
+    void load_DifferentMap_ShouldReturnFalse() {
+        // Arrange
+        String file = new File(tempDir, "run.chk").getAbsolutePath();
+        assertTrue(SimulationCheckpoint.save(createContinuousSimulation(), file));
+        Simulation other = createCellularSimulation();
+
+        // Act & Assert
+        assertFalse(SimulationCheckpoint.load(other, file), "Checkpoint of different map should be rejected");
+        assertEquals(0, other.getStepCount(), "Rejected checkpoint should not change the simulation");
+    }
+
+    /**
+     * test to verify that files that are not checkpoints or are missing are rejected
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnFalse() throws Exception {
+        // Arrange
+        File notCheckpoint = new File(tempDir, "map.xml");
+        Files.writeString(notCheckpoint.toPath(), "<map></map>");
+        Simulation simulation = createContinuousSimulation();
+
+        // Act & Assert
+        assertFalse(SimulationCheckpoint.load(simulation, notCheckpoint.getAbsolutePath()));
+        assertFalse(SimulationCheckpoint.load(simulation, new File(tempDir, "missing.chk").getAbsolutePath()));
+    }
+
+    /**
+     * test to verify that checkpoint written in background replaces the file and no temporary file is left
+     **/
+    @Test
+    void saveInBackground_ShouldWriteFile() {
+        // Arrange
+        File file = new File(tempDir, "run.chk");
+        Simulation simulation = createContinuousSimulation();
+        runSteps(simulation, 20);
+
+        // Act
+        assertTrue(SimulationCheckpoint.saveInBackground(simulation, file.getAbsolutePath()));
+        SimulationCheckpoint.awaitBackgroundWrite();
+
+        // Assert
+        assertTrue(file.length() > 0, "Checkpoint file should be written");
+        assertFalse(new File(tempDir, "run.chk.tmp").exists(), "Temporary file should be moved");
+        assertTrue(SimulationCheckpoint.load(createContinuousSimulation(), file.getAbsolutePath()));
+    }
+
+    /**
+     * test to verify that warm started simulation measures only from the snapshot, runs duration from the snapshot and
+     * replications with different seeds differ while replications with the same seed are the same
+     **/
+    @Test
+    void warmStart_ShouldReseedAndStartMeasurementAtSnapshot() throws Exception {
+        // Arrange
+        String file = new File(tempDir, "warm.chk").getAbsolutePath();
+        RandomNumberGenerator.getInstance(0).resetSeed(42);
+        Simulation fillUp = createContinuousSimulation();
+        runSteps(fillUp, 100);
+        assertTrue(SimulationCheckpoint.save(fillUp, file));
+
+        // Act
+        Simulation replication1 = createContinuousSimulation();
+        assertTrue(replication1.warmStart(file, 1));
+        assertEquals(100, replication1.getMeasurementStartStep(), "Measurement should start at snapshot step");
+        assertEquals(0, ResultsRecorder.getResultsRecorder().getCarsPassedOnRoad(0),
+                "Results of filling the roads should not be measured");
+        replication1.runSimulation(50);
+        byte[] state1 = roadsAndRandomState(replication1);
+
+        Simulation replication2 = createContinuousSimulation();
+        assertTrue(replication2.warmStart(file, 2));
+        replication2.runSimulation(50);
+
+        Simulation replication1Again = createContinuousSimulation();
+        assertTrue(replication1Again.warmStart(file, 1));
+        replication1Again.runSimulation(50);
+
+        // Assert
+        assertEquals(150, replication1.getStepCount(), "Duration should be counted from the snapshot");
+        assertFalse(Arrays.equals(state1, roadsAndRandomState(replication2)),
+                "Replications with different seeds should differ");
+        assertArrayEquals(state1, roadsAndRandomState(replication1Again),
+                "Replications with the same seed should be the same");
+    }
+
+    /**
+     * test to verify that run resumed from checkpoint continues steady state detection from restored batches, so it
+     * ends at the same step as the uninterrupted run
+     **/
+    @Test
+    void load_SteadyStateDetection_ShouldEndAtSameStepAsFullRun() {
+        // Arrange
+        AppContext.RUN_DETAILS.steadyStateDetails.relativeHalfWidth = 0.2;
+        AppContext.RUN_DETAILS.steadyStateDetails.batchSize = 20;
+        AppContext.RUN_DETAILS.steadyStateDetails.minBatches = 5;
+        AppContext.RUN_DETAILS.steadyStateDetails.warmUpSteps = 50;
+        String file = new File(tempDir, "steady.chk").getAbsolutePath();
+
+        RandomNumberGenerator.getInstance(0).resetSeed(42);
+        Simulation full = createContinuousSimulation();
+        full.runSimulation(5000);
+        int stopStep = full.getStepCount();
+
+        AppContext.RUN_DETAILS.checkpointDetails.checkpointFile = file;
+        AppContext.RUN_DETAILS.checkpointDetails.everyNSteps = 105; // checkpoints in the middle of batches
+        RandomNumberGenerator.getInstance(0).resetSeed(42);
+        Simulation interrupted = createContinuousSimulation();
+        interrupted.runSimulation(5000);
+        AppContext.RUN_DETAILS.checkpointDetails.checkpointFile = null;
+        AppContext.RUN_DETAILS.checkpointDetails.everyNSteps = 0;
+
+        // Act
+        RandomNumberGenerator.getInstance(0).resetSeed(7);
+        Simulation resumed = createContinuousSimulation();
+        assertTrue(SimulationCheckpoint.load(resumed, file), "Checkpoint should be loaded");
+        int resumedFrom = resumed.getStepCount();
+        resumed.runSimulation(5000);
+
+        // Assert
+        assertTrue(stopStep < 5000, "Steady state should be detected before end of the run");
+        assertTrue(resumedFrom > 50 && resumedFrom < stopStep, "Checkpoint should be written during detection");
+        assertEquals(stopStep, interrupted.getStepCount(), "Checkpoints should not change the run");
+        assertEquals(stopStep, resumed.getStepCount(), "Resumed run should end at the same step as the full run");
+    }
+}
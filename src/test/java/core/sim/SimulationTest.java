@@ -7,6 +7,8 @@ import core.utils.MyLogger;
 import core.utils.OutputDetails;
 import core.utils.ResultsRecorder;
 import core.utils.RunDetails;
+import core.utils.SteadyStateDetails;
+import core.utils.constants.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -91,7 +93,7 @@ public class SimulationTest {
             verify(mockRecorder, times(1)).recordCarsPassed(0, 5);
             verify(mockRecorder, times(1)).recordCarsPassed(1, 3);
 
-            verify(mockRoad1, times(1)).updateLights(1);
+            verify(mockRoad1, never()).updateLights(anyInt()); // lights are switched by light schedule
             assertEquals(1, simulation.getStepCount(), "Step count should be incremented to 1");
             verify(mockRecorder, never()).stopTimer(); // shouldn't stop timer yet because duration is not reached
 
@@ -104,7 +106,7 @@ public class SimulationTest {
             verify(mockRecorder, times(1)).startTimer(); // still only 1 call from step 0
             verify(mockRecorder, times(2)).recordCarsPassed(0, 5);
 
-            verify(mockRoad1, times(1)).updateLights(2);
+            verify(mockRoad1, never()).updateLights(anyInt()); // lights are switched by light schedule
             assertEquals(2, simulation.getStepCount(), "Step count should be incremented to 2");
             verify(mockRecorder, times(1)).stopTimer(); // timer should be stopped now
         }
@@ -141,6 +143,35 @@ public class SimulationTest {
         }
     }
 
+    /**
+     * test to verify that runSimulation ends when steady state is detected and records the reason
+     **/
+    @Test
+    void runSimulation_SteadyState_ShouldEndEarlyAndRecordReason() {
+        // Arrange
+        try (MockedStatic<ResultsRecorder> recorderStaticMock = mockStatic(ResultsRecorder.class);
+             MockedStatic<MyLogger> ignored = mockStatic(MyLogger.class)) {
+
+            recorderStaticMock.when(ResultsRecorder::getResultsRecorder).thenReturn(mockRecorder);
+            SteadyStateDetails details = new SteadyStateDetails();
+            details.relativeHalfWidth = 0.05;
+            details.batchSize = 10;
+            details.minBatches = 3;
+            mockRunDetails.steadyStateDetails = details;
+
+            // constant throughput and no stopped cars are steady from the start
+            when(mockRoad1.updateRoad()).thenReturn(1);
+            when(mockRoad1.getNumberOfCarsOnRoad()).thenReturn(5);
+
+            // Act
+            simulation.runSimulation(1000.0);
+
+            // Assert
+            assertEquals(30, simulation.getStepCount(), "Simulation should end after three batches");
+            verify(mockRecorder).recordStopReason(contains(Constants.STOP_REASON_STEADY_STATE));
+        }
+    }
+
     /**
      * test to verify that areAllRoadsAndQueuesEmpty logs when a road becomes empty for the first time
      **/
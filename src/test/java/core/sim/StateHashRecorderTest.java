@@ -0,0 +1,188 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.model.continous.ContinuosRoad;
+import core.utils.RandomNumberGenerator;
+import core.utils.ResultsRecorder;
+import core.utils.RunDetails;
+import models.carFollowingModels.IDM;
+import models.laneChangingModels.Mobil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for StateHashRecorder class, runs with the same seed have to write the same hashes, resumed run has to
+ * match the steps of the run it continues and comparison has to find the first step where runs differ
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class StateHashRecorderTest {
+
+    /** Temporary directory for state hash files **/
+    @TempDir
+    File tempDir;
+
+    /**
+     * resets results recorder singleton and sets up run details without logging and output
+     **/
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instanceField = ResultsRecorder.class.getDeclaredField("instance");
+        instanceField.setAccessible(true);
+        instanceField.set(null, null);
+
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        AppContext.RUN_DETAILS.laneChange = true;
+        AppContext.RUN_DETAILS.preventCollisions = true;
+        AppContext.RUN_DETAILS.timeStep = 1.0;
+        AppContext.CAR_FOLLOWING_MODEL = new IDM();
+        AppContext.LANE_CHANGING_MODEL = new Mobil();
+    }
+
+    /**
+     * closes recorder so other tests do not write hashes
+     **/
+    @AfterEach
+    void tearDown() {
+        StateHashRecorder.getStateHashRecorder().close();
+    }
+
+    /**
+     * helper to create simulation with two continuous roads, random generator is seeded first
+     *
+     * @param seed seed of random generator
+     * @return new simulation
+     **/
+    private Simulation createSimulation(long seed) {
+        RandomNumberGenerator.getInstance(seed).resetSeed(seed);
+        Road[] roads = new Road[]{new ContinuosRoad(400, 2, 30, 0), new ContinuosRoad(300, 3, 20, 1)};
+        for (Road road : roads) {
+            road.setTypesOfGenerators();
+            for (int lane = 0; lane < road.getNumberOfLanes(); lane++) {
+                road.getCarGenerators()[lane].setFlowRate(0.6);
+            }
+        }
+        ResultsRecorder.getResultsRecorder().initialize(roads, null);
+        AppContext.SIMULATION = new Simulation(roads);
+        return AppContext.SIMULATION;
+    }
+
+    /**
+     * helper to run steps of simulation while recording hashes to file
+     *
+     * @param simulation simulation to step
+     * @param steps number of steps
+     * @param file state hash file
+     * @return path of the file
+     **/
+    private String record(Simulation simulation, int steps, String file) {
+        String path = new File(this.tempDir, file).getPath();
+        assertTrue(StateHashRecorder.getStateHashRecorder().open(path, simulation.getRoads().length));
+        for (int i = 0; i < steps; i++) {
+            simulation.step();
+        }
+        StateHashRecorder.getStateHashRecorder().close();
+        return path;
+    }
+
+    /**
+     * test to verify that file has header and one record per step with step number and hashes of all roads
+     **/
+    @Test
+    void record_ShouldWriteHeaderAndRecordPerStep() throws Exception {
+        Simulation simulation = createSimulation(1);
+        String path = record(simulation, 5, "run.shs");
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(path))) {
+            assertEquals(StateHashRecorder.MAGIC, in.readInt());
+            assertEquals(2, in.readInt());
+            for (int step = 1; step <= 5; step++) {
+                assertEquals(step, in.readInt());
+                in.readLong(); // hash of the simulation
+                in.readLong();
+                in.readLong();
+            }
+            assertEquals(-1, in.read());
+        }
+        assertEquals(5, new File(path).length() / (Integer.BYTES + 3 * Long.BYTES));
+    }
+
+    /**
+     * test to verify that runs with the same seed are identical and runs with different seed diverge
+     **/
+    @Test
+    void compare_ShouldFindIdenticalAndDivergingRuns() {
+        String first = record(createSimulation(1), 100, "first.shs");
+        String same = record(createSimulation(1), 100, "same.shs");
+        String other = record(createSimulation(2), 100, "other.shs");
+
+        assertEquals("Identical in 100 common steps (1 to 100)", StateHashRecorder.compare(first, same));
+        assertTrue(StateHashRecorder.compare(first, other).startsWith("Diverged at step"));
+    }
+
+    /**
+     * test to verify that run resumed from checkpoint is compared with the matching steps of the full run
+     **/
+    @Test
+    void compare_ShouldMatchResumedRunWithFullRun() {
+        String full = record(createSimulation(3), 120, "full.shs");
+
+        Simulation interrupted = createSimulation(3);
+        for (int i = 0; i < 60; i++) {
+            interrupted.step();
+        }
+        String checkpoint = new File(this.tempDir, "checkpoint.bin").getPath();
+        assertTrue(SimulationCheckpoint.save(interrupted, checkpoint));
+        Simulation resumed = createSimulation(99);
+        assertTrue(SimulationCheckpoint.load(resumed, checkpoint));
+        String rest = record(resumed, 60, "resumed.shs");
+
+        assertEquals("Identical in 60 common steps (61 to 120)", StateHashRecorder.compare(full, rest));
+    }
+
+    /**
+     * test to verify that the first diverging step and road are reported, flow rate of road changed after step 30
+     * changes its generator state in step 31
+     **/
+    @Test
+    void compare_ShouldReportFirstDivergingStepAndRoad() {
+        String reference = record(createSimulation(4), 50, "reference.shs");
+
+        Simulation simulation = createSimulation(4);
+        String path = new File(this.tempDir, "changed.shs").getPath();
+        StateHashRecorder.getStateHashRecorder().open(path, 2);
+        for (int i = 0; i < 50; i++) {
+            simulation.step();
+            if (simulation.getStepCount() == 30) {
+                simulation.getRoads()[1].getCarGenerators()[0].setFlowRate(0.1);
+            }
+        }
+        StateHashRecorder.getStateHashRecorder().close();
+
+        String result = StateHashRecorder.compare(reference, path);
+        assertNotNull(result);
+        assertTrue(result.startsWith("Diverged at step 31 after 30 identical steps"), result);
+        assertTrue(result.contains("road 1"), result);
+    }
+
+    /**
+     * test to verify that missing file is reported as failed comparison
+     **/
+    @Test
+    void compare_ShouldReturnNullForMissingFile() {
+        String first = record(createSimulation(1), 3, "first.shs");
+        assertNull(StateHashRecorder.compare(first, new File(this.tempDir, "missing.shs").getPath()));
+    }
+}
@@ -0,0 +1,113 @@
+package core.sim;
+
+import core.utils.SteadyStateDetails;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for SteadyStateDetector class, focusing on batch means, confidence interval and warm up
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class SteadyStateDetectorTest {
+
+    /**
+     * helper to create settings of detection
+     *
+     * @param relativeHalfWidth required relative half-width
+     * @param batchSize size of batch
+     * @param minBatches minimal number of batches
+     * @param warmUpSteps skipped steps
+     * @return settings of detection
+     **/
+    private SteadyStateDetails details(double relativeHalfWidth, int batchSize, int minBatches, int warmUpSteps) {
+        SteadyStateDetails details = new SteadyStateDetails();
+        details.relativeHalfWidth = relativeHalfWidth;
+        details.batchSize = batchSize;
+        details.minBatches = minBatches;
+        details.warmUpSteps = warmUpSteps;
+        return details;
+    }
+
+    /**
+     * helper to feed detector with values until it detects steady state
+     *
+     * @param detector detector to feed
+     * @param random generator of noise
+     * @param maxSteps maximal number of steps
+     * @return number of steps when steady state was detected, -1 if it was not
+     **/
+    private int stepsToSteadyState(SteadyStateDetector detector, Random random, int maxSteps) {
+        for (int step = 1; step <= maxSteps; step++) {
+            if (detector.observe(2.0 + random.nextGaussian(), 10.0 + random.nextGaussian())) {
+                return step;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * test to verify that constant values are steady after minimal number of batches
+     **/
+    @Test
+    void observe_ConstantValues_ShouldBeSteadyAfterMinBatches() {
+        SteadyStateDetector detector = new SteadyStateDetector(details(0.05, 10, 5, 0));
+
+        for (int step = 1; step < 50; step++) {
+            assertFalse(detector.observe(1.0, 0.0), "Steady state cannot be reached before 5 batches");
+        }
+        assertTrue(detector.observe(1.0, 0.0), "Fifth batch of constant values should be steady");
+    }
+
+    /**
+     * test to verify that steps of warm up are not used
+     **/
+    @Test
+    void observe_WarmUp_ShouldSkipSteps() {
+        SteadyStateDetector detector = new SteadyStateDetector(details(0.05, 10, 2, 100));
+
+        for (int step = 1; step < 120; step++) {
+            assertFalse(detector.observe(step <= 100 ? step : 1.0, 0.0), "Warm up and two batches are needed");
+        }
+        assertTrue(detector.observe(1.0, 0.0));
+    }
+
+    /**
+     * test to verify that tighter interval needs more steps and noisy values are eventually steady
+     **/
+    @Test
+    void observe_NoisyValues_TighterIntervalShouldNeedMoreSteps() {
+        int loose = stepsToSteadyState(new SteadyStateDetector(details(0.10, 10, 10, 0)), new Random(1), 100000);
+        int tight = stepsToSteadyState(new SteadyStateDetector(details(0.01, 10, 10, 0)), new Random(1), 100000);
+
+        assertTrue(loose > 0, "Loose interval should be reached");
+        assertTrue(tight > loose, "Tight interval should need more steps than loose one");
+    }
+
+    /**
+     * test to verify that changing values are not steady
+     **/
+    @Test
+    void observe_GrowingValues_ShouldNotBeSteady() {
+        SteadyStateDetector detector = new SteadyStateDetector(details(0.05, 10, 5, 0));
+
+        for (int step = 1; step <= 500; step++) {
+            assertFalse(detector.observe(step, step), "Growing values are not steady");
+        }
+    }
+
+    /**
+     * test to verify half-width of confidence interval
+     **/
+    @Test
+    void halfWidth95_ShouldUseStudentAndNormalQuantiles() {
+        assertEquals(2.262 * 3.0 / Math.sqrt(10), SteadyStateDetector.halfWidth95(3.0, 10), 1e-9);
+        assertEquals(1.960 * 2.0 / 10.0, SteadyStateDetector.halfWidth95(2.0, 100), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, SteadyStateDetector.halfWidth95(1.0, 1));
+    }
+}
@@ -0,0 +1,98 @@
+package core.sim;
+
+import app.AppContext;
+import core.model.Road;
+import core.utils.BenchDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/************************
+ * Unit tests for ThroughputBenchmark class, focusing on counting of measured steps and vehicle updates, timing of
+ * roads and report of the slowest roads
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class ThroughputBenchmarkTest {
+
+    /** mock road of the map **/
+    @Mock
+    private Road mockRoad;
+
+    /** second mock road of the map **/
+    @Mock
+    private Road otherRoad;
+
+    /**
+     * setup method to initialize run details needed by simulation and logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        AppContext.RUN_DETAILS.duration = 1000;
+    }
+
+    /**
+     * test to verify that window stops at maximal number of steps, warm up steps are not measured and cars on all
+     * roads are counted after every measured step
+     **/
+    @Test
+    void measure_ShouldCountStepsAndVehicleUpdates() {
+        // Arrange
+        when(mockRoad.getNumberOfCarsOnRoad()).thenReturn(4);
+        when(otherRoad.getNumberOfCarsOnRoad()).thenReturn(6);
+        Simulation simulation = new Simulation(new Road[]{mockRoad, otherRoad});
+        BenchDetails details = new BenchDetails();
+        details.warmUpSteps = 5;
+        details.windowSeconds = 60.0;
+
+        // Act
+        ThroughputBenchmark.Report report = ThroughputBenchmark.measure(simulation, details, 20);
+
+        // Assert
+        assertEquals(20, report.steps);
+        assertEquals(5, report.warmUpSteps);
+        assertEquals(200, report.vehicleUpdates);
+        assertEquals(25, simulation.getStepCount());
+        verify(mockRoad, times(25)).updateRoad();
+        assertNull(simulation.getPhaseTimes());
+        assertTrue(report.roadsTime() + report.lightsTime <= report.stepTime);
+        assertEquals(report.vehicleUpdatesPerSecond(), 10 * report.stepsPerSecond(),
+                1e-6 * report.vehicleUpdatesPerSecond());
+    }
+
+    /**
+     * test to verify that the slowest roads are listed from the slowest and number of listed roads is limited
+     **/
+    @Test
+    void slowestRoads_ShouldSortByUpdateTime() {
+        // Arrange
+        when(mockRoad.getId()).thenReturn(3);
+        ThroughputBenchmark.Report report = new ThroughputBenchmark.Report(new Road[]{otherRoad, mockRoad}, 0);
+        report.roadTimes[0] = 100;
+        report.roadTimes[1] = 300;
+        report.stepTime = 500;
+        report.steps = 1;
+
+        // Act
+        Integer[] slowest = report.slowestRoads(1);
+        String json = report.toJson(1);
+
+        // Assert
+        assertArrayEquals(new Integer[]{1}, slowest);
+        assertEquals(2, report.slowestRoads(5).length);
+        assertEquals(100, report.otherTime());
+        assertEquals(0.6, report.share(report.roadTimes[1]), 1e-9);
+        assertTrue(json.startsWith("{") && json.endsWith("]}"));
+        assertTrue(json.contains("\"slowestRoads\":[{\"id\":3,"));
+    }
+}
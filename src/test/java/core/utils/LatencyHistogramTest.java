@@ -0,0 +1,93 @@
+package core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for LatencyHistogram class, focusing on bounds of buckets, percentiles, mean and clearing
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class LatencyHistogramTest {
+
+    /**
+     * test to verify that every value falls into bucket whose upper bound is not lower than the value and relative
+     * error of the bound is at most one sixteenth
+     **/
+    @Test
+    void bucketIndex_ShouldGiveBucketContainingValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 12345, 999_999, 123_456_789, LatencyHistogram.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(upper >= value, "upper bound " + upper + " is lower than " + value);
+            assertTrue(upper - value <= value / 16, "bucket of " + value + " is too wide");
+            if (index > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    /**
+     * test to verify count, sum, mean, maximum and percentiles of recorded values
+     **/
+    @Test
+    void record_ShouldComputeStatistics() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        // Assert
+        assertEquals(100, histogram.getCount());
+        assertEquals(5_050_000L, histogram.getSum());
+        assertEquals(50_500.0, histogram.getMean(), 1e-9);
+        assertEquals(100_000L, histogram.getMax());
+        assertEquals(50_000.0, histogram.getPercentile(50), 50_000.0 / 16);
+        assertEquals(99_000.0, histogram.getPercentile(99), 99_000.0 / 16);
+        assertEquals(100_000L, histogram.getPercentile(100));
+    }
+
+    /**
+     * test to verify that negative values are recorded as zero and values above maximum keep exact maximum
+     **/
+    @Test
+    void record_ShouldClampValues() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_VALUE * 2);
+
+        // Assert
+        assertEquals(0L, histogram.getPercentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE * 2, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE * 2, histogram.getSum());
+    }
+
+    /**
+     * test to verify that empty histogram and cleared histogram give zeros
+     **/
+    @Test
+    void reset_ShouldClearValues() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getPercentile(99));
+        assertEquals(0.0, histogram.getMean());
+        histogram.record(500);
+
+        // Act
+        histogram.reset();
+
+        // Assert
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0L, histogram.getPercentile(50));
+    }
+}
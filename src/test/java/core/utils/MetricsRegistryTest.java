@@ -0,0 +1,133 @@
+package core.utils;
+
+import core.utils.MetricsRegistry.Counter;
+import core.utils.MetricsRegistry.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for MetricsRegistry and RoadMetrics classes, focusing on disabled timing, recording of phases per step,
+ * subtraction of nested phases, counters and the readable table
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class MetricsRegistryTest {
+
+    /**
+     * setup method to start every test with enabled and empty registry
+     **/
+    @BeforeEach
+    void setUp() {
+        MetricsRegistry.setEnabled(true);
+        MetricsRegistry.getMetricsRegistry().reset();
+    }
+
+    /**
+     * turns metrics off, so other tests run without timing
+     **/
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.setEnabled(false);
+        MetricsRegistry.getMetricsRegistry().reset();
+    }
+
+    /**
+     * test to verify that disabled registry gives start 0 and time with start 0 is not recorded
+     **/
+    @Test
+    void start_WhenDisabled_ShouldNotTime() {
+        // Arrange
+        MetricsRegistry.setEnabled(false);
+        RoadMetrics metrics = new RoadMetrics(1);
+
+        // Act
+        long start = MetricsRegistry.start();
+        metrics.addTime(Phase.FORWARD_STEP, start);
+        metrics.endStep(3);
+
+        // Assert
+        assertEquals(0, start);
+        assertNull(metrics.getHistogram(Phase.FORWARD_STEP));
+        assertEquals(1, metrics.getCount(Counter.STEPS));
+        assertEquals(3, metrics.getVehicles());
+    }
+
+    /**
+     * test to verify that time of phases summed during step is recorded once per step and nested phase is subtracted
+     * from the outer phase
+     **/
+    @Test
+    void endStep_ShouldRecordPhasesPerStep() throws InterruptedException {
+        // Arrange
+        RoadMetrics metrics = new RoadMetrics(2);
+
+        // Act
+        for (int step = 0; step < 2; step++) {
+            long forward = MetricsRegistry.start();
+            long decision = MetricsRegistry.start();
+            Thread.sleep(5);
+            metrics.addNestedTime(Phase.LANE_CHANGE_DECISION, decision, Phase.FORWARD_STEP);
+            long decisionAgain = MetricsRegistry.start();
+            metrics.addNestedTime(Phase.LANE_CHANGE_DECISION, decisionAgain, Phase.FORWARD_STEP);
+            metrics.addTime(Phase.FORWARD_STEP, forward);
+            metrics.endStep(4);
+        }
+
+        // Assert
+        LatencyHistogram decisions = metrics.getHistogram(Phase.LANE_CHANGE_DECISION);
+        LatencyHistogram forwards = metrics.getHistogram(Phase.FORWARD_STEP);
+        assertEquals(2, decisions.getCount());
+        assertEquals(2, forwards.getCount());
+        assertTrue(decisions.getMean() >= 5_000_000);
+        assertTrue(forwards.getMean() < decisions.getMean());
+        assertNull(metrics.getHistogram(Phase.GENERATION));
+        assertEquals(2, metrics.getCount(Counter.STEPS));
+    }
+
+    /**
+     * test to verify that registry keeps one metrics per road sorted with simulation first and reset clears them
+     **/
+    @Test
+    void forRoad_ShouldKeepMetricsPerRoad() {
+        // Arrange
+        MetricsRegistry registry = MetricsRegistry.getMetricsRegistry();
+
+        // Act
+        RoadMetrics road = registry.forRoad(7);
+        road.increment(Counter.LANE_CHANGES);
+        road.increment(Counter.LANE_CHANGES);
+        registry.forRoad(MetricsRegistry.SIMULATION_ID);
+
+        // Assert
+        assertSame(road, registry.forRoad(7));
+        assertEquals(2, road.getCount(Counter.LANE_CHANGES));
+        assertEquals(MetricsRegistry.SIMULATION_ID, registry.getAll().get(0).getRoadId());
+        registry.reset();
+        assertEquals(0, road.getCount(Counter.LANE_CHANGES));
+    }
+
+    /**
+     * test to verify that the table contains recorded phases and counters of roads
+     **/
+    @Test
+    void dump_ShouldListPhasesAndCounters() {
+        // Arrange
+        RoadMetrics road = MetricsRegistry.getMetricsRegistry().forRoad(3);
+        road.addTime(Phase.GENERATION, MetricsRegistry.start());
+        road.increment(Counter.CARS_BLOCKED);
+        road.endStep(9);
+
+        // Act
+        String dump = MetricsRegistry.getMetricsRegistry().dump();
+
+        // Assert
+        assertTrue(dump.contains("generation"));
+        assertTrue(dump.contains("vehicles 9"));
+        assertTrue(dump.contains("cars blocked 1"));
+        assertFalse(dump.contains("forward_step"));
+    }
+}
@@ -117,4 +117,33 @@ public class RandomNumberGeneratorTest {
         assertEquals(val1, val3, "First number of the sequence should match when seed is explicitly reset to 999");
         assertEquals(val2, val4, "Second number of the sequence should match when seed is explicitly reset to 999");
     }
-}
\ No newline at end of file
+
+    /**
+     * test to verify that streams are independent of the singleton, reproducible for the same seed and id and
+     * different for different ids
+     **/
+    @Test
+    void createStream_ShouldBeReproducibleAndIndependentPerId() {
+        // Arrange
+        RandomNumberGenerator singleton = RandomNumberGenerator.getInstance(1);
+        RandomNumberGenerator stream = RandomNumberGenerator.createStream(1, 0);
+        RandomNumberGenerator sameStream = RandomNumberGenerator.createStream(1, 0);
+        RandomNumberGenerator otherStream = RandomNumberGenerator.createStream(1, 1);
+
+        // Act
+        double[] first = new double[5];
+        double[] same = new double[5];
+        double[] other = new double[5];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = stream.nextDouble();
+            singleton.nextDouble();
+            same[i] = sameStream.nextDouble();
+            other[i] = otherStream.nextDouble();
+        }
+
+        // Assert
+        assertNotSame(singleton, stream, "Stream should not be the singleton");
+        assertArrayEquals(first, same, "Same seed and id should give the same sequence");
+        assertFalse(java.util.Arrays.equals(first, other), "Different ids should give different sequences");
+    }
+}
@@ -173,6 +173,24 @@ public class ResultsRecorderTest {
         assertFalse(recorder.wasRoadAlreadyEmpty(0), "Road emptiness flag should be reset");
     }
 
+    /**
+     * test to verify that startMeasurement clears results recorded before it and starts the timer
+     **/
+    @Test
+    void startMeasurement_ShouldClearDataAndStartTimer() throws InterruptedException {
+        recorder.initialize(new Road[]{mockRoad}, "testFile.txt");
+        recorder.recordCarsPassed(0, 7);
+
+        // Act
+        recorder.startMeasurement(100);
+        Thread.sleep(5);
+        recorder.stopTimer();
+
+        // Assert
+        assertEquals(0, recorder.getCarsPassedOnRoad(0), "Cars passed before measurement should be cleared");
+        assertTrue(recorder.getElapsedTimeNs().compareTo(BigInteger.ZERO) > 0, "Timer should be started");
+    }
+
     /**
      * test to verify that writing results to TXT format outputs a file
      * with appropriate headers and accumulated text data
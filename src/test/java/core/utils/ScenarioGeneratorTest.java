@@ -0,0 +1,192 @@
+package core.utils;
+
+import app.AppContext;
+import core.model.CarGenerator;
+import core.model.LightPlan;
+import core.model.Road;
+import core.model.cellular.CellularRoad;
+import core.model.continous.ContinuosRoad;
+import core.utils.loading.RoadLoader;
+import models.ICarFollowingModel;
+import models.carFollowingModels.IDM;
+import models.carFollowingModels.NagelSchreckenberg;
+import models.laneChangingModels.Mobil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for ScenarioGenerator class, map written to file has to load to the same roads as roads built in memory
+ * for continuous and cellular models and the same seed has to give the same map
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class ScenarioGeneratorTest {
+
+    /** Temporary directory for generated maps **/
+    @TempDir
+    File tempDir;
+
+    /**
+     * sets up run details without logging and continuous models
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+        AppContext.CAR_FOLLOWING_MODEL = new IDM();
+        AppContext.LANE_CHANGING_MODEL = new Mobil();
+    }
+
+    /**
+     * helper to create small scenario with lights and queues on about half of lanes
+     *
+     * @param seed seed of scenario
+     * @return details of scenario
+     **/
+    private ScenarioDetails createDetails(long seed) {
+        ScenarioDetails details = new ScenarioDetails();
+        details.seed = seed;
+        details.roads = 40;
+        details.lightShare = 0.5;
+        details.queueShare = 0.5;
+        details.outputMap = new File(this.tempDir, "map" + seed + ".xml").getPath();
+        return details;
+    }
+
+    /**
+     * helper to assert that loaded roads are the same as built roads
+     *
+     * @param expected roads built in memory
+     * @param actual roads loaded from map
+     **/
+    private void assertSameRoads(Road[] expected, Road[] actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getClass(), actual[i].getClass());
+            assertEquals(expected[i].getLength(), actual[i].getLength(), 1e-9);
+            assertEquals(expected[i].getSpeedLimit(), actual[i].getSpeedLimit(), 1e-9);
+            assertEquals(expected[i].getNumberOfLanes(), actual[i].getNumberOfLanes());
+            for (int lane = 0; lane < expected[i].getNumberOfLanes(); lane++) {
+                CarGenerator expectedGenerator = expected[i].getCarGenerators()[lane];
+                CarGenerator actualGenerator = actual[i].getCarGenerators()[lane];
+                assertEquals(expectedGenerator.getFlowRate(), actualGenerator.getFlowRate(), 1e-9);
+                assertEquals(expectedGenerator.generatingToQueue(), actualGenerator.generatingToQueue());
+                if (expectedGenerator.generatingToQueue()) {
+                    assertEquals(expectedGenerator.getMinQueueSize(), actualGenerator.getMinQueueSize());
+                    assertEquals(expectedGenerator.getMaxQueueSize(), actualGenerator.getMaxQueueSize());
+                }
+
+                LightPlan expectedPlan = expected[i].getLightPlans()[lane];
+                LightPlan actualPlan = actual[i].getLightPlans()[lane];
+                assertEquals(expectedPlan.getCycleTime(), actualPlan.getCycleTime());
+                assertEquals(expectedPlan.getTimeOfSwitch(), actualPlan.getTimeOfSwitch());
+                assertEquals(expectedPlan.isBeginsOnGreen(), actualPlan.isBeginsOnGreen());
+                assertEquals(expectedPlan.getOffset(), actualPlan.getOffset());
+            }
+        }
+    }
+
+    /**
+     * test to verify that map loaded by RoadLoader gives the same roads as roads built in memory for continuous model
+     **/
+    @Test
+    void writeMap_ShouldLoadToBuiltRoadsForContinuousModel() {
+        ScenarioDetails details = createDetails(1);
+        assertTrue(ScenarioGenerator.writeMap(details, details.outputMap));
+
+        Road[] built = ScenarioGenerator.buildRoads(details);
+        assertSameRoads(built, RoadLoader.loadMapStart(details.outputMap));
+        assertInstanceOf(ContinuosRoad.class, built[0]);
+    }
+
+    /**
+     * test to verify that the same map is usable with cellular model, roads are cellular and equal to built roads
+     **/
+    @Test
+    void writeMap_ShouldLoadToBuiltRoadsForCellularModel() {
+        ICarFollowingModel model = new NagelSchreckenberg();
+        AppContext.CAR_FOLLOWING_MODEL = model;
+        ScenarioDetails details = createDetails(2);
+        assertTrue(ScenarioGenerator.writeMap(details, details.outputMap));
+
+        Road[] built = ScenarioGenerator.buildRoads(details);
+        assertSameRoads(built, RoadLoader.loadMapStart(details.outputMap));
+        assertInstanceOf(CellularRoad.class, built[0]);
+    }
+
+    /**
+     * test to verify that drawn values stay in ranges, lanes without light are always green and both lights and queues
+     * are used
+     **/
+    @Test
+    void buildRoads_ShouldDrawValuesFromRanges() {
+        ScenarioDetails details = createDetails(3);
+        details.roads = 200;
+        Road[] roads = ScenarioGenerator.buildRoads(details);
+
+        int lights = 0;
+        int queues = 0;
+        for (Road road : roads) {
+            assertTrue(road.getLength() >= details.minLength && road.getLength() <= details.maxLength);
+            assertTrue(road.getSpeedLimit() >= details.minSpeedLimit && road.getSpeedLimit() <= details.maxSpeedLimit);
+            assertTrue(road.getNumberOfLanes() >= details.minLanes && road.getNumberOfLanes() <= details.maxLanes);
+            for (int lane = 0; lane < road.getNumberOfLanes(); lane++) {
+                double flowRate = road.getCarGenerators()[lane].getFlowRate();
+                assertTrue(flowRate >= details.minFlowRate && flowRate <= details.maxFlowRate);
+                if (road.getCarGenerators()[lane].generatingToQueue()) {
+                    queues++;
+                }
+                LightPlan plan = road.getLightPlans()[lane];
+                if (plan.getCycleTime() == plan.getTimeOfSwitch()) {
+                    assertTrue(plan.isGreen());
+                } else {
+                    lights++;
+                    assertTrue(plan.getCycleTime() >= details.minCycle && plan.getCycleTime() <= details.maxCycle);
+                    assertTrue(plan.getTimeOfSwitch() > 0 && plan.getTimeOfSwitch() < plan.getCycleTime());
+                }
+            }
+        }
+        assertTrue(lights > 0);
+        assertTrue(queues > 0);
+    }
+
+    /**
+     * test to verify that the same seed writes the same map and other seed another map
+     **/
+    @Test
+    void writeMap_ShouldBeReproducibleForSeed() throws Exception {
+        ScenarioDetails details = createDetails(4);
+        String first = new File(this.tempDir, "first.xml").getPath();
+        String second = new File(this.tempDir, "second.xml").getPath();
+        String other = new File(this.tempDir, "other.xml").getPath();
+        assertTrue(ScenarioGenerator.writeMap(details, first));
+        assertTrue(ScenarioGenerator.writeMap(details, second));
+        details.seed = 5;
+        assertTrue(ScenarioGenerator.writeMap(details, other));
+
+        assertEquals(Files.readString(new File(first).toPath()), Files.readString(new File(second).toPath()));
+        assertNotEquals(Files.readString(new File(first).toPath()), Files.readString(new File(other).toPath()));
+    }
+
+    /**
+     * test to verify that invalid scenario and missing scenario file are not generated
+     **/
+    @Test
+    void run_ShouldFailForInvalidOrMissingScenario() {
+        ScenarioDetails details = createDetails(6);
+        details.minLanes = 0;
+        assertFalse(ScenarioGenerator.writeMap(details, details.outputMap));
+        assertNull(ScenarioGenerator.buildRoads(details));
+        assertFalse(new File(details.outputMap).exists());
+        assertFalse(ScenarioGenerator.run(new File(this.tempDir, "missing.xml").getPath()));
+    }
+}
@@ -0,0 +1,217 @@
+package core.utils;
+
+import app.AppContext;
+import core.model.CarParams;
+import core.model.Road;
+import core.utils.constants.RequestConstants;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/************************
+ * Unit tests for TrajectoryReader class, focusing on building of frame index, seeking and loading frames into roads
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class TrajectoryReaderTest {
+
+    /** Temporary directory for trajectory files **/
+    @TempDir
+    File tempDir;
+
+    /** mocked logger to prevent side effects during testing **/
+    private MockedStatic<MyLogger> mockedLogger;
+
+    /** reader under test, closed after each test **/
+    private TrajectoryReader reader;
+
+    /**
+     * resets recorder singleton and silences the logger
+     **/
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instanceField = TrajectoryRecorder.class.getDeclaredField("instance");
+        instanceField.setAccessible(true);
+        instanceField.set(null, null);
+
+        mockedLogger = mockStatic(MyLogger.class);
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * closes reader and logger mock after each test
+     **/
+    @AfterEach
+    void tearDown() {
+        if (reader != null) {
+            reader.close();
+        }
+        mockedLogger.close();
+    }
+
+    /**
+     * helper to record trajectory file with given number of cars in steps 0, 2, 4, ... (every second step sampled)
+     *
+     * @param fileName name of the file in temp directory
+     * @param steps number of simulation steps
+     * @param carsPerStep number of cars recorded in every sampled step
+     * @param gzip whether the file is compressed
+     * @return absolute path of the file
+     **/
+    private String recordFile(String fileName, int steps, int carsPerStep, boolean gzip) {
+        TrajectoryDetails details = new TrajectoryDetails();
+        details.trajectoryFile = new File(tempDir, fileName).getAbsolutePath();
+        details.everyNthStep = 2;
+        details.gzip = gzip;
+        TrajectoryRecorder recorder = TrajectoryRecorder.getTrajectoryRecorder();
+        recorder.open(details);
+        for (int step = 0; step < steps; step++) {
+            recorder.startStep(step);
+            if (!TrajectoryRecorder.isRecordingStep()) {
+                continue;
+            }
+            for (int i = 0; i < carsPerStep; i++) {
+                CarParams car = new CarParams();
+                car.id = i;
+                car.lane = i % 2;
+                car.xPosition = step + i;
+                car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, 1.0);
+                car.setParameter(RequestConstants.LENGTH_REQUEST, 5.0);
+                recorder.recordCar(i % 2 == 0 ? 0 : 1, car);
+            }
+        }
+        recorder.close();
+        return details.trajectoryFile;
+    }
+
+    /**
+     * test to verify that index contains one frame per sampled step with correct steps and record counts
+     **/
+    @Test
+    void open_ShouldBuildFrameIndex() {
+        // Arrange
+        String file = recordFile("traj.bin", 10, 3, false);
+
+        // Act
+        reader = TrajectoryReader.open(file);
+
+        // Assert
+        assertNotNull(reader, "Reader should open binary trajectory file");
+        assertEquals(5, reader.getNumberOfFrames(), "Steps 0, 2, 4, 6, 8 should be frames");
+        assertEquals(6, reader.getStepOfFrame(3), "Fourth frame should be step 6");
+        assertEquals(3, reader.getNumberOfRecordsInFrame(3), "Every frame should have three records");
+    }
+
+    /**
+     * test to verify that index spanning more than one read chunk is built correctly
+     **/
+    @Test
+    void open_LargeFile_ShouldIndexAllRecords() {
+        // Arrange - 10000 records per frame is more than one chunk of the index scan
+        String file = recordFile("traj.bin", 4, 10000, false);
+
+        // Act
+        reader = TrajectoryReader.open(file);
+
+        // Assert
+        assertNotNull(reader);
+        assertEquals(2, reader.getNumberOfFrames(), "Two frames should be found");
+        assertEquals(10000, reader.getNumberOfRecordsInFrame(1), "Second frame should have all its records");
+    }
+
+    /**
+     * test to verify that seeking finds first frame at or after requested step
+     **/
+    @Test
+    void findFrameOfStep_ShouldFindFirstFrameAtOrAfterStep() {
+        // Arrange
+        reader = TrajectoryReader.open(recordFile("traj.bin", 10, 1, false));
+
+        // Act & Assert
+        assertEquals(0, reader.findFrameOfStep(0), "Step 0 is first frame");
+        assertEquals(2, reader.findFrameOfStep(3), "Step 3 is not recorded, step 4 should be found");
+        assertEquals(4, reader.findFrameOfStep(100), "Step after end should return last frame");
+    }
+
+    /**
+     * test to verify that read frame contains cars with recorded values
+     **/
+    @Test
+    void readFrame_ShouldReturnRecordedCars() {
+        // Arrange
+        reader = TrajectoryReader.open(recordFile("traj.bin", 4, 2, false));
+        ArrayList<Integer> roadIds = new ArrayList<>();
+
+        // Act
+        ArrayList<CarParams> cars = reader.readFrame(1, roadIds);
+
+        // Assert
+        assertEquals(2, cars.size());
+        assertEquals(1, cars.get(1).id);
+        assertEquals(1, cars.get(1).lane);
+        assertEquals(3.0, cars.get(1).xPosition, "Car 1 in step 2 should be at 2 + 1");
+        assertEquals(5.0, cars.get(1).getParameter(RequestConstants.LENGTH_REQUEST));
+        assertNotNull(cars.get(1).color, "Replayed car should have color");
+        assertEquals(1, roadIds.get(1), "Odd cars were recorded on road 1");
+        assertNull(reader.readFrame(10, null), "Frame out of range should return null");
+    }
+
+    /**
+     * test to verify that loading frame clears roads and places cars only on their own road
+     **/
+    @Test
+    void loadFrameIntoRoads_ShouldPlaceCarsOnMatchingRoads() {
+        // Arrange
+        reader = TrajectoryReader.open(recordFile("traj.bin", 2, 4, false));
+        Road road0 = mock(Road.class);
+        Road road1 = mock(Road.class);
+        when(road0.getId()).thenReturn(0);
+        when(road1.getId()).thenReturn(1);
+
+        // Act
+        boolean loaded = reader.loadFrameIntoRoads(0, new Road[]{road0, road1});
+
+        // Assert
+        assertTrue(loaded);
+        verify(road0).removeAllCars();
+        verify(road1).removeAllCars();
+        ArrayList<CarParams> placed = new ArrayList<>();
+        ArgumentCaptor<CarParams> captor = ArgumentCaptor.forClass(CarParams.class);
+        verify(road0, times(2)).placeCarAt(captor.capture(), anyDouble(), anyInt());
+        placed.addAll(captor.getAllValues());
+        assertEquals(0, placed.get(0).id);
+        assertEquals(2, placed.get(1).id);
+        verify(road1).placeCarAt(any(CarParams.class), eq(3.0), eq(1));
+    }
+
+    /**
+     * test to verify that compressed files are rejected, because they cannot be read with random access
+     **/
+    @Test
+    void open_GzipFile_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(TrajectoryReader.open(recordFile("traj.bin.gz", 2, 1, true)),
+                "Compressed trajectory cannot be replayed");
+        assertNull(TrajectoryReader.open(new File(tempDir, "missing.bin").getAbsolutePath()),
+                "Missing file cannot be replayed");
+    }
+}
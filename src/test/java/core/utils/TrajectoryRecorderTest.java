@@ -0,0 +1,238 @@
+package core.utils;
+
+import app.AppContext;
+import core.model.CarParams;
+import core.utils.constants.RequestConstants;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.BufferedReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mockStatic;
+
+/************************
+ * Unit tests for TrajectoryRecorder class, focusing on sampling, spatial filter and both output formats
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+@ExtendWith(MockitoExtension.class)
+public class TrajectoryRecorderTest {
+
+    /** Temporary directory for trajectory files **/
+    @TempDir
+    File tempDir;
+
+    /** recorder under test, singleton is reset before each test **/
+    private TrajectoryRecorder recorder;
+
+    /** mocked logger to prevent side effects during testing **/
+    private MockedStatic<MyLogger> mockedLogger;
+
+    /**
+     * resets singleton of the recorder and silences the logger
+     **/
+    @BeforeEach
+    void setUp() throws Exception {
+        Field instanceField = TrajectoryRecorder.class.getDeclaredField("instance");
+        instanceField.setAccessible(true);
+        instanceField.set(null, null);
+        recorder = TrajectoryRecorder.getTrajectoryRecorder();
+
+        mockedLogger = mockStatic(MyLogger.class);
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * closes recorder and logger mock after each test
+     **/
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+        mockedLogger.close();
+    }
+
+    /**
+     * helper to create car with given id, lane, position and speed
+     **/
+    private CarParams createCar(int id, int lane, double x, double speed) {
+        CarParams car = new CarParams();
+        car.id = id;
+        car.lane = lane;
+        car.xPosition = x;
+        car.setParameter(RequestConstants.CURRENT_SPEED_REQUEST, speed);
+        car.setParameter(RequestConstants.LENGTH_REQUEST, 4.0);
+        return car;
+    }
+
+    /**
+     * helper to create details for file in temp directory
+     **/
+    private TrajectoryDetails createDetails(String fileName, String format) {
+        TrajectoryDetails details = new TrajectoryDetails();
+        details.trajectoryFile = new File(tempDir, fileName).getAbsolutePath();
+        details.format = format;
+        return details;
+    }
+
+    /**
+     * test to verify that when recorder is not open, no step is recorded
+     **/
+    @Test
+    void startStep_NotOpen_ShouldNotRecord() {
+        // Act
+        recorder.startStep(0);
+
+        // Assert
+        assertFalse(TrajectoryRecorder.isRecordingStep(), "Closed recorder should not record any step");
+        assertFalse(recorder.isOpen(), "Recorder should not be open");
+    }
+
+    /**
+     * test to verify that details without file do not open the recorder
+     **/
+    @Test
+    void open_NoFile_ShouldReturnFalse() {
+        // Act & Assert
+        assertFalse(recorder.open(new TrajectoryDetails()), "Recorder should not open without trajectory file");
+        assertFalse(recorder.isOpen(), "Recorder should stay closed");
+    }
+
+    /**
+     * test to verify that only every n-th step is marked for recording
+     **/
+    @Test
+    void startStep_EveryNthStep_ShouldSampleSteps() {
+        // Arrange
+        TrajectoryDetails details = createDetails("traj.bin", TrajectoryDetails.FORMAT_BINARY);
+        details.everyNthStep = 3;
+        recorder.open(details);
+
+        // Act & Assert
+        recorder.startStep(0);
+        assertTrue(TrajectoryRecorder.isRecordingStep(), "Step 0 should be recorded");
+        recorder.startStep(1);
+        assertFalse(TrajectoryRecorder.isRecordingStep(), "Step 1 should be skipped");
+        recorder.startStep(3);
+        assertTrue(TrajectoryRecorder.isRecordingStep(), "Step 3 should be recorded");
+    }
+
+    /**
+     * test to verify that binary file contains header and fixed width records with correct values, and that buffer
+     * smaller than number of records is written repeatedly without losing records
+     **/
+    @Test
+    void recordCar_Binary_ShouldWriteFixedWidthRecords() throws Exception {
+        // Arrange
+        TrajectoryDetails details = createDetails("traj.bin", TrajectoryDetails.FORMAT_BINARY);
+        details.bufferRecords = 2;
+        recorder.open(details);
+
+        // Act
+        recorder.startStep(7);
+        for (int i = 0; i < 5; i++) {
+            recorder.recordCar(1, createCar(i, i % 2, 10.0 * i, 1.5));
+        }
+        recorder.close();
+
+        // Assert
+        File file = new File(details.trajectoryFile);
+        assertEquals(TrajectoryRecorder.HEADER_SIZE + 5L * TrajectoryRecorder.RECORD_SIZE, file.length(),
+                "File should contain header and five records");
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            assertEquals(TrajectoryRecorder.MAGIC, in.readInt(), "File should start with magic number");
+            assertEquals(TrajectoryRecorder.RECORD_SIZE, in.readInt(), "Header should contain record size");
+            in.skipBytes(3 * TrajectoryRecorder.RECORD_SIZE);
+            assertEquals(7, in.readInt(), "Step should be recorded");
+            assertEquals(1, in.readInt(), "Road id should be recorded");
+            assertEquals(3, in.readInt(), "Car id should be recorded");
+            assertEquals(1, in.readInt(), "Lane should be recorded");
+            assertEquals(30.0, in.readDouble(), "Position should be recorded");
+            assertEquals(1.5, in.readDouble(), "Speed should be recorded");
+            assertEquals(4.0, in.readDouble(), "Length should be recorded");
+        }
+        assertEquals(5, recorder.getRecordsWritten(), "All five records should be counted");
+    }
+
+    /**
+     * test to verify that vehicle sampling and spatial filter skip cars
+     **/
+    @Test
+    void recordCar_SamplingAndFilter_ShouldSkipCars() {
+        // Arrange
+        TrajectoryDetails details = createDetails("traj.bin", TrajectoryDetails.FORMAT_BINARY);
+        details.everyNthCar = 2;
+        details.minX = 5.0;
+        details.maxX = 50.0;
+        recorder.open(details);
+        recorder.startStep(0);
+
+        // Act
+        recorder.recordCar(0, createCar(2, 0, 10.0, 1.0)); // recorded
+        recorder.recordCar(0, createCar(3, 0, 10.0, 1.0)); // odd id, skipped
+        recorder.recordCar(0, createCar(4, 0, 1.0, 1.0)); // before minX, skipped
+        recorder.recordCar(0, createCar(6, 0, 60.0, 1.0)); // after maxX, skipped
+
+        // Assert
+        assertEquals(1, recorder.getRecordsWritten(), "Only one car should pass sampling and filter");
+    }
+
+    /**
+     * test to verify that gzip compressed ndjson file contains one json line per record
+     **/
+    @Test
+    void recordCar_GzipNdjson_ShouldWriteJsonLines() throws Exception {
+        // Arrange
+        TrajectoryDetails details = createDetails("traj.ndjson.gz", TrajectoryDetails.FORMAT_NDJSON);
+        details.gzip = true;
+        recorder.open(details);
+
+        // Act
+        recorder.startStep(2);
+        recorder.recordCar(0, createCar(1, 0, 12.5, 3.0));
+        recorder.recordCar(0, createCar(2, 1, 4.0, 0.0));
+        recorder.close();
+
+        // Assert
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                new FileInputStream(details.trajectoryFile)), StandardCharsets.US_ASCII))) {
+            List<String> lines = reader.lines().toList();
+            assertEquals(2, lines.size(), "There should be one line per record");
+            assertEquals("{\"step\":2,\"road\":0,\"id\":1,\"lane\":0,\"x\":12.5,\"speed\":3.0,\"length\":4.0}", lines.get(0),
+                    "Line should contain all fields of the record");
+        }
+    }
+
+    /**
+     * test to verify that closing the recorder stops recording of steps
+     **/
+    @Test
+    void close_ShouldStopRecording() {
+        // Arrange
+        recorder.open(createDetails("traj.bin", TrajectoryDetails.FORMAT_BINARY));
+        recorder.startStep(0);
+
+        // Act
+        recorder.close();
+
+        // Assert
+        assertFalse(TrajectoryRecorder.isRecordingStep(), "Recording flag should be cleared after close");
+        assertFalse(recorder.isOpen(), "Recorder should be closed");
+    }
+}
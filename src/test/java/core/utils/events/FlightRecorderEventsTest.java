@@ -0,0 +1,111 @@
+package core.utils.events;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/************************
+ * Unit tests for flight recorder events of the simulation, focusing on events being off by default, recorded fields
+ * and settings profile shipped in config directory
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class FlightRecorderEventsTest {
+
+    /** directory for recording files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * test to verify that events are not recorded when recording does not enable them
+     **/
+    @Test
+    void emit_WhenNotEnabled_ShouldNotRecord() throws Exception {
+        // Arrange
+        Path file = this.tempDir.resolve("disabled.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.start();
+            LightSwitchEvent.emit(1, 0, 10, true);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("trafficSim.")));
+    }
+
+    /**
+     * test to verify that enabled events are recorded with their fields
+     **/
+    @Test
+    void emit_WhenEnabled_ShouldRecordFields() throws Exception {
+        // Arrange
+        Path file = this.tempDir.resolve("enabled.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(LightSwitchEvent.class);
+            recording.enable(QueueAdmissionEvent.class);
+            recording.enable(GenerationBlockedEvent.class);
+            recording.start();
+            LightSwitchEvent.emit(1, 2, 10, true);
+            QueueAdmissionEvent.emit(3, 1, 42, 7);
+            GenerationBlockedEvent.emit(4, 0);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent light = find(events, "trafficSim.LightSwitch");
+        assertEquals(1, light.getInt("roadId"));
+        assertEquals(2, light.getInt("lane"));
+        assertEquals(10L, light.getLong("step"));
+        assertTrue(light.getBoolean("green"));
+        RecordedEvent admission = find(events, "trafficSim.QueueAdmission");
+        assertEquals(42, admission.getInt("carId"));
+        assertEquals(7, admission.getInt("queueLength"));
+        assertEquals(4, find(events, "trafficSim.GenerationBlocked").getInt("roadId"));
+    }
+
+    /**
+     * test to verify that settings profile enables all events of the simulation
+     **/
+    @Test
+    void settingsProfile_ShouldEnableAllEvents() throws Exception {
+        // Act
+        Configuration configuration = Configuration.create(Path.of("config", "trafficSim.jfc"));
+        Map<String, String> settings = configuration.getSettings();
+
+        // Assert
+        for (String event : new String[]{"RoadStep", "LaneChangeDecision", "GenerationBlocked", "QueueAdmission",
+                "LightSwitch", "ResultsFlush"}) {
+            assertEquals("true", settings.get("trafficSim." + event + "#enabled"), event);
+        }
+    }
+
+    /**
+     * helper to find the first event of given type
+     *
+     * @param events recorded events
+     * @param name name of event type
+     * @return the first event of the type
+     **/
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("no event " + name));
+    }
+}
@@ -0,0 +1,80 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.BenchDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for BenchLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class BenchLoaderTest {
+
+    /** temporary directory for benchmark files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that warm up, window and number of slowest roads are loaded and missing values keep defaults
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadWarmUpAndWindow() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("bench.xml");
+        Files.writeString(file, """
+                <bench>
+                    <warmUp>50</warmUp>
+                    <window>2.5</window>
+                    <slowestRoads>3</slowestRoads>
+                </bench>
+                """);
+
+        // Act
+        BenchDetails details = BenchLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("bench.json", details.resultsFile);
+        assertEquals(50, details.warmUpSteps);
+        assertEquals(2.5, details.windowSeconds, 1e-9);
+        assertEquals(3, details.slowestRoads);
+    }
+
+    /**
+     * test to verify that empty window, negative warm up and wrong root return null
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path emptyWindow = tempDir.resolve("window.xml");
+        Files.writeString(emptyWindow, "<bench><window>0</window></bench>");
+        Path negativeWarmUp = tempDir.resolve("warmUp.xml");
+        Files.writeString(negativeWarmUp, "<bench><warmUp>-1</warmUp></bench>");
+        Path wrongRoot = tempDir.resolve("root.xml");
+        Files.writeString(wrongRoot, "<replications/>");
+
+        // Act & Assert
+        assertNull(BenchLoader.load(emptyWindow.toString()));
+        assertNull(BenchLoader.load(negativeWarmUp.toString()));
+        assertNull(BenchLoader.load(wrongRoot.toString()));
+    }
+}
@@ -0,0 +1,85 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.CostProfileDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for CostProfileLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class CostProfileLoaderTest {
+
+    /** temporary directory for cost profile files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that settings and lists of models are loaded and missing values keep defaults
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadModelsAndSettings() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("cost.xml");
+        Files.writeString(file, """
+                <costProfile>
+                    <warmUp>50</warmUp>
+                    <seed>9</seed>
+                    <carFollowingModels>
+                        <model>idm</model>
+                        <model>gipps</model>
+                    </carFollowingModels>
+                </costProfile>
+                """);
+
+        // Act
+        CostProfileDetails details = CostProfileLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("cost_profile.csv", details.resultsFile);
+        assertEquals(50, details.warmUpSteps);
+        assertEquals(9L, details.seed);
+        assertEquals(List.of("idm", "gipps"), details.carFollowingModels);
+        assertTrue(details.laneChangingModels.isEmpty());
+    }
+
+    /**
+     * test to verify that negative warm up, seed that is not a number and wrong root return null
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path negativeWarmUp = tempDir.resolve("warmUp.xml");
+        Files.writeString(negativeWarmUp, "<costProfile><warmUp>-1</warmUp></costProfile>");
+        Path badSeed = tempDir.resolve("seed.xml");
+        Files.writeString(badSeed, "<costProfile><seed>x</seed></costProfile>");
+        Path wrongRoot = tempDir.resolve("root.xml");
+        Files.writeString(wrongRoot, "<bench/>");
+
+        // Act & Assert
+        assertNull(CostProfileLoader.load(negativeWarmUp.toString()));
+        assertNull(CostProfileLoader.load(badSeed.toString()));
+        assertNull(CostProfileLoader.load(wrongRoot.toString()));
+    }
+}
@@ -0,0 +1,110 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.model.DemandProfile;
+import core.utils.RunDetails;
+import core.utils.constants.RoadLoadingConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for DemandProfileLoader class, focusing on points in map file and CSV files
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class DemandProfileLoaderTest {
+
+    /** temporary directory for CSV files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * helper to add element with text to parent
+     *
+     * @param doc document
+     * @param parent parent element
+     * @param tag tag of the element
+     * @param text text of the element
+     * @return created element
+     **/
+    private Element add(Document doc, Element parent, String tag, String text) {
+        Element element = doc.createElement(tag);
+        if (text != null) {
+            element.setTextContent(text);
+        }
+        parent.appendChild(element);
+        return element;
+    }
+
+    /**
+     * test to verify loading of points from map file
+     **/
+    @Test
+    void loadFromXml_Points_ShouldCreateProfile() throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element profileElement = doc.createElement(RoadLoadingConstants.DEMAND_PROFILE_TAG);
+        add(doc, profileElement, RoadLoadingConstants.INTERPOLATION_TAG, "linear");
+        double[][] points = {{0, 0.1}, {3600, 0.5}};
+        for (double[] point : points) {
+            Element pointElement = add(doc, profileElement, RoadLoadingConstants.PROFILE_POINT_TAG, null);
+            add(doc, pointElement, RoadLoadingConstants.PROFILE_TIME_TAG, String.valueOf(point[0]));
+            add(doc, pointElement, RoadLoadingConstants.PROFILE_RATE_TAG, String.valueOf(point[1]));
+        }
+
+        DemandProfile profile = DemandProfileLoader.loadFromXml(profileElement);
+
+        assertNotNull(profile);
+        assertEquals(DemandProfile.INTERPOLATION_LINEAR, profile.getInterpolation());
+        assertEquals(0.3, profile.rateAt(1800), 1e-12);
+        assertNull(profile.getSourceFile());
+    }
+
+    /**
+     * test to verify loading of CSV file with header, comments and semicolons
+     **/
+    @Test
+    void loadFromCsv_ShouldSkipHeaderAndComments() throws Exception {
+        Path file = tempDir.resolve("profile.csv");
+        Files.writeString(file, "time;rate\n# morning peak\n0;0.1\n\n600;0.4\n1200;0.1\n");
+
+        DemandProfile profile = DemandProfileLoader.loadFromCsv(file.toString(), DemandProfile.INTERPOLATION_CONSTANT);
+
+        assertNotNull(profile);
+        assertEquals(3, profile.getTimes().length);
+        assertEquals(0.4, profile.rateAt(900), 1e-12);
+        assertEquals(file.toString(), profile.getSourceFile());
+    }
+
+    /**
+     * test to verify that invalid or missing file returns null
+     **/
+    @Test
+    void loadFromCsv_InvalidFile_ShouldReturnNull() throws Exception {
+        Path file = tempDir.resolve("invalid.csv");
+        Files.writeString(file, "0,0.1\n10,abc\n");
+
+        assertNull(DemandProfileLoader.loadFromCsv(file.toString(), DemandProfile.INTERPOLATION_CONSTANT));
+        assertNull(DemandProfileLoader.loadFromCsv(tempDir.resolve("missing.csv").toString(),
+                DemandProfile.INTERPOLATION_CONSTANT));
+    }
+}
@@ -0,0 +1,83 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.FundamentalDiagramDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for FundamentalDiagramLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class FundamentalDiagramLoaderTest {
+
+    /** temporary directory for fundamental diagram files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that range of densities, models and settings are loaded and densities are spread evenly
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadRangeAndModels() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("fd.xml");
+        Files.writeString(file, """
+                <fundamentalDiagram>
+                    <results>fd.csv</results>
+                    <density><min>10</min><max>40</max></density>
+                    <points>4</points>
+                    <transient>100</transient>
+                    <carFollowingModels><model>idm</model><model>nagel</model></carFollowingModels>
+                </fundamentalDiagram>
+                """);
+
+        // Act
+        FundamentalDiagramDetails details = FundamentalDiagramLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("fd.csv", details.resultsFile);
+        assertEquals(100, details.transientSteps);
+        assertNull(details.seed);
+        assertEquals(List.of("idm", "nagel"), details.carFollowingModels);
+        assertTrue(details.laneChangingModels.isEmpty());
+        assertArrayEquals(new double[]{10.0, 20.0, 30.0, 40.0}, details.densities(), 1e-9);
+    }
+
+    /**
+     * test to verify that invalid range and wrong root return null
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path reversed = tempDir.resolve("reversed.xml");
+        Files.writeString(reversed, "<fundamentalDiagram><density><min>50</min><max>10</max></density>" +
+                "</fundamentalDiagram>");
+        Path wrongRoot = tempDir.resolve("root.xml");
+        Files.writeString(wrongRoot, "<sweep/>");
+
+        // Act & Assert
+        assertNull(FundamentalDiagramLoader.load(reversed.toString()));
+        assertNull(FundamentalDiagramLoader.load(wrongRoot.toString()));
+    }
+}
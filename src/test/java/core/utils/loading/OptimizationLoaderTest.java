@@ -0,0 +1,103 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.OptimizationDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for OptimizationLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class OptimizationLoaderTest {
+
+    /** temporary directory for optimization files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that settings, weights and ranges are loaded and missing values keep defaults
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadAllSettings() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("optimization.xml");
+        Files.writeString(file, """
+                <optimization>
+                    <outputMap>best.xml</outputMap>
+                    <workers>3</workers>
+                    <candidates>12</candidates>
+                    <seed>42</seed>
+                    <objective>
+                        <maxQueue>0.5</maxQueue>
+                        <carsPassed>0.01</carsPassed>
+                    </objective>
+                    <light>
+                        <road>1</road>
+                        <lane>0</lane>
+                        <cycle><min>40</min><max>90</max></cycle>
+                        <offset><min>0</min><max>30</max></offset>
+                    </light>
+                    <light>
+                        <road>2</road>
+                    </light>
+                </optimization>
+                """);
+
+        // Act
+        OptimizationDetails details = OptimizationLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("best.xml", details.outputMap);
+        assertEquals(3, details.workers);
+        assertEquals(12, details.candidates);
+        assertEquals(2, details.restarts, "Missing restarts should keep default");
+        assertEquals(42L, details.seed);
+        assertEquals(1.0, details.queueOnLastRedWeight);
+        assertEquals(0.5, details.maxQueueWeight);
+        assertEquals(0.01, details.carsPassedWeight);
+        assertEquals(2, details.lights.size());
+        OptimizationDetails.LightRange light = details.lights.get(0);
+        assertEquals(1, light.road);
+        assertEquals(0, light.lane);
+        assertEquals(40, light.minCycle);
+        assertEquals(90, light.maxCycle);
+        assertEquals(30, light.maxOffset);
+        assertEquals(-1, details.lights.get(1).lane, "Missing lane should mean all lanes");
+    }
+
+    /**
+     * test to verify that file with invalid range or without lights is rejected
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        Path invalidRange = tempDir.resolve("range.xml");
+        Files.writeString(invalidRange, "<optimization><light><cycle><min>90</min><max>40</max></cycle></light>" +
+                "</optimization>");
+        Path noLights = tempDir.resolve("empty.xml");
+        Files.writeString(noLights, "<optimization><workers>2</workers></optimization>");
+
+        assertNull(OptimizationLoader.load(invalidRange.toString()));
+        assertNull(OptimizationLoader.load(noLights.toString()));
+        assertNull(OptimizationLoader.load(tempDir.resolve("missing.xml").toString()));
+    }
+}
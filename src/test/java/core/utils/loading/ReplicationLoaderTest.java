@@ -0,0 +1,89 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.ReplicationDetails;
+import core.utils.RunDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for ReplicationLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class ReplicationLoaderTest {
+
+    /** temporary directory for replications files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that limits, precision and metrics are loaded and missing values keep defaults
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadLimitsAndMetrics() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("replications.xml");
+        Files.writeString(file, """
+                <replications>
+                    <batch>2</batch>
+                    <minReplications>4</minReplications>
+                    <maxReplications>10</maxReplications>
+                    <precision>0.1</precision>
+                    <seed>7</seed>
+                    <metrics><metric>maxQueue</metric><metric>carsPassed</metric></metrics>
+                </replications>
+                """);
+
+        // Act
+        ReplicationDetails details = ReplicationLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("replications.csv", details.resultsFile);
+        assertEquals(0, details.workers);
+        assertEquals(2, details.batchSize);
+        assertEquals(4, details.minReplications);
+        assertEquals(10, details.maxReplications);
+        assertEquals(0.1, details.relativePrecision, 1e-9);
+        assertEquals(7L, details.seed);
+        assertEquals(List.of("maxQueue", "carsPassed"), details.metrics);
+    }
+
+    /**
+     * test to verify that unknown metric, maximum below minimum and wrong root return null
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path unknownMetric = tempDir.resolve("metric.xml");
+        Files.writeString(unknownMetric, "<replications><metrics><metric>speed</metric></metrics></replications>");
+        Path reversed = tempDir.resolve("reversed.xml");
+        Files.writeString(reversed, "<replications><minReplications>5</minReplications>" +
+                "<maxReplications>3</maxReplications></replications>");
+        Path wrongRoot = tempDir.resolve("root.xml");
+        Files.writeString(wrongRoot, "<sweep/>");
+
+        // Act & Assert
+        assertNull(ReplicationLoader.load(unknownMetric.toString()));
+        assertNull(ReplicationLoader.load(reversed.toString()));
+        assertNull(ReplicationLoader.load(wrongRoot.toString()));
+    }
+}
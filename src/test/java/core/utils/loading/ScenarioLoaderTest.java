@@ -0,0 +1,97 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.RunDetails;
+import core.utils.ScenarioDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for ScenarioLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class ScenarioLoaderTest {
+
+    /** temporary directory for scenario files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that ranges and shares are loaded and missing values keep defaults
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadRangesAndShares() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("scenario.xml");
+        Files.writeString(file, """
+                <scenario>
+                    <outputMap>large.xml</outputMap>
+                    <seed>7</seed>
+                    <roads>20000</roads>
+                    <length><min>100</min><max>500</max></length>
+                    <lanes><min>2</min><max>4</max></lanes>
+                    <cycle><min>30</min><max>90</max></cycle>
+                    <lightShare>0.25</lightShare>
+                    <queueShare>0</queueShare>
+                </scenario>
+                """);
+
+        // Act
+        ScenarioDetails details = ScenarioLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("large.xml", details.outputMap);
+        assertEquals(7, details.seed);
+        assertEquals(20000, details.roads);
+        assertEquals(100, details.minLength, 1e-9);
+        assertEquals(500, details.maxLength, 1e-9);
+        assertEquals(2, details.minLanes);
+        assertEquals(4, details.maxLanes);
+        assertEquals(30, details.minCycle);
+        assertEquals(90, details.maxCycle);
+        assertEquals(0.25, details.lightShare, 1e-9);
+        assertEquals(0, details.queueShare, 1e-9);
+        assertEquals(14, details.minSpeedLimit, 1e-9);
+        assertEquals(0.7, details.maxSplit, 1e-9);
+    }
+
+    /**
+     * test to verify that inverted range, share above one, no roads and wrong root return null
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path inverted = tempDir.resolve("inverted.xml");
+        Files.writeString(inverted, "<scenario><lanes><min>3</min><max>1</max></lanes></scenario>");
+        Path share = tempDir.resolve("share.xml");
+        Files.writeString(share, "<scenario><lightShare>1.5</lightShare></scenario>");
+        Path noRoads = tempDir.resolve("roads.xml");
+        Files.writeString(noRoads, "<scenario><roads>0</roads></scenario>");
+        Path wrongRoot = tempDir.resolve("root.xml");
+        Files.writeString(wrongRoot, "<bench/>");
+
+        // Act & Assert
+        assertNull(ScenarioLoader.load(inverted.toString()));
+        assertNull(ScenarioLoader.load(share.toString()));
+        assertNull(ScenarioLoader.load(noRoads.toString()));
+        assertNull(ScenarioLoader.load(wrongRoot.toString()));
+    }
+}
@@ -0,0 +1,87 @@
+package core.utils.loading;
+
+import app.AppContext;
+import core.utils.RunDetails;
+import core.utils.SweepDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*************************
+ * Unit tests for SweepLoader class
+ *
+ * @author Michael Hladky
+ * @version 1.0
+ ************************/
+public class SweepLoaderTest {
+
+    /** temporary directory for sweep files **/
+    @TempDir
+    Path tempDir;
+
+    /**
+     * setup method to initialize run details needed for logging
+     **/
+    @BeforeEach
+    void setUp() {
+        AppContext.RUN_DETAILS = new RunDetails();
+        AppContext.RUN_DETAILS.log = new boolean[6];
+    }
+
+    /**
+     * test to verify that settings and values of dimensions are loaded and missing dimensions stay empty
+     **/
+    @Test
+    void load_ValidFile_ShouldLoadSettingsAndValues() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("sweep.xml");
+        Files.writeString(file, """
+                <sweep>
+                    <results>out.csv</results>
+                    <workers>3</workers>
+                    <carFollowingModels><model>idm</model><model>fvdm</model></carFollowingModels>
+                    <flowRates><value>0.2</value><value>0.5</value></flowRates>
+                    <lanes><value>2</value></lanes>
+                    <seeds><value>7</value></seeds>
+                </sweep>
+                """);
+
+        // Act
+        SweepDetails details = SweepLoader.load(file.toString());
+
+        // Assert
+        assertNotNull(details);
+        assertEquals("out.csv", details.resultsFile);
+        assertEquals(3, details.workers);
+        assertEquals(1, details.retries);
+        assertEquals(List.of("idm", "fvdm"), details.carFollowingModels);
+        assertTrue(details.laneChangingModels.isEmpty());
+        assertEquals(List.of(0.2, 0.5), details.flowRates);
+        assertEquals(List.of(2), details.lanes);
+        assertTrue(details.speedLimits.isEmpty());
+        assertEquals(List.of(7L), details.seeds);
+    }
+
+    /**
+     * test to verify that invalid values, wrong root and missing file return null
+     **/
+    @Test
+    void load_InvalidFile_ShouldReturnNull() throws Exception {
+        // Arrange
+        Path zeroLanes = tempDir.resolve("zero.xml");
+        Files.writeString(zeroLanes, "<sweep><lanes><value>0</value></lanes></sweep>");
+        Path wrongRoot = tempDir.resolve("root.xml");
+        Files.writeString(wrongRoot, "<optimization/>");
+
+        // Act & Assert
+        assertNull(SweepLoader.load(zeroLanes.toString()));
+        assertNull(SweepLoader.load(wrongRoot.toString()));
+        assertNull(SweepLoader.load(tempDir.resolve("missing.xml").toString()));
+    }
+}